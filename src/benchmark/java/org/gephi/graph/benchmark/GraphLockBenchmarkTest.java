@@ -0,0 +1,57 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.benchmark;
+
+import org.gephi.graph.benchmark.benchmarks.GraphLockBenchmark;
+import org.gephi.graph.benchmark.nanobench.NanoBench;
+import org.testng.annotations.Test;
+
+public class GraphLockBenchmarkTest {
+
+    private static final int[] THREADS = { 1, 2, 4, 8, 16 };
+
+    @Test
+    public void testReadNodes() {
+        for (int threads : THREADS) {
+            NanoBench.create().measurements(10)
+                    .measure("read nodes locked " + threads, new GraphLockBenchmark().readNodes(threads, false));
+            NanoBench.create().measurements(10)
+                    .measure("read nodes optimistic " + threads, new GraphLockBenchmark().readNodes(threads, true));
+        }
+    }
+
+    @Test
+    public void testReadEdges() {
+        for (int threads : THREADS) {
+            NanoBench.create().measurements(10)
+                    .measure("is adjacent locked " + threads, new GraphLockBenchmark().readEdges(threads, false));
+            NanoBench.create().measurements(10)
+                    .measure("is adjacent optimistic " + threads, new GraphLockBenchmark().readEdges(threads, true));
+        }
+    }
+
+    @Test
+    public void testReadNodesWithWriter() {
+        for (int threads : THREADS) {
+            NanoBench.create().measurements(10)
+                    .measure("read nodes with writer locked " + threads, new GraphLockBenchmark()
+                            .readNodesWithWriter(threads, false));
+            NanoBench.create().measurements(10)
+                    .measure("read nodes with writer optimistic " + threads, new GraphLockBenchmark()
+                            .readNodesWithWriter(threads, true));
+        }
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.benchmark.benchmarks;
+
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.gephi.graph.api.Configuration;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.impl.GraphStore;
+
+public class GraphLockBenchmark {
+
+    private final int READS = 100000;
+    private final int WRITES = 100;
+    private Object object;
+
+    public Runnable readNodes(final int threads, final boolean optimistic) {
+        final RandomGraph graph = generateGraph(optimistic);
+        final GraphStore store = graph.getStore();
+        final List<Node> nodes = graph.getNodes();
+        Runnable reader = () -> {
+            int size = nodes.size();
+            for (int i = 0; i < READS; i++) {
+                object = store.getNode(nodes.get(i % size).getId());
+            }
+        };
+        return runThreads(threads, reader, null);
+    }
+
+    public Runnable readEdges(final int threads, final boolean optimistic) {
+        final RandomGraph graph = generateGraph(optimistic);
+        final GraphStore store = graph.getStore();
+        final List<Edge> edges = graph.getEdges();
+        Runnable reader = () -> {
+            int size = edges.size();
+            boolean adjacent = false;
+            for (int i = 0; i < READS; i++) {
+                Edge edge = edges.get(i % size);
+                adjacent ^= store.isAdjacent(edge.getSource(), edge.getTarget());
+            }
+            object = adjacent;
+        };
+        return runThreads(threads, reader, null);
+    }
+
+    public Runnable readNodesWithWriter(final int threads, final boolean optimistic) {
+        final RandomGraph graph = generateGraph(optimistic);
+        final GraphStore store = graph.getStore();
+        final List<Node> nodes = graph.getNodes();
+        final Node[] extraNodes = new Node[WRITES];
+        for (int i = 0; i < WRITES; i++) {
+            extraNodes[i] = store.getModel().factory().newNode(-1 - i);
+        }
+        Runnable reader = () -> {
+            int size = nodes.size();
+            for (int i = 0; i < READS; i++) {
+                object = store.getNode(nodes.get(i % size).getId());
+            }
+        };
+        Runnable writer = () -> {
+            for (Node node : extraNodes) {
+                store.addNode(node);
+            }
+            for (Node node : extraNodes) {
+                store.removeNode(node);
+            }
+        };
+        return runThreads(threads, reader, writer);
+    }
+
+    private RandomGraph generateGraph(boolean optimistic) {
+        final Configuration config = new Configuration();
+        config.setEdgeIdType(Integer.class);
+        config.setNodeIdType(Integer.class);
+        RandomGraph graph = new RandomGraph(1000, 0.01, config).generate().commit();
+        graph.getStore().getModel().setOptimisticReadsEnabled(optimistic);
+        return graph;
+    }
+
+    private Runnable runThreads(final int readerThreads, final Runnable reader, final Runnable writer) {
+        return () -> {
+            Thread[] threads = new Thread[readerThreads + (writer != null ? 1 : 0)];
+            for (int i = 0; i < readerThreads; i++) {
+                threads[i] = new Thread(reader);
+            }
+            if (writer != null) {
+                threads[readerThreads] = new Thread(writer);
+            }
+            for (Thread thread : threads) {
+                thread.start();
+            }
+            for (Thread t : threads) {
+                try {
+                    t.join();
+                } catch (InterruptedException ex) {
+                    Logger.getLogger(GraphLockBenchmark.class.getName()).log(Level.SEVERE, null, ex);
+                }
+            }
+        };
+    }
+}
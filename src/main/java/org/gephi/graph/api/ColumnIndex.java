@@ -46,6 +46,120 @@ public interface ColumnIndex<K, T extends Element> extends Iterable<Map.Entry<K,
      */
     Iterable<T> get(K value);
 
+    /**
+     * Counts the elements with a value between <em>low</em> and <em>high</em>.
+     * <p>
+     * A <code>null</code> bound means the range is unbounded on that side. Elements
+     * with a <code>null</code> value are never counted. Only applies for sortable
+     * indices.
+     *
+     * @param low the lower bound, or null
+     * @param lowInclusive true if the lower bound is included
+     * @param high the upper bound, or null
+     * @param highInclusive true if the upper bound is included
+     * @return the number of elements in the range
+     * @throws UnsupportedOperationException if the index isn't sortable
+     */
+    int count(K low, boolean lowInclusive, K high, boolean highInclusive);
+
+    /**
+     * Gets an Iterable of all elements with a value between <em>low</em> and
+     * <em>high</em>, in ascending value order.
+     * <p>
+     * A <code>null</code> bound means the range is unbounded on that side. Elements
+     * with a <code>null</code> value are never returned. Only applies for sortable
+     * indices.
+     *
+     * @param low the lower bound, or null
+     * @param lowInclusive true if the lower bound is included
+     * @param high the upper bound, or null
+     * @param highInclusive true if the upper bound is included
+     * @return an iterable with elements in the range
+     * @throws UnsupportedOperationException if the index isn't sortable
+     */
+    Iterable<T> get(K low, boolean lowInclusive, K high, boolean highInclusive);
+
+    /**
+     * Gets an Iterable of all elements ordered by value.
+     * <p>
+     * Elements with a <code>null</code> value are not returned. Only applies for
+     * sortable indices.
+     *
+     * @param ascending true for ascending order, false for descending
+     * @return an iterable with all elements ordered by value
+     * @throws UnsupportedOperationException if the index isn't sortable
+     */
+    Iterable<T> getSorted(boolean ascending);
+
+    /**
+     * Gets an Iterable of all elements with a value starting with <em>prefix</em>,
+     * ignoring case.
+     * <p>
+     * Only applies for string columns.
+     *
+     * @param prefix the prefix
+     * @return an iterable with all elements whose value starts with the prefix
+     * @throws UnsupportedOperationException if the column isn't a string column
+     */
+    Iterable<T> getByPrefix(String prefix);
+
+    /**
+     * Gets an Iterable of all elements with a value containing <em>text</em>,
+     * ignoring case.
+     * <p>
+     * Only applies for string columns.
+     *
+     * @param text the text to search
+     * @return an iterable with all elements whose value contains the text
+     * @throws UnsupportedOperationException if the column isn't a string column
+     */
+    Iterable<T> getBySubstring(String text);
+
+    /**
+     * Gets an Iterable of all elements whose array value contains at least one of
+     * <em>values</em>.
+     * <p>
+     * Only applies for array columns. The values are compared to the array
+     * components, boxed for primitive arrays.
+     *
+     * @param values the array components to look for
+     * @return an iterable with all elements containing any of the values
+     * @throws UnsupportedOperationException if the column isn't an array column
+     */
+    Iterable<T> getContainingAny(Collection<?> values);
+
+    /**
+     * Gets an Iterable of all elements whose array value contains all of
+     * <em>values</em>.
+     * <p>
+     * Only applies for array columns. The values are compared to the array
+     * components, boxed for primitive arrays.
+     *
+     * @param values the array components to look for
+     * @return an iterable with all elements containing all of the values
+     * @throws UnsupportedOperationException if the column isn't an array column
+     */
+    Iterable<T> getContainingAll(Collection<?> values);
+
+    /**
+     * Counts the elements whose array value contains at least one of
+     * <em>values</em>.
+     *
+     * @param values the array components to look for
+     * @return the number of elements containing any of the values
+     * @throws UnsupportedOperationException if the column isn't an array column
+     */
+    int countContainingAny(Collection<?> values);
+
+    /**
+     * Counts the elements whose array value contains all of <em>values</em>.
+     *
+     * @param values the array components to look for
+     * @return the number of elements containing all of the values
+     * @throws UnsupportedOperationException if the column isn't an array column
+     */
+    int countContainingAll(Collection<?> values);
+
     /**
      * Returns all unique values.
      *
@@ -93,6 +207,44 @@ public interface ColumnIndex<K, T extends Element> extends Iterable<Map.Entry<K,
      */
     Number getMaxValue();
 
+    /**
+     * Returns the <em>k</em> most frequent values with their number of elements,
+     * ordered by decreasing count.
+     * <p>
+     * Elements with a <code>null</code> value are not counted.
+     *
+     * @param k the maximum number of values to return
+     * @return a map from value to element count, iterated by decreasing count
+     * @throws IllegalArgumentException if <em>k</em> is negative
+     */
+    Map<K, Integer> getTopValues(int k);
+
+    /**
+     * Returns the value at the given quantile, using the nearest-rank method.
+     * <p>
+     * For instance, <code>getQuantile(0.5)</code> returns the median and
+     * <code>getQuantile(0.9)</code> the ninth decile. Elements with a
+     * <code>null</code> value are not counted. Only applies for sortable indices.
+     *
+     * @param q the quantile, between 0 and 1
+     * @return the value at the quantile, or null if there are no values
+     * @throws IllegalArgumentException if <em>q</em> is not between 0 and 1
+     */
+    Number getQuantile(double q);
+
+    /**
+     * Returns the number of elements in each of <em>buckets</em> equal-width
+     * intervals between the minimum and the maximum value.
+     * <p>
+     * The last interval includes the maximum value. Elements with a
+     * <code>null</code> value are not counted. Only applies for sortable indices.
+     *
+     * @param buckets the number of intervals
+     * @return the element count of each interval
+     * @throws IllegalArgumentException if <em>buckets</em> isn't positive
+     */
+    int[] getHistogram(int buckets);
+
     /**
      * Returns the column for which this column index belongs to.
      *
@@ -42,6 +42,11 @@ public class Configuration {
     private Class edgeWeightType;
     private TimeRepresentation timeRepresentation;
     private Boolean edgeWeightColumn;
+    private Boolean indexBitmaps;
+    private Boolean indexText;
+    private Integer indexQueryThreshold;
+    private Boolean sharedViewIndexes;
+    private Boolean indexArrayElements;
 
     /**
      * Default constructor.
@@ -53,6 +58,11 @@ public class Configuration {
         edgeWeightType = GraphStoreConfiguration.DEFAULT_EDGE_WEIGHT_TYPE;
         timeRepresentation = GraphStoreConfiguration.DEFAULT_TIME_REPRESENTATION;
         edgeWeightColumn = true;
+        indexBitmaps = false;
+        indexText = false;
+        indexQueryThreshold = 0;
+        sharedViewIndexes = false;
+        indexArrayElements = false;
     }
 
     /**
@@ -188,6 +198,122 @@ public class Configuration {
         this.edgeWeightColumn = edgeWeightColumn;
     }
 
+    /**
+     * Returns whether column indexes store elements in compressed bitmaps.
+     *
+     * @return index bitmaps
+     */
+    public Boolean getIndexBitmaps() {
+        return indexBitmaps;
+    }
+
+    /**
+     * Sets whether column indexes store elements in compressed bitmaps.
+     * <p>
+     * Bitmaps keep the store ids of the elements associated with each value, which
+     * is more compact than hash sets for columns with few distinct values over many
+     * elements.
+     *
+     * @param indexBitmaps index bitmaps
+     */
+    public void setIndexBitmaps(Boolean indexBitmaps) {
+        this.indexBitmaps = indexBitmaps;
+    }
+
+    /**
+     * Returns whether string columns and labels are indexed for text search.
+     *
+     * @return index text
+     */
+    public Boolean getIndexText() {
+        return indexText;
+    }
+
+    /**
+     * Sets whether string columns and labels are indexed for text search.
+     * <p>
+     * When enabled, the node and edge labels are indexed and the indexes of string
+     * columns also answer case-insensitive prefix and substring lookups, at the
+     * cost of a sorted copy of the distinct values and a trigram table.
+     *
+     * @param indexText index text
+     */
+    public void setIndexText(Boolean indexText) {
+        this.indexText = indexText;
+    }
+
+    /**
+     * Returns the number of queries a column receives before its index is built.
+     *
+     * @return index query threshold
+     */
+    public Integer getIndexQueryThreshold() {
+        return indexQueryThreshold;
+    }
+
+    /**
+     * Sets the number of queries a column receives before its index is built.
+     * <p>
+     * By default this value is zero and indexed columns are indexed as soon as they
+     * are added or a view index is created. With a positive value, the index of a
+     * column is deferred: queries are answered by scanning the elements until the
+     * threshold is reached, at which point the index is built in one pass. This
+     * makes adding indexed columns to large tables cheap when they are rarely
+     * queried.
+     *
+     * @param indexQueryThreshold index query threshold
+     */
+    public void setIndexQueryThreshold(Integer indexQueryThreshold) {
+        this.indexQueryThreshold = indexQueryThreshold;
+    }
+
+    /**
+     * Returns whether view indexes are answered from the main index.
+     *
+     * @return shared view indexes
+     */
+    public Boolean getSharedViewIndexes() {
+        return sharedViewIndexes;
+    }
+
+    /**
+     * Sets whether view indexes are answered from the main index.
+     * <p>
+     * By default, each view queried through its index gets a copy of the column
+     * indexes which is updated on every change. When enabled, view indexes instead
+     * filter the elements of the main index with the view at query time, which
+     * saves memory and speeds up updates when many views are in use, at the cost of
+     * slower view queries.
+     *
+     * @param sharedViewIndexes shared view indexes
+     */
+    public void setSharedViewIndexes(Boolean sharedViewIndexes) {
+        this.sharedViewIndexes = sharedViewIndexes;
+    }
+
+    /**
+     * Returns whether array columns are indexed by array element.
+     *
+     * @return index array elements
+     */
+    public Boolean getIndexArrayElements() {
+        return indexArrayElements;
+    }
+
+    /**
+     * Sets whether array columns are indexed by array element.
+     * <p>
+     * When enabled, the indexes of array columns also map each array component to
+     * the elements containing it, so that "contains any" and "contains all" lookups
+     * don't scan all values. The mapping is updated with the difference between the
+     * old and new arrays when a value is replaced.
+     *
+     * @param indexArrayElements index array elements
+     */
+    public void setIndexArrayElements(Boolean indexArrayElements) {
+        this.indexArrayElements = indexArrayElements;
+    }
+
     /**
      * Copy this configuration.
      *
@@ -201,6 +327,11 @@ public class Configuration {
         copy.edgeWeightType = edgeWeightType;
         copy.timeRepresentation = timeRepresentation;
         copy.edgeWeightColumn = edgeWeightColumn;
+        copy.indexBitmaps = indexBitmaps;
+        copy.indexText = indexText;
+        copy.indexQueryThreshold = indexQueryThreshold;
+        copy.sharedViewIndexes = sharedViewIndexes;
+        copy.indexArrayElements = indexArrayElements;
         return copy;
     }
 
@@ -213,6 +344,11 @@ public class Configuration {
         hash = 19 * hash + (this.edgeWeightType != null ? this.edgeWeightType.hashCode() : 0);
         hash = 19 * hash + (this.timeRepresentation != null ? this.timeRepresentation.hashCode() : 0);
         hash = 19 * hash + (this.edgeWeightColumn != null ? this.edgeWeightColumn.hashCode() : 0);
+        hash = 19 * hash + (this.indexBitmaps != null ? this.indexBitmaps.hashCode() : 0);
+        hash = 19 * hash + (this.indexText != null ? this.indexText.hashCode() : 0);
+        hash = 19 * hash + (this.indexQueryThreshold != null ? this.indexQueryThreshold.hashCode() : 0);
+        hash = 19 * hash + (this.sharedViewIndexes != null ? this.sharedViewIndexes.hashCode() : 0);
+        hash = 19 * hash + (this.indexArrayElements != null ? this.indexArrayElements.hashCode() : 0);
         return hash;
     }
 
@@ -252,6 +388,25 @@ public class Configuration {
                 .equals(other.edgeWeightColumn))) {
             return false;
         }
+        if (this.indexBitmaps != other.indexBitmaps && (this.indexBitmaps == null || !this.indexBitmaps
+                .equals(other.indexBitmaps))) {
+            return false;
+        }
+        if (this.indexText != other.indexText && (this.indexText == null || !this.indexText.equals(other.indexText))) {
+            return false;
+        }
+        if (this.indexQueryThreshold != other.indexQueryThreshold && (this.indexQueryThreshold == null || !this.indexQueryThreshold
+                .equals(other.indexQueryThreshold))) {
+            return false;
+        }
+        if (this.sharedViewIndexes != other.sharedViewIndexes && (this.sharedViewIndexes == null || !this.sharedViewIndexes
+                .equals(other.sharedViewIndexes))) {
+            return false;
+        }
+        if (this.indexArrayElements != other.indexArrayElements && (this.indexArrayElements == null || !this.indexArrayElements
+                .equals(other.indexArrayElements))) {
+            return false;
+        }
         return true;
     }
 }
@@ -15,6 +15,8 @@
  */
 package org.gephi.graph.api;
 
+import java.util.function.IntConsumer;
+
 /**
  * Directed graph.
  * <p>
@@ -108,6 +110,48 @@ public interface DirectedGraph extends Graph {
      */
     public NodeIterable getSuccessors(Node node, int type);
 
+    /**
+     * Calls the consumer with the store id of each of the node's predecessors.
+     * <p>
+     * The consumer is called while holding the read lock and shouldn't modify the
+     * graph.
+     *
+     * @param node the node to get predecessors
+     * @param consumer the consumer of predecessor store ids
+     */
+    public void forEachPredecessor(Node node, IntConsumer consumer);
+
+    /**
+     * Calls the consumer with the store id of each of the node's predecessors
+     * through a specific edge type.
+     *
+     * @param node the node to get predecessors
+     * @param type the edge type
+     * @param consumer the consumer of predecessor store ids
+     */
+    public void forEachPredecessor(Node node, int type, IntConsumer consumer);
+
+    /**
+     * Calls the consumer with the store id of each of the node's successors.
+     * <p>
+     * The consumer is called while holding the read lock and shouldn't modify the
+     * graph.
+     *
+     * @param node the node to get successors
+     * @param consumer the consumer of successor store ids
+     */
+    public void forEachSuccessor(Node node, IntConsumer consumer);
+
+    /**
+     * Calls the consumer with the store id of each of the node's successors through
+     * a specific edge type.
+     *
+     * @param node the node to get successors
+     * @param type the edge type
+     * @param consumer the consumer of successor store ids
+     */
+    public void forEachSuccessor(Node node, int type, IntConsumer consumer);
+
     /**
      * Gets the node's incoming edges.
      *
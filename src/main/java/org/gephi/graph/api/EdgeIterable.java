@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * An edge iterable.
@@ -63,6 +64,14 @@ public interface EdgeIterable extends ElementIterable<Edge> {
     @Override
     public Set<Edge> toSet();
 
+    /**
+     * Returns a parallel stream over the edges.
+     *
+     * @return parallel edge stream
+     */
+    @Override
+    public Stream<Edge> parallelStream();
+
     /**
      * Empty edge iterable.
      */
@@ -103,6 +112,11 @@ public interface EdgeIterable extends ElementIterable<Edge> {
             return Collections.EMPTY_SET;
         }
 
+        @Override
+        public Stream<Edge> parallelStream() {
+            return Stream.empty();
+        }
+
         @Override
         public void doBreak() {
         }
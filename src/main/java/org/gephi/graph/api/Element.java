@@ -53,6 +53,66 @@ public interface Element extends ElementProperties {
      */
     public Object getAttribute(Column column);
 
+    /**
+     * Gets the double attribute for the given column.
+     * <p>
+     * Returns 0 if the value is null. Primitive columns are stored without boxing,
+     * so this is cheaper than {@link #getAttribute(Column)}.
+     *
+     * @param column column
+     * @return attribute value
+     * @throws IllegalArgumentException if the column type isn't Double
+     */
+    public double getDouble(Column column);
+
+    /**
+     * Gets the float attribute for the given column.
+     * <p>
+     * Returns 0 if the value is null. Primitive columns are stored without boxing,
+     * so this is cheaper than {@link #getAttribute(Column)}.
+     *
+     * @param column column
+     * @return attribute value
+     * @throws IllegalArgumentException if the column type isn't Float
+     */
+    public float getFloat(Column column);
+
+    /**
+     * Gets the integer attribute for the given column.
+     * <p>
+     * Returns 0 if the value is null. Primitive columns are stored without boxing,
+     * so this is cheaper than {@link #getAttribute(Column)}.
+     *
+     * @param column column
+     * @return attribute value
+     * @throws IllegalArgumentException if the column type isn't Integer
+     */
+    public int getInt(Column column);
+
+    /**
+     * Gets the long attribute for the given column.
+     * <p>
+     * Returns 0 if the value is null. Primitive columns are stored without boxing,
+     * so this is cheaper than {@link #getAttribute(Column)}.
+     *
+     * @param column column
+     * @return attribute value
+     * @throws IllegalArgumentException if the column type isn't Long
+     */
+    public long getLong(Column column);
+
+    /**
+     * Gets the boolean attribute for the given column.
+     * <p>
+     * Returns false if the value is null. Primitive columns are stored without
+     * boxing, so this is cheaper than {@link #getAttribute(Column)}.
+     *
+     * @param column column
+     * @return attribute value
+     * @throws IllegalArgumentException if the column type isn't Boolean
+     */
+    public boolean getBoolean(Column column);
+
     /**
      * Gets the attribute for the given key and timestamp.
      *
@@ -221,6 +281,51 @@ public interface Element extends ElementProperties {
      */
     public void setAttribute(Column column, Object value);
 
+    /**
+     * Sets the double attribute for the given column.
+     *
+     * @param column column
+     * @param value value to set
+     * @throws IllegalArgumentException if the column type isn't Double
+     */
+    public void setDouble(Column column, double value);
+
+    /**
+     * Sets the float attribute for the given column.
+     *
+     * @param column column
+     * @param value value to set
+     * @throws IllegalArgumentException if the column type isn't Float
+     */
+    public void setFloat(Column column, float value);
+
+    /**
+     * Sets the integer attribute for the given column.
+     *
+     * @param column column
+     * @param value value to set
+     * @throws IllegalArgumentException if the column type isn't Integer
+     */
+    public void setInt(Column column, int value);
+
+    /**
+     * Sets the long attribute for the given column.
+     *
+     * @param column column
+     * @param value value to set
+     * @throws IllegalArgumentException if the column type isn't Long
+     */
+    public void setLong(Column column, long value);
+
+    /**
+     * Sets the boolean attribute for the given column.
+     *
+     * @param column column
+     * @param value value to set
+     * @throws IllegalArgumentException if the column type isn't Boolean
+     */
+    public void setBoolean(Column column, boolean value);
+
     /**
      * Sets the attribute at the given key and timestamp.
      *
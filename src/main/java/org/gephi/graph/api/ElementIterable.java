@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * Element iterable.
@@ -62,6 +63,21 @@ public interface ElementIterable<T extends Element> extends Iterable<T> {
      */
     public Set<T> toSet();
 
+    /**
+     * Returns a parallel stream over the elements.
+     * <p>
+     * The stream is split into chunks processed by different threads, each chunk
+     * being traversed while holding the graph's read lock. If the current thread
+     * holds a read or write lock when this method is called, chunks are instead
+     * traversed under that lock, which must then be held until the stream is
+     * consumed or an <code>IllegalMonitorStateException</code> is thrown. When the
+     * iterable was obtained from a graph, calling this method replaces the
+     * iteration and releases the read lock acquired by the iterator.
+     *
+     * @return parallel element stream
+     */
+    public Stream<T> parallelStream();
+
     /**
      * Break the iterator and release read lock (if any).
      */
@@ -107,6 +123,11 @@ public interface ElementIterable<T extends Element> extends Iterable<T> {
             return Collections.EMPTY_SET;
         }
 
+        @Override
+        public Stream<Element> parallelStream() {
+            return Stream.empty();
+        }
+
         @Override
         public void doBreak() {
         }
@@ -17,6 +17,7 @@ package org.gephi.graph.api;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.function.IntConsumer;
 
 /**
  * Graph interface.
@@ -229,6 +230,31 @@ public interface Graph {
      */
     public NodeIterable getNeighbors(Node node, int type);
 
+    /**
+     * Calls the consumer with the store id of each neighbor of a given node.
+     * <p>
+     * Contrary to {@link #getNeighbors(org.gephi.graph.api.Node)}, no iterator or
+     * node object is created which makes it suited for traversal loops. The
+     * consumer is called while holding the read lock and shouldn't modify the
+     * graph.
+     *
+     * @param node the node to get neighbors
+     * @param consumer the consumer of neighbor store ids
+     */
+    public void forEachNeighbor(Node node, IntConsumer consumer);
+
+    /**
+     * Calls the consumer with the store id of each neighbor of a given node
+     * connected through the given edge type.
+     *
+     * @param node the node to get neighbors
+     * @param type the edge type
+     * @param consumer the consumer of neighbor store ids
+     * @see #forEachNeighbor(org.gephi.graph.api.Node,
+     *      java.util.function.IntConsumer)
+     */
+    public void forEachNeighbor(Node node, int type, IntConsumer consumer);
+
     /**
      * Gets all edges incident to a given node.
      *
@@ -0,0 +1,126 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.api;
+
+import java.util.Collection;
+
+/**
+ * Loader to add large batches of nodes and edges to the graph at once.
+ * <p>
+ * Nodes and edges are buffered until {@link #commit()} is called. The commit
+ * then adds all of them under a single write lock: the stores and dictionaries
+ * are sized once, mutual edges are detected after all edges are linked, column
+ * and time indexes are updated in one pass and the graph version is incremented
+ * only once. Observers therefore see a single change.
+ * <p>
+ * Edges may refer to nodes added in the same batch. Elements should be created
+ * with this graph model's factory.
+ * <p>
+ * The loader can be reused after a commit.
+ * <p>
+ * Loaders may commit from several threads at the same time. Commits waiting for
+ * the write lock are added as a group: batches are checked concurrently, then
+ * their edges are added by concurrent tasks, each to its own store slots, with
+ * dictionaries and node adjacency guarded by lock stripes. Nodes are added
+ * batch by batch. The write lock is held for the whole group so readers never
+ * see a partially added batch, and each batch increments the graph version
+ * once. Concurrent batches that conflict, for instance with the same edge id,
+ * may all be rejected.
+ * <p>
+ * When the parallelism is greater than one, large edge batches are also added
+ * by concurrent tasks. In both cases the order of edges within a node's
+ * adjacency is unspecified.
+ *
+ * @see GraphModel#createBulkLoader()
+ */
+public interface GraphBulkLoader {
+
+    /**
+     * Adds a node to the batch.
+     *
+     * @param node the node to add
+     * @return this loader
+     */
+    public GraphBulkLoader addNode(Node node);
+
+    /**
+     * Adds nodes to the batch.
+     *
+     * @param nodes the nodes to add
+     * @return this loader
+     */
+    public GraphBulkLoader addNodes(Collection<? extends Node> nodes);
+
+    /**
+     * Adds an edge to the batch.
+     *
+     * @param edge the edge to add
+     * @return this loader
+     */
+    public GraphBulkLoader addEdge(Edge edge);
+
+    /**
+     * Adds edges to the batch.
+     *
+     * @param edges the edges to add
+     * @return this loader
+     */
+    public GraphBulkLoader addEdges(Collection<? extends Edge> edges);
+
+    /**
+     * Returns the number of nodes waiting to be committed.
+     *
+     * @return pending node count
+     */
+    public int getNodeCount();
+
+    /**
+     * Returns the number of edges waiting to be committed.
+     *
+     * @return pending edge count
+     */
+    public int getEdgeCount();
+
+    /**
+     * Sets the number of tasks used to add edges during the commit.
+     * <p>
+     * Default is <code>1</code>, which commits from the calling thread only.
+     *
+     * @param parallelism number of tasks
+     * @return this loader
+     * @throws IllegalArgumentException if the parallelism is lower than one
+     */
+    public GraphBulkLoader setParallelism(int parallelism);
+
+    /**
+     * Returns the number of tasks used to add edges during the commit.
+     *
+     * @return parallelism
+     */
+    public int getParallelism();
+
+    /**
+     * Adds all pending nodes and edges to the graph and clears the batch.
+     * <p>
+     * The whole batch is validated before the graph is modified. If it is rejected,
+     * the graph is left unchanged and the batch is discarded.
+     *
+     * @return true if the graph has changed, false otherwise
+     * @throws IllegalArgumentException if an element id already exists or if an
+     *         element belongs to another store
+     */
+    public boolean commit();
+}
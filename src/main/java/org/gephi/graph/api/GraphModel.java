@@ -481,6 +481,9 @@ public interface GraphModel {
 
     /**
      * Creates a new graph view based on an existing view.
+     * <p>
+     * The copy shares the node and edge membership of the original until either
+     * view is modified, so branching many views from a large view is cheap.
      *
      * @param view view to copy
      * @return newly created graph view
@@ -500,6 +503,35 @@ public interface GraphModel {
      */
     public GraphView copyView(GraphView view, boolean node, boolean edge);
 
+    /**
+     * Creates a new graph view combining the given views with a set operation.
+     * <p>
+     * The given views remain unchanged. The new view filters nodes and edges like
+     * the first view, the main view being treated as a view containing all
+     * elements.
+     *
+     * @param operation set operation
+     * @param views views to combine, at least one
+     * @return newly created graph view
+     * @throws IllegalArgumentException if no view is given
+     */
+    public GraphView combineViews(ViewOperation operation, GraphView... views);
+
+    /**
+     * Creates a new time-sliced graph view.
+     * <p>
+     * The nodes and edges of a time-sliced view are the ones whose time set
+     * overlaps the view's time interval. Elements without time set are always
+     * included and edges also need both their nodes in the view. Moving the
+     * interval with {@link #setTimeInterval(GraphView, Interval)} updates the
+     * membership by only visiting the elements whose timestamps or intervals enter
+     * or leave the window.
+     *
+     * @param interval initial time interval
+     * @return newly created graph view
+     */
+    public GraphView createTimeSlicedView(Interval interval);
+
     /**
      * Destroys the given view.
      *
@@ -517,6 +549,70 @@ public interface GraphModel {
      */
     public void setTimeInterval(GraphView view, Interval interval);
 
+    /**
+     * Creates an immutable snapshot of the main graph structure.
+     *
+     * @return newly created graph snapshot
+     * @see GraphSnapshot
+     */
+    public GraphSnapshot createSnapshot();
+
+    /**
+     * Creates an immutable snapshot of the given view's structure.
+     * <p>
+     * The snapshot stores the adjacency in dense primitive arrays and records the
+     * version it was built from.
+     *
+     * @param view the view to snapshot
+     * @return newly created graph snapshot
+     * @see GraphSnapshot
+     */
+    public GraphSnapshot createSnapshot(GraphView view);
+
+    /**
+     * Returns the weights of the edges in the given view.
+     * <p>
+     * The array is indexed by edge store id (see {@link Edge#getStoreId()}) and has
+     * a length equal to the maximum edge store id. Positions of edges not in the
+     * view are set to zero. Dynamic weights are estimated over the view's time
+     * interval, like {@link Edge#getWeight(GraphView)}.
+     *
+     * @param view the view to get the weights from
+     * @return edge weights indexed by store id
+     */
+    public double[] getEdgeWeights(GraphView view);
+
+    /**
+     * Creates a loader to add large batches of nodes and edges at once.
+     *
+     * @return newly created bulk loader
+     * @see GraphBulkLoader
+     */
+    public GraphBulkLoader createBulkLoader();
+
+    /**
+     * Compacts the node and edge stores.
+     * <p>
+     * Removing elements leaves free slots in the stores. Compacting moves the last
+     * elements into these slots and releases the memory left unused. As a result,
+     * the store ids of the moved elements change and snapshots built before become
+     * stale.
+     */
+    public void compact();
+
+    /**
+     * Compacts the node and edge stores by moving at most <code>maxMoves</code>
+     * elements.
+     * <p>
+     * This method can be called repeatedly to compact a large graph in small
+     * increments, releasing the write lock in between.
+     *
+     * @param maxMoves maximum number of nodes and edges to move
+     * @return true if the stores are compact, false if more calls are needed
+     * @see #compact()
+     */
+    public boolean compact(int maxMoves);
+
     /**
      * Returns the <b>node</b> table. Contains all the columns associated to node
      * elements.
@@ -586,6 +682,40 @@ public interface GraphModel {
      */
     public Index<Element> getElementIndex(Table table, GraphView view);
 
+    /**
+     * Creates a query over the nodes of the main view.
+     *
+     * @return newly created node query
+     * @see Query
+     */
+    public Query<Node> createNodeQuery();
+
+    /**
+     * Creates a query over the nodes of the given view.
+     *
+     * @param view the view to query
+     * @return newly created node query
+     * @see Query
+     */
+    public Query<Node> createNodeQuery(GraphView view);
+
+    /**
+     * Creates a query over the edges of the main view.
+     *
+     * @return newly created edge query
+     * @see Query
+     */
+    public Query<Edge> createEdgeQuery();
+
+    /**
+     * Creates a query over the edges of the given view.
+     *
+     * @param view the view to query
+     * @return newly created edge query
+     * @see Query
+     */
+    public Query<Edge> createEdgeQuery(GraphView view);
+
     /**
      * Gets the node time index.
      *
@@ -664,6 +794,56 @@ public interface GraphModel {
      */
     public SpatialIndex getSpatialIndex();
 
+    /**
+     * Enables or disables the node layout arrays.
+     * <p>
+     * When enabled, node positions, sizes, colors and fixed flags are stored in
+     * primitive arrays owned by the node store instead of in each node.
+     *
+     * @param enabled true to enable, false to disable
+     * @see #getNodeLayoutArrays()
+     */
+    public void setNodeLayoutArraysEnabled(boolean enabled);
+
+    /**
+     * Returns true if the node layout arrays are enabled.
+     *
+     * @return true if enabled, false otherwise
+     */
+    public boolean isNodeLayoutArraysEnabled();
+
+    /**
+     * Returns the node layout arrays.
+     *
+     * @return node layout arrays
+     * @throws IllegalStateException if the node layout arrays aren't enabled
+     * @see #setNodeLayoutArraysEnabled(boolean)
+     */
+    public NodeLayoutArrays getNodeLayoutArrays();
+
+    /**
+     * Enables or disables optimistic reads.
+     * <p>
+     * When enabled, short read operations such as {@link Graph#getNode(Object)},
+     * {@link Graph#contains(Node)} or {@link Graph#isAdjacent(Node, Node)} don't
+     * acquire the read lock. They read the structure without locking and check
+     * afterwards that no write happened in the meantime, in which case they're
+     * retried with the read lock. Iterations always acquire the read lock.
+     * <p>
+     * This reduces contention when many threads read the graph concurrently.
+     * Optimistic reads are disabled by default.
+     *
+     * @param enabled true to enable, false to disable
+     */
+    public void setOptimisticReadsEnabled(boolean enabled);
+
+    /**
+     * Returns true if optimistic reads are enabled.
+     *
+     * @return true if enabled, false otherwise
+     */
+    public boolean isOptimisticReadsEnabled();
+
     /**
      * Returns the time format used to display time.
      *
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.api;
+
+/**
+ * Immutable compressed-sparse-row (CSR) copy of a graph's structure.
+ * <p>
+ * A snapshot is built once from a graph view and then gives sequential access
+ * to the adjacency of every node through dense primitive arrays. It is meant
+ * for read-heavy algorithms (e.g. PageRank, BFS) that iterate over the full
+ * graph many times and would otherwise follow the per-node edge lists of the
+ * store.
+ * <p>
+ * All arrays are indexed by store identifiers (see {@link Node#getStoreId()}
+ * and {@link Edge#getStoreId()}). The out-neighbors of the node with store id
+ * <code>n</code> are found at positions <code>getOutOffsets()[n]</code>
+ * (inclusive) to <code>getOutOffsets()[n + 1]</code> (exclusive) of the
+ * {@link #getOutNeighbors()}, {@link #getOutEdges()} and
+ * {@link #getOutWeights()} arrays. The in-neighbors are organized the same way.
+ * <p>
+ * Undirected edges appear in the out-adjacency of their source and in the
+ * in-adjacency of their target, as returned by
+ * {@link Graph#getEdges(org.gephi.graph.api.Node)}.
+ * <p>
+ * The returned arrays are shared and should not be modified. A snapshot doesn't
+ * follow changes made to the graph after its creation, use {@link #isStale()}
+ * to know whether it should be rebuilt.
+ *
+ * @see GraphModel#createSnapshot(GraphView)
+ */
+public interface GraphSnapshot {
+
+    /**
+     * Returns the view this snapshot has been built from.
+     *
+     * @return graph view
+     */
+    public GraphView getView();
+
+    /**
+     * Returns the graph version this snapshot has been built from.
+     * <p>
+     * The value can be compared with {@link Graph#getVersion()}.
+     *
+     * @return graph version at the time of creation
+     */
+    public int getVersion();
+
+    /**
+     * Returns true if the graph structure has changed since this snapshot was
+     * created.
+     * <p>
+     * Only structural changes (nodes and edges added or removed) are tracked.
+     * Changes to edge weights aren't reflected.
+     *
+     * @return true if stale, false otherwise
+     */
+    public boolean isStale();
+
+    /**
+     * Returns the number of nodes in this snapshot.
+     *
+     * @return node count
+     */
+    public int getNodeCount();
+
+    /**
+     * Returns the number of edges in this snapshot.
+     *
+     * @return edge count
+     */
+    public int getEdgeCount();
+
+    /**
+     * Returns the maximum node store id in this snapshot, exclusive.
+     * <p>
+     * The offset arrays have a length of this value plus one.
+     *
+     * @return maximum node store id
+     */
+    public int getMaxNodeStoreId();
+
+    /**
+     * Returns the store ids of the nodes in this snapshot, in ascending order.
+     *
+     * @return node store ids
+     */
+    public int[] getNodes();
+
+    /**
+     * Returns the offsets into the out-adjacency arrays, indexed by node store id.
+     *
+     * @return out offsets
+     */
+    public int[] getOutOffsets();
+
+    /**
+     * Returns the store ids of the out-neighbors.
+     *
+     * @return out neighbors
+     */
+    public int[] getOutNeighbors();
+
+    /**
+     * Returns the store ids of the out-edges, parallel to
+     * {@link #getOutNeighbors()}.
+     *
+     * @return out edges
+     */
+    public int[] getOutEdges();
+
+    /**
+     * Returns the weights of the out-edges, parallel to {@link #getOutNeighbors()}.
+     *
+     * @return out weights
+     */
+    public double[] getOutWeights();
+
+    /**
+     * Returns the offsets into the in-adjacency arrays, indexed by node store id.
+     *
+     * @return in offsets
+     */
+    public int[] getInOffsets();
+
+    /**
+     * Returns the store ids of the in-neighbors.
+     *
+     * @return in neighbors
+     */
+    public int[] getInNeighbors();
+
+    /**
+     * Returns the store ids of the in-edges, parallel to {@link #getInNeighbors()}.
+     *
+     * @return in edges
+     */
+    public int[] getInEdges();
+
+    /**
+     * Returns the weights of the in-edges, parallel to {@link #getInNeighbors()}.
+     *
+     * @return in weights
+     */
+    public double[] getInWeights();
+
+    /**
+     * Returns the out-degree of the given node.
+     *
+     * @param nodeStoreId node store id
+     * @return out-degree
+     */
+    public int getOutDegree(int nodeStoreId);
+
+    /**
+     * Returns the in-degree of the given node.
+     *
+     * @param nodeStoreId node store id
+     * @return in-degree
+     */
+    public int getInDegree(int nodeStoreId);
+}
@@ -16,6 +16,7 @@
 package org.gephi.graph.api;
 
 import java.util.Collection;
+import java.util.Map;
 
 /**
  * An index is associated with each table and keeps track of each unique value
@@ -48,6 +49,130 @@ public interface Index<T extends Element> {
      */
     public Iterable<T> get(Column column, Object value);
 
+    /**
+     * Counts the elements with a value between <em>low</em> and <em>high</em> in
+     * the given <em>column</em>.
+     * <p>
+     * A <code>null</code> bound means the range is unbounded on that side. Only
+     * applies for sortable columns.
+     *
+     * @param column the column to count values
+     * @param low the lower bound, or null
+     * @param lowInclusive true if the lower bound is included
+     * @param high the upper bound, or null
+     * @param highInclusive true if the upper bound is included
+     * @return the number of elements in the index with a value in the range
+     */
+    public int count(Column column, Object low, boolean lowInclusive, Object high, boolean highInclusive);
+
+    /**
+     * Gets an Iterable of all elements in the index with a value between
+     * <em>low</em> and <em>high</em> in the given <em>column</em>, in ascending
+     * value order.
+     * <p>
+     * A <code>null</code> bound means the range is unbounded on that side. Only
+     * applies for sortable columns.
+     *
+     * @param column the column to get values
+     * @param low the lower bound, or null
+     * @param lowInclusive true if the lower bound is included
+     * @param high the upper bound, or null
+     * @param highInclusive true if the upper bound is included
+     * @return an iterable with elements with a value in the range
+     */
+    public Iterable<T> get(Column column, Object low, boolean lowInclusive, Object high, boolean highInclusive);
+
+    /**
+     * Gets an Iterable of all elements in the index ordered by their value in the
+     * given <em>column</em>.
+     * <p>
+     * Elements with a <code>null</code> value are not returned. Only applies for
+     * sortable columns.
+     *
+     * @param column the column to sort by
+     * @param ascending true for ascending order, false for descending
+     * @return an iterable with all elements ordered by value
+     */
+    public Iterable<T> getSorted(Column column, boolean ascending);
+
+    /**
+     * Gets an Iterable of all elements in the index with a value starting with
+     * <em>prefix</em> in the given <em>column</em>, ignoring case.
+     * <p>
+     * Only applies for string columns. Columns indexed with a text index (see
+     * {@link Configuration#setIndexText(java.lang.Boolean)}) answer without
+     * scanning all values.
+     *
+     * @param column the column to search
+     * @param prefix the prefix
+     * @return an iterable with all elements whose value starts with the prefix
+     */
+    public Iterable<T> getByPrefix(Column column, String prefix);
+
+    /**
+     * Gets an Iterable of all elements in the index with a value containing
+     * <em>text</em> in the given <em>column</em>, ignoring case.
+     * <p>
+     * Only applies for string columns. Columns indexed with a text index (see
+     * {@link Configuration#setIndexText(java.lang.Boolean)}) answer without
+     * scanning all values.
+     *
+     * @param column the column to search
+     * @param text the text to search
+     * @return an iterable with all elements whose value contains the text
+     */
+    public Iterable<T> getBySubstring(Column column, String text);
+
+    /**
+     * Gets an Iterable of all elements in the index whose array value in the given
+     * <em>column</em> contains at least one of <em>values</em>.
+     * <p>
+     * Only applies for array columns. The values are compared to the array
+     * components, boxed for primitive arrays. Columns indexed by array element (see
+     * {@link Configuration#setIndexArrayElements(java.lang.Boolean)}) answer
+     * without scanning all values.
+     *
+     * @param column the column to search
+     * @param values the array components to look for
+     * @return an iterable with all elements containing any of the values
+     */
+    public Iterable<T> getContainingAny(Column column, Collection<?> values);
+
+    /**
+     * Gets an Iterable of all elements in the index whose array value in the given
+     * <em>column</em> contains all of <em>values</em>.
+     * <p>
+     * Only applies for array columns. The values are compared to the array
+     * components, boxed for primitive arrays. Columns indexed by array element (see
+     * {@link Configuration#setIndexArrayElements(java.lang.Boolean)}) answer
+     * without scanning all values.
+     *
+     * @param column the column to search
+     * @param values the array components to look for
+     * @return an iterable with all elements containing all of the values
+     */
+    public Iterable<T> getContainingAll(Column column, Collection<?> values);
+
+    /**
+     * Counts the elements in the index whose array value in the given
+     * <em>column</em> contains at least one of <em>values</em>.
+     *
+     * @param column the column to search
+     * @param values the array components to look for
+     * @return the number of elements containing any of the values
+     */
+    public int countContainingAny(Column column, Collection<?> values);
+
+    /**
+     * Counts the elements in the index whose array value in the given
+     * <em>column</em> contains all of <em>values</em>.
+     *
+     * @param column the column to search
+     * @param values the array components to look for
+     * @return the number of elements containing all of the values
+     */
+    public int countContainingAll(Column column, Collection<?> values);
+
     /**
      * Returns all unique values in the given column.
      *
@@ -103,6 +228,40 @@ public interface Index<T extends Element> {
      */
     public Number getMaxValue(Column column);
 
+    /**
+     * Returns the <em>k</em> most frequent values in the given column with their
+     * number of elements, ordered by decreasing count.
+     *
+     * @param column the column
+     * @param k the maximum number of values to return
+     * @return a map from value to element count, iterated by decreasing count
+     */
+    public Map<Object, Integer> getTopValues(Column column, int k);
+
+    /**
+     * Returns the value at the given quantile in the given column, using the
+     * nearest-rank method.
+     * <p>
+     * Only applies for numerical columns.
+     *
+     * @param column the column
+     * @param q the quantile, between 0 and 1
+     * @return the value at the quantile, or null if there are no values
+     */
+    public Number getQuantile(Column column, double q);
+
+    /**
+     * Returns the number of elements in each of <em>buckets</em> equal-width
+     * intervals between the minimum and the maximum value of the given column.
+     * <p>
+     * Only applies for numerical columns.
+     *
+     * @param column the column
+     * @param buckets the number of intervals
+     * @return the element count of each interval
+     */
+    public int[] getHistogram(Column column, int buckets);
+
     /**
      * Returns the element type of this index.
      *
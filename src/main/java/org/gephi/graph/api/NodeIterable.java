@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.stream.Stream;
 
 /**
  * A node iterable.
@@ -63,6 +64,14 @@ public interface NodeIterable extends ElementIterable<Node> {
     @Override
     public Set<Node> toSet();
 
+    /**
+     * Returns a parallel stream over the nodes.
+     *
+     * @return parallel node stream
+     */
+    @Override
+    public Stream<Node> parallelStream();
+
     /**
      * Empty node iterable.
      */
@@ -103,6 +112,11 @@ public interface NodeIterable extends ElementIterable<Node> {
             return Collections.EMPTY_SET;
         }
 
+        @Override
+        public Stream<Node> parallelStream() {
+            return Stream.empty();
+        }
+
         @Override
         public void doBreak() {
         }
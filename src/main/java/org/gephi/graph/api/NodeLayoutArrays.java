@@ -0,0 +1,106 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.api;
+
+/**
+ * Node positions, sizes, colors and fixed flags stored in primitive arrays.
+ * <p>
+ * When enabled with {@link GraphModel#setNodeLayoutArraysEnabled(boolean)},
+ * these properties are no longer kept in each node but in arrays owned by the
+ * node store, so layout algorithms can iterate over them in tight loops. The
+ * {@link Node} getters and setters keep working and read or write the arrays.
+ * <p>
+ * All arrays are indexed by node store id (see {@link Node#getStoreId()}). Only
+ * positions below {@link #getMaxStoreId()} are meaningful, the arrays may be
+ * longer. Slots of removed nodes contain undefined values.
+ * <p>
+ * The arrays are reallocated when nodes are added to the graph, so they should
+ * be obtained again after the graph structure is modified. Writing directly
+ * into the arrays doesn't update the spatial index, call
+ * {@link #refreshSpatialIndex()} once the writes are done.
+ *
+ * @see GraphModel#getNodeLayoutArrays()
+ */
+public interface NodeLayoutArrays {
+
+    /**
+     * Returns the maximum node store id, exclusive.
+     *
+     * @return maximum node store id
+     */
+    public int getMaxStoreId();
+
+    /**
+     * Returns the x positions.
+     *
+     * @return x positions
+     */
+    public float[] getX();
+
+    /**
+     * Returns the y positions.
+     *
+     * @return y positions
+     */
+    public float[] getY();
+
+    /**
+     * Returns the z positions.
+     *
+     * @return z positions
+     */
+    public float[] getZ();
+
+    /**
+     * Returns the sizes.
+     *
+     * @return sizes
+     */
+    public float[] getSize();
+
+    /**
+     * Returns the colors, encoded like {@link Node#getRGBA()}.
+     *
+     * @return colors
+     */
+    public int[] getRGBA();
+
+    /**
+     * Returns the fixed flags.
+     *
+     * @return fixed flags
+     */
+    public boolean[] getFixed();
+
+    /**
+     * Copies the given positions and refreshes the spatial index.
+     * <p>
+     * Both arrays are indexed by node store id and should have a length of at least
+     * {@link #getMaxStoreId()}.
+     *
+     * @param xs x positions
+     * @param ys y positions
+     * @throws IllegalArgumentException if an array is too short
+     */
+    public void updatePositions(float[] xs, float[] ys);
+
+    /**
+     * Updates the spatial index with the current positions and sizes.
+     * <p>
+     * This method does nothing if the spatial index is disabled.
+     */
+    public void refreshSpatialIndex();
+}
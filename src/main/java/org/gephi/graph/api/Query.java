@@ -0,0 +1,158 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.api;
+
+import java.util.Collection;
+
+/**
+ * Query over the column values of the nodes or edges of a view.
+ * <p>
+ * Predicates are created with {@link #equal(Column, Object)},
+ * {@link #range(Column, Object, boolean, Object, boolean)},
+ * {@link #in(Column, Collection)} and {@link #isNull(Column)}, and combined
+ * with {@link #and(QueryPredicate...)}, {@link #or(QueryPredicate...)} and
+ * {@link #not(QueryPredicate)}.
+ * <p>
+ * Predicates on indexed columns are answered by the view's {@link Index}. The
+ * children of a conjunction are evaluated from the most to the least selective,
+ * based on the index counts, and the evaluation stops as soon as the result is
+ * empty. Predicates on columns that aren't indexed are checked on the remaining
+ * candidates or, when there are none yet, by a parallel scan of the view.
+ * <p>
+ * Each predicate is evaluated under its own lock so a result is only consistent
+ * if the graph isn't modified while the query runs.
+ *
+ * @param <T> the element class
+ * @see GraphModel#createNodeQuery(GraphView)
+ * @see GraphModel#createEdgeQuery(GraphView)
+ */
+public interface Query<T extends Element> {
+
+    /**
+     * Returns the view this query runs on.
+     *
+     * @return graph view
+     */
+    public GraphView getView();
+
+    /**
+     * Returns the table this query applies to.
+     *
+     * @return table
+     */
+    public Table getTable();
+
+    /**
+     * Creates a predicate matching elements with <em>value</em> in <em>column</em>.
+     *
+     * @param column the column
+     * @param value the value, or null
+     * @return new predicate
+     */
+    public QueryPredicate equal(Column column, Object value);
+
+    /**
+     * Creates a predicate matching elements with a value between <em>low</em> and
+     * <em>high</em> in <em>column</em>.
+     * <p>
+     * A <code>null</code> bound means the range is unbounded on that side. Only
+     * applies for sortable columns.
+     *
+     * @param column the column
+     * @param low the lower bound, or null
+     * @param lowInclusive true if the lower bound is included
+     * @param high the upper bound, or null
+     * @param highInclusive true if the upper bound is included
+     * @return new predicate
+     */
+    public QueryPredicate range(Column column, Object low, boolean lowInclusive, Object high, boolean highInclusive);
+
+    /**
+     * Creates a predicate matching elements with one of <em>values</em> in
+     * <em>column</em>.
+     *
+     * @param column the column
+     * @param values the values
+     * @return new predicate
+     */
+    public QueryPredicate in(Column column, Collection<?> values);
+
+    /**
+     * Creates a predicate matching elements with a null value in <em>column</em>.
+     *
+     * @param column the column
+     * @return new predicate
+     */
+    public QueryPredicate isNull(Column column);
+
+    /**
+     * Creates a predicate matching elements that match all the given predicates.
+     *
+     * @param predicates the predicates
+     * @return new predicate
+     */
+    public QueryPredicate and(QueryPredicate... predicates);
+
+    /**
+     * Creates a predicate matching elements that match at least one of the given
+     * predicates.
+     *
+     * @param predicates the predicates
+     * @return new predicate
+     */
+    public QueryPredicate or(QueryPredicate... predicates);
+
+    /**
+     * Creates a predicate matching elements that don't match the given predicate.
+     *
+     * @param predicate the predicate
+     * @return new predicate
+     */
+    public QueryPredicate not(QueryPredicate predicate);
+
+    /**
+     * Counts the elements matching <em>predicate</em>.
+     *
+     * @param predicate the predicate
+     * @return number of matching elements
+     */
+    public int count(QueryPredicate predicate);
+
+    /**
+     * Returns the elements matching <em>predicate</em>.
+     * <p>
+     * The query is evaluated when this method is called, but elements are only
+     * looked up while iterating, in store id order. If nodes or edges have been
+     * added to or removed from the graph or the view since, each element is checked
+     * again and skipped if it's no longer in the view or doesn't match
+     * <em>predicate</em> anymore. Attribute changes alone aren't detected.
+     *
+     * @param predicate the predicate
+     * @return matching elements
+     */
+    public Iterable<T> get(QueryPredicate predicate);
+
+    /**
+     * Creates a new view with the elements matching <em>predicate</em>.
+     * <p>
+     * For node queries, the view contains the matching nodes and the edges between
+     * them. For edge queries, the view contains all nodes and the matching edges.
+     *
+     * @param predicate the predicate
+     * @return newly created graph view
+     */
+    public GraphView createView(QueryPredicate predicate);
+}
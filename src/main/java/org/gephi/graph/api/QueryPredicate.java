@@ -0,0 +1,34 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.api;
+
+/**
+ * Condition on the column values of an element.
+ * <p>
+ * Predicates are created and combined with a {@link Query} and can be reused
+ * with any query on the same table.
+ *
+ * @see Query
+ */
+public interface QueryPredicate {
+
+    /**
+     * Returns the table this predicate applies to.
+     *
+     * @return table
+     */
+    public Table getTable();
+}
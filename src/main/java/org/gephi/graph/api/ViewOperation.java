@@ -0,0 +1,33 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.api;
+
+/**
+ * Set operation used to combine graph views.
+ *
+ * @see GraphModel#combineViews(ViewOperation, GraphView...)
+ */
+public enum ViewOperation {
+
+    /**
+     * Elements in at least one of the views.
+     */
+    UNION,
+    /**
+     * Elements in all the views.
+     */
+    INTERSECTION
+}
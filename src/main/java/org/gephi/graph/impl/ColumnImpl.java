@@ -39,6 +39,8 @@ public class ColumnImpl implements Column {
     protected final boolean dynamic;
     protected final boolean readOnly;
     protected Estimator estimator;
+    // Values (optional)
+    protected final PrimitiveColumnStore values;
     // Observers
     protected final List<ColumnObserverImpl> observers;
     // Store Id
@@ -69,6 +71,8 @@ public class ColumnImpl implements Column {
         this.dynamic = TimeMap.class.isAssignableFrom(typeClass) || TimeSet.class.isAssignableFrom(typeClass);
         this.observers = GraphStoreConfiguration.ENABLE_OBSERVERS ? new ArrayList<>() : null;
         this.estimator = this.dynamic ? Estimator.FIRST : null;
+        this.values = GraphStoreConfiguration.ENABLE_PRIMITIVE_COLUMNS && table != null && table.store.graphStore != null && PrimitiveColumnStore
+                .isSupported(this) ? new PrimitiveColumnStore(typeClass) : null;
     }
 
     public ColumnImpl(String id, Class typeClass, String title, Object defaultValue, Origin origin, boolean indexed, boolean readOnly) {
@@ -16,9 +16,14 @@
 
 package org.gephi.graph.impl;
 
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -86,6 +91,136 @@ public class ColumnNoIndexImpl<K, T extends Element> implements ColumnIndexImpl<
         return new ElementWithValueIterable(getElementIterator(), value);
     }
 
+    @Override
+    public int count(K low, boolean lowInclusive, K high, boolean highInclusive) {
+        checkSortable();
+        lock();
+        try {
+            Iterator<T> elementIterator = getElementIterator();
+            int count = 0;
+            if (elementIterator != null) {
+                while (elementIterator.hasNext()) {
+                    ElementImpl element = (ElementImpl) elementIterator.next();
+                    Number num = (Number) element.getAttribute(column, graph.getView());
+                    if (isInRange(num, (Number) low, lowInclusive, (Number) high, highInclusive)) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public Iterable<T> get(K low, boolean lowInclusive, K high, boolean highInclusive) {
+        return getSorted(low, lowInclusive, high, highInclusive, true);
+    }
+
+    @Override
+    public Iterable<T> getSorted(boolean ascending) {
+        return getSorted(null, true, null, true, ascending);
+    }
+
+    private List<T> getSorted(K low, boolean lowInclusive, K high, boolean highInclusive, boolean ascending) {
+        checkSortable();
+        lock();
+        try {
+            List<T> list = new ArrayList<>();
+            Iterator<T> elementIterator = getElementIterator();
+            if (elementIterator != null) {
+                while (elementIterator.hasNext()) {
+                    T element = elementIterator.next();
+                    Number num = (Number) element.getAttribute(column, graph.getView());
+                    if (isInRange(num, (Number) low, lowInclusive, (Number) high, highInclusive)) {
+                        list.add(element);
+                    }
+                }
+            }
+            list.sort(getValueComparator(ascending));
+            return list;
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public Iterable<T> getByPrefix(String prefix) {
+        return getByText(prefix.toLowerCase(Locale.ROOT), true);
+    }
+
+    @Override
+    public Iterable<T> getBySubstring(String text) {
+        return getByText(text.toLowerCase(Locale.ROOT), false);
+    }
+
+    @Override
+    public Iterable<T> getContainingAny(Collection<?> values) {
+        return getContaining(values, false);
+    }
+
+    @Override
+    public Iterable<T> getContainingAll(Collection<?> values) {
+        return getContaining(values, true);
+    }
+
+    @Override
+    public int countContainingAny(Collection<?> values) {
+        return getContaining(values, false).size();
+    }
+
+    @Override
+    public int countContainingAll(Collection<?> values) {
+        return getContaining(values, true).size();
+    }
+
+    private List<T> getContaining(Collection<?> values, boolean all) {
+        checkArray();
+        lock();
+        try {
+            List<T> list = new ArrayList<>();
+            Iterator<T> elementIterator = getElementIterator();
+            if (elementIterator != null) {
+                while (elementIterator.hasNext()) {
+                    T element = elementIterator.next();
+                    Object value = ((ElementImpl) element).getAttribute(column, graph.getView());
+                    if (ColumnStandardIndexImpl.containsArrayComponents(value, values, all)) {
+                        list.add(element);
+                    }
+                }
+            }
+            return list;
+        } finally {
+            unlock();
+        }
+    }
+
+    private List<T> getByText(String lowerCaseText, boolean prefix) {
+        checkText();
+        lock();
+        try {
+            List<T> list = new ArrayList<>();
+            Iterator<T> elementIterator = getElementIterator();
+            if (elementIterator != null) {
+                while (elementIterator.hasNext()) {
+                    T element = elementIterator.next();
+                    Object value = ((ElementImpl) element).getAttribute(column, graph.getView());
+                    if (value != null) {
+                        String lowerCaseValue = value.toString().toLowerCase(Locale.ROOT);
+                        if (prefix ? lowerCaseValue.startsWith(lowerCaseText)
+                                : lowerCaseValue.contains(lowerCaseText)) {
+                            list.add(element);
+                        }
+                    }
+                }
+            }
+            return list;
+        } finally {
+            unlock();
+        }
+    }
+
     @Override
     public Collection<K> values() {
         lock();
@@ -182,6 +317,46 @@ public class ColumnNoIndexImpl<K, T extends Element> implements ColumnIndexImpl<
         }
     }
 
+    @Override
+    public Map<K, Integer> getTopValues(int k) {
+        ValueStatistics.checkTopValues(k);
+        return getStatistics(false).getTopValues(k);
+    }
+
+    @Override
+    public Number getQuantile(double q) {
+        checkSortable();
+        ValueStatistics.checkQuantile(q);
+        return getStatistics(true).getQuantile(q);
+    }
+
+    @Override
+    public int[] getHistogram(int buckets) {
+        checkSortable();
+        ValueStatistics.checkHistogram(buckets);
+        return getStatistics(true).getHistogram(buckets);
+    }
+
+    private ValueStatistics<K> getStatistics(boolean sorted) {
+        lock();
+        try {
+            Object2IntOpenHashMap<K> counts = new Object2IntOpenHashMap<>();
+            Iterator<T> elementIterator = getElementIterator();
+            if (elementIterator != null) {
+                while (elementIterator.hasNext()) {
+                    ElementImpl element = (ElementImpl) elementIterator.next();
+                    K obj = (K) element.getAttribute(column, graph.getView());
+                    if (obj != null) {
+                        counts.addTo(obj, 1);
+                    }
+                }
+            }
+            return ValueStatistics.fromCounts(version.get(), counts, sorted);
+        } finally {
+            unlock();
+        }
+    }
+
     @Override
     public Column getColumn() {
         return column;
@@ -285,6 +460,61 @@ public class ColumnNoIndexImpl<K, T extends Element> implements ColumnIndexImpl<
         }
     }
 
+    private Comparator<T> getValueComparator(final boolean ascending) {
+        return new Comparator<T>() {
+            @Override
+            public int compare(T e1, T e2) {
+                Number n1 = (Number) e1.getAttribute(column, graph.getView());
+                Number n2 = (Number) e2.getAttribute(column, graph.getView());
+                return ascending ? compareNumbers(n1, n2) : compareNumbers(n2, n1);
+            }
+        };
+    }
+
+    private void checkArray() {
+        if (!column.getTypeClass().isArray()) {
+            throw new UnsupportedOperationException("Only supported for array columns");
+        }
+    }
+
+    private void checkText() {
+        if (!column.getTypeClass().equals(String.class)) {
+            throw new UnsupportedOperationException("Only supported for string columns");
+        }
+    }
+
+    private void checkSortable() {
+        if (!isSortable()) {
+            throw new UnsupportedOperationException("Only supported for sortable columns");
+        }
+    }
+
+    static boolean isInRange(Number value, Number low, boolean lowInclusive, Number high, boolean highInclusive) {
+        if (value == null) {
+            return false;
+        }
+        if (low != null) {
+            int c = compareNumbers(value, low);
+            if (c < 0 || (c == 0 && !lowInclusive)) {
+                return false;
+            }
+        }
+        if (high != null) {
+            int c = compareNumbers(value, high);
+            if (c > 0 || (c == 0 && !highInclusive)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    static int compareNumbers(Number n1, Number n2) {
+        if (n1.getClass().equals(n2.getClass()) && n1 instanceof Comparable) {
+            return ((Comparable) n1).compareTo(n2);
+        }
+        return Double.compare(n1.doubleValue(), n2.doubleValue());
+    }
+
     private void lock() {
         if (graphLock != null) {
             graphLock.readLock();
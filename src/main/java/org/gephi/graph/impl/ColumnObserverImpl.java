@@ -17,6 +17,7 @@ package org.gephi.graph.impl;
 
 import cern.colt.bitvector.BitVector;
 import cern.colt.bitvector.QuickBitVector;
+import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectList;
 import org.gephi.graph.api.AttributeUtils;
@@ -137,6 +138,22 @@ public class ColumnObserverImpl implements ColumnObserver {
         bitVector.set(storeId);
     }
 
+    protected void moveElements(IntList moves) {
+        if (bitVector != null) {
+            int size = bitVector.size();
+            for (int i = 0; i < moves.size(); i += 2) {
+                int oldId = moves.getInt(i);
+                int newId = moves.getInt(i + 1);
+                if (oldId < size) {
+                    bitVector.putQuick(newId, bitVector.getQuick(oldId));
+                    bitVector.clear(oldId);
+                } else if (newId < size) {
+                    bitVector.clear(newId);
+                }
+            }
+        }
+    }
+
     protected abstract class ColumnDiffImpl<K extends Element> implements ColumnDiff {
 
         protected final ObjectList<K> touchedElements;
@@ -27,23 +27,37 @@ import it.unimi.dsi.fastutil.floats.Float2ObjectAVLTreeMap;
 import it.unimi.dsi.fastutil.floats.FloatArrays;
 import it.unimi.dsi.fastutil.ints.Int2ObjectAVLTreeMap;
 import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.ints.IntIterator;
 import it.unimi.dsi.fastutil.longs.Long2ObjectAVLTreeMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.longs.LongArrays;
 import it.unimi.dsi.fastutil.objects.Object2ObjectAVLTreeMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenCustomHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrays;
+import it.unimi.dsi.fastutil.objects.ObjectBidirectionalIterator;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import it.unimi.dsi.fastutil.objects.ObjectSets;
+import it.unimi.dsi.fastutil.objects.ObjectSortedSet;
 import it.unimi.dsi.fastutil.shorts.Short2ObjectAVLTreeMap;
 import it.unimi.dsi.fastutil.shorts.ShortArrays;
+import java.lang.reflect.Array;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
 import org.gephi.graph.api.Element;
+import org.gephi.graph.api.Node;
 
 public abstract class ColumnStandardIndexImpl<K, T extends Element> implements ColumnIndexImpl<K, T> {
 
@@ -51,16 +65,23 @@ public abstract class ColumnStandardIndexImpl<K, T extends Element> implements C
     protected final TableLockImpl lock;
     // Data
     protected final ColumnImpl column;
+    protected final IntFunction<T> elementResolver;
     protected final ValueSet<K, T> nullSet;
     protected Map<K, ValueSet<K, T>> map;
+    // Elements containing each array component (optional)
+    protected final Map<Object, Set<T>> arrayElements;
     // Variable
     protected int elements;
     // Version
     protected final AtomicInteger version = new AtomicInteger(Integer.MIN_VALUE);
+    // Statistics, rebuilt when the version changes
+    protected ValueStatistics<K> statistics;
 
     protected ColumnStandardIndexImpl(ColumnImpl column) {
         this.column = column;
-        this.nullSet = new ValueSet<>(null);
+        this.elementResolver = getElementResolver(column);
+        this.nullSet = new ValueSet<>(null, newElementSet());
+        this.arrayElements = isArrayElementIndexed(column) ? new Object2ObjectOpenHashMap<>() : null;
         this.lock = GraphStoreConfiguration.ENABLE_AUTO_LOCKING ? new TableLockImpl() : null;
     }
 
@@ -68,26 +89,41 @@ public abstract class ColumnStandardIndexImpl<K, T extends Element> implements C
         return !col.isDynamicAttribute();
     }
 
+    // Elements are stored by store id in bitmaps when enabled in the configuration
+    private static IntFunction getElementResolver(ColumnImpl column) {
+        if (column.table == null || column.table.store.graphStore == null) {
+            return null;
+        }
+        GraphStore graphStore = column.table.store.graphStore;
+        if (!graphStore.configuration.getIndexBitmaps()) {
+            return null;
+        }
+        return Node.class.equals(column.table.store.elementType) ? graphStore.nodeStore::get
+                : graphStore.edgeStore::get;
+    }
+
+    private static boolean isArrayElementIndexed(ColumnImpl column) {
+        if (column.table == null || column.table.store.graphStore == null || !column.getTypeClass().isArray()) {
+            return false;
+        }
+        return column.table.store.graphStore.configuration.getIndexArrayElements();
+    }
+
+    private Set<T> newElementSet() {
+        return elementResolver != null ? new BitmapSet<>(elementResolver) : new ObjectOpenHashSet<T>();
+    }
+
+    public boolean isBitmap() {
+        return elementResolver != null;
+    }
+
     @Override
     public K putValue(T element, K value) {
         lock();
         try {
-            if (value == null) {
-                if (nullSet.add(element)) {
-                    elements++;
-                    version.incrementAndGet();
-                }
-            } else {
-                ValueSet<K, T> set = getValueSet(value);
-                if (set == null) {
-                    set = addValue(value);
-                }
-                value = set.value;
-
-                if (set.add(element)) {
-                    elements++;
-                    version.incrementAndGet();
-                }
+            value = addElement(element, value);
+            if (arrayElements != null) {
+                addArrayElements(element, value, null);
             }
         } finally {
             unlock();
@@ -99,20 +135,9 @@ public abstract class ColumnStandardIndexImpl<K, T extends Element> implements C
     public void removeValue(T element, K value) {
         lock();
         try {
-            if (value == null) {
-                if (nullSet.remove(element)) {
-                    elements--;
-                    version.incrementAndGet();
-                }
-            } else {
-                ValueSet<K, T> set = getValueSet(value);
-                if (set.remove(element)) {
-                    elements--;
-                    version.incrementAndGet();
-                }
-                if (set.isEmpty()) {
-                    removeValue(value);
-                }
+            removeElement(element, value);
+            if (arrayElements != null) {
+                removeArrayElements(element, value, null);
             }
         } finally {
             unlock();
@@ -121,8 +146,120 @@ public abstract class ColumnStandardIndexImpl<K, T extends Element> implements C
 
     @Override
     public K replaceValue(T element, K oldValue, K newValue) {
-        removeValue(element, oldValue);
-        return putValue(element, newValue);
+        lock();
+        try {
+            removeElement(element, oldValue);
+            K value = addElement(element, newValue);
+            if (arrayElements != null) {
+                // Only the array components that differ are updated
+                removeArrayElements(element, oldValue, value);
+                addArrayElements(element, value, oldValue);
+            }
+            return value;
+        } finally {
+            unlock();
+        }
+    }
+
+    // Table locked
+    private K addElement(T element, K value) {
+        if (value == null) {
+            if (nullSet.add(element)) {
+                elements++;
+                version.incrementAndGet();
+            }
+        } else {
+            ValueSet<K, T> set = getValueSet(value);
+            if (set == null) {
+                set = addValue(value);
+            }
+            value = set.value;
+
+            if (set.add(element)) {
+                elements++;
+                version.incrementAndGet();
+            }
+        }
+        return value;
+    }
+
+    // Table locked
+    private void removeElement(T element, K value) {
+        if (value == null) {
+            if (nullSet.remove(element)) {
+                elements--;
+                version.incrementAndGet();
+            }
+        } else {
+            ValueSet<K, T> set = getValueSet(value);
+            if (set.remove(element)) {
+                elements--;
+                version.incrementAndGet();
+            }
+            if (set.isEmpty()) {
+                removeValue(value);
+            }
+        }
+    }
+
+    // Table locked, adds the element to the components of array not in except
+    private void addArrayElements(T element, Object array, Object except) {
+        if (array != null) {
+            ObjectSet<Object> exceptComponents = getArrayComponents(except);
+            for (Object component : getArrayComponents(array)) {
+                if (!exceptComponents.contains(component)) {
+                    Set<T> set = arrayElements.get(component);
+                    if (set == null) {
+                        set = newElementSet();
+                        arrayElements.put(component, set);
+                    }
+                    set.add(element);
+                }
+            }
+        }
+    }
+
+    // Table locked, removes the element from the components of array not in except
+    private void removeArrayElements(T element, Object array, Object except) {
+        if (array != null) {
+            ObjectSet<Object> exceptComponents = getArrayComponents(except);
+            for (Object component : getArrayComponents(array)) {
+                if (!exceptComponents.contains(component)) {
+                    Set<T> set = arrayElements.get(component);
+                    if (set != null && set.remove(element) && set.isEmpty()) {
+                        arrayElements.remove(component);
+                    }
+                }
+            }
+        }
+    }
+
+    protected static ObjectSet<Object> getArrayComponents(Object array) {
+        if (array == null) {
+            return ObjectSets.EMPTY_SET;
+        }
+        int length = Array.getLength(array);
+        ObjectSet<Object> components = new ObjectOpenHashSet<>(length);
+        for (int i = 0; i < length; i++) {
+            components.add(Array.get(array, i));
+        }
+        return components;
+    }
+
+    protected static boolean containsArrayComponents(Object array, Collection<?> values, boolean all) {
+        if (array == null) {
+            return false;
+        }
+        ObjectSet<Object> components = getArrayComponents(array);
+        if (all) {
+            return components.containsAll(values);
+        }
+        for (Object value : values) {
+            if (components.contains(value)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     protected int getCount(K value) {
@@ -205,11 +342,55 @@ public abstract class ColumnStandardIndexImpl<K, T extends Element> implements C
         }
     }
 
+    @Override
+    public Map<K, Integer> getTopValues(int k) {
+        ValueStatistics.checkTopValues(k);
+        return getStatistics().getTopValues(k);
+    }
+
+    @Override
+    public Number getQuantile(double q) {
+        checkSortable();
+        ValueStatistics.checkQuantile(q);
+        return getStatistics().getQuantile(q);
+    }
+
+    @Override
+    public int[] getHistogram(int buckets) {
+        checkSortable();
+        ValueStatistics.checkHistogram(buckets);
+        return getStatistics().getHistogram(buckets);
+    }
+
+    protected ValueStatistics<K> getStatistics() {
+        lock();
+        try {
+            int currentVersion = version.get();
+            if (statistics == null || statistics.getVersion() != currentVersion) {
+                Object[] values = new Object[map.size()];
+                int[] counts = new int[values.length];
+                int i = 0;
+                for (ValueSet<K, T> valueSet : map.values()) {
+                    values[i] = valueSet.value;
+                    counts[i++] = valueSet.size();
+                }
+                statistics = new ValueStatistics<>(currentVersion, values, counts);
+            }
+            return statistics;
+        } finally {
+            unlock();
+        }
+    }
+
     @Override
     public void destroy() {
         lock();
         map = null;
+        statistics = null;
         nullSet.clear();
+        if (arrayElements != null) {
+            arrayElements.clear();
+        }
         elements = 0;
         version.incrementAndGet();
         unlock();
@@ -220,6 +401,9 @@ public abstract class ColumnStandardIndexImpl<K, T extends Element> implements C
         lock();
         map.clear();
         nullSet.clear();
+        if (arrayElements != null) {
+            arrayElements.clear();
+        }
         elements = 0;
         version.incrementAndGet();
         unlock();
@@ -233,11 +417,319 @@ public abstract class ColumnStandardIndexImpl<K, T extends Element> implements C
     @Override
     public Iterable<T> get(K value) {
         lock();
-        ValueSet<K, T> valueSet = getValueSet(value);
-        if (valueSet == null) {
-            return ValueSet.EMPTY;
+        try {
+            ValueSet<K, T> valueSet = getValueSet(value);
+            if (valueSet == null) {
+                return ValueSet.EMPTY;
+            }
+            return new SnapshotIterable<>(new Object[][] { valueSet.getSnapshot() });
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Returns a copy of the bitmap of element store ids with <em>value</em>.
+     *
+     * @param value the value
+     * @return bitmap copy, empty if the value isn't found
+     * @throws UnsupportedOperationException if this index doesn't use bitmaps
+     */
+    public IdBitmap getBitmap(K value) {
+        checkBitmap();
+        lock();
+        try {
+            ValueSet<K, T> valueSet = getValueSet(value);
+            return valueSet != null ? ((BitmapSet<T>) valueSet.set).bitmap.copy() : new IdBitmap();
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Returns the bitmap of element store ids with a value in the given range.
+     *
+     * @param low the lower bound, or null
+     * @param lowInclusive true if the lower bound is included
+     * @param high the upper bound, or null
+     * @param highInclusive true if the upper bound is included
+     * @return bitmap union of the values in the range
+     * @throws UnsupportedOperationException if this index doesn't use bitmaps or
+     *         isn't sortable
+     */
+    public IdBitmap getBitmap(K low, boolean lowInclusive, K high, boolean highInclusive) {
+        checkBitmap();
+        lock();
+        try {
+            IdBitmap res = new IdBitmap();
+            Iterator<ValueSet<K, T>> itr = new RangeIterator(low, lowInclusive, high, highInclusive);
+            while (itr.hasNext()) {
+                res = IdBitmap.or(res, ((BitmapSet<T>) itr.next().set).bitmap);
+            }
+            return res;
+        } finally {
+            unlock();
+        }
+    }
+
+    protected void moveValue(T element, K value, int oldStoreId) {
+        if (elementResolver != null) {
+            lock();
+            try {
+                ValueSet<K, T> valueSet = getValueSet(value);
+                if (valueSet != null && ((BitmapSet<T>) valueSet.set).bitmap.remove(oldStoreId)) {
+                    valueSet.add(element);
+                    version.incrementAndGet();
+                    if (arrayElements != null) {
+                        for (Object component : getArrayComponents(value)) {
+                            BitmapSet<T> set = (BitmapSet<T>) arrayElements.get(component);
+                            if (set != null && set.bitmap.remove(oldStoreId)) {
+                                set.add(element);
+                            }
+                        }
+                    }
+                }
+            } finally {
+                unlock();
+            }
+        }
+    }
+
+    @Override
+    public int count(K low, boolean lowInclusive, K high, boolean highInclusive) {
+        lock();
+        try {
+            int count = 0;
+            Iterator<ValueSet<K, T>> itr = new RangeIterator(low, lowInclusive, high, highInclusive);
+            while (itr.hasNext()) {
+                count += itr.next().size();
+            }
+            return count;
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public Iterable<T> get(K low, boolean lowInclusive, K high, boolean highInclusive) {
+        checkSortable();
+        checkBound(low);
+        checkBound(high);
+        lock();
+        try {
+            return getSnapshot(new RangeIterator(low, lowInclusive, high, highInclusive));
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public Iterable<T> getSorted(boolean ascending) {
+        checkSortable();
+        lock();
+        try {
+            return getSnapshot(sortedValueSets(ascending));
+        } finally {
+            unlock();
+        }
+    }
+
+    // Table locked
+    private Iterable<T> getSnapshot(Iterator<ValueSet<K, T>> valueSetIterator) {
+        List<Object[]> snapshots = new ArrayList<>();
+        while (valueSetIterator.hasNext()) {
+            snapshots.add(valueSetIterator.next().getSnapshot());
+        }
+        return new SnapshotIterable<>(snapshots.toArray(new Object[0][]));
+    }
+
+    @Override
+    public Iterable<T> getByPrefix(String prefix) {
+        checkText();
+        String lowerCasePrefix = prefix.toLowerCase(Locale.ROOT);
+        lock();
+        try {
+            return getElements(findByPrefix(lowerCasePrefix));
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public Iterable<T> getBySubstring(String text) {
+        checkText();
+        String lowerCaseText = text.toLowerCase(Locale.ROOT);
+        lock();
+        try {
+            return getElements(findBySubstring(lowerCaseText));
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public Iterable<T> getContainingAny(Collection<?> values) {
+        checkArray();
+        lock();
+        try {
+            return new ArrayList<>(findContaining(values, false));
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public Iterable<T> getContainingAll(Collection<?> values) {
+        checkArray();
+        lock();
+        try {
+            return new ArrayList<>(findContaining(values, true));
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public int countContainingAny(Collection<?> values) {
+        checkArray();
+        lock();
+        try {
+            return findContaining(values, false).size();
+        } finally {
+            unlock();
+        }
+    }
+
+    @Override
+    public int countContainingAll(Collection<?> values) {
+        checkArray();
+        lock();
+        try {
+            return findContaining(values, true).size();
+        } finally {
+            unlock();
+        }
+    }
+
+    // Table locked, scans all values if array elements aren't indexed
+    protected Set<T> findContaining(Collection<?> values, boolean all) {
+        if (arrayElements == null || (all && values.isEmpty())) {
+            Set<T> result = new ObjectOpenHashSet<>();
+            for (ValueSet<K, T> valueSet : map.values()) {
+                if (containsArrayComponents(valueSet.value, values, all)) {
+                    result.addAll(valueSet);
+                }
+            }
+            return result;
+        }
+
+        List<Set<T>> sets = new ArrayList<>(values.size());
+        for (Object value : values) {
+            Set<T> set = arrayElements.get(value);
+            if (set != null) {
+                sets.add(set);
+            } else if (all) {
+                return ObjectSets.EMPTY_SET;
+            }
+        }
+        if (sets.isEmpty()) {
+            return ObjectSets.EMPTY_SET;
+        }
+        if (all) {
+            // Intersect from the smallest set
+            sets.sort(Comparator.comparingInt(Set::size));
+        }
+
+        if (elementResolver != null) {
+            IdBitmap bitmap = ((BitmapSet<T>) sets.get(0)).bitmap.copy();
+            for (int i = 1; i < sets.size(); i++) {
+                IdBitmap other = ((BitmapSet<T>) sets.get(i)).bitmap;
+                bitmap = all ? IdBitmap.and(bitmap, other) : IdBitmap.or(bitmap, other);
+            }
+            return new BitmapSet<>(elementResolver, bitmap);
+        }
+        Set<T> result = new ObjectOpenHashSet<>(sets.get(0));
+        for (int i = 1; i < sets.size() && !result.isEmpty(); i++) {
+            if (all) {
+                result.retainAll(sets.get(i));
+            } else {
+                result.addAll(sets.get(i));
+            }
+        }
+        return result;
+    }
+
+    // Scans all values, overridden by text indexes
+    protected List<ValueSet<K, T>> findByPrefix(String lowerCasePrefix) {
+        List<ValueSet<K, T>> result = new ArrayList<>();
+        for (ValueSet<K, T> valueSet : map.values()) {
+            if (valueSet.value.toString().toLowerCase(Locale.ROOT).startsWith(lowerCasePrefix)) {
+                result.add(valueSet);
+            }
+        }
+        return result;
+    }
+
+    // Scans all values, overridden by text indexes
+    protected List<ValueSet<K, T>> findBySubstring(String lowerCaseText) {
+        List<ValueSet<K, T>> result = new ArrayList<>();
+        for (ValueSet<K, T> valueSet : map.values()) {
+            if (valueSet.value.toString().toLowerCase(Locale.ROOT).contains(lowerCaseText)) {
+                result.add(valueSet);
+            }
+        }
+        return result;
+    }
+
+    private List<T> getElements(List<ValueSet<K, T>> valueSets) {
+        List<T> result = new ArrayList<>();
+        for (ValueSet<K, T> valueSet : valueSets) {
+            result.addAll(valueSet);
+        }
+        return result;
+    }
+
+    // Table locked
+    protected Iterator<ValueSet<K, T>> sortedValueSets(boolean ascending) {
+        return ascending ? getSortedMap().values().iterator() : new DescendingIterator();
+    }
+
+    protected SortedMap<K, ValueSet<K, T>> getSortedMap() {
+        return (SortedMap<K, ValueSet<K, T>>) map;
+    }
+
+    private void checkBitmap() {
+        if (elementResolver == null) {
+            throw new UnsupportedOperationException("'" + column.getId() + "' isn't indexed with bitmaps");
+        }
+    }
+
+    private void checkText() {
+        if (!column.getTypeClass().equals(String.class)) {
+            throw new UnsupportedOperationException(
+                    "'" + column.getId() + "' is not a string column (" + column.getTypeClass().getSimpleName() + ").");
+        }
+    }
+
+    private void checkSortable() {
+        if (!isSortable()) {
+            throw new UnsupportedOperationException("'" + column.getId() + "' is not a sortable column (" + column
+                    .getTypeClass().getSimpleName() + ").");
+        }
+    }
+
+    private void checkArray() {
+        if (!column.getTypeClass().isArray()) {
+            throw new UnsupportedOperationException(
+                    "'" + column.getId() + "' is not an array column (" + column.getTypeClass().getSimpleName() + ").");
+        }
+    }
+
+    private void checkBound(K bound) {
+        if (bound != null && !column.getTypeClass().isInstance(bound)) {
+            throw new IllegalArgumentException("The bound '" + bound + "' doesn't match the column type (" + column
+                    .getTypeClass().getSimpleName() + ")");
         }
-        return new LockableIterable<>(valueSet.set);
     }
 
     protected ValueSet<K, T> getValueSet(K value) {
@@ -252,7 +744,7 @@ public abstract class ColumnStandardIndexImpl<K, T extends Element> implements C
     }
 
     protected ValueSet<K, T> addValue(K value) {
-        ValueSet<K, T> valueSet = new ValueSet<>(value);
+        ValueSet<K, T> valueSet = new ValueSet<>(value, newElementSet());
         map.put(value, valueSet);
         return valueSet;
     }
@@ -293,6 +785,144 @@ public abstract class ColumnStandardIndexImpl<K, T extends Element> implements C
         }
     }
 
+    protected static class TextStandardIndex<T extends Element> extends DefaultStandardIndex<T> {
+
+        // Distinct values grouped by lower case value, sorted for prefix lookups
+        protected final Object2ObjectAVLTreeMap<String, ObjectSet<String>> lowerCaseValues;
+        // Lower case values containing each trigram, for substring lookups
+        protected final Long2ObjectOpenHashMap<ObjectSet<String>> trigrams;
+
+        public TextStandardIndex(ColumnImpl column) {
+            super(column);
+
+            lowerCaseValues = new Object2ObjectAVLTreeMap<>();
+            trigrams = new Long2ObjectOpenHashMap<>();
+        }
+
+        @Override
+        protected ValueSet<Object, T> addValue(Object value) {
+            ValueSet<Object, T> valueSet = super.addValue(value);
+            String lowerCaseValue = value.toString().toLowerCase(Locale.ROOT);
+            ObjectSet<String> values = lowerCaseValues.get(lowerCaseValue);
+            if (values == null) {
+                values = new ObjectOpenHashSet<>(1);
+                lowerCaseValues.put(lowerCaseValue, values);
+                addTrigrams(lowerCaseValue);
+            }
+            values.add(value.toString());
+            return valueSet;
+        }
+
+        @Override
+        protected void removeValue(Object value) {
+            super.removeValue(value);
+            String lowerCaseValue = value.toString().toLowerCase(Locale.ROOT);
+            ObjectSet<String> values = lowerCaseValues.get(lowerCaseValue);
+            if (values != null && values.remove(value.toString()) && values.isEmpty()) {
+                lowerCaseValues.remove(lowerCaseValue);
+                removeTrigrams(lowerCaseValue);
+            }
+        }
+
+        @Override
+        protected List<ValueSet<Object, T>> findByPrefix(String lowerCasePrefix) {
+            List<ValueSet<Object, T>> result = new ArrayList<>();
+            for (Map.Entry<String, ObjectSet<String>> entry : lowerCaseValues.tailMap(lowerCasePrefix).entrySet()) {
+                if (!entry.getKey().startsWith(lowerCasePrefix)) {
+                    break;
+                }
+                addValueSets(entry.getValue(), result);
+            }
+            return result;
+        }
+
+        @Override
+        protected List<ValueSet<Object, T>> findBySubstring(String lowerCaseText) {
+            List<ValueSet<Object, T>> result = new ArrayList<>();
+            if (lowerCaseText.length() < 3) {
+                for (Map.Entry<String, ObjectSet<String>> entry : lowerCaseValues.entrySet()) {
+                    if (entry.getKey().contains(lowerCaseText)) {
+                        addValueSets(entry.getValue(), result);
+                    }
+                }
+                return result;
+            }
+
+            // Verify the candidates of the rarest trigram
+            ObjectSet<String> candidates = null;
+            for (int i = 0; i + 3 <= lowerCaseText.length(); i++) {
+                ObjectSet<String> posting = trigrams.get(getTrigram(lowerCaseText, i));
+                if (posting == null) {
+                    return result;
+                } else if (candidates == null || posting.size() < candidates.size()) {
+                    candidates = posting;
+                }
+            }
+            for (String candidate : candidates) {
+                if (candidate.contains(lowerCaseText)) {
+                    addValueSets(lowerCaseValues.get(candidate), result);
+                }
+            }
+            return result;
+        }
+
+        @Override
+        public void clear() {
+            lock();
+            try {
+                super.clear();
+                lowerCaseValues.clear();
+                trigrams.clear();
+            } finally {
+                unlock();
+            }
+        }
+
+        @Override
+        public void destroy() {
+            lock();
+            try {
+                super.destroy();
+                lowerCaseValues.clear();
+                trigrams.clear();
+            } finally {
+                unlock();
+            }
+        }
+
+        private void addValueSets(ObjectSet<String> values, List<ValueSet<Object, T>> result) {
+            for (String value : values) {
+                result.add(map.get(value));
+            }
+        }
+
+        private void addTrigrams(String lowerCaseValue) {
+            for (int i = 0; i + 3 <= lowerCaseValue.length(); i++) {
+                long trigram = getTrigram(lowerCaseValue, i);
+                ObjectSet<String> posting = trigrams.get(trigram);
+                if (posting == null) {
+                    posting = new ObjectOpenHashSet<>(1);
+                    trigrams.put(trigram, posting);
+                }
+                posting.add(lowerCaseValue);
+            }
+        }
+
+        private void removeTrigrams(String lowerCaseValue) {
+            for (int i = 0; i + 3 <= lowerCaseValue.length(); i++) {
+                long trigram = getTrigram(lowerCaseValue, i);
+                ObjectSet<String> posting = trigrams.get(trigram);
+                if (posting != null && posting.remove(lowerCaseValue) && posting.isEmpty()) {
+                    trigrams.remove(trigram);
+                }
+            }
+        }
+
+        private static long getTrigram(String str, int index) {
+            return ((long) str.charAt(index) << 32) | ((long) str.charAt(index + 1) << 16) | str.charAt(index + 2);
+        }
+    }
+
     protected static class BooleanStandardIndex<T extends Element> extends ColumnStandardIndexImpl<Boolean, T> {
 
         public BooleanStandardIndex(ColumnImpl column) {
@@ -460,10 +1090,16 @@ public abstract class ColumnStandardIndexImpl<K, T extends Element> implements C
         protected static ValueSet EMPTY = new ValueSet(null);
         protected final K value;
         private final Set<T> set;
+        // Copy handed to readers, dropped when the set changes
+        private Object[] snapshot;
 
         public ValueSet(K value) {
+            this(value, new ObjectOpenHashSet<>());
+        }
+
+        public ValueSet(K value, Set<T> set) {
             this.value = value;
-            this.set = new ObjectOpenHashSet<>();
+            this.set = set;
         }
 
         @Override
@@ -498,12 +1134,20 @@ public abstract class ColumnStandardIndexImpl<K, T extends Element> implements C
 
         @Override
         public boolean add(T e) {
-            return set.add(e);
+            if (set.add(e)) {
+                snapshot = null;
+                return true;
+            }
+            return false;
         }
 
         @Override
         public boolean remove(Object o) {
-            return set.remove(o);
+            if (set.remove(o)) {
+                snapshot = null;
+                return true;
+            }
+            return false;
         }
 
         @Override
@@ -529,6 +1173,15 @@ public abstract class ColumnStandardIndexImpl<K, T extends Element> implements C
         @Override
         public void clear() {
             set.clear();
+            snapshot = null;
+        }
+
+        // Table locked, the returned array is shared and shouldn't be modified
+        protected Object[] getSnapshot() {
+            if (snapshot == null) {
+                snapshot = set.toArray();
+            }
+            return snapshot;
         }
 
         @Override
@@ -542,6 +1195,62 @@ public abstract class ColumnStandardIndexImpl<K, T extends Element> implements C
         }
     }
 
+    protected static final class BitmapSet<T extends Element> extends AbstractSet<T> {
+
+        protected final IdBitmap bitmap;
+        private final IntFunction<T> elementResolver;
+
+        public BitmapSet(IntFunction<T> elementResolver) {
+            this(elementResolver, new IdBitmap());
+        }
+
+        public BitmapSet(IntFunction<T> elementResolver, IdBitmap bitmap) {
+            this.bitmap = bitmap;
+            this.elementResolver = elementResolver;
+        }
+
+        @Override
+        public int size() {
+            return bitmap.getCardinality();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof Element && bitmap.contains(((Element) o).getStoreId());
+        }
+
+        @Override
+        public boolean add(T e) {
+            return bitmap.add(e.getStoreId());
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof Element && bitmap.remove(((Element) o).getStoreId());
+        }
+
+        @Override
+        public void clear() {
+            bitmap.clear();
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            final IntIterator itr = bitmap.iterator();
+            return new Iterator<T>() {
+                @Override
+                public boolean hasNext() {
+                    return itr.hasNext();
+                }
+
+                @Override
+                public T next() {
+                    return elementResolver.apply(itr.nextInt());
+                }
+            };
+        }
+    }
+
     protected final class WithNullDecorator implements Collection<K> {
 
         private boolean hasNull() {
@@ -730,45 +1439,141 @@ public abstract class ColumnStandardIndexImpl<K, T extends Element> implements C
         }
     }
 
-    private class LockableIterable<E> implements Iterable<E> {
+    private final class RangeIterator implements Iterator<ValueSet<K, T>> {
+
+        private final Comparator<? super K> comparator;
+        private final Iterator<Map.Entry<K, ValueSet<K, T>>> mapIterator;
+        private final K low;
+        private final boolean lowInclusive;
+        private final K high;
+        private final boolean highInclusive;
+        private ValueSet<K, T> pointer;
+
+        public RangeIterator(K low, boolean lowInclusive, K high, boolean highInclusive) {
+            checkSortable();
+            checkBound(low);
+            checkBound(high);
+            SortedMap<K, ValueSet<K, T>> sortedMap = getSortedMap();
+            this.comparator = sortedMap.comparator();
+            this.low = low;
+            this.lowInclusive = lowInclusive;
+            this.high = high;
+            this.highInclusive = highInclusive;
+            this.mapIterator = (low != null ? sortedMap.tailMap(low) : sortedMap).entrySet().iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (pointer == null && mapIterator.hasNext()) {
+                Map.Entry<K, ValueSet<K, T>> entry = mapIterator.next();
+                K key = entry.getKey();
+                if (high != null) {
+                    int c = compare(key, high);
+                    if (c > 0 || (c == 0 && !highInclusive)) {
+                        return false;
+                    }
+                }
+                if (low == null || lowInclusive || compare(key, low) != 0) {
+                    pointer = entry.getValue();
+                }
+            }
+            return pointer != null;
+        }
 
-        private final Iterable<E> ite;
+        @Override
+        public ValueSet<K, T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            ValueSet<K, T> res = pointer;
+            pointer = null;
+            return res;
+        }
 
-        public LockableIterable(Iterable<E> ite) {
-            this.ite = ite;
+        private int compare(K k1, K k2) {
+            return comparator != null ? comparator.compare(k1, k2) : ((Comparable<K>) k1).compareTo(k2);
         }
 
         @Override
-        public Iterator<E> iterator() {
-            return new LockableIterator<>(ite.iterator());
+        public void remove() {
+            throw new UnsupportedOperationException("Not supported operation.");
         }
     }
 
-    private class LockableIterator<E> implements Iterator<E> {
+    private final class DescendingIterator implements Iterator<ValueSet<K, T>> {
 
-        private final Iterator<E> itr;
+        private final ObjectBidirectionalIterator<Map.Entry<K, ValueSet<K, T>>> mapIterator;
 
-        public LockableIterator(Iterator<E> itr) {
-            this.itr = itr;
+        public DescendingIterator() {
+            ObjectSortedSet<Map.Entry<K, ValueSet<K, T>>> entries = (ObjectSortedSet<Map.Entry<K, ValueSet<K, T>>>) getSortedMap()
+                    .entrySet();
+            this.mapIterator = entries.isEmpty() ? null : entries.iterator(entries.last());
         }
 
         @Override
         public boolean hasNext() {
-            boolean n = itr.hasNext();
-            if (!n && lock != null) {
-                lock.unlock();
+            return mapIterator != null && mapIterator.hasPrevious();
+        }
+
+        @Override
+        public ValueSet<K, T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
             }
-            return n;
+            return mapIterator.previous().getValue();
         }
 
         @Override
-        public E next() {
-            return itr.next();
+        public void remove() {
+            throw new UnsupportedOperationException("Not supported operation.");
+        }
+    }
+
+    private static final class SnapshotIterable<T> implements Iterable<T> {
+
+        private final Object[][] snapshots;
+
+        public SnapshotIterable(Object[][] snapshots) {
+            this.snapshots = snapshots;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new SnapshotIterator<>(snapshots);
+        }
+    }
+
+    // Iterates over value set snapshots, without holding the table lock
+    private static final class SnapshotIterator<T> implements Iterator<T> {
+
+        private final Object[][] snapshots;
+        private int snapshotIndex;
+        private int index;
+
+        public SnapshotIterator(Object[][] snapshots) {
+            this.snapshots = snapshots;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (snapshotIndex < snapshots.length && index == snapshots[snapshotIndex].length) {
+                snapshotIndex++;
+                index = 0;
+            }
+            return snapshotIndex < snapshots.length;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            return (T) snapshots[snapshotIndex][index++];
         }
 
         @Override
         public void remove() {
-            throw new UnsupportedOperationException("Not supported.");
+            throw new UnsupportedOperationException("Not supported operation.");
         }
     }
 }
@@ -156,6 +156,9 @@ public class ColumnStore<T extends Element> implements ColumnIterable {
                     ((ElementImpl) e).attributes.setAttribute(column, null);
                 }
             }
+            if (columnImpl.values != null) {
+                columnImpl.values.clear();
+            }
 
             short id = idMap.removeShort(column.getId());
             if (id == NULL_SHORT) {
@@ -0,0 +1,347 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.gephi.graph.api.Element;
+import org.gephi.graph.api.Node;
+
+/**
+ * Column index of a view which doesn't store any element but filters the
+ * elements of the main index with the view membership.
+ * <p>
+ * Value counts and statistics are cached until either the main index or the
+ * view changes.
+ *
+ * @param <K> value type
+ * @param <T> element type
+ */
+public class ColumnViewIndexImpl<K, T extends Element> implements ColumnIndexImpl<K, T> {
+
+    // Main index
+    protected final ColumnStandardIndexImpl<K, T> index;
+    // View
+    protected final GraphViewImpl view;
+    protected final boolean nodes;
+    // Cached counts
+    protected final Object2IntMap<K> counts;
+    protected int countsIndexVersion;
+    protected int countsNodeVersion;
+    protected int countsEdgeVersion;
+    // Cached statistics
+    protected ValueStatistics<K> statistics;
+    protected int statisticsNodeVersion;
+    protected int statisticsEdgeVersion;
+
+    public ColumnViewIndexImpl(ColumnStandardIndexImpl<K, T> index, GraphViewImpl view, Class<T> elementClass) {
+        this.index = index;
+        this.view = view;
+        this.nodes = elementClass.equals(Node.class);
+        this.counts = new Object2IntOpenHashMap<>();
+        this.counts.defaultReturnValue(-1);
+    }
+
+    @Override
+    public int count(K value) {
+        // Same lock order as getStatistics(), table lock first
+        index.lock();
+        try {
+            synchronized (counts) {
+                if (countsIndexVersion != index
+                        .getVersion() || countsNodeVersion != view.version.nodeVersion || countsEdgeVersion != view.version.edgeVersion) {
+                    counts.clear();
+                    countsIndexVersion = index.getVersion();
+                    countsNodeVersion = view.version.nodeVersion;
+                    countsEdgeVersion = view.version.edgeVersion;
+                }
+                int count = counts.getInt(value);
+                if (count == -1) {
+                    count = filter(index.get(value)).size();
+                    counts.put(value, count);
+                }
+                return count;
+            }
+        } finally {
+            index.unlock();
+        }
+    }
+
+    @Override
+    public Iterable<T> get(K value) {
+        return filter(index.get(value));
+    }
+
+    @Override
+    public int count(K low, boolean lowInclusive, K high, boolean highInclusive) {
+        return filter(index.get(low, lowInclusive, high, highInclusive)).size();
+    }
+
+    @Override
+    public Iterable<T> get(K low, boolean lowInclusive, K high, boolean highInclusive) {
+        return filter(index.get(low, lowInclusive, high, highInclusive));
+    }
+
+    @Override
+    public Iterable<T> getSorted(boolean ascending) {
+        return filter(index.getSorted(ascending));
+    }
+
+    @Override
+    public Iterable<T> getByPrefix(String prefix) {
+        return filter(index.getByPrefix(prefix));
+    }
+
+    @Override
+    public Iterable<T> getBySubstring(String text) {
+        return filter(index.getBySubstring(text));
+    }
+
+    @Override
+    public Iterable<T> getContainingAny(Collection<?> values) {
+        return filter(index.getContainingAny(values));
+    }
+
+    @Override
+    public Iterable<T> getContainingAll(Collection<?> values) {
+        return filter(index.getContainingAll(values));
+    }
+
+    @Override
+    public int countContainingAny(Collection<?> values) {
+        return filter(index.getContainingAny(values)).size();
+    }
+
+    @Override
+    public int countContainingAll(Collection<?> values) {
+        return filter(index.getContainingAll(values)).size();
+    }
+
+    @Override
+    public Collection<K> values() {
+        List<K> values = new ArrayList<>();
+        index.lock();
+        try {
+            for (Map.Entry<K, ? extends Set<T>> entry : index) {
+                if (containsAny(entry.getValue())) {
+                    values.add(entry.getKey());
+                }
+            }
+        } finally {
+            index.unlock();
+        }
+        return values;
+    }
+
+    @Override
+    public int countValues() {
+        return values().size();
+    }
+
+    @Override
+    public int countElements() {
+        return nodes ? view.getNodeCount() : view.getEdgeCount();
+    }
+
+    @Override
+    public boolean isSortable() {
+        return index.isSortable();
+    }
+
+    @Override
+    public Number getMinValue() {
+        return getFirstValue(true);
+    }
+
+    @Override
+    public Number getMaxValue() {
+        return getFirstValue(false);
+    }
+
+    private Number getFirstValue(boolean ascending) {
+        if (!index.isSortable()) {
+            // Throws the appropriate exception
+            return ascending ? index.getMinValue() : index.getMaxValue();
+        }
+        index.lock();
+        try {
+            Iterator<ColumnStandardIndexImpl.ValueSet<K, T>> itr = index.sortedValueSets(ascending);
+            while (itr.hasNext()) {
+                ColumnStandardIndexImpl.ValueSet<K, T> valueSet = itr.next();
+                if (containsAny(valueSet)) {
+                    return (Number) valueSet.value;
+                }
+            }
+            return null;
+        } finally {
+            index.unlock();
+        }
+    }
+
+    @Override
+    public Map<K, Integer> getTopValues(int k) {
+        ValueStatistics.checkTopValues(k);
+        return getStatistics().getTopValues(k);
+    }
+
+    @Override
+    public Number getQuantile(double q) {
+        if (!index.isSortable()) {
+            // Throws the appropriate exception
+            return index.getQuantile(q);
+        }
+        ValueStatistics.checkQuantile(q);
+        return getStatistics().getQuantile(q);
+    }
+
+    @Override
+    public int[] getHistogram(int buckets) {
+        if (!index.isSortable()) {
+            // Throws the appropriate exception
+            return index.getHistogram(buckets);
+        }
+        ValueStatistics.checkHistogram(buckets);
+        return getStatistics().getHistogram(buckets);
+    }
+
+    private ValueStatistics<K> getStatistics() {
+        index.lock();
+        try {
+            synchronized (counts) {
+                int indexVersion = index.getVersion();
+                if (statistics == null || statistics
+                        .getVersion() != indexVersion || statisticsNodeVersion != view.version.nodeVersion || statisticsEdgeVersion != view.version.edgeVersion) {
+                    List<Object> values = new ArrayList<>();
+                    IntList valueCounts = new IntArrayList();
+                    for (Map.Entry<K, ? extends Set<T>> entry : index) {
+                        if (entry.getKey() == null) {
+                            continue;
+                        }
+                        int count = 0;
+                        for (T element : entry.getValue()) {
+                            if (contains(element)) {
+                                count++;
+                            }
+                        }
+                        if (count > 0) {
+                            values.add(entry.getKey());
+                            valueCounts.add(count);
+                        }
+                    }
+                    statistics = new ValueStatistics<>(indexVersion, values.toArray(), valueCounts.toIntArray());
+                    statisticsNodeVersion = view.version.nodeVersion;
+                    statisticsEdgeVersion = view.version.edgeVersion;
+                }
+                return statistics;
+            }
+        } finally {
+            index.unlock();
+        }
+    }
+
+    @Override
+    public ColumnImpl getColumn() {
+        return index.getColumn();
+    }
+
+    @Override
+    public int getVersion() {
+        return index.getVersion();
+    }
+
+    @Override
+    public Iterator<Map.Entry<K, ? extends Set<T>>> iterator() {
+        List<Map.Entry<K, ? extends Set<T>>> entries = new ArrayList<>();
+        index.lock();
+        try {
+            for (Map.Entry<K, ? extends Set<T>> entry : index) {
+                Set<T> set = new ObjectOpenHashSet<>();
+                for (T element : entry.getValue()) {
+                    if (contains(element)) {
+                        set.add(element);
+                    }
+                }
+                if (!set.isEmpty()) {
+                    entries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getKey(), set));
+                }
+            }
+        } finally {
+            index.unlock();
+        }
+        return entries.iterator();
+    }
+
+    @Override
+    public K putValue(T element, K value) {
+        // Maintained by the main index
+        return value;
+    }
+
+    @Override
+    public void removeValue(T element, K value) {
+    }
+
+    @Override
+    public K replaceValue(T element, K oldValue, K newValue) {
+        return newValue;
+    }
+
+    @Override
+    public void clear() {
+    }
+
+    @Override
+    public void destroy() {
+    }
+
+    protected boolean contains(T element) {
+        if (nodes) {
+            return view.containsNode((NodeImpl) element);
+        }
+        return view.containsEdge((EdgeImpl) element);
+    }
+
+    private boolean containsAny(Set<T> set) {
+        for (T element : set) {
+            if (contains(element)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Filters eagerly so results stay consistent with the view at query time
+    private List<T> filter(Iterable<T> elements) {
+        List<T> result = new ArrayList<>();
+        for (T element : elements) {
+            if (contains(element)) {
+                result.add(element);
+            }
+        }
+        return result;
+    }
+}
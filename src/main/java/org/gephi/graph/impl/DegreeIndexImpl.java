@@ -0,0 +1,432 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.ints.Int2IntAVLTreeMap;
+import it.unimi.dsi.fastutil.ints.Int2IntSortedMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectSortedMap;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.objects.ObjectBidirectionalIterator;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.impl.DegreeNoIndexImpl.DegreeType;
+
+/**
+ * Degree column index backed by the buckets of a {@link DegreeIndexStore}.
+ */
+public class DegreeIndexImpl implements ColumnIndexImpl<Integer, Node> {
+
+    // Type
+    protected final DegreeType degreeType;
+    // Graph
+    protected final Graph graph;
+    protected final NodeStore nodeStore;
+    // Store
+    protected final DegreeIndexStore store;
+
+    protected DegreeIndexImpl(Graph graph, DegreeIndexStore store, DegreeType degreeType) {
+        this.graph = graph;
+        this.nodeStore = ((GraphModelImpl) graph.getModel()).store.nodeStore;
+        this.store = store;
+        this.degreeType = degreeType;
+    }
+
+    @Override
+    public int count(Integer value) {
+        checkNull(value);
+
+        graph.readLock();
+        try {
+            synchronized (store) {
+                IdBitmap bucket = getBuckets().get(value.intValue());
+                return bucket != null ? bucket.getCardinality() : 0;
+            }
+        } finally {
+            graph.readUnlock();
+        }
+    }
+
+    @Override
+    public Iterable<Node> get(Integer value) {
+        checkNull(value);
+
+        graph.readLock();
+        try {
+            synchronized (store) {
+                List<Node> nodes = new ArrayList<>();
+                addNodes(nodes, getBuckets().get(value.intValue()));
+                return nodes;
+            }
+        } finally {
+            graph.readUnlock();
+        }
+    }
+
+    @Override
+    public int count(Integer low, boolean lowInclusive, Integer high, boolean highInclusive) {
+        graph.readLock();
+        try {
+            synchronized (store) {
+                int count = 0;
+                for (IdBitmap bucket : subMap(low, lowInclusive, high, highInclusive).values()) {
+                    count += bucket.getCardinality();
+                }
+                return count;
+            }
+        } finally {
+            graph.readUnlock();
+        }
+    }
+
+    @Override
+    public Iterable<Node> get(Integer low, boolean lowInclusive, Integer high, boolean highInclusive) {
+        graph.readLock();
+        try {
+            synchronized (store) {
+                List<Node> nodes = new ArrayList<>();
+                for (IdBitmap bucket : subMap(low, lowInclusive, high, highInclusive).values()) {
+                    addNodes(nodes, bucket);
+                }
+                return nodes;
+            }
+        } finally {
+            graph.readUnlock();
+        }
+    }
+
+    @Override
+    public Iterable<Node> getSorted(boolean ascending) {
+        graph.readLock();
+        try {
+            synchronized (store) {
+                List<Node> nodes = new ArrayList<>();
+                Int2ObjectSortedMap<IdBitmap> buckets = getBuckets();
+                if (ascending) {
+                    for (IdBitmap bucket : buckets.values()) {
+                        addNodes(nodes, bucket);
+                    }
+                } else if (!buckets.isEmpty()) {
+                    ObjectBidirectionalIterator<Int2ObjectMap.Entry<IdBitmap>> itr = buckets.int2ObjectEntrySet()
+                            .iterator(buckets.int2ObjectEntrySet().last());
+                    // Positioned after the last entry
+                    while (itr.hasPrevious()) {
+                        addNodes(nodes, itr.previous().getValue());
+                    }
+                }
+                return nodes;
+            }
+        } finally {
+            graph.readUnlock();
+        }
+    }
+
+    @Override
+    public Iterable<Node> getByPrefix(String prefix) {
+        throw new UnsupportedOperationException("Degree index is not a text index");
+    }
+
+    @Override
+    public Iterable<Node> getBySubstring(String text) {
+        throw new UnsupportedOperationException("Degree index is not a text index");
+    }
+
+    @Override
+    public Iterable<Node> getContainingAny(Collection<?> values) {
+        throw new UnsupportedOperationException("Degree index is not an array index");
+    }
+
+    @Override
+    public Iterable<Node> getContainingAll(Collection<?> values) {
+        throw new UnsupportedOperationException("Degree index is not an array index");
+    }
+
+    @Override
+    public int countContainingAny(Collection<?> values) {
+        throw new UnsupportedOperationException("Degree index is not an array index");
+    }
+
+    @Override
+    public int countContainingAll(Collection<?> values) {
+        throw new UnsupportedOperationException("Degree index is not an array index");
+    }
+
+    @Override
+    public Collection<Integer> values() {
+        graph.readLock();
+        try {
+            synchronized (store) {
+                return new ArrayList<>(getBuckets().keySet());
+            }
+        } finally {
+            graph.readUnlock();
+        }
+    }
+
+    @Override
+    public int countValues() {
+        graph.readLock();
+        try {
+            synchronized (store) {
+                return getBuckets().size();
+            }
+        } finally {
+            graph.readUnlock();
+        }
+    }
+
+    @Override
+    public int countElements() {
+        return graph.getNodeCount();
+    }
+
+    @Override
+    public boolean isSortable() {
+        return true;
+    }
+
+    @Override
+    public Integer getMinValue() {
+        graph.readLock();
+        try {
+            synchronized (store) {
+                Int2ObjectSortedMap<IdBitmap> buckets = getBuckets();
+                return buckets.isEmpty() ? null : buckets.firstIntKey();
+            }
+        } finally {
+            graph.readUnlock();
+        }
+    }
+
+    @Override
+    public Integer getMaxValue() {
+        graph.readLock();
+        try {
+            synchronized (store) {
+                Int2ObjectSortedMap<IdBitmap> buckets = getBuckets();
+                return buckets.isEmpty() ? null : buckets.lastIntKey();
+            }
+        } finally {
+            graph.readUnlock();
+        }
+    }
+
+    @Override
+    public Map<Integer, Integer> getTopValues(int k) {
+        ValueStatistics.checkTopValues(k);
+        return getStatistics().getTopValues(k);
+    }
+
+    @Override
+    public Number getQuantile(double q) {
+        ValueStatistics.checkQuantile(q);
+        return getStatistics().getQuantile(q);
+    }
+
+    @Override
+    public int[] getHistogram(int buckets) {
+        ValueStatistics.checkHistogram(buckets);
+        return getStatistics().getHistogram(buckets);
+    }
+
+    private ValueStatistics<Integer> getStatistics() {
+        graph.readLock();
+        try {
+            synchronized (store) {
+                return store.getStatistics(degreeType);
+            }
+        } finally {
+            graph.readUnlock();
+        }
+    }
+
+    /**
+     * Returns the number of nodes for each degree, sorted by degree.
+     *
+     * @return degree histogram
+     */
+    public Int2IntSortedMap getHistogram() {
+        graph.readLock();
+        try {
+            synchronized (store) {
+                Int2IntSortedMap histogram = new Int2IntAVLTreeMap();
+                for (Int2ObjectMap.Entry<IdBitmap> entry : getBuckets().int2ObjectEntrySet()) {
+                    histogram.put(entry.getIntKey(), entry.getValue().getCardinality());
+                }
+                return histogram;
+            }
+        } finally {
+            graph.readUnlock();
+        }
+    }
+
+    @Override
+    public Column getColumn() {
+        switch (degreeType) {
+            case DEGREE:
+                return graph.getModel().defaultColumns().degree();
+            case IN_DEGREE:
+                return graph.getModel().defaultColumns().inDegree();
+            case OUT_DEGREE:
+                return graph.getModel().defaultColumns().outDegree();
+        }
+        return null;
+    }
+
+    @Override
+    public int getVersion() {
+        graph.readLock();
+        try {
+            synchronized (store) {
+                getBuckets();
+                return store.getVersion();
+            }
+        } finally {
+            graph.readUnlock();
+        }
+    }
+
+    @Override
+    public Iterator<Map.Entry<Integer, ? extends Set<Node>>> iterator() {
+        graph.readLock();
+        try {
+            synchronized (store) {
+                List<Map.Entry<Integer, ? extends Set<Node>>> entries = new ArrayList<>();
+                for (Int2ObjectMap.Entry<IdBitmap> entry : getBuckets().int2ObjectEntrySet()) {
+                    Set<Node> set = new ObjectOpenHashSet<>();
+                    addNodes(set, entry.getValue());
+                    entries.add(new AbstractMap.SimpleImmutableEntry<>(entry.getIntKey(), set));
+                }
+                return entries.iterator();
+            }
+        } finally {
+            graph.readUnlock();
+        }
+    }
+
+    @Override
+    public void clear() {
+        // Nothing to clear
+    }
+
+    @Override
+    public void destroy() {
+        // Nothing to destroy
+    }
+
+    @Override
+    public Integer putValue(Node element, Integer value) {
+        return value;
+    }
+
+    @Override
+    public Integer replaceValue(Node element, Integer oldValue, Integer newValue) {
+        return newValue;
+    }
+
+    @Override
+    public void removeValue(Node element, Integer value) {
+        // Nothing to remove
+    }
+
+    /**
+     * Returns the store ids of the nodes with the given degree.
+     *
+     * @param degree the degree
+     * @return bitmap copy
+     */
+    public IdBitmap getBitmap(int degree) {
+        graph.readLock();
+        try {
+            synchronized (store) {
+                IdBitmap bucket = getBuckets().get(degree);
+                return bucket != null ? bucket.copy() : new IdBitmap();
+            }
+        } finally {
+            graph.readUnlock();
+        }
+    }
+
+    /**
+     * Returns the store ids of the nodes with a degree in the given range.
+     *
+     * @param low the lower bound, or null
+     * @param lowInclusive true if the lower bound is included
+     * @param high the upper bound, or null
+     * @param highInclusive true if the upper bound is included
+     * @return bitmap union of the degrees in the range
+     */
+    public IdBitmap getBitmap(Integer low, boolean lowInclusive, Integer high, boolean highInclusive) {
+        graph.readLock();
+        try {
+            synchronized (store) {
+                IdBitmap res = new IdBitmap();
+                for (IdBitmap bucket : subMap(low, lowInclusive, high, highInclusive).values()) {
+                    res = IdBitmap.or(res, bucket);
+                }
+                return res;
+            }
+        } finally {
+            graph.readUnlock();
+        }
+    }
+
+    private Int2ObjectSortedMap<IdBitmap> getBuckets() {
+        return store.getBuckets(degreeType);
+    }
+
+    private Int2ObjectSortedMap<IdBitmap> subMap(Integer low, boolean lowInclusive, Integer high, boolean highInclusive) {
+        Int2ObjectSortedMap<IdBitmap> map = getBuckets();
+        if (low != null) {
+            if (low == Integer.MAX_VALUE && !lowInclusive) {
+                return map.subMap(0, 0);
+            }
+            map = map.tailMap(lowInclusive ? low : low + 1);
+        }
+        if (high != null) {
+            if (high == Integer.MIN_VALUE && !highInclusive) {
+                return map.headMap(Integer.MIN_VALUE);
+            }
+            map = highInclusive && high == Integer.MAX_VALUE ? map : map.headMap(highInclusive ? high + 1 : high);
+        }
+        return map;
+    }
+
+    private void addNodes(Collection<Node> nodes, IdBitmap bucket) {
+        if (bucket != null) {
+            IntIterator itr = bucket.iterator();
+            while (itr.hasNext()) {
+                nodes.add(nodeStore.get(itr.nextInt()));
+            }
+        }
+    }
+
+    private void checkNull(Integer value) {
+        if (value == null) {
+            throw new NullPointerException();
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.ints.Int2ObjectAVLTreeMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMap;
+import it.unimi.dsi.fastutil.ints.Int2ObjectSortedMap;
+import java.util.Arrays;
+import java.util.List;
+import org.gephi.graph.api.DirectedGraph;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.impl.DegreeNoIndexImpl.DegreeType;
+
+/**
+ * Degree, in-degree and out-degree buckets of the nodes of a graph.
+ * <p>
+ * Each degree type keeps a sorted map from degree to the store ids of the nodes
+ * with that degree. The store of the main graph is updated by the node and edge
+ * stores when elements are added or removed, and the store of a view by the
+ * view when a node or an edge is added to or removed from it, by moving the
+ * affected nodes from one bucket to another. Any other change, such as a set
+ * operation on a view, is detected with the graph version and the buckets are
+ * rebuilt at the next read.
+ */
+public class DegreeIndexStore {
+
+    protected final Graph graph;
+    protected final GraphVersion graphVersion;
+    protected final boolean main;
+    protected final GraphViewImpl view;
+    // Buckets, by degree type ordinal
+    protected final Int2ObjectSortedMap<IdBitmap>[] buckets;
+    protected final int[][] degrees;
+    // Statistics, by degree type ordinal
+    protected final ValueStatistics<Integer>[] statistics;
+    // Version
+    protected boolean valid;
+    protected int nodeVersion;
+    protected int edgeVersion;
+    protected int version;
+
+    public DegreeIndexStore(Graph graph) {
+        this.graph = graph;
+        this.main = graph.getView().isMainView();
+        this.view = main ? null : (GraphViewImpl) graph.getView();
+        this.graphVersion = main ? ((GraphStore) graph).version : view.version;
+        int types = DegreeType.values().length;
+        this.buckets = new Int2ObjectSortedMap[types];
+        this.degrees = new int[types][];
+        this.statistics = new ValueStatistics[types];
+        for (int i = 0; i < types; i++) {
+            buckets[i] = new Int2ObjectAVLTreeMap<>();
+            degrees[i] = new int[0];
+        }
+    }
+
+    /**
+     * Returns the buckets of the given degree type, rebuilt first if the graph has
+     * changed since the last update in a way the incremental updates don't cover.
+     * <p>
+     * The caller should hold the graph read lock and synchronize on this store
+     * while the buckets are used.
+     *
+     * @param type degree type
+     * @return sorted buckets
+     */
+    protected Int2ObjectSortedMap<IdBitmap> getBuckets(DegreeType type) {
+        if (!isUpToDate()) {
+            rebuild();
+        }
+        return buckets[type.ordinal()];
+    }
+
+    /**
+     * Returns the statistics of the given degree type, computed from the buckets
+     * and cached until they change.
+     * <p>
+     * The caller should hold the graph read lock and synchronize on this store.
+     *
+     * @param type degree type
+     * @return degree statistics
+     */
+    protected ValueStatistics<Integer> getStatistics(DegreeType type) {
+        Int2ObjectSortedMap<IdBitmap> map = getBuckets(type);
+        ValueStatistics<Integer> stats = statistics[type.ordinal()];
+        if (stats == null || stats.getVersion() != version) {
+            Object[] values = new Object[map.size()];
+            int[] counts = new int[values.length];
+            int i = 0;
+            for (Int2ObjectMap.Entry<IdBitmap> entry : map.int2ObjectEntrySet()) {
+                values[i] = entry.getIntKey();
+                counts[i++] = entry.getValue().getCardinality();
+            }
+            stats = new ValueStatistics<>(version, values, counts);
+            statistics[type.ordinal()] = stats;
+        }
+        return stats;
+    }
+
+    // Graph write locked, after a node has been added
+    protected synchronized void addNode(NodeImpl node) {
+        if (checkVersion(1, 0)) {
+            for (DegreeType type : DegreeType.values()) {
+                put(type, node.storeId, getDegree(node, type));
+            }
+        }
+    }
+
+    // Graph write locked, after a batch of nodes has been added with a single
+    // version increment
+    protected synchronized void addNodes(List<NodeImpl> nodes) {
+        if (isIncremental(nodes.size()) && checkVersion(1, 0)) {
+            for (NodeImpl node : nodes) {
+                for (DegreeType type : DegreeType.values()) {
+                    put(type, node.storeId, getDegree(node, type));
+                }
+            }
+        } else {
+            valid = false;
+        }
+    }
+
+    // Graph write locked, after a node has been removed
+    protected synchronized void removeNode(int storeId) {
+        if (checkVersion(1, 0)) {
+            for (DegreeType type : DegreeType.values()) {
+                remove(type, storeId);
+            }
+        }
+    }
+
+    // Graph write locked, after an edge between source and target has been added
+    // or removed
+    protected synchronized void updateEdge(NodeImpl source, NodeImpl target) {
+        if (checkVersion(0, 1)) {
+            update(source);
+            if (target != source) {
+                update(target);
+            }
+        }
+    }
+
+    // Graph write locked, after a batch of edges has been added with a single
+    // version increment
+    protected synchronized void updateEdges(List<EdgeImpl> edges) {
+        if (isIncremental(edges.size() * 2) && checkVersion(0, 1)) {
+            for (EdgeImpl edge : edges) {
+                update(edge.source);
+                if (edge.target != edge.source) {
+                    update(edge.target);
+                }
+            }
+        } else {
+            valid = false;
+        }
+    }
+
+    protected int getVersion() {
+        return version;
+    }
+
+    private void update(NodeImpl node) {
+        if (view != null && !view.containsNode(node)) {
+            // Edges of a node removed from the view, already out of the buckets
+            return;
+        }
+        for (DegreeType type : DegreeType.values()) {
+            int degree = getDegree(node, type);
+            int[] array = ensureCapacity(type, node.storeId);
+            if (array[node.storeId] != degree) {
+                remove(type, node.storeId);
+                put(type, node.storeId, degree);
+            }
+        }
+    }
+
+    private void put(DegreeType type, int storeId, int degree) {
+        int[] array = ensureCapacity(type, storeId);
+        array[storeId] = degree;
+        Int2ObjectSortedMap<IdBitmap> map = buckets[type.ordinal()];
+        IdBitmap bucket = map.get(degree);
+        if (bucket == null) {
+            bucket = new IdBitmap();
+            map.put(degree, bucket);
+        }
+        bucket.add(storeId);
+        version++;
+    }
+
+    private void remove(DegreeType type, int storeId) {
+        int[] array = degrees[type.ordinal()];
+        if (storeId < array.length && array[storeId] != -1) {
+            int degree = array[storeId];
+            array[storeId] = -1;
+            Int2ObjectSortedMap<IdBitmap> map = buckets[type.ordinal()];
+            IdBitmap bucket = map.get(degree);
+            bucket.remove(storeId);
+            if (bucket.isEmpty()) {
+                map.remove(degree);
+            }
+            version++;
+        }
+    }
+
+    private int[] ensureCapacity(DegreeType type, int storeId) {
+        int[] array = degrees[type.ordinal()];
+        if (storeId >= array.length) {
+            int oldLength = array.length;
+            array = Arrays.copyOf(array, Math.max(storeId + 1, (int) (oldLength * 1.5)));
+            Arrays.fill(array, oldLength, array.length, -1);
+            degrees[type.ordinal()] = array;
+        }
+        return array;
+    }
+
+    // Beyond a share of the nodes a rebuild is cheaper than moving each node
+    private boolean isIncremental(int updates) {
+        return updates <= graph.getNodeCount();
+    }
+
+    private boolean isUpToDate() {
+        if (!valid || graphVersion == null) {
+            return false;
+        }
+        return graphVersion.nodeVersion == nodeVersion && graphVersion.edgeVersion == edgeVersion;
+    }
+
+    // Only applies incremental updates if nothing else has changed since the last
+    // update, the buckets are otherwise rebuilt on the next read
+    private boolean checkVersion(int nodeIncrement, int edgeIncrement) {
+        if (!isUpToDate(nodeIncrement, edgeIncrement)) {
+            valid = false;
+            return false;
+        }
+        nodeVersion = graphVersion.nodeVersion;
+        edgeVersion = graphVersion.edgeVersion;
+        return true;
+    }
+
+    private boolean isUpToDate(int nodeIncrement, int edgeIncrement) {
+        return valid && graphVersion != null && graphVersion.nodeVersion == nodeVersion + nodeIncrement && graphVersion.edgeVersion == edgeVersion + edgeIncrement;
+    }
+
+    private void rebuild() {
+        for (int i = 0; i < buckets.length; i++) {
+            buckets[i].clear();
+            Arrays.fill(degrees[i], -1);
+        }
+        for (Node node : graph.getNodes()) {
+            NodeImpl nodeImpl = (NodeImpl) node;
+            for (DegreeType type : DegreeType.values()) {
+                put(type, nodeImpl.storeId, getDegree(nodeImpl, type));
+            }
+        }
+        if (graphVersion != null) {
+            nodeVersion = graphVersion.nodeVersion;
+            edgeVersion = graphVersion.edgeVersion;
+        }
+        version++;
+        valid = true;
+    }
+
+    private int getDegree(NodeImpl node, DegreeType type) {
+        if (main) {
+            // Read from the node directly, the store may be locked for writing
+            switch (type) {
+                case DEGREE:
+                    return node.getDegree();
+                case IN_DEGREE:
+                    return node.getInDegree();
+                case OUT_DEGREE:
+                    return node.getOutDegree();
+            }
+        }
+        switch (type) {
+            case DEGREE:
+                return graph.getDegree(node);
+            case IN_DEGREE:
+                return ((DirectedGraph) graph).getInDegree(node);
+            case OUT_DEGREE:
+                return ((DirectedGraph) graph).getOutDegree(node);
+        }
+        throw new RuntimeException();
+    }
+}
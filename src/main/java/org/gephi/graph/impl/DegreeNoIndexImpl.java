@@ -1,8 +1,12 @@
 package org.gephi.graph.impl;
 
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import org.gephi.graph.api.Column;
@@ -49,6 +53,80 @@ public class DegreeNoIndexImpl implements ColumnIndexImpl<Integer, Node> {
         return new NodeWithDegreeIterable(degree);
     }
 
+    @Override
+    public int count(Integer low, boolean lowInclusive, Integer high, boolean highInclusive) {
+        Iterator<Node> nodeIterator = graph.getNodes().iterator();
+        int count = 0;
+        while (nodeIterator.hasNext()) {
+            Node node = nodeIterator.next();
+            if (ColumnNoIndexImpl.isInRange(getDegree(node), low, lowInclusive, high, highInclusive)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public Iterable<Node> get(Integer low, boolean lowInclusive, Integer high, boolean highInclusive) {
+        return getSorted(low, lowInclusive, high, highInclusive, true);
+    }
+
+    @Override
+    public Iterable<Node> getSorted(boolean ascending) {
+        return getSorted(null, true, null, true, ascending);
+    }
+
+    @Override
+    public Iterable<Node> getByPrefix(String prefix) {
+        throw new UnsupportedOperationException("Degree index is not a text index");
+    }
+
+    @Override
+    public Iterable<Node> getBySubstring(String text) {
+        throw new UnsupportedOperationException("Degree index is not a text index");
+    }
+
+    @Override
+    public Iterable<Node> getContainingAny(Collection<?> values) {
+        throw new UnsupportedOperationException("Degree index is not an array index");
+    }
+
+    @Override
+    public Iterable<Node> getContainingAll(Collection<?> values) {
+        throw new UnsupportedOperationException("Degree index is not an array index");
+    }
+
+    @Override
+    public int countContainingAny(Collection<?> values) {
+        throw new UnsupportedOperationException("Degree index is not an array index");
+    }
+
+    @Override
+    public int countContainingAll(Collection<?> values) {
+        throw new UnsupportedOperationException("Degree index is not an array index");
+    }
+
+    private List<Node> getSorted(Integer low, boolean lowInclusive, Integer high, boolean highInclusive, final boolean ascending) {
+        final Object2IntOpenHashMap<Node> degrees = new Object2IntOpenHashMap<>();
+        Iterator<Node> nodeIterator = graph.getNodes().iterator();
+        while (nodeIterator.hasNext()) {
+            Node node = nodeIterator.next();
+            int degree = getDegree(node);
+            if (ColumnNoIndexImpl.isInRange(degree, low, lowInclusive, high, highInclusive)) {
+                degrees.put(node, degree);
+            }
+        }
+        List<Node> list = new ArrayList<>(degrees.keySet());
+        list.sort(new Comparator<Node>() {
+            @Override
+            public int compare(Node n1, Node n2) {
+                int c = Integer.compare(degrees.getInt(n1), degrees.getInt(n2));
+                return ascending ? c : -c;
+            }
+        });
+        return list;
+    }
+
     @Override
     public Collection<Integer> values() {
         Iterator<Node> nodeIterator = graph.getNodes().iterator();
@@ -108,6 +186,32 @@ public class DegreeNoIndexImpl implements ColumnIndexImpl<Integer, Node> {
         return max;
     }
 
+    @Override
+    public Map<Integer, Integer> getTopValues(int k) {
+        ValueStatistics.checkTopValues(k);
+        return getStatistics().getTopValues(k);
+    }
+
+    @Override
+    public Number getQuantile(double q) {
+        ValueStatistics.checkQuantile(q);
+        return getStatistics().getQuantile(q);
+    }
+
+    @Override
+    public int[] getHistogram(int buckets) {
+        ValueStatistics.checkHistogram(buckets);
+        return getStatistics().getHistogram(buckets);
+    }
+
+    private ValueStatistics<Integer> getStatistics() {
+        Object2IntOpenHashMap<Integer> counts = new Object2IntOpenHashMap<>();
+        for (Node node : graph.getNodes()) {
+            counts.addTo(getDegree(node), 1);
+        }
+        return ValueStatistics.fromCounts(0, counts, true);
+    }
+
     @Override
     public Column getColumn() {
         switch (degreeType) {
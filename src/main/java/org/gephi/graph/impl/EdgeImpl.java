@@ -78,6 +78,10 @@ public class EdgeImpl extends ElementImpl implements Edge {
 
     @Override
     public double getWeight() {
+        PrimitiveColumnStore weights = getWeightValues();
+        if (weights != null) {
+            return weights.getDouble(storeId);
+        }
         synchronized (this) {
             Object weightObject = attributes.getAttribute(GraphStoreConfiguration.EDGE_WEIGHT_INDEX);
             if (weightObject instanceof Double) {
@@ -128,7 +132,7 @@ public class EdgeImpl extends ElementImpl implements Edge {
         if (column.isDynamicAttribute()) {
             return getWeight(view.getTimeInterval());
         } else {
-            return (Double) attributes.getAttribute(column);
+            return (Double) getAttribute(column);
         }
     }
 
@@ -162,6 +166,17 @@ public class EdgeImpl extends ElementImpl implements Edge {
         setAttribute(column, weight);
     }
 
+    // Static weights of edges in the store are kept in a primitive column
+    private PrimitiveColumnStore getWeightValues() {
+        if (graphStore != null && storeId != EdgeStore.NULL_ID) {
+            ColumnImpl column = graphStore.edgeTable.store.columns[GraphStoreConfiguration.EDGE_WEIGHT_INDEX];
+            if (column != null && column.isProperty()) {
+                return column.values;
+            }
+        }
+        return null;
+    }
+
     public int getNextOutEdge() {
         return nextOutEdge;
     }
@@ -16,6 +16,8 @@
 package org.gephi.graph.impl;
 
 import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.function.Supplier;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.EdgeIterable;
 
@@ -29,6 +31,10 @@ public class EdgeIterableWrapper extends ElementIterableWrapper<Edge> implements
         super(iterator, lock);
     }
 
+    public EdgeIterableWrapper(Iterator<Edge> iterator, Supplier<Spliterator<Edge>> spliterator, GraphLockImpl lock) {
+        super(iterator, spliterator, lock);
+    }
+
     @Override
     public Edge[] toArray() {
         return toArray(new Edge[0]);
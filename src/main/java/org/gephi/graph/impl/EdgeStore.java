@@ -16,11 +16,15 @@
 
 package org.gephi.graph.impl;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenCustomHashMap;
-import it.unimi.dsi.fastutil.longs.LongHash;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import it.unimi.dsi.fastutil.objects.ObjectSet;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -28,7 +32,15 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.EdgeIterable;
 import org.gephi.graph.api.Node;
@@ -38,6 +50,7 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
     // Const
     protected final static int NULL_ID = -1;
     protected final static int NODE_BITS = 31;
+    protected final static int ANY_TYPE = -1;
     protected static final Iterator<Edge> EMPTY_EDGE_ITERATOR = Collections.emptyIterator();
     // Locking (optional)
     protected final GraphLockImpl lock;
@@ -49,6 +62,8 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
     protected final GraphViewStore viewStore;
     // Spatial index
     protected final SpatialIndexImpl spatialIndex;
+    // Degree index (optional)
+    protected DegreeIndexStore degreeIndexStore;
     // Data
     protected int size;
     protected int garbageSize;
@@ -56,8 +71,8 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
     protected int currentBlockIndex;
     protected EdgeBlock blocks[];
     protected EdgeBlock currentBlock;
-    protected Object2IntOpenHashMap dictionary;
-    protected Long2ObjectOpenCustomHashMap<int[]>[] longDictionary;
+    protected StripedIdDictionary dictionary;
+    protected StripedLongDictionary[] longDictionary;
     // Stats
     protected int undirectedSize;
     protected int mutualEdgesSize;
@@ -101,12 +116,9 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         this.blocks = new EdgeBlock[GraphStoreConfiguration.EDGESTORE_DEFAULT_BLOCKS];
         this.blocks[0] = new EdgeBlock(0);
         this.currentBlock = blocks[currentBlockIndex];
-        this.dictionary = new Object2IntOpenHashMap(GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE);
-        this.dictionary.defaultReturnValue(NULL_ID);
-        this.longDictionary = new Long2ObjectOpenCustomHashMap[GraphStoreConfiguration.EDGESTORE_DEFAULT_TYPE_COUNT];
-        this.longDictionary[0] = new Long2ObjectOpenCustomHashMap(
-                GraphStoreConfiguration.EDGESTORE_DEFAULT_DICTIONARY_SIZE,
-                GraphStoreConfiguration.EDGESTORE_DICTIONARY_LOAD_FACTOR, new DictionaryHashStrategy());
+        this.dictionary = new StripedIdDictionary(GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE);
+        this.longDictionary = new StripedLongDictionary[GraphStoreConfiguration.EDGESTORE_DEFAULT_TYPE_COUNT];
+        this.longDictionary[0] = new StripedLongDictionary(GraphStoreConfiguration.EDGESTORE_DEFAULT_DICTIONARY_SIZE);
         this.mutualEdgesTypeSize = new int[GraphStoreConfiguration.EDGESTORE_DEFAULT_TYPE_COUNT];
     }
 
@@ -120,7 +132,7 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
                         .ceil((capacity - blockCapacity) / (double) GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE);
                 for (int i = 0; i < blocksNeeded; i++) {
                     if (blocksCount == blocks.length) {
-                        EdgeBlock[] newBlocks = new EdgeBlock[blocksCount + 1];
+                        EdgeBlock[] newBlocks = new EdgeBlock[blocksCount + blocksNeeded - i];
                         System.arraycopy(blocks, 0, newBlocks, 0, blocks.length);
                         blocks = newBlocks;
                     }
@@ -148,6 +160,18 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         dictionary.trim(Math.max(GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE, size * 2));
     }
 
+    private void trimDictionary(final Object id) {
+        dictionary.trim(id, Math.max(GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE, size * 2));
+    }
+
+    private void ensureDictionaryCapacity(final int count) {
+        dictionary.ensureCapacity(count);
+    }
+
+    private void ensureLongDictionaryCapacity(final int type, final int count) {
+        longDictionary[type].ensureCapacity(count);
+    }
+
     private void ensureHeadOutCapacity(final NodeImpl node, final int type) {
         EdgeImpl[] out = node.headOut;
         int outLength = out.length;
@@ -191,14 +215,12 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
     private void ensureLongDictionaryCapacity(int type) {
         int length = longDictionary.length;
         if (type >= length) {
-            Long2ObjectOpenCustomHashMap[] newArray = new Long2ObjectOpenCustomHashMap[type + 1];
+            StripedLongDictionary[] newArray = new StripedLongDictionary[type + 1];
             System.arraycopy(longDictionary, 0, newArray, 0, length);
             longDictionary = newArray;
             for (int i = length; i <= type; i++) {
-                Long2ObjectOpenCustomHashMap newMap = new Long2ObjectOpenCustomHashMap(
-                        GraphStoreConfiguration.EDGESTORE_DEFAULT_DICTIONARY_SIZE,
-                        GraphStoreConfiguration.EDGESTORE_DICTIONARY_LOAD_FACTOR, new DictionaryHashStrategy());
-                longDictionary[i] = newMap;
+                longDictionary[i] = new StripedLongDictionary(
+                        GraphStoreConfiguration.EDGESTORE_DEFAULT_DICTIONARY_SIZE);
             }
             int[] newSizeArray = new int[type + 1];
             System.arraycopy(mutualEdgesTypeSize, 0, newSizeArray, 0, length);
@@ -300,6 +322,7 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
 
         for (EdgeStoreIterator itr = new EdgeStoreIterator(); itr.hasNext();) {
             EdgeImpl edge = itr.next();
+            edge.detachAttributes();
             edge.setStoreId(EdgeStore.NULL_ID);
         }
 
@@ -339,6 +362,16 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         return new EdgeStoreIterator();
     }
 
+    @Override
+    public EdgeStoreSpliterator spliterator() {
+        return new EdgeStoreSpliterator();
+    }
+
+    @Override
+    public Stream<Edge> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
     public EdgeStoreIterator iteratorUndirected() {
         return new UndirectedEdgeStoreIterator();
     }
@@ -421,6 +454,106 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         return new NeighborsUndirectedIterator((NodeImpl) node, new EdgeTypeInOutIterator((NodeImpl) node, type));
     }
 
+    public void forEachOutNeighbor(final Node node, final IntConsumer consumer) {
+        forEachOutNeighbor(node, ANY_TYPE, null, consumer);
+    }
+
+    public void forEachOutNeighbor(final Node node, final int type, final IntConsumer consumer) {
+        forEachOutNeighbor(node, type, null, consumer);
+    }
+
+    public void forEachOutNeighbor(final Node node, final int type, final GraphViewImpl view, final IntConsumer consumer) {
+        forEachNeighbor(node, type, view, true, false, consumer);
+    }
+
+    public void forEachInNeighbor(final Node node, final IntConsumer consumer) {
+        forEachInNeighbor(node, ANY_TYPE, null, consumer);
+    }
+
+    public void forEachInNeighbor(final Node node, final int type, final IntConsumer consumer) {
+        forEachInNeighbor(node, type, null, consumer);
+    }
+
+    public void forEachInNeighbor(final Node node, final int type, final GraphViewImpl view, final IntConsumer consumer) {
+        forEachNeighbor(node, type, view, false, true, consumer);
+    }
+
+    public void forEachNeighbor(final Node node, final IntConsumer consumer) {
+        forEachNeighbor(node, ANY_TYPE, null, consumer);
+    }
+
+    public void forEachNeighbor(final Node node, final int type, final IntConsumer consumer) {
+        forEachNeighbor(node, type, null, consumer);
+    }
+
+    public void forEachNeighbor(final Node node, final int type, final GraphViewImpl view, final IntConsumer consumer) {
+        forEachNeighbor(node, type, view, true, true, consumer);
+    }
+
+    public NeighborCursor neighborOutCursor() {
+        return new NeighborCursor(ANY_TYPE, null, true, false);
+    }
+
+    public NeighborCursor neighborOutCursor(final int type, final GraphViewImpl view) {
+        return new NeighborCursor(type, view, true, false);
+    }
+
+    public NeighborCursor neighborInCursor() {
+        return new NeighborCursor(ANY_TYPE, null, false, true);
+    }
+
+    public NeighborCursor neighborInCursor(final int type, final GraphViewImpl view) {
+        return new NeighborCursor(type, view, false, true);
+    }
+
+    public NeighborCursor neighborCursor() {
+        return new NeighborCursor(ANY_TYPE, null, true, true);
+    }
+
+    public NeighborCursor neighborCursor(final int type, final GraphViewImpl view) {
+        return new NeighborCursor(type, view, true, true);
+    }
+
+    private void forEachNeighbor(final Node node, final int type, final GraphViewImpl view, final boolean out, final boolean in, final IntConsumer consumer) {
+        checkValidNodeObject(node);
+        checkNonNullObject(consumer);
+        NodeImpl nodeImpl = (NodeImpl) node;
+
+        readLock();
+        try {
+            if (out) {
+                EdgeImpl[] outArray = nodeImpl.headOut;
+                int typeLength = type == ANY_TYPE ? outArray.length : Math.min(type + 1, outArray.length);
+                for (int i = type == ANY_TYPE ? 0 : type; i < typeLength; i++) {
+                    EdgeImpl edge = outArray[i];
+                    while (edge != null) {
+                        if (isNeighborEdge(edge, view, true, in)) {
+                            consumer.accept(edge.target.storeId);
+                        }
+                        int id = edge.nextOutEdge;
+                        edge = id != EdgeStore.NULL_ID ? get(id) : null;
+                    }
+                }
+            }
+            if (in) {
+                EdgeImpl[] inArray = nodeImpl.headIn;
+                int typeLength = type == ANY_TYPE ? inArray.length : Math.min(type + 1, inArray.length);
+                for (int i = type == ANY_TYPE ? 0 : type; i < typeLength; i++) {
+                    EdgeImpl edge = inArray[i];
+                    while (edge != null) {
+                        if (isNeighborEdge(edge, view, false, out)) {
+                            consumer.accept(edge.source.storeId);
+                        }
+                        int id = edge.nextInEdge;
+                        edge = id != EdgeStore.NULL_ID ? get(id) : null;
+                    }
+                }
+            }
+        } finally {
+            readUnlock();
+        }
+    }
+
     public Iterator<Edge> edgesUndirectedIterator(final Node node1, final Node node2) {
         checkValidNodeObject(node1);
         checkValidNodeObject(node2);
@@ -575,7 +708,7 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
             NodeImpl target = edge.target;
 
             ensureLongDictionaryCapacity(type);
-            Long2ObjectOpenCustomHashMap<int[]> dico = longDictionary[type];
+            StripedLongDictionary dico = longDictionary[type];
             long longId = getLongId(source, target, directed);
             int[] dicoValue = dico.get(longId);
             if (dicoValue != null && !GraphStoreConfiguration.ENABLE_PARALLEL_EDGES) {
@@ -599,6 +732,7 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
                 currentBlock.add(edge);
                 dictionary.put(edge.getId(), edge.storeId);
             }
+            edge.attachAttributes();
 
             insertOutEdge(edge);
             insertInEdge(edge);
@@ -606,6 +740,10 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
             source.outDegree++;
             target.inDegree++;
 
+            if (degreeIndexStore != null) {
+                degreeIndexStore.updateEdge(source, target);
+            }
+
             if (dicoValue == null) {
                 dicoValue = new int[] { edge.storeId };
             } else {
@@ -650,6 +788,314 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         }
     }
 
+    public boolean bulkAdd(final Collection<? extends Edge> c) {
+        return bulkAdd(c, 1);
+    }
+
+    public boolean bulkAdd(final Collection<? extends Edge> c, final int parallelism) {
+        checkCollection(c);
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism should be positive");
+        }
+
+        if (c.isEmpty()) {
+            return false;
+        }
+
+        // The whole batch is checked first so a failure leaves the store unchanged
+        return bulkAddChecked(checkBulkAdd(c, Collections.<Node> emptyList()), parallelism);
+    }
+
+    /**
+     * Adds a batch of edges returned by
+     * {@link #checkBulkAdd(Collection, Collection)}.
+     */
+    protected boolean bulkAddChecked(final List<EdgeImpl> c, final int parallelism) {
+        if (c.isEmpty()) {
+            return false;
+        }
+
+        // Large batches are added by concurrent tasks. Without parallel edges,
+        // whether an edge is added depends on the edges before it so they are
+        // added in order.
+        if (parallelism > 1 && GraphStoreConfiguration.ENABLE_PARALLEL_EDGES && c
+                .size() >= 2 * GraphStoreConfiguration.EDGESTORE_CONCURRENT_MIN_CHUNK_SIZE) {
+            return bulkAddConcurrently(Collections.singletonList(c), parallelism)[0];
+        }
+
+        int[] typeCounts = new int[longDictionary.length];
+        for (EdgeImpl edge : c) {
+            int type = edge.type;
+            if (type >= typeCounts.length) {
+                typeCounts = Arrays.copyOf(typeCounts, type + 1);
+            }
+            typeCounts[type]++;
+        }
+        ensureLongDictionaryCapacity(typeCounts.length - 1);
+        for (int i = 0; i < typeCounts.length; i++) {
+            ensureLongDictionaryCapacity(i, typeCounts[i]);
+        }
+        ensureDictionaryCapacity(c.size());
+        int capacityNeeded = c.size() - garbageSize;
+        if (capacityNeeded > 0) {
+            ensureCapacity(capacityNeeded);
+        }
+
+        List<EdgeImpl> added = new ArrayList<>(c.size());
+        int garbageBlockIndex = 0;
+        for (EdgeImpl edge : c) {
+            NodeImpl source = edge.source;
+            NodeImpl target = edge.target;
+            StripedLongDictionary dico = longDictionary[edge.type];
+            long longId = getLongId(source, target, edge.isDirected());
+            int[] dicoValue = dico.get(longId);
+            if (dicoValue != null && !GraphStoreConfiguration.ENABLE_PARALLEL_EDGES) {
+                continue;
+            }
+
+            if (garbageSize > 0) {
+                while (!blocks[garbageBlockIndex].hasGarbage()) {
+                    garbageBlockIndex++;
+                }
+                blocks[garbageBlockIndex].set(edge);
+                garbageSize--;
+            } else {
+                ensureCapacity(1);
+                currentBlock.add(edge);
+            }
+            dictionary.put(edge.getId(), edge.storeId);
+            edge.attachAttributes();
+
+            insertOutEdge(edge);
+            insertInEdge(edge);
+
+            source.outDegree++;
+            target.inDegree++;
+
+            if (dicoValue == null) {
+                dicoValue = new int[] { edge.storeId };
+            } else {
+                dicoValue = Arrays.copyOf(dicoValue, dicoValue.length + 1);
+                dicoValue[dicoValue.length - 1] = edge.storeId;
+            }
+            dico.put(longId, dicoValue);
+
+            if (!edge.isDirected()) {
+                undirectedSize++;
+            }
+
+            size++;
+            added.add(edge);
+        }
+
+        if (added.isEmpty()) {
+            return false;
+        }
+
+        pairMutualEdges(added);
+
+        incrementVersion();
+        if (degreeIndexStore != null) {
+            degreeIndexStore.updateEdges(added);
+        }
+        if (viewStore != null) {
+            viewStore.addEdges(added, maxStoreId());
+        }
+        ElementImpl.indexAttributes(added);
+        return true;
+    }
+
+    /**
+     * Adds batches of edges returned by
+     * {@link #checkBulkAdd(Collection, Collection, Map, Map)}, possibly from
+     * concurrent commits.
+     * <p>
+     * Each batch gets contiguous slots after the last used one, garbage isn't
+     * reused. Batches are split in chunks and concurrent tasks add each chunk to
+     * its own slots, to the dictionaries under their stripe monitors and to the
+     * adjacency of nodes under lock stripes on node store id ranges. Attributes,
+     * counters, mutual edges, the version, views and indexes are then updated batch
+     * by batch once all tasks are done.
+     *
+     * @param batches edges to add, by batch
+     * @param parallelism number of tasks
+     * @return true for each batch that changed the store
+     */
+    protected boolean[] bulkAddConcurrently(final List<List<EdgeImpl>> batches, final int parallelism) {
+        boolean[] changed = new boolean[batches.size()];
+        int total = 0;
+        int[] typeCounts = new int[longDictionary.length];
+        for (List<EdgeImpl> batch : batches) {
+            for (EdgeImpl edge : batch) {
+                int type = edge.type;
+                if (type >= typeCounts.length) {
+                    typeCounts = Arrays.copyOf(typeCounts, type + 1);
+                }
+                typeCounts[type]++;
+            }
+            total += batch.size();
+        }
+        if (total == 0) {
+            return changed;
+        }
+        ensureLongDictionaryCapacity(typeCounts.length - 1);
+        for (int i = 0; i < typeCounts.length; i++) {
+            ensureLongDictionaryCapacity(i, typeCounts[i]);
+        }
+        ensureDictionaryCapacity(total);
+        ensureCapacity(total);
+
+        final Object[] stripes = new Object[GraphStoreConfiguration.EDGESTORE_LOCK_STRIPES];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Object();
+        }
+        int chunkSize = Math
+                .max(GraphStoreConfiguration.EDGESTORE_CONCURRENT_MIN_CHUNK_SIZE, (total + parallelism - 1) / parallelism);
+        List<ForkJoinTask<Integer>> tasks = new ArrayList<>();
+        IntList taskBatches = new IntArrayList();
+        for (int i = 0; i < batches.size(); i++) {
+            List<EdgeImpl> batch = batches.get(i);
+            for (int start = 0; start < batch.size(); start += chunkSize) {
+                final List<EdgeImpl> chunk = batch.subList(start, Math.min(start + chunkSize, batch.size()));
+                final int[] slots = reserveSlots(chunk.size());
+                tasks.add(ForkJoinTask.adapt(() -> addChunk(chunk, slots, stripes)));
+                taskBatches.add(i);
+            }
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        int[] undirected = new int[batches.size()];
+        for (int i = 0; i < tasks.size(); i++) {
+            undirected[taskBatches.getInt(i)] += tasks.get(i).join();
+        }
+
+        for (int i = 0; i < batches.size(); i++) {
+            List<EdgeImpl> added = batches.get(i);
+            if (added.isEmpty()) {
+                continue;
+            }
+            // Columns aren't striped
+            for (EdgeImpl edge : added) {
+                edge.attachAttributes();
+            }
+            size += added.size();
+            undirectedSize += undirected[i];
+
+            pairMutualEdges(added);
+
+            incrementVersion();
+            if (degreeIndexStore != null) {
+                degreeIndexStore.updateEdges(added);
+            }
+            if (viewStore != null) {
+                viewStore.addEdges(added, maxStoreId());
+            }
+            ElementImpl.indexAttributes(added);
+            changed[i] = true;
+        }
+        return changed;
+    }
+
+    // Reserves slots after the last used one, returned as [start, end) ranges
+    private int[] reserveSlots(final int count) {
+        IntList ranges = new IntArrayList(2);
+        int remaining = count;
+        while (remaining > 0) {
+            ensureCapacity(1);
+            int length = Math.min(remaining, currentBlock.getCapacity());
+            int start = currentBlock.reserve(length);
+            ranges.add(start);
+            ranges.add(start + length);
+            remaining -= length;
+        }
+        return ranges.toIntArray();
+    }
+
+    private int addChunk(final List<EdgeImpl> edges, final int[] slots, final Object[] stripes) {
+        int undirected = 0;
+        int range = 0;
+        int id = slots[0];
+        for (EdgeImpl edge : edges) {
+            if (id == slots[range + 1]) {
+                range += 2;
+                id = slots[range];
+            }
+            // Blocks aren't reallocated while tasks run
+            blocks[id / GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE].set(id, edge);
+            id++;
+
+            NodeImpl source = edge.source;
+            NodeImpl target = edge.target;
+            long longId = getLongId(source, target, edge.isDirected());
+            Long2ObjectOpenCustomHashMap<int[]> dico = longDictionary[edge.type].getStripe(longId);
+            synchronized (dico) {
+                dico.put(longId, addStoreId(dico.get(longId), edge.storeId));
+            }
+            Object2IntOpenHashMap ids = dictionary.getStripe(edge.getId());
+            synchronized (ids) {
+                ids.put(edge.getId(), edge.storeId);
+            }
+
+            synchronized (stripes[getStripe(source, stripes.length)]) {
+                insertOutEdge(edge);
+                source.outDegree++;
+            }
+            synchronized (stripes[getStripe(target, stripes.length)]) {
+                insertInEdge(edge);
+                target.inDegree++;
+            }
+
+            if (!edge.isDirected()) {
+                undirected++;
+            }
+        }
+        return undirected;
+    }
+
+    // Store ids are kept sorted, as tasks may add the edges of a node pair in any
+    // order
+    private static int[] addStoreId(final int[] storeIds, final int storeId) {
+        if (storeIds == null) {
+            return new int[] { storeId };
+        }
+        int[] newStoreIds = Arrays.copyOf(storeIds, storeIds.length + 1);
+        int i = storeIds.length;
+        while (i > 0 && newStoreIds[i - 1] > storeId) {
+            newStoreIds[i] = newStoreIds[i - 1];
+            i--;
+        }
+        newStoreIds[i] = storeId;
+        return newStoreIds;
+    }
+
+    // Mutual edges are paired once all edges are linked
+    private void pairMutualEdges(final List<EdgeImpl> added) {
+        for (EdgeImpl edge : added) {
+            if (edge.isDirected() && !edge.isSelfLoop() && !edge.isMutual()) {
+                int type = edge.type;
+                int[] index = longDictionary[type].get(getLongId(edge.target, edge.source, true));
+                if (index != null) {
+                    for (int i = 0; i < index.length; i++) {
+                        EdgeImpl mutual = get(index[i]);
+                        if (!mutual.isMutual()) {
+                            mutual.setMutual(true);
+                            edge.setMutual(true);
+                            edge.source.mutualDegree++;
+                            edge.target.mutualDegree++;
+                            mutualEdgesSize++;
+                            mutualEdgesTypeSize[type]++;
+                            break;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private static int getStripe(NodeImpl node, int stripes) {
+        return (node.storeId / GraphStoreConfiguration.EDGESTORE_LOCK_STRIPE_RANGE) & (stripes - 1);
+    }
+
     @Override
     public boolean remove(final Object o) {
         checkNonNullEdgeObject(o);
@@ -681,10 +1127,14 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
             source.outDegree--;
             target.inDegree--;
 
+            if (degreeIndexStore != null) {
+                degreeIndexStore.updateEdge(source, target);
+            }
+
             size--;
             garbageSize++;
             dictionary.remove(edge.getId());
-            trimDictionary();
+            trimDictionary(edge.getId());
 
             for (int i = storeIndex; i == (blocksCount - 1) && block.garbageLength == block.nodeLength && i >= 0;) {
                 if (i != 0) {
@@ -703,22 +1153,7 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
 
             int type = edge.type;
 
-            Long2ObjectOpenCustomHashMap<int[]> dico = longDictionary[type];
-            long longId = getLongId(source, target, directed);
-            int[] dicoValue = dico.get(longId);
-            if (dicoValue.length == 1) {
-                dico.remove(longId);
-            } else {
-                int[] newDicoValue = new int[dicoValue.length - 1];
-                int j = 0;
-                for (int i = 0; i < dicoValue.length; i++) {
-                    int v = dicoValue[i];
-                    if (v != id) {
-                        newDicoValue[j++] = v;
-                    }
-                }
-                dico.put(longId, newDicoValue);
-            }
+            removeLongId(edge, id);
 
             if (directed && !edge.isSelfLoop()) {
                 int[] index = longDictionary[type].get(getLongId(edge.target, edge.source, true));
@@ -752,6 +1187,190 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         return false;
     }
 
+    private void removeLongId(final EdgeImpl edge, final int id) {
+        StripedLongDictionary dico = longDictionary[edge.type];
+        long longId = getLongId(edge.source, edge.target, edge.isDirected());
+        int[] dicoValue = dico.get(longId);
+        if (dicoValue.length == 1) {
+            dico.remove(longId);
+        } else {
+            int[] newDicoValue = new int[dicoValue.length - 1];
+            int j = 0;
+            for (int i = 0; i < dicoValue.length; i++) {
+                int v = dicoValue[i];
+                if (v != id) {
+                    newDicoValue[j++] = v;
+                }
+            }
+            dico.put(longId, newDicoValue);
+        }
+    }
+
+    private void addLongId(final EdgeImpl edge) {
+        StripedLongDictionary dico = longDictionary[edge.type];
+        long longId = getLongId(edge.source, edge.target, edge.isDirected());
+        int[] dicoValue = dico.get(longId);
+        if (dicoValue == null) {
+            dicoValue = new int[] { edge.storeId };
+        } else {
+            dicoValue = Arrays.copyOf(dicoValue, dicoValue.length + 1);
+            dicoValue[dicoValue.length - 1] = edge.storeId;
+        }
+        dico.put(longId, dicoValue);
+    }
+
+    protected void removeLongIds(final List<EdgeImpl> edges) {
+        for (EdgeImpl edge : edges) {
+            removeLongId(edge, edge.storeId);
+        }
+    }
+
+    protected void addLongIds(final List<EdgeImpl> edges) {
+        for (EdgeImpl edge : edges) {
+            addLongId(edge);
+        }
+    }
+
+    protected void collectEdges(final NodeImpl node, final List<EdgeImpl> edges) {
+        for (EdgeImpl edge : node.headOut) {
+            while (edge != null) {
+                edges.add(edge);
+                edge = edge.nextOutEdge != NULL_ID ? get(edge.nextOutEdge) : null;
+            }
+        }
+        for (EdgeImpl edge : node.headIn) {
+            while (edge != null) {
+                if (!edge.isSelfLoop()) {
+                    edges.add(edge);
+                }
+                edge = edge.nextInEdge != NULL_ID ? get(edge.nextInEdge) : null;
+            }
+        }
+    }
+
+    /**
+     * Moves edges from the end of the store into the free slots at its beginning so
+     * the blocks become dense, and releases the blocks left empty.
+     * <p>
+     * At most <code>maxMoves</code> edges are moved. For each move, the old and the
+     * new store id are appended to <code>moves</code>.
+     *
+     * @param maxMoves maximum number of edges to move
+     * @param moves list the moves are appended to
+     * @return true if the store is compact, false if edges remain to be moved
+     */
+    protected boolean compact(final int maxMoves, final IntList moves) {
+        int moved = 0;
+        int blockIndex = 0;
+        int last = lastStoreId(maxStoreId() - 1);
+        boolean compact = false;
+        while (true) {
+            while (blockIndex < blocksCount && blocks[blockIndex].getFreeSlot() == NULL_ID) {
+                blockIndex++;
+            }
+            if (blockIndex == blocksCount) {
+                compact = true;
+                break;
+            }
+            EdgeBlock block = blocks[blockIndex];
+            if (block.getFreeSlot() > last) {
+                if (block.hasGarbage()) {
+                    // Trailing slot, released when the blocks are trimmed
+                    block.garbageLength--;
+                    continue;
+                }
+                compact = true;
+                break;
+            }
+            if (moved == maxMoves) {
+                break;
+            }
+            EdgeBlock lastBlock = blocks[last / GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE];
+            EdgeImpl edge = lastBlock.get(last);
+            lastBlock.backingArray[last - lastBlock.offset] = null;
+
+            moveEdge(edge, block);
+            moves.add(last);
+            moves.add(edge.storeId);
+            moved++;
+
+            last = lastStoreId(last - 1);
+        }
+
+        trimBlocks(last);
+        if (moved > 0) {
+            incrementVersion();
+        }
+        return compact;
+    }
+
+    private void moveEdge(final EdgeImpl edge, final EdgeBlock block) {
+        int oldId = edge.storeId;
+        if (block.hasGarbage()) {
+            block.set(edge);
+            garbageSize--;
+        } else {
+            block.add(edge);
+        }
+        int newId = edge.storeId;
+        dictionary.put(edge.getId(), newId);
+        edge.moveAttributes(oldId);
+
+        if (edge.previousOutEdge != NULL_ID) {
+            get(edge.previousOutEdge).nextOutEdge = newId;
+        }
+        if (edge.nextOutEdge != NULL_ID) {
+            get(edge.nextOutEdge).previousOutEdge = newId;
+        }
+        if (edge.previousInEdge != NULL_ID) {
+            get(edge.previousInEdge).nextInEdge = newId;
+        }
+        if (edge.nextInEdge != NULL_ID) {
+            get(edge.nextInEdge).previousInEdge = newId;
+        }
+
+        int[] dicoValue = longDictionary[edge.type].get(getLongId(edge.source, edge.target, edge.isDirected()));
+        for (int i = 0; i < dicoValue.length; i++) {
+            if (dicoValue[i] == oldId) {
+                dicoValue[i] = newId;
+            }
+        }
+
+        if (viewStore != null) {
+            viewStore.moveEdge(edge, oldId);
+        }
+    }
+
+    private int lastStoreId(final int from) {
+        for (int id = from; id >= 0; id--) {
+            EdgeBlock block = blocks[id / GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE];
+            if (block.backingArray[id - block.offset] != null) {
+                return id;
+            }
+        }
+        return NULL_ID;
+    }
+
+    private void trimBlocks(final int last) {
+        int lastBlockIndex = last == NULL_ID ? 0 : last / GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE;
+        int length = Math.max(lastBlockIndex + 1, GraphStoreConfiguration.EDGESTORE_DEFAULT_BLOCKS);
+        if (blocks.length > length) {
+            blocks = Arrays.copyOf(blocks, length);
+        }
+        Arrays.fill(blocks, lastBlockIndex + 1, blocks.length, null);
+
+        blocksCount = lastBlockIndex + 1;
+        currentBlockIndex = lastBlockIndex;
+        currentBlock = blocks[lastBlockIndex];
+        currentBlock.trim(last + 1 - currentBlock.offset);
+
+        garbageSize = 0;
+        for (int i = 0; i < blocksCount; i++) {
+            garbageSize += blocks[i].garbageLength;
+        }
+        trimDictionary();
+    }
+
     @Override
     public boolean contains(Object o) {
         checkNonNullEdgeObject(o);
@@ -1058,6 +1677,64 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         }
     }
 
+    /**
+     * Checks that all the edges of a batch can be added, including id and
+     * directedness conflicts within the batch. Endpoints may be part of the given
+     * nodes, which are about to be added.
+     *
+     * @return the edges to add, without duplicates and edges already stored
+     */
+    List<EdgeImpl> checkBulkAdd(final Collection<? extends Edge> c, final Collection<? extends Node> nodes) {
+        return checkBulkAdd(c, nodes, new Object2ObjectOpenHashMap<>(), new Object2ObjectOpenHashMap<>());
+    }
+
+    /**
+     * Same as {@link #checkBulkAdd(Collection, Collection)}, with the edge ids and
+     * node pairs of the batches checked so far. Batches checked concurrently share
+     * concurrent maps, so conflicts between them are detected as well.
+     */
+    List<EdgeImpl> checkBulkAdd(final Collection<? extends Edge> c, final Collection<? extends Node> nodes, final Map<Object, EdgeImpl> batchIds, final Map<NodePair, Boolean> batchPairs) {
+        ReferenceOpenHashSet<Node> batchNodes = new ReferenceOpenHashSet<>(nodes);
+        List<EdgeImpl> added = new ArrayList<>(c.size());
+        for (Edge e : c) {
+            checkNonNullEdgeObject(e);
+
+            EdgeImpl edge = (EdgeImpl) e;
+            if (edge.storeId == EdgeStore.NULL_ID) {
+                checkIdDoesntExist(e.getId());
+                EdgeImpl previous = batchIds.putIfAbsent(e.getId(), edge);
+                if (previous != null && previous != edge) {
+                    throw new IllegalArgumentException("The edge id already exist");
+                }
+
+                if (edge.source == null || edge.target == null) {
+                    throw new NullPointerException();
+                }
+                boolean sourceStored = edge.source.storeId != NodeStore.NULL_ID;
+                boolean targetStored = edge.target.storeId != NodeStore.NULL_ID;
+                if ((!sourceStored && !batchNodes.contains(edge.source)) || (!targetStored && !batchNodes
+                        .contains(edge.target))) {
+                    throw new RuntimeException("Source and target nodes should be valid and belong to a store");
+                }
+                if (sourceStored && targetStored) {
+                    checkUndirectedNotExist(edge);
+                }
+
+                Boolean directed = batchPairs.putIfAbsent(new NodePair(edge), edge.isDirected());
+                if (directed != null && directed != edge.isDirected()) {
+                    throw new IllegalArgumentException(
+                            directed ? "An directed edge already exists" : "An undirected edge already exists");
+                }
+                if (previous == null) {
+                    added.add(edge);
+                }
+            } else if (!isValidIndex(edge.storeId) || get(edge.storeId) != edge) {
+                throw new IllegalArgumentException("The edge already belongs to another store");
+            }
+        }
+        return added;
+    }
+
     void checkIdDoesntExist(Object id) {
         if (dictionary.containsKey(id)) {
             throw new IllegalArgumentException("The edge id already exist");
@@ -1162,6 +1839,26 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         return edge.isMutual() && edge.source.storeId < edge.target.storeId;
     }
 
+    boolean isUndirectedToIgnore(EdgeImpl edge, GraphViewImpl view) {
+        if (!isUndirectedToIgnore(edge)) {
+            return false;
+        }
+        return view == null || view.containsEdge(get(edge.target, edge.source, edge.type, false));
+    }
+
+    boolean isNeighborEdge(EdgeImpl edge, GraphViewImpl view, boolean out, boolean undirected) {
+        if (view != null && !view.containsEdge(edge)) {
+            return false;
+        }
+        if (undirected) {
+            if (!out && edge.isSelfLoop()) {
+                return false;
+            }
+            return !isUndirectedToIgnore(edge, view);
+        }
+        return true;
+    }
+
     int maxStoreId() {
         return currentBlock.offset + currentBlock.nodeLength;
     }
@@ -1203,6 +1900,17 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
             k.setStoreId(i + offset);
         }
 
+        public int reserve(int length) {
+            int i = nodeLength;
+            nodeLength += length;
+            return i + offset;
+        }
+
+        public void set(int id, EdgeImpl k) {
+            backingArray[id - offset] = k;
+            k.setStoreId(id);
+        }
+
         public EdgeImpl get(int id) {
             return backingArray[id - offset];
         }
@@ -1214,22 +1922,28 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
             k.setStoreId(NULL_ID);
         }
 
-        public void clear() {
-            nodeLength = 0;
-            garbageLength = 0;
+        public int getFreeSlot() {
+            if (garbageLength > 0) {
+                return garbageArray[garbageLength - 1] - Short.MIN_VALUE + offset;
+            } else if (nodeLength < GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE) {
+                return nodeLength + offset;
+            }
+            return NULL_ID;
         }
-    }
-
-    private static class DictionaryHashStrategy implements LongHash.Strategy {
 
-        @Override
-        public int hashCode(long l) {
-            return (int) (l ^ (l >>> 32));
+        public void trim(int length) {
+            nodeLength = length;
+            garbageLength = 0;
+            for (int i = 0; i < length; i++) {
+                if (backingArray[i] == null) {
+                    garbageArray[garbageLength++] = (short) (i + Short.MIN_VALUE);
+                }
+            }
         }
 
-        @Override
-        public boolean equals(long l1, long l2) {
-            return l1 == l2;
+        public void clear() {
+            nodeLength = 0;
+            garbageLength = 0;
         }
     }
 
@@ -1544,9 +2258,10 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         }
     }
 
-    protected final class EdgeTypeInOutIterator implements Iterator<Edge> {
+    public final class EdgeTypeInOutIterator implements Iterator<Edge> {
 
         protected final int type;
+        protected boolean locked;
         protected EdgeImpl lastEdge;
         protected EdgeImpl outPointer;
         protected EdgeImpl inPointer;
@@ -1555,6 +2270,7 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         public EdgeTypeInOutIterator(NodeImpl node, int type) {
             this.type = type;
             readLock();
+            locked = true;
             EdgeImpl[] outArray = node.headOut;
             EdgeImpl[] inArray = node.headIn;
             outPointer = type < outArray.length ? outArray[type] : null;
@@ -1576,7 +2292,7 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
                     }
                 }
                 if (inPointer == null) {
-                    readUnlock();
+                    unlock();
                     return false;
                 }
             }
@@ -1614,10 +2330,22 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         }
 
         public void reset(NodeImpl node) {
+            if (!locked) {
+                readLock();
+                locked = true;
+            }
             EdgeImpl[] outArray = node.headOut;
             EdgeImpl[] inArray = node.headIn;
             outPointer = type < outArray.length ? outArray[type] : null;
             inPointer = type < inArray.length ? inArray[type] : null;
+            out = true;
+        }
+
+        private void unlock() {
+            if (locked) {
+                locked = false;
+                readUnlock();
+            }
         }
 
         @Override
@@ -1627,15 +2355,17 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         }
     }
 
-    protected final class EdgeTypeOutIterator implements Iterator<Edge> {
+    public final class EdgeTypeOutIterator implements Iterator<Edge> {
 
         protected final int type;
+        protected boolean locked;
         protected EdgeImpl lastEdge;
         protected EdgeImpl pointer;
 
         public EdgeTypeOutIterator(NodeImpl node, int type) {
             this.type = type;
             readLock();
+            locked = true;
             EdgeImpl[] outArray = node.headOut;
             pointer = type < outArray.length ? outArray[type] : null;
         }
@@ -1643,7 +2373,7 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         @Override
         public boolean hasNext() {
             if (pointer == null) {
-                readUnlock();
+                unlock();
                 return false;
             }
             return true;
@@ -1662,10 +2392,21 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         }
 
         public void reset(NodeImpl node) {
+            if (!locked) {
+                readLock();
+                locked = true;
+            }
             EdgeImpl[] outArray = node.headOut;
             pointer = type < outArray.length ? outArray[type] : null;
         }
 
+        private void unlock() {
+            if (locked) {
+                locked = false;
+                readUnlock();
+            }
+        }
+
         @Override
         public void remove() {
             checkWriteLock();
@@ -1740,15 +2481,17 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         }
     }
 
-    protected final class EdgeTypeInIterator implements Iterator<Edge> {
+    public final class EdgeTypeInIterator implements Iterator<Edge> {
 
         protected final int type;
+        protected boolean locked;
         protected EdgeImpl lastEdge;
         protected EdgeImpl pointer;
 
         public EdgeTypeInIterator(NodeImpl node, int type) {
             this.type = type;
             readLock();
+            locked = true;
             EdgeImpl[] inArray = node.headIn;
             pointer = type < inArray.length ? inArray[type] : null;
         }
@@ -1756,7 +2499,7 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         @Override
         public boolean hasNext() {
             if (pointer == null) {
-                readUnlock();
+                unlock();
                 return false;
             }
             return true;
@@ -1775,10 +2518,21 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
         }
 
         public void reset(NodeImpl node) {
+            if (!locked) {
+                readLock();
+                locked = true;
+            }
             EdgeImpl[] inArray = node.headIn;
             pointer = type < inArray.length ? inArray[type] : null;
         }
 
+        private void unlock() {
+            if (locked) {
+                locked = false;
+                readUnlock();
+            }
+        }
+
         @Override
         public void remove() {
             checkWriteLock();
@@ -1874,4 +2628,249 @@ public class EdgeStore implements Collection<Edge>, EdgeIterable {
             EdgeStore.this.remove(pointer);
         }
     }
+
+    public final class NeighborCursor implements IntIterator {
+
+        protected final int type;
+        protected final GraphViewImpl view;
+        protected final boolean out;
+        protected final boolean in;
+        protected NodeImpl node;
+        protected EdgeImpl[] array;
+        protected boolean outArray;
+        protected int typeIndex;
+        protected int typeLength;
+        protected EdgeImpl pointer;
+        protected boolean locked;
+
+        public NeighborCursor(int type, GraphViewImpl view, boolean out, boolean in) {
+            this.type = type;
+            this.view = view;
+            this.out = out;
+            this.in = in;
+        }
+
+        public NeighborCursor reset(Node node) {
+            checkValidNodeObject(node);
+            if (!locked) {
+                readLock();
+                locked = true;
+            }
+            this.node = (NodeImpl) node;
+            this.pointer = null;
+            initArray(out);
+            return this;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (node == null) {
+                return false;
+            }
+            while (true) {
+                while (pointer != null && !isNeighborEdge(pointer, view, outArray, out && in)) {
+                    pointer = following(pointer);
+                }
+                if (pointer != null) {
+                    return true;
+                }
+                if (typeIndex < typeLength) {
+                    pointer = array[typeIndex++];
+                } else if (outArray && in) {
+                    initArray(false);
+                } else {
+                    doBreak();
+                    return false;
+                }
+            }
+        }
+
+        @Override
+        public int nextInt() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            EdgeImpl edge = pointer;
+            pointer = following(edge);
+            return outArray ? edge.target.storeId : edge.source.storeId;
+        }
+
+        public void doBreak() {
+            node = null;
+            pointer = null;
+            array = null;
+            if (locked) {
+                locked = false;
+                readUnlock();
+            }
+        }
+
+        private void initArray(boolean outArray) {
+            this.outArray = outArray;
+            array = outArray ? node.headOut : node.headIn;
+            typeIndex = type == ANY_TYPE ? 0 : type;
+            typeLength = type == ANY_TYPE ? array.length : Math.min(type + 1, array.length);
+        }
+
+        private EdgeImpl following(EdgeImpl edge) {
+            int id = outArray ? edge.nextOutEdge : edge.nextInEdge;
+            return id != EdgeStore.NULL_ID ? get(id) : null;
+        }
+    }
+
+    protected final class EdgeStoreSpliterator implements Spliterator<Edge> {
+
+        protected int blockIndex;
+        protected int blockFence;
+        protected int cursor;
+        // False when created under a lock of the current thread, which then
+        // protects the traversal from any thread
+        protected final boolean locked;
+
+        public EdgeStoreSpliterator() {
+            this(0, -1, lock == null || !lock.isHeldByCurrentThread());
+        }
+
+        private EdgeStoreSpliterator(int blockIndex, int blockFence, boolean locked) {
+            this.blockIndex = blockIndex;
+            this.blockFence = blockFence;
+            this.locked = locked;
+        }
+
+        private void lockTraversal() {
+            if (locked) {
+                readLock();
+            } else {
+                lock.checkHeld();
+            }
+        }
+
+        private void unlockTraversal() {
+            if (locked) {
+                readUnlock();
+            }
+        }
+
+        private int getFence() {
+            if (blockFence < 0) {
+                lockTraversal();
+                blockFence = blocksCount;
+                unlockTraversal();
+            }
+            return blockFence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Edge> action) {
+            int fence = getFence();
+            lockTraversal();
+            try {
+                for (fence = Math.min(fence, blocksCount); blockIndex < fence; blockIndex++, cursor = 0) {
+                    EdgeBlock block = blocks[blockIndex];
+                    while (cursor < block.nodeLength) {
+                        EdgeImpl edge = block.backingArray[cursor++];
+                        if (edge != null) {
+                            action.accept(edge);
+                            return true;
+                        }
+                    }
+                }
+                return false;
+            } finally {
+                unlockTraversal();
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Edge> action) {
+            int fence = getFence();
+            lockTraversal();
+            try {
+                for (fence = Math.min(fence, blocksCount); blockIndex < fence; blockIndex++, cursor = 0) {
+                    EdgeBlock block = blocks[blockIndex];
+                    EdgeImpl[] backingArray = block.backingArray;
+                    for (int length = block.nodeLength; cursor < length; cursor++) {
+                        EdgeImpl edge = backingArray[cursor];
+                        if (edge != null) {
+                            action.accept(edge);
+                        }
+                    }
+                }
+            } finally {
+                unlockTraversal();
+            }
+        }
+
+        @Override
+        public EdgeStoreSpliterator trySplit() {
+            int fence = getFence();
+            int mid = (blockIndex + fence) >>> 1;
+            if (mid <= blockIndex) {
+                return null;
+            }
+            EdgeStoreSpliterator prefix = new EdgeStoreSpliterator(blockIndex, mid, locked);
+            prefix.cursor = cursor;
+            blockIndex = mid;
+            cursor = 0;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            int fence = getFence();
+            lockTraversal();
+            try {
+                long size = 0;
+                int limit = Math.min(fence, blocksCount);
+                for (int i = blockIndex; i < limit; i++) {
+                    size += blocks[i].nodeLength - blocks[i].garbageLength;
+                }
+                // Elements of the first block before the cursor have been consumed
+                if (blockIndex < limit) {
+                    EdgeImpl[] backingArray = blocks[blockIndex].backingArray;
+                    for (int j = 0; j < cursor; j++) {
+                        if (backingArray[j] != null) {
+                            size--;
+                        }
+                    }
+                }
+                return size;
+            } finally {
+                unlockTraversal();
+            }
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
+    // Unordered node pair of a given type, nodes are compared by identity
+    static final class NodePair {
+
+        private final int type;
+        private final NodeImpl first;
+        private final NodeImpl second;
+
+        public NodePair(EdgeImpl edge) {
+            this.type = edge.type;
+            this.first = edge.source;
+            this.second = edge.target;
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * type + (System.identityHashCode(first) ^ System.identityHashCode(second));
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof NodePair)) {
+                return false;
+            }
+            NodePair other = (NodePair) obj;
+            return type == other.type && ((first == other.first && second == other.second) || (first == other.second && second == other.first));
+        }
+    }
 }
@@ -1,5 +1,6 @@
 package org.gephi.graph.impl;
 
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
@@ -28,6 +29,51 @@ public class EdgeTypeNoIndexImpl implements ColumnIndexImpl<Object, Edge> {
         return graph.getEdges(labelToType(label));
     }
 
+    @Override
+    public int count(Object low, boolean lowInclusive, Object high, boolean highInclusive) {
+        throw new UnsupportedOperationException("Edge type index is not sortable");
+    }
+
+    @Override
+    public Iterable<Edge> get(Object low, boolean lowInclusive, Object high, boolean highInclusive) {
+        throw new UnsupportedOperationException("Edge type index is not sortable");
+    }
+
+    @Override
+    public Iterable<Edge> getSorted(boolean ascending) {
+        throw new UnsupportedOperationException("Edge type index is not sortable");
+    }
+
+    @Override
+    public Iterable<Edge> getByPrefix(String prefix) {
+        throw new UnsupportedOperationException("Edge type index is not a text index");
+    }
+
+    @Override
+    public Iterable<Edge> getBySubstring(String text) {
+        throw new UnsupportedOperationException("Edge type index is not a text index");
+    }
+
+    @Override
+    public Iterable<Edge> getContainingAny(Collection<?> values) {
+        throw new UnsupportedOperationException("Edge type index is not an array index");
+    }
+
+    @Override
+    public Iterable<Edge> getContainingAll(Collection<?> values) {
+        throw new UnsupportedOperationException("Edge type index is not an array index");
+    }
+
+    @Override
+    public int countContainingAny(Collection<?> values) {
+        throw new UnsupportedOperationException("Edge type index is not an array index");
+    }
+
+    @Override
+    public int countContainingAll(Collection<?> values) {
+        throw new UnsupportedOperationException("Edge type index is not an array index");
+    }
+
     @Override
     public Collection<Object> values() {
         return Arrays.asList(graph.getModel().getEdgeTypeLabels(false));
@@ -58,6 +104,27 @@ public class EdgeTypeNoIndexImpl implements ColumnIndexImpl<Object, Edge> {
         throw new UnsupportedOperationException("Edge type index is not sortable");
     }
 
+    @Override
+    public Map<Object, Integer> getTopValues(int k) {
+        ValueStatistics.checkTopValues(k);
+        Object2IntOpenHashMap<Object> counts = new Object2IntOpenHashMap<>();
+        // The null label is the default edge type, not a missing value
+        for (Object label : values()) {
+            counts.put(label, count(label));
+        }
+        return ValueStatistics.fromCounts(0, counts, false).getTopValues(k);
+    }
+
+    @Override
+    public Number getQuantile(double q) {
+        throw new UnsupportedOperationException("Edge type index is not sortable");
+    }
+
+    @Override
+    public int[] getHistogram(int buckets) {
+        throw new UnsupportedOperationException("Edge type index is not sortable");
+    }
+
     @Override
     public Column getColumn() {
         return graph.getModel().defaultColumns().edgeType();
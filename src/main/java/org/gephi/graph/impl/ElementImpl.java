@@ -16,6 +16,7 @@
 
 package org.gephi.graph.impl;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -100,9 +101,78 @@ public abstract class ElementImpl implements Element {
     public Object getAttribute(Column column) {
         checkColumn(column);
 
+        PrimitiveColumnStore values = getColumnValues(column);
+        if (values != null) {
+            return values.get(getStoreId());
+        }
         return attributes.getAttribute(column);
     }
 
+    @Override
+    public double getDouble(Column column) {
+        checkColumn(column);
+        checkColumnType(column, Double.class);
+
+        PrimitiveColumnStore values = getColumnValues(column);
+        if (values != null) {
+            return values.getDouble(getStoreId());
+        }
+        Object value = attributes.getAttribute(column);
+        return value != null ? (Double) value : 0.0;
+    }
+
+    @Override
+    public float getFloat(Column column) {
+        checkColumn(column);
+        checkColumnType(column, Float.class);
+
+        PrimitiveColumnStore values = getColumnValues(column);
+        if (values != null) {
+            return values.getFloat(getStoreId());
+        }
+        Object value = attributes.getAttribute(column);
+        return value != null ? (Float) value : 0f;
+    }
+
+    @Override
+    public int getInt(Column column) {
+        checkColumn(column);
+        checkColumnType(column, Integer.class);
+
+        PrimitiveColumnStore values = getColumnValues(column);
+        if (values != null) {
+            return values.getInt(getStoreId());
+        }
+        Object value = attributes.getAttribute(column);
+        return value != null ? (Integer) value : 0;
+    }
+
+    @Override
+    public long getLong(Column column) {
+        checkColumn(column);
+        checkColumnType(column, Long.class);
+
+        PrimitiveColumnStore values = getColumnValues(column);
+        if (values != null) {
+            return values.getLong(getStoreId());
+        }
+        Object value = attributes.getAttribute(column);
+        return value != null ? (Long) value : 0l;
+    }
+
+    @Override
+    public boolean getBoolean(Column column) {
+        checkColumn(column);
+        checkColumnType(column, Boolean.class);
+
+        PrimitiveColumnStore values = getColumnValues(column);
+        if (values != null) {
+            return values.getBoolean(getStoreId());
+        }
+        Object value = attributes.getAttribute(column);
+        return value != null ? (Boolean) value : false;
+    }
+
     @Override
     public Object getAttribute(String key, double timestamp) {
         return getAttribute(checkColumnExists(key), timestamp);
@@ -150,7 +220,26 @@ public abstract class ElementImpl implements Element {
 
     @Override
     public Object[] getAttributes() {
-        return attributes.getBackingArray();
+        Object[] backingArray = attributes.getBackingArray();
+        ColumnStore columnStore = getColumnStore();
+        if (columnStore == null || !isValid()) {
+            return backingArray;
+        }
+
+        // Primitive values aren't in the backing array
+        Object[] res = null;
+        final int length = columnStore.length;
+        final ColumnImpl[] cols = columnStore.columns;
+        for (int i = 0; i < length; i++) {
+            ColumnImpl c = cols[i];
+            if (c != null && c.values != null) {
+                if (res == null) {
+                    res = Arrays.copyOf(backingArray, Math.max(backingArray.length, length));
+                }
+                res[i] = c.values.get(getStoreId());
+            }
+        }
+        return res != null ? res : backingArray;
     }
 
     @Override
@@ -173,7 +262,7 @@ public abstract class ElementImpl implements Element {
         checkColumn(column);
         checkReadOnlyColumn(column);
 
-        Object oldValue = attributes.setAttribute(column, column.getDefaultValue());
+        Object oldValue = setAttributeValue(column, column.getDefaultValue());
         updateIndex(column, oldValue, column.getDefaultValue());
 
         return oldValue;
@@ -233,10 +322,106 @@ public abstract class ElementImpl implements Element {
         value = AttributeUtils.standardizeValue(value);
         checkType(column, value);
 
-        Object oldValue = attributes.setAttribute(column, value);
+        Object oldValue = setAttributeValue(column, value);
         updateIndex(column, oldValue, value);
     }
 
+    @Override
+    public void setDouble(Column column, double value) {
+        checkColumn(column);
+        checkReadOnlyColumn(column);
+        checkColumnType(column, Double.class);
+
+        PrimitiveColumnStore values = getColumnValues(column);
+        if (values != null && !isIndexed(column)) {
+            values.setDouble(getStoreId(), value);
+            ((ColumnImpl) column).incrementVersion(this);
+        } else {
+            setAttribute(column, value);
+        }
+    }
+
+    @Override
+    public void setFloat(Column column, float value) {
+        checkColumn(column);
+        checkReadOnlyColumn(column);
+        checkColumnType(column, Float.class);
+
+        PrimitiveColumnStore values = getColumnValues(column);
+        if (values != null && !isIndexed(column)) {
+            values.setFloat(getStoreId(), value);
+            ((ColumnImpl) column).incrementVersion(this);
+        } else {
+            setAttribute(column, value);
+        }
+    }
+
+    @Override
+    public void setInt(Column column, int value) {
+        checkColumn(column);
+        checkReadOnlyColumn(column);
+        checkColumnType(column, Integer.class);
+
+        PrimitiveColumnStore values = getColumnValues(column);
+        if (values != null && !isIndexed(column)) {
+            values.setInt(getStoreId(), value);
+            ((ColumnImpl) column).incrementVersion(this);
+        } else {
+            setAttribute(column, value);
+        }
+    }
+
+    @Override
+    public void setLong(Column column, long value) {
+        checkColumn(column);
+        checkReadOnlyColumn(column);
+        checkColumnType(column, Long.class);
+
+        PrimitiveColumnStore values = getColumnValues(column);
+        if (values != null && !isIndexed(column)) {
+            values.setLong(getStoreId(), value);
+            ((ColumnImpl) column).incrementVersion(this);
+        } else {
+            setAttribute(column, value);
+        }
+    }
+
+    @Override
+    public void setBoolean(Column column, boolean value) {
+        checkColumn(column);
+        checkReadOnlyColumn(column);
+        checkColumnType(column, Boolean.class);
+
+        PrimitiveColumnStore values = getColumnValues(column);
+        if (values != null && !isIndexed(column)) {
+            values.setBoolean(getStoreId(), value);
+            ((ColumnImpl) column).incrementVersion(this);
+        } else {
+            setAttribute(column, value);
+        }
+    }
+
+    private Object setAttributeValue(Column column, Object value) {
+        PrimitiveColumnStore values = getColumnValues(column);
+        if (values != null) {
+            return values.set(getStoreId(), value);
+        }
+        return attributes.setAttribute(column, value);
+    }
+
+    private PrimitiveColumnStore getColumnValues(Column column) {
+        // Values are only in the column once the element is in the store
+        if (graphStore != null && isValid()) {
+            return ((ColumnImpl) column).values;
+        }
+        return null;
+    }
+
+    private boolean isIndexed(Column column) {
+        ColumnStore columnStore = getColumnStore();
+        return column.isIndexed() && columnStore != null && columnStore.indexStore != null;
+    }
+
     @Override
     public void setAttribute(String key, Object value, double timestamp) {
         setAttribute(checkColumnExists(key), value, timestamp);
@@ -300,6 +485,7 @@ public abstract class ElementImpl implements Element {
                         } else if (newValue != null) {
                             timeIndexStore.add(newValue, this);
                         }
+                        graphStore.viewStore.updateTimeSlices(this);
                     }
                 }
             }
@@ -430,6 +616,22 @@ public abstract class ElementImpl implements Element {
         }
     }
 
+    static void indexAttributes(List<? extends ElementImpl> elements) {
+        if (elements.isEmpty()) {
+            return;
+        }
+        ElementImpl first = elements.get(0);
+        ColumnStore columnStore = first.getColumnStore();
+        if (columnStore != null && columnStore.indexStore != null) {
+            columnStore.indexStore.index(elements);
+        }
+
+        TimeIndexStore timeIndexStore = first.getTimeIndexStore();
+        if (timeIndexStore != null) {
+            timeIndexStore.index(elements);
+        }
+    }
+
     @Override
     public void clearAttributes() {
         synchronized (this) {
@@ -458,6 +660,58 @@ public abstract class ElementImpl implements Element {
             if (timeIndexStore != null) {
                 timeIndexStore.clear(this);
             }
+
+            detachAttributes();
+        }
+    }
+
+    // Moves primitive values from the backing array to the columns
+    protected void attachAttributes() {
+        ColumnStore columnStore = getColumnStore();
+        if (columnStore != null) {
+            final int length = columnStore.length;
+            final ColumnImpl[] cols = columnStore.columns;
+            for (int i = 0; i < length; i++) {
+                ColumnImpl c = cols[i];
+                if (c != null && c.values != null) {
+                    Object value = i < attributes.attributes.length ? attributes.setAttribute(i, null) : null;
+                    c.values.set(getStoreId(), value);
+                }
+            }
+        }
+    }
+
+    // Moves primitive values from the columns back to the backing array, before
+    // the element leaves the store
+    protected void detachAttributes() {
+        ColumnStore columnStore = getColumnStore();
+        if (columnStore != null) {
+            final int length = columnStore.length;
+            final ColumnImpl[] cols = columnStore.columns;
+            for (int i = 0; i < length; i++) {
+                ColumnImpl c = cols[i];
+                if (c != null && c.values != null) {
+                    attributes.setAttribute(i, c.values.get(getStoreId()));
+                }
+            }
+        }
+    }
+
+    // Called when the store id changes
+    protected void moveAttributes(int oldStoreId) {
+        ColumnStore columnStore = getColumnStore();
+        if (columnStore != null) {
+            if (columnStore.indexStore != null) {
+                columnStore.indexStore.move(this, oldStoreId);
+            }
+            final int length = columnStore.length;
+            final ColumnImpl[] cols = columnStore.columns;
+            for (int i = 0; i < length; i++) {
+                ColumnImpl c = cols[i];
+                if (c != null && c.values != null) {
+                    c.values.move(oldStoreId, getStoreId());
+                }
+            }
         }
     }
 
@@ -541,6 +795,13 @@ public abstract class ElementImpl implements Element {
         }
     }
 
+    void checkColumnType(Column column, Class type) {
+        if (!column.getTypeClass().equals(type)) {
+            throw new IllegalArgumentException(
+                    "The column type (" + column.getTypeClass().getName() + ") is not " + type.getName());
+        }
+    }
+
     void checkColumnDynamic(Column column) {
         if (!((ColumnImpl) column).isDynamic()) {
             throw new IllegalArgumentException("The column is not dynamic");
@@ -21,25 +21,39 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.gephi.graph.api.Element;
 import org.gephi.graph.api.ElementIterable;
 
 public abstract class ElementIterableWrapper<T extends Element> implements ElementIterable<T> {
 
     protected final Iterator<T> iterator;
+    // Creates the spliterator once the read lock of the iterator is released
+    protected final Supplier<Spliterator<T>> spliterator;
     protected final GraphLockImpl lock;
+    // Set once the spliterator has been returned and the read lock released
+    protected boolean split;
 
     public ElementIterableWrapper(Iterator<T> iterator) {
         this(iterator, null);
     }
 
     public ElementIterableWrapper(Iterator<T> iterator, GraphLockImpl lock) {
+        this(iterator, null, lock);
+    }
+
+    public ElementIterableWrapper(Iterator<T> iterator, Supplier<Spliterator<T>> spliterator, GraphLockImpl lock) {
         this.iterator = iterator;
+        this.spliterator = spliterator;
         this.lock = lock;
     }
 
     @Override
     public Iterator<T> iterator() {
+        checkNotSplit();
         return iterator;
     }
 
@@ -50,6 +64,7 @@ public abstract class ElementIterableWrapper<T extends Element> implements Eleme
 
     @Override
     public Collection<T> toCollection() {
+        checkNotSplit();
         List<T> list = new ArrayList<>();
         while (iterator.hasNext()) {
             list.add(iterator.next());
@@ -59,6 +74,7 @@ public abstract class ElementIterableWrapper<T extends Element> implements Eleme
 
     @Override
     public Set<T> toSet() {
+        checkNotSplit();
         Set<T> set = new HashSet<>();
         while (iterator.hasNext()) {
             set.add(iterator.next());
@@ -66,6 +82,32 @@ public abstract class ElementIterableWrapper<T extends Element> implements Eleme
         return set;
     }
 
+    @Override
+    public Spliterator<T> spliterator() {
+        if (spliterator != null) {
+            checkNotSplit();
+            split = true;
+            doBreak();
+            return spliterator.get();
+        }
+        return ElementIterable.super.spliterator();
+    }
+
+    @Override
+    public Stream<T> parallelStream() {
+        if (spliterator != null) {
+            return StreamSupport.stream(spliterator(), true);
+        }
+        return toCollection().parallelStream();
+    }
+
+    private void checkNotSplit() {
+        if (split) {
+            throw new IllegalStateException(
+                    "This iterable has already been consumed by a spliterator and can't be reused");
+        }
+    }
+
     @Override
     public void doBreak() {
         if (lock != null) {
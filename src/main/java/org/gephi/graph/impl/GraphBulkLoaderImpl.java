@@ -0,0 +1,105 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.GraphBulkLoader;
+import org.gephi.graph.api.Node;
+
+public class GraphBulkLoaderImpl implements GraphBulkLoader {
+
+    protected final GraphStore graphStore;
+    // Batch
+    protected final List<Node> nodes;
+    protected final List<Edge> edges;
+    // Settings
+    protected int parallelism = 1;
+
+    public GraphBulkLoaderImpl(GraphStore graphStore) {
+        this.graphStore = graphStore;
+        this.nodes = new ArrayList<>();
+        this.edges = new ArrayList<>();
+    }
+
+    @Override
+    public GraphBulkLoader addNode(Node node) {
+        graphStore.nodeStore.checkNonNullNodeObject(node);
+        nodes.add(node);
+        return this;
+    }
+
+    @Override
+    public GraphBulkLoader addNodes(Collection<? extends Node> nodes) {
+        for (Node node : nodes) {
+            graphStore.nodeStore.checkNonNullNodeObject(node);
+        }
+        this.nodes.addAll(nodes);
+        return this;
+    }
+
+    @Override
+    public GraphBulkLoader addEdge(Edge edge) {
+        graphStore.edgeStore.checkNonNullEdgeObject(edge);
+        edges.add(edge);
+        return this;
+    }
+
+    @Override
+    public GraphBulkLoader addEdges(Collection<? extends Edge> edges) {
+        for (Edge edge : edges) {
+            graphStore.edgeStore.checkNonNullEdgeObject(edge);
+        }
+        this.edges.addAll(edges);
+        return this;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodes.size();
+    }
+
+    @Override
+    public int getEdgeCount() {
+        return edges.size();
+    }
+
+    @Override
+    public GraphBulkLoader setParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism should be positive");
+        }
+        this.parallelism = parallelism;
+        return this;
+    }
+
+    @Override
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    @Override
+    public boolean commit() {
+        try {
+            return graphStore.bulkAdd(nodes, edges, parallelism);
+        } finally {
+            nodes.clear();
+            edges.clear();
+        }
+    }
+}
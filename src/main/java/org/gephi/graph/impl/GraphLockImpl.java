@@ -18,6 +18,7 @@ package org.gephi.graph.impl;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
+import java.util.concurrent.locks.StampedLock;
 import org.gephi.graph.api.GraphLock;
 
 public class GraphLockImpl implements GraphLock {
@@ -25,15 +26,29 @@ public class GraphLockImpl implements GraphLock {
     protected final ReentrantReadWriteLock readWriteLock;
     protected final ReadLock readLock;
     protected final WriteLock writeLock;
+    // Optimistic reads
+    protected final StampedLock stampedLock;
+    protected long writeStamp;
+    protected volatile boolean optimisticReads;
+    // Write run by the next thread able to take the write lock
+    protected Runnable deferredWrite;
+    protected volatile boolean deferredWritePending;
 
     public GraphLockImpl() {
         readWriteLock = new ReentrantReadWriteLock();
         readLock = readWriteLock.readLock();
         writeLock = readWriteLock.writeLock();
+        stampedLock = new StampedLock();
     }
 
     @Override
     public void readLock() {
+        if (deferredWritePending && readWriteLock.getReadHoldCount() == 0 && !readWriteLock
+                .isWriteLockedByCurrentThread()) {
+            // A read lock can't be upgraded, pending writes are applied first
+            writeLock();
+            writeUnlock();
+        }
         readLock.lock();
     }
 
@@ -57,10 +72,18 @@ public class GraphLockImpl implements GraphLock {
                     "Impossible to acquire a write lock when currently holding a read lock. Use toArray() methods on NodeIterable and EdgeIterable to avoid holding a readLock or wrap your loop with a write lock.");
         }
         writeLock.lock();
+        if (readWriteLock.getWriteHoldCount() == 1) {
+            // Invalidates optimistic reads until the outermost write unlock
+            writeStamp = stampedLock.writeLock();
+            runDeferredWrite();
+        }
     }
 
     @Override
     public void writeUnlock() {
+        if (readWriteLock.getWriteHoldCount() == 1) {
+            stampedLock.unlockWrite(writeStamp);
+        }
         writeLock.unlock();
     }
 
@@ -80,4 +103,82 @@ public class GraphLockImpl implements GraphLock {
                     "Impossible to perform a write operation without lock. Wrap your code with a write lock to solve this.");
         }
     }
+
+    /**
+     * Returns true if the current thread holds the read or the write lock.
+     *
+     * @return true if held by the current thread, false otherwise
+     */
+    public boolean isHeldByCurrentThread() {
+        return readWriteLock.getReadHoldCount() > 0 || readWriteLock.isWriteLockedByCurrentThread();
+    }
+
+    /**
+     * Checks that some thread still holds the read or the write lock. Used by
+     * traversals running on other threads under the lock of their caller.
+     */
+    public void checkHeld() {
+        if (!readWriteLock.isWriteLocked() && readWriteLock.getReadLockCount() == 0) {
+            throw new IllegalMonitorStateException(
+                    "The lock held when the stream was created has been released. Consume parallel streams before releasing the lock.");
+        }
+    }
+
+    public void setDeferredWrite(Runnable write) {
+        deferredWrite = write;
+    }
+
+    /**
+     * Requests the deferred write to be run under the write lock. It runs right
+     * away if the current thread holds the write lock or no read lock. Otherwise,
+     * as the read lock can't be upgraded, it runs when a thread next takes the
+     * write lock or a first read lock.
+     */
+    public void requestDeferredWrite() {
+        deferredWritePending = true;
+        if (readWriteLock.isWriteLockedByCurrentThread()) {
+            runDeferredWrite();
+        } else if (readWriteLock.getReadHoldCount() == 0) {
+            writeLock();
+            writeUnlock();
+        }
+    }
+
+    private void runDeferredWrite() {
+        if (deferredWritePending && deferredWrite != null) {
+            deferredWritePending = false;
+            deferredWrite.run();
+        }
+    }
+
+    public void setOptimisticReads(boolean enabled) {
+        optimisticReads = enabled;
+    }
+
+    public boolean isOptimisticReads() {
+        return optimisticReads;
+    }
+
+    /**
+     * Returns a stamp to validate a lock-free read with, or zero if optimistic
+     * reads are disabled or a write is in progress.
+     *
+     * @return stamp, or zero
+     */
+    public long tryOptimisticRead() {
+        if (optimisticReads) {
+            return stampedLock.tryOptimisticRead();
+        }
+        return 0L;
+    }
+
+    /**
+     * Returns true if no write happened since the given stamp was obtained.
+     *
+     * @param stamp stamp returned by {@link #tryOptimisticRead()}
+     * @return true if valid, false otherwise
+     */
+    public boolean validate(long stamp) {
+        return stamp != 0L && stampedLock.validate(stamp);
+    }
 }
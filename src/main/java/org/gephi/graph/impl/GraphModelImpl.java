@@ -29,15 +29,20 @@ import org.gephi.graph.api.DirectedSubgraph;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.Graph;
 import org.gephi.graph.api.GraphBridge;
+import org.gephi.graph.api.GraphBulkLoader;
 import org.gephi.graph.api.GraphFactory;
 import org.gephi.graph.api.GraphModel;
 import org.gephi.graph.api.GraphObserver;
+import org.gephi.graph.api.GraphSnapshot;
 import org.gephi.graph.api.GraphView;
 import org.gephi.graph.api.Node;
+import org.gephi.graph.api.NodeLayoutArrays;
 import org.gephi.graph.api.Origin;
+import org.gephi.graph.api.Query;
 import org.gephi.graph.api.Subgraph;
 import org.gephi.graph.api.UndirectedGraph;
 import org.gephi.graph.api.UndirectedSubgraph;
+import org.gephi.graph.api.ViewOperation;
 import org.gephi.graph.api.TimeIndex;
 import org.joda.time.DateTimeZone;
 import org.gephi.graph.api.TimeRepresentation;
@@ -271,6 +276,16 @@ public class GraphModelImpl implements GraphModel {
         return store.viewStore.createView(view, node, edge);
     }
 
+    @Override
+    public GraphView combineViews(ViewOperation operation, GraphView... views) {
+        return store.viewStore.combineViews(operation, views);
+    }
+
+    @Override
+    public GraphView createTimeSlicedView(Interval interval) {
+        return store.viewStore.createTimeSlicedView(interval);
+    }
+
     @Override
     public void destroyView(GraphView view) {
         store.viewStore.destroyView(view);
@@ -281,6 +296,71 @@ public class GraphModelImpl implements GraphModel {
         store.viewStore.setTimeInterval(view, interval);
     }
 
+    @Override
+    public GraphSnapshot createSnapshot() {
+        return createSnapshot(store.mainGraphView);
+    }
+
+    @Override
+    public GraphSnapshot createSnapshot(GraphView view) {
+        store.viewStore.checkNonNullViewObject(view);
+        if (!view.isMainView()) {
+            store.viewStore.checkViewExist((GraphViewImpl) view);
+        }
+
+        store.autoReadLock();
+        try {
+            return new GraphSnapshotImpl(store, view);
+        } finally {
+            store.autoReadUnlock();
+        }
+    }
+
+    @Override
+    public double[] getEdgeWeights(GraphView view) {
+        store.viewStore.checkNonNullViewObject(view);
+        GraphViewImpl viewImpl = null;
+        if (!view.isMainView()) {
+            viewImpl = (GraphViewImpl) view;
+            store.viewStore.checkViewExist(viewImpl);
+        }
+
+        store.autoReadLock();
+        try {
+            EdgeStore edgeStore = store.edgeStore;
+            boolean dynamic = !Double.class.equals(store.configuration.getEdgeWeightType());
+            double[] weights = new double[edgeStore.maxStoreId()];
+            for (int i = 0; i < edgeStore.blocksCount; i++) {
+                EdgeStore.EdgeBlock block = edgeStore.blocks[i];
+                EdgeImpl[] backingArray = block.backingArray;
+                for (int j = 0; j < block.nodeLength; j++) {
+                    EdgeImpl edge = backingArray[j];
+                    if (edge != null && (viewImpl == null || viewImpl.containsEdge(edge))) {
+                        weights[edge.storeId] = dynamic ? edge.getWeight(view) : edge.getWeight();
+                    }
+                }
+            }
+            return weights;
+        } finally {
+            store.autoReadUnlock();
+        }
+    }
+
+    @Override
+    public GraphBulkLoader createBulkLoader() {
+        return new GraphBulkLoaderImpl(store);
+    }
+
+    @Override
+    public void compact() {
+        store.compact(Integer.MAX_VALUE);
+    }
+
+    @Override
+    public boolean compact(int maxMoves) {
+        return store.compact(maxMoves);
+    }
+
     @Override
     public Table getNodeTable() {
         return store.nodeTable;
@@ -340,6 +420,28 @@ public class GraphModelImpl implements GraphModel {
         return null;
     }
 
+    @Override
+    public Query<Node> createNodeQuery() {
+        return createNodeQuery(store.mainGraphView);
+    }
+
+    @Override
+    public Query<Node> createNodeQuery(GraphView view) {
+        checkQueryView(view);
+        return new QueryImpl<>(store.nodeTable, view);
+    }
+
+    @Override
+    public Query<Edge> createEdgeQuery() {
+        return createEdgeQuery(store.mainGraphView);
+    }
+
+    @Override
+    public Query<Edge> createEdgeQuery(GraphView view) {
+        checkQueryView(view);
+        return new QueryImpl<>(store.edgeTable, view);
+    }
+
     @Override
     public TimeIndex<Node> getNodeTimeIndex() {
         return getNodeTimeIndex(store.mainGraphView);
@@ -379,6 +481,40 @@ public class GraphModelImpl implements GraphModel {
         return store.spatialIndex;
     }
 
+    @Override
+    public void setNodeLayoutArraysEnabled(boolean enabled) {
+        store.autoWriteLock();
+        try {
+            store.nodeStore.setLayoutArraysEnabled(enabled);
+        } finally {
+            store.autoWriteUnlock();
+        }
+    }
+
+    @Override
+    public boolean isNodeLayoutArraysEnabled() {
+        return store.nodeStore.layoutArrays != null;
+    }
+
+    @Override
+    public NodeLayoutArrays getNodeLayoutArrays() {
+        NodeLayoutArrays layoutArrays = store.nodeStore.layoutArrays;
+        if (layoutArrays == null) {
+            throw new IllegalStateException("The node layout arrays aren't enabled");
+        }
+        return layoutArrays;
+    }
+
+    @Override
+    public void setOptimisticReadsEnabled(boolean enabled) {
+        store.lock.setOptimisticReads(enabled);
+    }
+
+    @Override
+    public boolean isOptimisticReadsEnabled() {
+        return store.lock.isOptimisticReads();
+    }
+
     @Override
     public GraphObserver createGraphObserver(Graph graph, boolean withGraphDiff) {
         store.autoWriteLock();
@@ -532,6 +668,36 @@ public class GraphModelImpl implements GraphModel {
                 configuration.setEdgeWeightType(newWeightType);
             }
 
+            // Change index representation
+            boolean indexBitmapsChanged = !config.getIndexBitmaps().equals(configuration.getIndexBitmaps());
+            boolean indexTextChanged = !config.getIndexText().equals(configuration.getIndexText());
+            boolean indexQueryThresholdChanged = !config.getIndexQueryThreshold()
+                    .equals(configuration.getIndexQueryThreshold());
+            boolean sharedViewIndexesChanged = !config.getSharedViewIndexes()
+                    .equals(configuration.getSharedViewIndexes());
+            boolean indexArrayElementsChanged = !config.getIndexArrayElements()
+                    .equals(configuration.getIndexArrayElements());
+            if (indexBitmapsChanged || indexTextChanged || indexQueryThresholdChanged || sharedViewIndexesChanged || indexArrayElementsChanged) {
+                configuration.setIndexBitmaps(config.getIndexBitmaps());
+                configuration.setIndexText(config.getIndexText());
+                configuration.setIndexQueryThreshold(config.getIndexQueryThreshold());
+                configuration.setSharedViewIndexes(config.getSharedViewIndexes());
+                configuration.setIndexArrayElements(config.getIndexArrayElements());
+
+                if (indexTextChanged && GraphStoreConfiguration.ENABLE_ELEMENT_LABEL) {
+                    TableImpl<Node> nodeTable = store.nodeTable;
+                    nodeTable.store.removeColumn(GraphStoreConfiguration.ELEMENT_LABEL_COLUMN_ID);
+                    nodeTable.store.addColumn(new ColumnImpl(nodeTable, GraphStoreConfiguration.ELEMENT_LABEL_COLUMN_ID,
+                            String.class, "Label", null, Origin.PROPERTY, store.isLabelIndexed(nodeTable), false));
+                    TableImpl<Edge> edgeTable = store.edgeTable;
+                    edgeTable.store.removeColumn(GraphStoreConfiguration.ELEMENT_LABEL_COLUMN_ID);
+                    edgeTable.store.addColumn(new ColumnImpl(edgeTable, GraphStoreConfiguration.ELEMENT_LABEL_COLUMN_ID,
+                            String.class, "Label", null, Origin.PROPERTY, store.isLabelIndexed(edgeTable), false));
+                }
+                store.nodeTable.store.indexStore.resetConfiguration();
+                store.edgeTable.store.indexStore.resetConfiguration();
+            }
+
             store.factory.resetConfiguration();
             store.defaultColumns.resetConfiguration();
         } finally {
@@ -582,6 +748,13 @@ public class GraphModelImpl implements GraphModel {
         return true;
     }
 
+    private void checkQueryView(GraphView view) {
+        store.viewStore.checkNonNullViewObject(view);
+        if (!view.isMainView()) {
+            store.viewStore.checkViewExist((GraphViewImpl) view);
+        }
+    }
+
     private void checkGraphObserver(GraphObserver observer) {
         if (observer == null) {
             throw new NullPointerException();
@@ -595,6 +768,10 @@ public class GraphModelImpl implements GraphModel {
     }
 
     private void checkValidConfiguration(Configuration config) {
+        if (config.getIndexQueryThreshold() == null || config.getIndexQueryThreshold() < 0) {
+            throw new IllegalArgumentException("The index query threshold should be positive or zero");
+        }
+
         Class edgeWeightType = config.getEdgeWeightType();
         if (edgeWeightType.equals(Double.class)) {
             return;// Double is always allowed
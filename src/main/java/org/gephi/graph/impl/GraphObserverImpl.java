@@ -43,6 +43,8 @@ public class GraphObserverImpl implements GraphObserver {
     protected GraphDiffImpl graphDiff;
     protected NodeImpl[] nodeCache;
     protected EdgeImpl[] edgeCache;
+    protected ObjectList<NodeImpl> removedNodeCache;
+    protected ObjectList<EdgeImpl> removedEdgeCache;
 
     public GraphObserverImpl(GraphStore store, GraphVersion graphVersion, Graph graph, boolean withDiff) {
         this.graphStore = store;
@@ -116,6 +118,15 @@ public class GraphObserverImpl implements GraphObserver {
     protected void refreshDiff() {
         graphDiff = new GraphDiffImpl();
 
+        if (removedNodeCache != null) {
+            graphDiff.removedNodes.addAll(removedNodeCache);
+            removedNodeCache = null;
+        }
+        if (removedEdgeCache != null) {
+            graphDiff.removedEdges.addAll(removedEdgeCache);
+            removedEdgeCache = null;
+        }
+
         if (nodeVersion < graphVersion.nodeVersion) {
             int maxStoreId = graphStore.nodeStore.maxStoreId();
 
@@ -171,6 +182,43 @@ public class GraphObserverImpl implements GraphObserver {
 
     }
 
+    protected void compactCache() {
+        // Store ids have been renumbered, elements no longer in the graph are
+        // kept aside until the next diff
+        if (nodeCache != null) {
+            NodeImpl[] newCache = new NodeImpl[graphStore.nodeStore.maxStoreId()];
+            for (NodeImpl nImpl : nodeCache) {
+                if (nImpl != null) {
+                    if (nImpl.storeId != NodeStore.NULL_ID && graph.contains(nImpl)) {
+                        newCache[nImpl.storeId] = nImpl;
+                    } else {
+                        if (removedNodeCache == null) {
+                            removedNodeCache = new ObjectArrayList<>();
+                        }
+                        removedNodeCache.add(nImpl);
+                    }
+                }
+            }
+            nodeCache = newCache;
+        }
+        if (edgeCache != null) {
+            EdgeImpl[] newCache = new EdgeImpl[graphStore.edgeStore.maxStoreId()];
+            for (EdgeImpl eImpl : edgeCache) {
+                if (eImpl != null) {
+                    if (eImpl.storeId != EdgeStore.NULL_ID && graph.contains(eImpl)) {
+                        newCache[eImpl.storeId] = eImpl;
+                    } else {
+                        if (removedEdgeCache == null) {
+                            removedEdgeCache = new ObjectArrayList<>();
+                        }
+                        removedEdgeCache.add(eImpl);
+                    }
+                }
+            }
+            edgeCache = newCache;
+        }
+    }
+
     protected void resetNodeVersion() {
         nodeVersion = Integer.MIN_VALUE;
     }
@@ -248,6 +296,8 @@ public class GraphObserverImpl implements GraphObserver {
 
         nodeCache = null;
         edgeCache = null;
+        removedNodeCache = null;
+        removedEdgeCache = null;
         destroyed = true;
     }
 
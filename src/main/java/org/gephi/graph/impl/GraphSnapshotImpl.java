@@ -0,0 +1,227 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import java.util.Objects;
+import org.gephi.graph.api.GraphSnapshot;
+import org.gephi.graph.api.GraphView;
+
+public class GraphSnapshotImpl implements GraphSnapshot {
+
+    // Source
+    protected final GraphStore graphStore;
+    protected final GraphView view;
+    protected final GraphVersion graphVersion;
+    protected final int nodeVersion;
+    protected final int edgeVersion;
+    // Nodes
+    protected final int maxNodeStoreId;
+    protected final int[] nodes;
+    // Out
+    protected final int[] outOffsets;
+    protected final int[] outNeighbors;
+    protected final int[] outEdges;
+    protected final double[] outWeights;
+    // In
+    protected final int[] inOffsets;
+    protected final int[] inNeighbors;
+    protected final int[] inEdges;
+    protected final double[] inWeights;
+
+    public GraphSnapshotImpl(GraphStore graphStore, GraphView view) {
+        this.graphStore = graphStore;
+        this.view = view;
+
+        GraphViewImpl viewImpl = view.isMainView() ? null : (GraphViewImpl) view;
+        this.graphVersion = viewImpl != null ? viewImpl.version : graphStore.version;
+        this.nodeVersion = graphVersion != null ? graphVersion.nodeVersion : 0;
+        this.edgeVersion = graphVersion != null ? graphVersion.edgeVersion : 0;
+
+        // Nodes
+        NodeStore nodeStore = graphStore.nodeStore;
+        this.maxNodeStoreId = nodeStore.maxStoreId();
+        this.nodes = new int[viewImpl != null ? viewImpl.getNodeCount() : nodeStore.size()];
+        int nodeIndex = 0;
+        for (int i = 0; i < nodeStore.blocksCount; i++) {
+            NodeStore.NodeBlock block = nodeStore.blocks[i];
+            NodeImpl[] backingArray = block.backingArray;
+            for (int j = 0; j < block.nodeLength; j++) {
+                NodeImpl node = backingArray[j];
+                if (node != null && (viewImpl == null || viewImpl.containsNode(node))) {
+                    nodes[nodeIndex++] = node.storeId;
+                }
+            }
+        }
+
+        // Degrees
+        EdgeStore edgeStore = graphStore.edgeStore;
+        int edgeCount = viewImpl != null ? viewImpl.getEdgeCount() : edgeStore.size();
+        this.outOffsets = new int[maxNodeStoreId + 1];
+        this.inOffsets = new int[maxNodeStoreId + 1];
+        for (int i = 0; i < edgeStore.blocksCount; i++) {
+            EdgeStore.EdgeBlock block = edgeStore.blocks[i];
+            EdgeImpl[] backingArray = block.backingArray;
+            for (int j = 0; j < block.nodeLength; j++) {
+                EdgeImpl edge = backingArray[j];
+                if (edge != null && (viewImpl == null || viewImpl.containsEdge(edge))) {
+                    outOffsets[edge.source.storeId + 1]++;
+                    inOffsets[edge.target.storeId + 1]++;
+                }
+            }
+        }
+        for (int i = 0; i < maxNodeStoreId; i++) {
+            outOffsets[i + 1] += outOffsets[i];
+            inOffsets[i + 1] += inOffsets[i];
+        }
+
+        // Adjacency
+        this.outNeighbors = new int[edgeCount];
+        this.outEdges = new int[edgeCount];
+        this.outWeights = new double[edgeCount];
+        this.inNeighbors = new int[edgeCount];
+        this.inEdges = new int[edgeCount];
+        this.inWeights = new double[edgeCount];
+        int[] outCursors = new int[maxNodeStoreId];
+        int[] inCursors = new int[maxNodeStoreId];
+        System.arraycopy(outOffsets, 0, outCursors, 0, maxNodeStoreId);
+        System.arraycopy(inOffsets, 0, inCursors, 0, maxNodeStoreId);
+        for (int i = 0; i < edgeStore.blocksCount; i++) {
+            EdgeStore.EdgeBlock block = edgeStore.blocks[i];
+            EdgeImpl[] backingArray = block.backingArray;
+            for (int j = 0; j < block.nodeLength; j++) {
+                EdgeImpl edge = backingArray[j];
+                if (edge != null && (viewImpl == null || viewImpl.containsEdge(edge))) {
+                    int source = edge.source.storeId;
+                    int target = edge.target.storeId;
+                    double weight = getWeight(edge);
+
+                    int outIndex = outCursors[source]++;
+                    outNeighbors[outIndex] = target;
+                    outEdges[outIndex] = edge.storeId;
+                    outWeights[outIndex] = weight;
+
+                    int inIndex = inCursors[target]++;
+                    inNeighbors[inIndex] = source;
+                    inEdges[inIndex] = edge.storeId;
+                    inWeights[inIndex] = weight;
+                }
+            }
+        }
+    }
+
+    private double getWeight(EdgeImpl edge) {
+        if (!view.isMainView() && edge.hasDynamicWeight()) {
+            return edge.getWeight(view);
+        }
+        return edge.getWeight();
+    }
+
+    @Override
+    public GraphView getView() {
+        return view;
+    }
+
+    @Override
+    public int getVersion() {
+        return Objects.hash(nodeVersion, edgeVersion);
+    }
+
+    @Override
+    public boolean isStale() {
+        if (graphVersion == null) {
+            return false;
+        }
+        return graphVersion.nodeVersion != nodeVersion || graphVersion.edgeVersion != edgeVersion;
+    }
+
+    @Override
+    public int getNodeCount() {
+        return nodes.length;
+    }
+
+    @Override
+    public int getEdgeCount() {
+        return outEdges.length;
+    }
+
+    @Override
+    public int getMaxNodeStoreId() {
+        return maxNodeStoreId;
+    }
+
+    @Override
+    public int[] getNodes() {
+        return nodes;
+    }
+
+    @Override
+    public int[] getOutOffsets() {
+        return outOffsets;
+    }
+
+    @Override
+    public int[] getOutNeighbors() {
+        return outNeighbors;
+    }
+
+    @Override
+    public int[] getOutEdges() {
+        return outEdges;
+    }
+
+    @Override
+    public double[] getOutWeights() {
+        return outWeights;
+    }
+
+    @Override
+    public int[] getInOffsets() {
+        return inOffsets;
+    }
+
+    @Override
+    public int[] getInNeighbors() {
+        return inNeighbors;
+    }
+
+    @Override
+    public int[] getInEdges() {
+        return inEdges;
+    }
+
+    @Override
+    public double[] getInWeights() {
+        return inWeights;
+    }
+
+    @Override
+    public int getOutDegree(int nodeStoreId) {
+        checkValidNodeStoreId(nodeStoreId);
+        return outOffsets[nodeStoreId + 1] - outOffsets[nodeStoreId];
+    }
+
+    @Override
+    public int getInDegree(int nodeStoreId) {
+        checkValidNodeStoreId(nodeStoreId);
+        return inOffsets[nodeStoreId + 1] - inOffsets[nodeStoreId];
+    }
+
+    private void checkValidNodeStoreId(int id) {
+        if (id < 0 || id >= maxNodeStoreId) {
+            throw new IllegalArgumentException("Node id=" + id + " is invalid");
+        }
+    }
+}
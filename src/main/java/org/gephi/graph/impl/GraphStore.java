@@ -16,12 +16,21 @@
 
 package org.gephi.graph.impl;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 import org.gephi.graph.api.AttributeUtils;
 import org.gephi.graph.api.Configuration;
 import org.gephi.graph.api.DirectedGraph;
@@ -76,6 +85,10 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
     protected SpatialIndexImpl spatialIndex;
     // Default columns
     protected final DefaultColumnsImpl defaultColumns;
+    // Concurrent bulk commits
+    protected final Object bulkMonitor = new Object();
+    protected List<BulkBatch> bulkBatches = new ArrayList<>();
+    protected boolean bulkCommitting;
 
     public GraphStore() {
         this(null);
@@ -89,6 +102,7 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
         edgeTypeStore = new EdgeTypeStore();
         mainGraphView = new MainGraphView();
         viewStore = new GraphViewStore(this);
+        lock.setDeferredWrite(viewStore::flushTimeSlices);
         version = GraphStoreConfiguration.ENABLE_OBSERVERS ? new GraphVersion(this) : null;
         observers = GraphStoreConfiguration.ENABLE_OBSERVERS ? new ArrayList<>() : null;
         spatialIndex = GraphStoreConfiguration.ENABLE_SPATIAL_INDEX ? new SpatialIndexImpl(this) : null;
@@ -114,9 +128,9 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
                 configuration.getEdgeIdType(), "Id", null, Origin.PROPERTY, false, true));
         if (GraphStoreConfiguration.ENABLE_ELEMENT_LABEL) {
             nodeTable.store.addColumn(new ColumnImpl(nodeTable, GraphStoreConfiguration.ELEMENT_LABEL_COLUMN_ID,
-                    String.class, "Label", null, Origin.PROPERTY, false, false));
+                    String.class, "Label", null, Origin.PROPERTY, isLabelIndexed(nodeTable), false));
             edgeTable.store.addColumn(new ColumnImpl(edgeTable, GraphStoreConfiguration.ELEMENT_LABEL_COLUMN_ID,
-                    String.class, "Label", null, Origin.PROPERTY, false, false));
+                    String.class, "Label", null, Origin.PROPERTY, isLabelIndexed(edgeTable), false));
         }
         if (GraphStoreConfiguration.ENABLE_ELEMENT_TIME_SET) {
             if (configuration.getTimeRepresentation().equals(TimeRepresentation.TIMESTAMP)) {
@@ -185,6 +199,188 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
         }
     }
 
+    public boolean bulkAdd(final Collection<? extends Node> nodes, final Collection<? extends Edge> edges) {
+        return bulkAdd(nodes, edges, 1);
+    }
+
+    public boolean bulkAdd(final Collection<? extends Node> nodes, final Collection<? extends Edge> edges, final int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("The parallelism should be positive");
+        }
+        if (!GraphStoreConfiguration.ENABLE_AUTO_LOCKING || !GraphStoreConfiguration.ENABLE_PARALLEL_EDGES || lock
+                .isHeldByCurrentThread()) {
+            // Can't wait for other commits while holding the lock
+            autoWriteLock();
+            try {
+                return bulkAddBatch(nodes, edges, parallelism);
+            } finally {
+                autoWriteUnlock();
+            }
+        }
+        return bulkAddConcurrently(new BulkBatch(nodes, edges, parallelism));
+    }
+
+    private boolean bulkAddBatch(final Collection<? extends Node> nodes, final Collection<? extends Edge> edges, final int parallelism) {
+        // Edges are checked against the node batch before anything is added
+        List<EdgeImpl> added = edgeStore.checkBulkAdd(edges, nodes);
+        for (Edge edge : edges) {
+            registerEdgeType(edge);
+        }
+        boolean changed = nodeStore.bulkAdd(nodes);
+        return edgeStore.bulkAddChecked(added, parallelism) || changed;
+    }
+
+    /**
+     * Commits the batch along with the batches of concurrent commits. The first
+     * thread takes the write lock and adds all the batches waiting at that point,
+     * the others wait for it. Batches committed meanwhile are added by the next
+     * group.
+     */
+    private boolean bulkAddConcurrently(final BulkBatch batch) {
+        boolean leader;
+        boolean interrupted = false;
+        synchronized (bulkMonitor) {
+            bulkBatches.add(batch);
+            while (bulkCommitting && !batch.done) {
+                try {
+                    bulkMonitor.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            leader = !batch.done;
+            bulkCommitting = leader;
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        if (leader) {
+            List<BulkBatch> group = Collections.emptyList();
+            try {
+                writeLock();
+                try {
+                    synchronized (bulkMonitor) {
+                        group = bulkBatches;
+                        bulkBatches = new ArrayList<>();
+                    }
+                    commitBulkBatches(group);
+                } finally {
+                    writeUnlock();
+                }
+            } finally {
+                synchronized (bulkMonitor) {
+                    for (BulkBatch b : group) {
+                        b.done = true;
+                    }
+                    bulkCommitting = false;
+                    bulkMonitor.notifyAll();
+                }
+            }
+        }
+
+        if (batch.error != null) {
+            throw batch.error;
+        } else if (!batch.committed) {
+            throw new IllegalStateException("The concurrent commit failed");
+        }
+        return batch.changed;
+    }
+
+    private void commitBulkBatches(final List<BulkBatch> group) {
+        if (group.size() == 1) {
+            BulkBatch batch = group.get(0);
+            try {
+                batch.changed = bulkAddBatch(batch.nodes, batch.edges, batch.parallelism);
+                batch.committed = true;
+            } catch (RuntimeException e) {
+                batch.error = e;
+            }
+            return;
+        }
+
+        // Batches are checked concurrently, against the store and each other
+        final Map<Object, EdgeImpl> ids = new ConcurrentHashMap<>();
+        final Map<EdgeStore.NodePair, Boolean> pairs = new ConcurrentHashMap<>();
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for (final BulkBatch batch : group) {
+            tasks.add(ForkJoinTask.adapt(() -> {
+                try {
+                    batch.added = edgeStore.checkBulkAdd(batch.edges, batch.nodes, ids, pairs);
+                } catch (RuntimeException e) {
+                    batch.error = e;
+                }
+            }));
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        // Edge types and nodes are added batch by batch
+        List<List<EdgeImpl>> edges = new ArrayList<>(group.size());
+        int parallelism = 0;
+        for (BulkBatch batch : group) {
+            if (batch.error == null) {
+                try {
+                    for (Edge edge : batch.added) {
+                        registerEdgeType(edge);
+                    }
+                    batch.changed = nodeStore.bulkAdd(batch.nodes);
+                } catch (RuntimeException e) {
+                    batch.error = e;
+                }
+            }
+            edges.add(batch.error == null ? batch.added : Collections.<EdgeImpl> emptyList());
+            parallelism += batch.parallelism;
+        }
+
+        boolean[] changed = edgeStore.bulkAddConcurrently(edges, parallelism);
+        for (int i = 0; i < group.size(); i++) {
+            BulkBatch batch = group.get(i);
+            if (batch.error == null) {
+                batch.changed |= changed[i];
+                batch.committed = true;
+            }
+        }
+    }
+
+    public boolean compact(final int maxMoves) {
+        if (maxMoves < 0) {
+            throw new IllegalArgumentException("The maximum number of moves can't be negative");
+        }
+        autoWriteLock();
+        try {
+            IntList nodeMoves = new IntArrayList();
+            boolean compact = nodeStore.compact(maxMoves, nodeMoves);
+            IntList edgeMoves = new IntArrayList();
+            compact = edgeStore.compact(maxMoves - nodeMoves.size() / 2, edgeMoves) && compact;
+
+            viewStore.compact(nodeStore.maxStoreId(), edgeStore.maxStoreId());
+            if (observers != null) {
+                for (GraphObserverImpl observer : observers) {
+                    observer.compactCache();
+                }
+            }
+            moveColumnObserverElements(nodeTable, nodeMoves);
+            moveColumnObserverElements(edgeTable, edgeMoves);
+            return compact;
+        } finally {
+            autoWriteUnlock();
+        }
+    }
+
+    private void moveColumnObserverElements(TableImpl table, IntList moves) {
+        if (!moves.isEmpty()) {
+            for (ColumnImpl column : table.store.toArray()) {
+                if (column.observers != null) {
+                    synchronized (column.observers) {
+                        for (ColumnObserverImpl observer : column.observers) {
+                            observer.moveElements(moves);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     private void registerEdgeType(Edge edge) {
         int type = edge.getType();
         if (edgeTypeStore != null && !edgeTypeStore.contains(type)) {
@@ -198,12 +394,7 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
 
     @Override
     public NodeImpl getNode(final Object id) {
-        autoReadLock();
-        try {
-            return nodeStore.get(id);
-        } finally {
-            autoReadUnlock();
-        }
+        return optimisticRead(() -> nodeStore.get(id));
     }
 
     @Override
@@ -213,12 +404,7 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
 
     @Override
     public EdgeImpl getEdge(final Object id) {
-        autoReadLock();
-        try {
-            return edgeStore.get(id);
-        } finally {
-            autoReadUnlock();
-        }
+        return optimisticRead(() -> edgeStore.get(id));
     }
 
     @Override
@@ -324,32 +510,17 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
 
     @Override
     public boolean contains(final Node node) {
-        autoReadLock();
-        try {
-            return nodeStore.contains(node);
-        } finally {
-            autoReadUnlock();
-        }
+        return optimisticRead(() -> nodeStore.contains(node));
     }
 
     @Override
     public boolean contains(final Edge edge) {
-        autoReadLock();
-        try {
-            return edgeStore.contains(edge);
-        } finally {
-            autoReadUnlock();
-        }
+        return optimisticRead(() -> edgeStore.contains(edge));
     }
 
     @Override
     public Edge getEdge(final Node node1, final Node node2, final int type) {
-        autoReadLock();
-        try {
-            return edgeStore.get(node1, node2, type, false);
-        } finally {
-            autoReadUnlock();
-        }
+        return optimisticRead(() -> edgeStore.get(node1, node2, type, false));
     }
 
     @Override
@@ -363,12 +534,7 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
 
     @Override
     public Edge getEdge(final Node node1, final Node node2) {
-        autoReadLock();
-        try {
-            return edgeStore.get(node1, node2, false);
-        } finally {
-            autoReadUnlock();
-        }
+        return optimisticRead(() -> edgeStore.get(node1, node2, false));
     }
 
     @Override
@@ -410,6 +576,36 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
         return new NodeIterableWrapper(edgeStore.neighborOutIterator(node, type));
     }
 
+    @Override
+    public void forEachNeighbor(final Node node, final IntConsumer consumer) {
+        edgeStore.forEachNeighbor(node, consumer);
+    }
+
+    @Override
+    public void forEachNeighbor(final Node node, final int type, final IntConsumer consumer) {
+        edgeStore.forEachNeighbor(node, type, consumer);
+    }
+
+    @Override
+    public void forEachPredecessor(final Node node, final IntConsumer consumer) {
+        edgeStore.forEachInNeighbor(node, consumer);
+    }
+
+    @Override
+    public void forEachPredecessor(final Node node, final int type, final IntConsumer consumer) {
+        edgeStore.forEachInNeighbor(node, type, consumer);
+    }
+
+    @Override
+    public void forEachSuccessor(final Node node, final IntConsumer consumer) {
+        edgeStore.forEachOutNeighbor(node, consumer);
+    }
+
+    @Override
+    public void forEachSuccessor(final Node node, final int type, final IntConsumer consumer) {
+        edgeStore.forEachOutNeighbor(node, type, consumer);
+    }
+
     @Override
     public EdgeIterable getEdges(final Node node) {
         return new EdgeIterableWrapper(edgeStore.edgeIterator(node));
@@ -505,22 +701,12 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
 
     @Override
     public boolean isAdjacent(final Node node1, final Node node2) {
-        autoReadLock();
-        try {
-            return edgeStore.isAdjacent(node1, node2);
-        } finally {
-            autoReadUnlock();
-        }
+        return optimisticRead(() -> edgeStore.isAdjacent(node1, node2));
     }
 
     @Override
     public boolean isAdjacent(final Node node1, final Node node2, final int type) {
-        autoReadLock();
-        try {
-            return edgeStore.isAdjacent(node1, node2, type);
-        } finally {
-            autoReadUnlock();
-        }
+        return optimisticRead(() -> edgeStore.isAdjacent(node1, node2, type));
     }
 
     @Override
@@ -702,6 +888,42 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
         }
     }
 
+    /**
+     * Runs the given read without locking and validates it against concurrent
+     * writes. If a write happened, or the read failed because of it, the read is
+     * run again under the read lock.
+     *
+     * @param <R> result type
+     * @param read read to run, which shouldn't have side effects
+     * @return read result
+     */
+    protected <R> R optimisticRead(Supplier<R> read) {
+        long stamp = tryOptimisticRead();
+        if (stamp != 0L) {
+            try {
+                R result = read.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // Concurrent write, retry with the read lock
+            }
+        }
+        autoReadLock();
+        try {
+            return read.get();
+        } finally {
+            autoReadUnlock();
+        }
+    }
+
+    protected long tryOptimisticRead() {
+        if (GraphStoreConfiguration.ENABLE_AUTO_LOCKING) {
+            return lock.tryOptimisticRead();
+        }
+        return 0L;
+    }
+
     protected void autoReadUnlockAll() {
         if (GraphStoreConfiguration.ENABLE_AUTO_LOCKING) {
             readUnlockAll();
@@ -817,6 +1039,16 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
         return getNodeIterableWrapper(nodeIterator, true);
     }
 
+    protected EdgeIterableWrapper getEdgeIterableWrapper(Iterator<Edge> edgeIterator, Supplier<Spliterator<Edge>> edgeSpliterator) {
+        return new EdgeIterableWrapper(edgeIterator, edgeSpliterator,
+                GraphStoreConfiguration.ENABLE_AUTO_LOCKING ? lock : null);
+    }
+
+    protected NodeIterableWrapper getNodeIterableWrapper(Iterator<Node> nodeIterator, Supplier<Spliterator<Node>> nodeSpliterator) {
+        return new NodeIterableWrapper(nodeIterator, nodeSpliterator,
+                GraphStoreConfiguration.ENABLE_AUTO_LOCKING ? lock : null);
+    }
+
     protected EdgeIterableWrapper getEdgeIterableWrapper(Iterator<Edge> edgeIterator, boolean blocking) {
         return new EdgeIterableWrapper(edgeIterator,
                 (blocking && GraphStoreConfiguration.ENABLE_AUTO_LOCKING) ? lock : null);
@@ -827,6 +1059,11 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
                 (blocking && GraphStoreConfiguration.ENABLE_AUTO_LOCKING) ? lock : null);
     }
 
+    // Labels are only indexed for text search
+    protected boolean isLabelIndexed(TableImpl table) {
+        return configuration.getIndexText() && table.store.indexStore != null;
+    }
+
     public int deepHashCode() {
         int hash = 3;
         hash = 29 * hash + (this.nodeStore != null ? this.nodeStore.deepHashCode() : 0);
@@ -860,6 +1097,24 @@ public class GraphStore implements DirectedGraph, DirectedSubgraph {
         return true;
     }
 
+    protected static final class BulkBatch {
+
+        private final Collection<? extends Node> nodes;
+        private final Collection<? extends Edge> edges;
+        private final int parallelism;
+        private List<EdgeImpl> added;
+        private boolean changed;
+        private boolean committed;
+        private RuntimeException error;
+        private boolean done;
+
+        public BulkBatch(Collection<? extends Node> nodes, Collection<? extends Edge> edges, int parallelism) {
+            this.nodes = nodes;
+            this.edges = edges;
+            this.parallelism = parallelism;
+        }
+    }
+
     private final class MainGraphView implements GraphView {
 
         @Override
@@ -33,6 +33,7 @@ public final class GraphStoreConfiguration {
     public static final boolean ENABLE_EDGE_PROPERTIES = true;
     public static final boolean ENABLE_PARALLEL_EDGES = true;
     public static final boolean ENABLE_SPATIAL_INDEX = false;
+    public static final boolean ENABLE_PRIMITIVE_COLUMNS = true;
     // NodeStore
     public final static int NODESTORE_BLOCK_SIZE = 5000;
     public final static int NODESTORE_DEFAULT_BLOCKS = 10;
@@ -44,9 +45,15 @@ public final class GraphStoreConfiguration {
     public static final int EDGESTORE_DEFAULT_TYPE_COUNT = 1;
     public static final int EDGESTORE_DEFAULT_DICTIONARY_SIZE = 1000;
     public static final float EDGESTORE_DICTIONARY_LOAD_FACTOR = .7f;
+    public static final int EDGESTORE_LOCK_STRIPES = 64;
+    public static final int EDGESTORE_LOCK_STRIPE_RANGE = 64;
+    public static final int EDGESTORE_CONCURRENT_MIN_CHUNK_SIZE = 4096;
     // GraphView
     public static final int VIEW_DEFAULT_TYPE_COUNT = 1;
     public static final double VIEW_GROWING_FACTOR = 1.1;
+    public static final int VIEW_CONCURRENT_MIN_CHUNK_SIZE = 1 << 20;
+    // Query
+    public static final int QUERY_CANDIDATE_FILTER_RATIO = 4;
     // Diff
     public static final double COLUMNDIFF_GROWING_FACTOR = 1.1;
     // Properties
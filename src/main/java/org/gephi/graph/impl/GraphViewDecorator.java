@@ -18,9 +18,13 @@ package org.gephi.graph.impl;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Set;
+import java.util.Spliterator;
 import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
 import org.gephi.graph.api.DirectedSubgraph;
 import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Element;
 import org.gephi.graph.api.EdgeIterable;
 import org.gephi.graph.api.Graph;
 import org.gephi.graph.api.GraphLock;
@@ -157,26 +161,20 @@ public class GraphViewDecorator implements DirectedSubgraph, UndirectedSubgraph,
     public boolean isAdjacent(Node source, Node target) {
         checkValidInViewNodeObject(source);
         checkValidInViewNodeObject(target);
-        graphStore.autoReadLock();
-        try {
+        return graphStore.optimisticRead(() -> {
             EdgeImpl edge = graphStore.edgeStore.get(source, target, undirected);
             return edge != null && view.containsEdge(edge);
-        } finally {
-            graphStore.autoReadUnlock();
-        }
+        });
     }
 
     @Override
     public boolean isAdjacent(Node source, Node target, int type) {
         checkValidInViewNodeObject(source);
         checkValidInViewNodeObject(target);
-        graphStore.autoReadLock();
-        try {
+        return graphStore.optimisticRead(() -> {
             EdgeImpl edge = graphStore.edgeStore.get(source, target, type, undirected);
             return edge != null && view.containsEdge(edge);
-        } finally {
-            graphStore.autoReadUnlock();
-        }
+        });
     }
 
     @Override
@@ -288,16 +286,13 @@ public class GraphViewDecorator implements DirectedSubgraph, UndirectedSubgraph,
 
     @Override
     public Node getNode(Object id) {
-        graphStore.autoReadLock();
-        try {
-            NodeImpl node = graphStore.getNode(id);
+        return graphStore.optimisticRead(() -> {
+            NodeImpl node = graphStore.nodeStore.get(id);
             if (node != null && view.containsNode(node)) {
                 return node;
             }
             return null;
-        } finally {
-            graphStore.autoReadUnlock();
-        }
+        });
     }
 
     @Override
@@ -307,16 +302,13 @@ public class GraphViewDecorator implements DirectedSubgraph, UndirectedSubgraph,
 
     @Override
     public Edge getEdge(Object id) {
-        graphStore.autoReadLock();
-        try {
-            EdgeImpl edge = graphStore.getEdge(id);
+        return graphStore.optimisticRead(() -> {
+            EdgeImpl edge = graphStore.edgeStore.get(id);
             if (edge != null && view.containsEdge(edge)) {
                 return edge;
             }
             return null;
-        } finally {
-            graphStore.autoReadUnlock();
-        }
+        });
     }
 
     @Override
@@ -326,15 +318,19 @@ public class GraphViewDecorator implements DirectedSubgraph, UndirectedSubgraph,
 
     @Override
     public NodeIterable getNodes() {
-        return graphStore.getNodeIterableWrapper(new NodeViewIterator(graphStore.nodeStore.iterator()));
+        Supplier<Spliterator<Node>> spliterator = view.nodeView ? () -> new NodeViewSpliterator(0, -1)
+                : graphStore.nodeStore::spliterator;
+        return graphStore.getNodeIterableWrapper(new NodeViewIterator(graphStore.nodeStore.iterator()), spliterator);
     }
 
     @Override
     public EdgeIterable getEdges() {
         if (undirected) {
-            return graphStore.getEdgeIterableWrapper(new UndirectedEdgeViewIterator(graphStore.edgeStore.iterator()));
+            return graphStore.getEdgeIterableWrapper(new UndirectedEdgeViewIterator(
+                    graphStore.edgeStore.iterator()), () -> new EdgeViewSpliterator(0, -1));
         } else {
-            return graphStore.getEdgeIterableWrapper(new EdgeViewIterator(graphStore.edgeStore.iterator()));
+            return graphStore.getEdgeIterableWrapper(new EdgeViewIterator(
+                    graphStore.edgeStore.iterator()), () -> new EdgeViewSpliterator(0, -1));
         }
     }
 
@@ -363,6 +359,42 @@ public class GraphViewDecorator implements DirectedSubgraph, UndirectedSubgraph,
                 new UndirectedEdgeViewIterator(graphStore.edgeStore.edgeIterator(node, type))));
     }
 
+    @Override
+    public void forEachNeighbor(Node node, IntConsumer consumer) {
+        checkValidInViewNodeObject(node);
+        graphStore.edgeStore.forEachNeighbor(node, EdgeStore.ANY_TYPE, view, consumer);
+    }
+
+    @Override
+    public void forEachNeighbor(Node node, int type, IntConsumer consumer) {
+        checkValidInViewNodeObject(node);
+        graphStore.edgeStore.forEachNeighbor(node, type, view, consumer);
+    }
+
+    @Override
+    public void forEachPredecessor(Node node, IntConsumer consumer) {
+        checkValidInViewNodeObject(node);
+        graphStore.edgeStore.forEachInNeighbor(node, EdgeStore.ANY_TYPE, view, consumer);
+    }
+
+    @Override
+    public void forEachPredecessor(Node node, int type, IntConsumer consumer) {
+        checkValidInViewNodeObject(node);
+        graphStore.edgeStore.forEachInNeighbor(node, type, view, consumer);
+    }
+
+    @Override
+    public void forEachSuccessor(Node node, IntConsumer consumer) {
+        checkValidInViewNodeObject(node);
+        graphStore.edgeStore.forEachOutNeighbor(node, EdgeStore.ANY_TYPE, view, consumer);
+    }
+
+    @Override
+    public void forEachSuccessor(Node node, int type, IntConsumer consumer) {
+        checkValidInViewNodeObject(node);
+        graphStore.edgeStore.forEachOutNeighbor(node, type, view, consumer);
+    }
+
     @Override
     public EdgeIterable getEdges(Node node) {
         checkValidInViewNodeObject(node);
@@ -421,56 +453,19 @@ public class GraphViewDecorator implements DirectedSubgraph, UndirectedSubgraph,
     @Override
     public int getDegree(Node node) {
         if (undirected) {
-            int count = 0;
-            EdgeStore.EdgeInOutIterator itr = graphStore.edgeStore.edgeIterator(node);
-            while (itr.hasNext()) {
-                EdgeImpl edge = itr.next();
-                if (view.containsEdge(edge) && !isUndirectedToIgnore(edge)) {
-                    count++;
-                    if (edge.isSelfLoop()) {
-                        count++;
-                    }
-                }
-            }
-            return count;
-        } else {
-            int count = 0;
-            EdgeStore.EdgeInOutIterator itr = graphStore.edgeStore.edgeIterator(node);
-            while (itr.hasNext()) {
-                EdgeImpl edge = itr.next();
-                if (view.containsEdge(edge)) {
-                    count++;
-                    if (edge.isSelfLoop()) {
-                        count++;
-                    }
-                }
-            }
-            return count;
+            return view.getUndirectedDegree((NodeImpl) node);
         }
+        return view.getDegree((NodeImpl) node);
     }
 
     @Override
     public int getInDegree(Node node) {
-        int count = 0;
-        EdgeStore.EdgeInIterator itr = graphStore.edgeStore.edgeInIterator(node);
-        while (itr.hasNext()) {
-            if (view.containsEdge(itr.next())) {
-                count++;
-            }
-        }
-        return count;
+        return view.getInDegree((NodeImpl) node);
     }
 
     @Override
     public int getOutDegree(Node node) {
-        int count = 0;
-        EdgeStore.EdgeOutIterator itr = graphStore.edgeStore.edgeOutIterator(node);
-        while (itr.hasNext()) {
-            if (view.containsEdge(itr.next())) {
-                count++;
-            }
-        }
-        return count;
+        return view.getOutDegree((NodeImpl) node);
     }
 
     @Override
@@ -785,6 +780,187 @@ public class GraphViewDecorator implements DirectedSubgraph, UndirectedSubgraph,
         return new EdgeIterableWrapper(new EdgeViewIterator(iterator), graphStore.spatialIndex.nodesTree.lock);
     }
 
+    protected abstract class ViewSpliterator<T extends Element> implements Spliterator<T> {
+
+        protected int index;
+        protected int fence;
+        // False when created under a lock of the current thread, which then
+        // protects the traversal from any thread
+        protected final boolean locked;
+
+        public ViewSpliterator(int index, int fence) {
+            this(index, fence,
+                    !GraphStoreConfiguration.ENABLE_AUTO_LOCKING || !graphStore.lock.isHeldByCurrentThread());
+        }
+
+        public ViewSpliterator(int index, int fence, boolean locked) {
+            this.index = index;
+            this.fence = fence;
+            this.locked = locked;
+        }
+
+        protected abstract ViewBitSet bitSet();
+
+        protected abstract T get(int id);
+
+        protected abstract ViewSpliterator<T> create(int index, int fence, boolean locked);
+
+        private void lockTraversal() {
+            if (locked) {
+                graphStore.autoReadLock();
+            } else if (GraphStoreConfiguration.ENABLE_AUTO_LOCKING) {
+                graphStore.lock.checkHeld();
+            }
+        }
+
+        private void unlockTraversal() {
+            if (locked) {
+                graphStore.autoReadUnlock();
+            }
+        }
+
+        protected boolean filter(T element) {
+            return true;
+        }
+
+        @Override
+        public int characteristics() {
+            // Bits may be set for removed elements, estimates aren't exact
+            return Spliterator.DISTINCT | Spliterator.NONNULL;
+        }
+
+        private int getFence() {
+            if (fence < 0) {
+                lockTraversal();
+                fence = bitSet().size();
+                unlockTraversal();
+            }
+            return fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            int fence = getFence();
+            lockTraversal();
+            try {
+                ViewBitSet bitSet = bitSet();
+                for (int id = bitSet.nextSetBit(index); id >= 0 && id < fence; id = bitSet.nextSetBit(id + 1)) {
+                    index = id + 1;
+                    T element = get(id);
+                    if (element != null && filter(element)) {
+                        action.accept(element);
+                        return true;
+                    }
+                }
+                index = fence;
+                return false;
+            } finally {
+                unlockTraversal();
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            int fence = getFence();
+            lockTraversal();
+            try {
+                ViewBitSet bitSet = bitSet();
+                for (int id = bitSet.nextSetBit(index); id >= 0 && id < fence; id = bitSet.nextSetBit(id + 1)) {
+                    T element = get(id);
+                    if (element != null && filter(element)) {
+                        action.accept(element);
+                    }
+                }
+                index = fence;
+            } finally {
+                unlockTraversal();
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            // Splits on word boundaries
+            int lo = index >>> 6;
+            int mid = (lo + ((getFence() + 63) >>> 6)) >>> 1;
+            if (mid <= lo) {
+                return null;
+            }
+            ViewSpliterator<T> prefix = create(index, mid << 6, locked);
+            index = mid << 6;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            int fence = getFence();
+            lockTraversal();
+            try {
+                return bitSet().cardinality(index, fence);
+            } finally {
+                unlockTraversal();
+            }
+        }
+    }
+
+    protected final class NodeViewSpliterator extends ViewSpliterator<Node> {
+
+        public NodeViewSpliterator(int index, int fence) {
+            super(index, fence);
+        }
+
+        public NodeViewSpliterator(int index, int fence, boolean locked) {
+            super(index, fence, locked);
+        }
+
+        @Override
+        protected ViewBitSet bitSet() {
+            return view.nodeBitVector;
+        }
+
+        @Override
+        protected Node get(int id) {
+            NodeStore nodeStore = graphStore.nodeStore;
+            return nodeStore.isValidIndex(id) ? nodeStore.get(id) : null;
+        }
+
+        @Override
+        protected ViewSpliterator<Node> create(int index, int fence, boolean locked) {
+            return new NodeViewSpliterator(index, fence, locked);
+        }
+    }
+
+    protected final class EdgeViewSpliterator extends ViewSpliterator<Edge> {
+
+        public EdgeViewSpliterator(int index, int fence) {
+            super(index, fence);
+        }
+
+        public EdgeViewSpliterator(int index, int fence, boolean locked) {
+            super(index, fence, locked);
+        }
+
+        @Override
+        protected ViewBitSet bitSet() {
+            return view.edgeBitVector;
+        }
+
+        @Override
+        protected Edge get(int id) {
+            EdgeStore edgeStore = graphStore.edgeStore;
+            return edgeStore.isValidIndex(id) ? edgeStore.get(id) : null;
+        }
+
+        @Override
+        protected boolean filter(Edge edge) {
+            return !undirected || !isUndirectedToIgnore((EdgeImpl) edge);
+        }
+
+        @Override
+        protected ViewSpliterator<Edge> create(int index, int fence, boolean locked) {
+            return new EdgeViewSpliterator(index, fence, locked);
+        }
+    }
+
     protected final class NodeViewIterator implements Iterator<Node> {
 
         private final Iterator<Node> nodeIterator;
@@ -15,14 +15,15 @@
  */
 package org.gephi.graph.impl;
 
-import cern.colt.bitvector.BitVector;
-import cern.colt.bitvector.QuickBitVector;
+import it.unimi.dsi.fastutil.ints.IntIterator;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import org.gephi.graph.api.Interval;
 import org.gephi.graph.api.DirectedSubgraph;
 import org.gephi.graph.api.Edge;
@@ -39,8 +40,8 @@ public class GraphViewImpl implements GraphView {
     protected final boolean nodeView;
     protected final boolean edgeView;
     protected final GraphAttributesImpl attributes;
-    protected BitVector nodeBitVector;
-    protected BitVector edgeBitVector;
+    protected ViewBitSet nodeBitVector;
+    protected ViewBitSet edgeBitVector;
     protected int storeId;
     // Version
     protected final GraphVersion version;
@@ -54,8 +55,15 @@ public class GraphViewImpl implements GraphView {
     protected int[] typeCounts;
     protected int[] mutualEdgeTypeCounts;
     protected int mutualEdgesCount;
+    // Degrees, built on first use
+    protected int[] inDegrees;
+    protected int[] outDegrees;
+    protected int[] mutualDegrees;
+    // Degree buckets of the view index, updated with the degrees
+    protected DegreeIndexStore degreeIndexStore;
     // Dynamic
     protected Interval interval;
+    protected ViewTimeSlice timeSlice;
 
     public GraphViewImpl(final GraphStore store, boolean nodes, boolean edges) {
         this.graphStore = store;
@@ -63,11 +71,11 @@ public class GraphViewImpl implements GraphView {
         this.edgeView = edges;
         this.attributes = new GraphAttributesImpl();
         if (nodes) {
-            this.nodeBitVector = new BitVector(store.nodeStore.maxStoreId());
+            this.nodeBitVector = new ViewBitSet(store.nodeStore.maxStoreId());
         } else {
             this.nodeBitVector = null;
         }
-        this.edgeBitVector = new BitVector(store.edgeStore.maxStoreId());
+        this.edgeBitVector = new ViewBitSet(store.edgeStore.maxStoreId());
         this.typeCounts = new int[GraphStoreConfiguration.VIEW_DEFAULT_TYPE_COUNT];
         this.mutualEdgeTypeCounts = new int[GraphStoreConfiguration.VIEW_DEFAULT_TYPE_COUNT];
 
@@ -95,11 +103,13 @@ public class GraphViewImpl implements GraphView {
         System.arraycopy(view.typeCounts, 0, typeCounts, 0, view.typeCounts.length);
         this.mutualEdgeTypeCounts = new int[view.mutualEdgeTypeCounts.length];
         System.arraycopy(view.mutualEdgeTypeCounts, 0, mutualEdgeTypeCounts, 0, view.mutualEdgeTypeCounts.length);
+        this.mutualEdgesCount = view.mutualEdgesCount;
         this.directedDecorator = new GraphViewDecorator(graphStore, this, false);
         this.undirectedDecorator = new GraphViewDecorator(graphStore, this, true);
         this.version = graphStore.version != null ? new GraphVersion(directedDecorator) : null;
         this.observers = graphStore.version != null ? new ArrayList<>() : null;
         this.interval = view.interval;
+        this.timeSlice = view.timeSlice != null ? new ViewTimeSlice(this) : null;
     }
 
     protected DirectedSubgraph getDirectedGraph() {
@@ -131,6 +141,9 @@ public class GraphViewImpl implements GraphView {
             if (timeIndexStore != null) {
                 timeIndexStore.indexInView(nodeImpl, this);
             }
+            if (degreeIndexStore != null) {
+                degreeIndexStore.addNode(nodeImpl);
+            }
 
             if (nodeView && !edgeView) {
                 // Add edges
@@ -143,9 +156,6 @@ public class GraphViewImpl implements GraphView {
                         int edgeid = edge.storeId;
                         boolean edgeisSet = edgeBitVector.get(edgeid);
                         if (!edgeisSet) {
-
-                            incrementEdgeVersion();
-
                             addEdge(edge);
                         }
                         // End
@@ -175,6 +185,51 @@ public class GraphViewImpl implements GraphView {
         return false;
     }
 
+    public boolean addAllNodes(final IdBitmap nodeIds) {
+        checkNodeView();
+
+        IndexStore<Node> indexStore = graphStore.nodeTable.store.indexStore;
+        TimeIndexStore timeIndexStore = graphStore.timeStore.nodeIndexStore;
+        boolean changed = false;
+        IntIterator itr = nodeIds.iterator();
+        while (itr.hasNext()) {
+            NodeImpl node = getNode(itr.nextInt());
+            ensureNodeVectorSize(node);
+            if (!nodeBitVector.get(node.storeId)) {
+                nodeBitVector.set(node.storeId);
+                nodeCount++;
+                changed = true;
+
+                if (indexStore != null) {
+                    indexStore.indexInView(node, this);
+                }
+                if (timeIndexStore != null) {
+                    timeIndexStore.indexInView(node, this);
+                }
+            }
+        }
+
+        if (changed) {
+            incrementNodeVersion();
+
+            if (nodeView && !edgeView) {
+                // Add edges
+                itr = nodeIds.iterator();
+                while (itr.hasNext()) {
+                    EdgeInOutIterator edgeItr = graphStore.edgeStore.edgeIterator(getNode(itr.nextInt()));
+                    while (edgeItr.hasNext()) {
+                        EdgeImpl edge = edgeItr.next();
+                        if (nodeBitVector.get(edge.source.storeId) && nodeBitVector
+                                .get(edge.target.storeId) && !edgeBitVector.get(edge.storeId)) {
+                            addEdge(edge);
+                        }
+                    }
+                }
+            }
+        }
+        return changed;
+    }
+
     public boolean addEdge(final Edge edge) {
         checkEdgeView();
 
@@ -210,6 +265,24 @@ public class GraphViewImpl implements GraphView {
         return false;
     }
 
+    public boolean addAllEdges(final IdBitmap edgeIds) {
+        checkEdgeView();
+
+        boolean changed = false;
+        IntIterator itr = edgeIds.iterator();
+        while (itr.hasNext()) {
+            EdgeImpl edge = getEdge(itr.nextInt());
+            ensureEdgeVectorSize(edge);
+            if (!edgeBitVector.get(edge.storeId)) {
+                checkIncidentNodesExists(edge);
+
+                addEdge(edge);
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
     public boolean removeNode(final Node node) {
         checkNodeView();
 
@@ -231,6 +304,9 @@ public class GraphViewImpl implements GraphView {
             if (timeIndexStore != null) {
                 timeIndexStore.clearInView(nodeImpl, this);
             }
+            if (degreeIndexStore != null) {
+                degreeIndexStore.removeNode(id);
+            }
 
             // Remove edges
             EdgeInOutIterator itr = graphStore.edgeStore.edgeIterator(node);
@@ -314,6 +390,7 @@ public class GraphViewImpl implements GraphView {
         typeCounts = new int[GraphStoreConfiguration.VIEW_DEFAULT_TYPE_COUNT];
         mutualEdgeTypeCounts = new int[GraphStoreConfiguration.VIEW_DEFAULT_TYPE_COUNT];
         mutualEdgesCount = 0;
+        resetDegrees();
 
         if (nodeView) {
             IndexStore<Node> nodeIndexStore = graphStore.nodeTable.store.indexStore;
@@ -344,6 +421,7 @@ public class GraphViewImpl implements GraphView {
         typeCounts = new int[GraphStoreConfiguration.VIEW_DEFAULT_TYPE_COUNT];
         mutualEdgeTypeCounts = new int[GraphStoreConfiguration.VIEW_DEFAULT_TYPE_COUNT];
         mutualEdgesCount = 0;
+        resetDegrees();
 
         IndexStore<Edge> edgeIndexStore = graphStore.edgeTable.store.indexStore;
         if (edgeIndexStore != null) {
@@ -358,15 +436,17 @@ public class GraphViewImpl implements GraphView {
     public void fill() {
         if (nodeView) {
             if (nodeCount > 0) {
-                nodeBitVector = new BitVector(graphStore.nodeStore.maxStoreId());
+                nodeBitVector = new ViewBitSet(graphStore.nodeStore.maxStoreId());
             }
             nodeBitVector.not();
+            nodeBitVector.retain(this::isNodeInStore);
             this.nodeCount = graphStore.nodeStore.size();
         }
         if (edgeCount > 0) {
-            edgeBitVector = new BitVector(graphStore.edgeStore.maxStoreId());
+            edgeBitVector = new ViewBitSet(graphStore.edgeStore.maxStoreId());
         }
         edgeBitVector.not();
+        edgeBitVector.retain(this::isEdgeInStore);
 
         this.edgeCount = graphStore.edgeStore.size();
         int typeLength = graphStore.edgeStore.longDictionary.length;
@@ -378,6 +458,7 @@ public class GraphViewImpl implements GraphView {
         this.mutualEdgeTypeCounts = new int[graphStore.edgeStore.mutualEdgesTypeSize.length];
         System.arraycopy(graphStore.edgeStore.mutualEdgesTypeSize, 0, this.mutualEdgeTypeCounts, 0, this.mutualEdgeTypeCounts.length);
         this.mutualEdgesCount = graphStore.edgeStore.mutualEdgesSize;
+        resetDegrees();
 
         if (edgeCount > 0) {
             incrementEdgeVersion();
@@ -418,112 +499,63 @@ public class GraphViewImpl implements GraphView {
     }
 
     public void intersection(final GraphViewImpl otherView) {
-        BitVector nodeOtherBitVector = otherView.nodeBitVector;
-        BitVector edgeOtherBitVector = otherView.edgeBitVector;
+        int oldNodeCount = nodeCount;
+        int oldEdgeCount = edgeCount;
 
-        if (nodeView) {
-            int nodeSize = nodeBitVector.size();
-            for (int i = 0; i < nodeSize; i++) {
-                boolean t = nodeBitVector.get(i);
-                boolean o = nodeOtherBitVector.get(i);
-                if (t && !o) {
-                    removeNode(getNode(i));
-                }
-            }
+        // Views without node filtering contain all nodes
+        if (nodeView && otherView.nodeView) {
+            nodeBitVector.and(otherView.nodeBitVector);
         }
-
         if (edgeView) {
-            int edgeSize = edgeBitVector.size();
-            for (int i = 0; i < edgeSize; i++) {
-                boolean t = edgeBitVector.get(i);
-                boolean o = edgeOtherBitVector.get(i);
-                if (t && !o) {
-                    removeEdge(getEdge(i));
-                }
-            }
+            edgeBitVector.and(otherView.edgeBitVector);
+        }
+        if (nodeView && nodeBitVector.cardinality() != oldNodeCount) {
+            edgeBitVector.retain(this::isEdgeInView);
         }
+        updateCounts(oldNodeCount, oldEdgeCount);
     }
 
     public void union(final GraphViewImpl otherView) {
-        BitVector nodeOtherBitVector = otherView.nodeBitVector;
-        BitVector edgeOtherBitVector = otherView.edgeBitVector;
+        int oldNodeCount = nodeCount;
+        int oldEdgeCount = edgeCount;
 
         if (nodeView) {
-            int nodeSize = nodeBitVector.size();
-            for (int i = 0; i < nodeSize; i++) {
-                boolean t = nodeBitVector.get(i);
-                boolean o = nodeOtherBitVector.get(i);
-                if (!t && o) {
-                    addNode(getNode(i));
-                }
+            if (otherView.nodeView) {
+                nodeBitVector.or(otherView.nodeBitVector);
+            } else {
+                nodeBitVector.clear();
+                nodeBitVector.not();
+                nodeBitVector.retain(this::isNodeInStore);
             }
         }
-
         if (edgeView) {
-            int edgeSize = edgeBitVector.size();
-            for (int i = 0; i < edgeSize; i++) {
-                boolean t = edgeBitVector.get(i);
-                boolean o = edgeOtherBitVector.get(i);
-                if (!t && o) {
-                    addEdge(getEdge(i));
-                }
-            }
-        }
+            edgeBitVector.or(otherView.edgeBitVector);
+        } else if (nodeBitVector.cardinality() != oldNodeCount) {
+            // Node views contain all the edges between their nodes
+            edgeBitVector.clear();
+            edgeBitVector.not();
+            edgeBitVector.retain(this::isEdgeInView);
+        }
+        updateCounts(oldNodeCount, oldEdgeCount);
     }
 
     public void not() {
         if (nodeView) {
             nodeBitVector.not();
-            this.nodeCount = graphStore.nodeStore.size() - this.nodeCount;
+            nodeBitVector.retain(this::isNodeInStore);
         }
         edgeBitVector.not();
-
-        this.edgeCount = graphStore.edgeStore.size() - this.edgeCount;
-        for (int i = 0; i < typeCounts.length; i++) {
-            this.typeCounts[i] = graphStore.edgeStore.longDictionary[i].size() - this.typeCounts[i];
-        }
-        for (int i = 0; i < mutualEdgeTypeCounts.length; i++) {
-            this.mutualEdgeTypeCounts[i] = graphStore.edgeStore.mutualEdgesTypeSize[i] - this.mutualEdgeTypeCounts[i];
-        }
-        this.mutualEdgesCount = graphStore.edgeStore.mutualEdgesSize - this.mutualEdgesCount;
+        edgeBitVector.retain(this::isEdgeInView);
 
         if (nodeView) {
+            this.nodeCount = nodeBitVector.cardinality();
             incrementNodeVersion();
         }
+        this.edgeCount = edgeBitVector.cardinality();
         incrementEdgeVersion();
-
-        if (nodeView) {
-            for (Edge e : graphStore.edgeStore) {
-                boolean t = edgeBitVector.get(e.getStoreId());
-                if (t && (!nodeBitVector.get(e.getSource().getStoreId()) || !nodeBitVector
-                        .get(e.getTarget().getStoreId()))) {
-                    removeEdge((EdgeImpl) e);
-                }
-            }
-        }
-
-        if (nodeView) {
-            IndexStore<Node> nodeIndexStore = graphStore.nodeTable.store.indexStore;
-            if (nodeIndexStore != null) {
-                nodeIndexStore.clear(directedDecorator.view);
-                nodeIndexStore.indexView(directedDecorator);
-            }
-            TimeIndexStore nodeTimeIndexStore = graphStore.timeStore.nodeIndexStore;
-            if (nodeTimeIndexStore != null) {
-                nodeTimeIndexStore.clear(directedDecorator.view);
-                nodeTimeIndexStore.indexView(directedDecorator);
-            }
-        }
-        IndexStore<Edge> edgeIndexStore = graphStore.edgeTable.store.indexStore;
-        if (edgeIndexStore != null) {
-            edgeIndexStore.clear(directedDecorator.view);
-            edgeIndexStore.indexView(directedDecorator);
-        }
-        TimeIndexStore edgeTimeIndexStore = graphStore.timeStore.edgeIndexStore;
-        if (edgeTimeIndexStore != null) {
-            edgeTimeIndexStore.clear(directedDecorator.view);
-            edgeTimeIndexStore.indexView(directedDecorator);
-        }
+        countEdgeTypes();
+        resetDegrees();
+        reindex();
     }
 
     public void addEdgeInNodeView(EdgeImpl edge) {
@@ -587,7 +619,26 @@ public class GraphViewImpl implements GraphView {
         if (interval == null) {
             interval = Interval.INFINITY_INTERVAL;
         }
+        Interval oldInterval = this.interval;
         this.interval = interval;
+        if (timeSlice != null && !interval.equals(oldInterval)) {
+            timeSlice.move(oldInterval);
+        }
+    }
+
+    /**
+     * Makes the node and edge membership of this view follow its time interval.
+     */
+    protected void enableTimeSlice() {
+        checkNodeView();
+        checkEdgeView();
+
+        timeSlice = new ViewTimeSlice(this);
+        timeSlice.refresh();
+    }
+
+    public boolean isTimeSliced() {
+        return timeSlice != null;
     }
 
     @Override
@@ -635,20 +686,18 @@ public class GraphViewImpl implements GraphView {
         if (sid >= nodeBitVector.size()) {
             int newSize = Math.min(Math
                     .max(sid + 1, (int) (sid * GraphStoreConfiguration.VIEW_GROWING_FACTOR)), Integer.MAX_VALUE);
-            nodeBitVector = growBitVector(nodeBitVector, newSize);
+            nodeBitVector.ensureSize(newSize);
         }
+        ensureDegreesSize(sid + 1);
     }
 
-    private void ensureNodeVectorSize(int size) {
-        if (size > nodeBitVector.size()) {
-            nodeBitVector = growBitVector(nodeBitVector, size);
-        }
+    protected void ensureNodeVectorSize(int size) {
+        nodeBitVector.ensureSize(size);
+        ensureDegreesSize(size);
     }
 
-    private void ensureEdgeVectorSize(int size) {
-        if (size > edgeBitVector.size()) {
-            edgeBitVector = growBitVector(edgeBitVector, size);
-        }
+    protected void ensureEdgeVectorSize(int size) {
+        edgeBitVector.ensureSize(size);
     }
 
     protected void ensureEdgeVectorSize(EdgeImpl edge) {
@@ -656,7 +705,55 @@ public class GraphViewImpl implements GraphView {
         if (sid >= edgeBitVector.size()) {
             int newSize = Math.min(Math
                     .max(sid + 1, (int) (sid * GraphStoreConfiguration.VIEW_GROWING_FACTOR)), Integer.MAX_VALUE);
-            edgeBitVector = growBitVector(edgeBitVector, newSize);
+            edgeBitVector.ensureSize(newSize);
+        }
+    }
+
+    protected void moveNode(NodeImpl node, int oldId, List<EdgeImpl> edges) {
+        int size = nodeBitVector.size();
+        if (oldId < size) {
+            nodeBitVector.put(node.storeId, nodeBitVector.get(oldId));
+            nodeBitVector.clear(oldId);
+        }
+
+        // Mutual edges are only counted when the source id is lower than the target id
+        for (EdgeImpl edge : edges) {
+            if (edge.isMutual() && edge.storeId < edgeBitVector.size() && edgeBitVector.get(edge.storeId)) {
+                int sourceId = edge.source == node ? oldId : edge.source.storeId;
+                int targetId = edge.target == node ? oldId : edge.target.storeId;
+                boolean counted = sourceId < targetId;
+                if (counted != edge.source.storeId < edge.target.storeId) {
+                    int delta = counted ? -1 : 1;
+                    mutualEdgeTypeCounts[edge.type] += delta;
+                    mutualEdgesCount += delta;
+                }
+            }
+        }
+        resetDegrees();
+        incrementNodeVersion();
+    }
+
+    protected void moveEdge(EdgeImpl edge, int oldId) {
+        int size = edgeBitVector.size();
+        if (oldId < size) {
+            edgeBitVector.put(edge.storeId, edgeBitVector.get(oldId));
+            edgeBitVector.clear(oldId);
+        }
+        incrementEdgeVersion();
+    }
+
+    protected void compact(int maxNodeStoreId, int maxEdgeStoreId) {
+        if (nodeBitVector.size() > maxNodeStoreId) {
+            nodeBitVector.setSize(maxNodeStoreId);
+        }
+        if (edgeBitVector.size() > maxEdgeStoreId) {
+            edgeBitVector.setSize(maxEdgeStoreId);
+        }
+        resetDegrees();
+        if (observers != null) {
+            for (GraphObserverImpl observer : observers) {
+                observer.compactCache();
+            }
         }
     }
 
@@ -676,6 +773,13 @@ public class GraphViewImpl implements GraphView {
             mutualEdgesCount++;
         }
 
+        if (inDegrees != null) {
+            updateDegrees(edgeImpl, 1);
+        }
+        if (degreeIndexStore != null) {
+            degreeIndexStore.updateEdge(edgeImpl.source, edgeImpl.target);
+        }
+
         IndexStore<Edge> indexStore = graphStore.edgeTable.store.indexStore;
         if (indexStore != null) {
             indexStore.indexInView(edgeImpl, this);
@@ -698,17 +802,280 @@ public class GraphViewImpl implements GraphView {
             mutualEdgesCount--;
         }
 
+        if (inDegrees != null) {
+            updateDegrees(edgeImpl, -1);
+        }
+        if (degreeIndexStore != null) {
+            degreeIndexStore.updateEdge(edgeImpl.source, edgeImpl.target);
+        }
+
         IndexStore<Edge> indexStore = graphStore.edgeTable.store.indexStore;
         if (indexStore != null) {
             indexStore.clearInView(edgeImpl, this);
         }
     }
 
-    private BitVector growBitVector(BitVector bitVector, int size) {
-        long[] elements = bitVector.elements();
-        long[] newElements = QuickBitVector.makeBitVector(size, 1);
-        System.arraycopy(elements, 0, newElements, 0, elements.length);
-        return new BitVector(newElements, size);
+    public synchronized int getInDegree(NodeImpl node) {
+        ensureDegrees();
+        int id = node.storeId;
+        return id < inDegrees.length ? inDegrees[id] : 0;
+    }
+
+    public synchronized int getOutDegree(NodeImpl node) {
+        ensureDegrees();
+        int id = node.storeId;
+        return id < outDegrees.length ? outDegrees[id] : 0;
+    }
+
+    public synchronized int getDegree(NodeImpl node) {
+        ensureDegrees();
+        int id = node.storeId;
+        return id < inDegrees.length ? inDegrees[id] + outDegrees[id] : 0;
+    }
+
+    public synchronized int getUndirectedDegree(NodeImpl node) {
+        ensureDegrees();
+        int id = node.storeId;
+        return id < inDegrees.length ? inDegrees[id] + outDegrees[id] - mutualDegrees[id] : 0;
+    }
+
+    /**
+     * Returns the in-degrees of the nodes in this view, indexed by node store id.
+     * The returned array is shared and shouldn't be modified.
+     *
+     * @return in-degree array
+     */
+    public synchronized int[] getInDegrees() {
+        ensureDegrees();
+        return inDegrees;
+    }
+
+    /**
+     * Returns the out-degrees of the nodes in this view, indexed by node store id.
+     * The returned array is shared and shouldn't be modified.
+     *
+     * @return out-degree array
+     */
+    public synchronized int[] getOutDegrees() {
+        ensureDegrees();
+        return outDegrees;
+    }
+
+    /**
+     * Returns the number of mutual edge pairs the nodes in this view belong to,
+     * indexed by node store id. The returned array is shared and shouldn't be
+     * modified.
+     *
+     * @return mutual degree array
+     */
+    public synchronized int[] getMutualDegrees() {
+        ensureDegrees();
+        return mutualDegrees;
+    }
+
+    protected synchronized void resetMutualDegrees() {
+        mutualDegrees = null;
+    }
+
+    protected synchronized void resetDegrees() {
+        inDegrees = null;
+        outDegrees = null;
+        mutualDegrees = null;
+    }
+
+    private void ensureDegrees() {
+        if (inDegrees == null) {
+            int length = graphStore.nodeStore.maxStoreId();
+            int[] in = new int[length];
+            int[] out = new int[length];
+            for (int i = edgeBitVector.nextSetBit(0); i >= 0; i = edgeBitVector.nextSetBit(i + 1)) {
+                EdgeImpl edge = getEdge(i);
+                out[edge.source.storeId]++;
+                in[edge.target.storeId]++;
+            }
+            outDegrees = out;
+            inDegrees = in;
+            mutualDegrees = null;
+        }
+        if (mutualDegrees == null) {
+            int[] mutual = new int[inDegrees.length];
+            for (int i = edgeBitVector.nextSetBit(0); i >= 0; i = edgeBitVector.nextSetBit(i + 1)) {
+                EdgeImpl edge = getEdge(i);
+                if (isMutualPairInView(edge)) {
+                    mutual[edge.source.storeId]++;
+                    mutual[edge.target.storeId]++;
+                }
+            }
+            mutualDegrees = mutual;
+        }
+    }
+
+    private void ensureDegreesSize(int size) {
+        if (inDegrees != null && size > inDegrees.length) {
+            int newSize = Math.max(size, (int) (inDegrees.length * GraphStoreConfiguration.VIEW_GROWING_FACTOR));
+            inDegrees = Arrays.copyOf(inDegrees, newSize);
+            outDegrees = Arrays.copyOf(outDegrees, newSize);
+            if (mutualDegrees != null) {
+                mutualDegrees = Arrays.copyOf(mutualDegrees, newSize);
+            }
+        }
+    }
+
+    private void updateDegrees(EdgeImpl edge, int delta) {
+        NodeImpl source = edge.source;
+        NodeImpl target = edge.target;
+        ensureDegreesSize(Math.max(source.storeId, target.storeId) + 1);
+        outDegrees[source.storeId] += delta;
+        inDegrees[target.storeId] += delta;
+
+        if (mutualDegrees != null && edge.isDirected() && !edge.isSelfLoop()) {
+            EdgeStore edgeStore = graphStore.edgeStore;
+            if (source.storeId < target.storeId) {
+                // The edge is counted when its reverse is in the view
+                if (isMutualPairInView(edge)) {
+                    mutualDegrees[source.storeId] += delta;
+                    mutualDegrees[target.storeId] += delta;
+                }
+            } else if (edgeStore.get(source, target, edge.type, false) == edge) {
+                // The edge is the reverse the mutual edges of the pair refer to
+                Iterator<Edge> itr = edgeStore.getAll(target, source, edge.type, false);
+                while (itr.hasNext()) {
+                    EdgeImpl reverse = (EdgeImpl) itr.next();
+                    if (reverse.isMutual() && containsEdge(reverse)) {
+                        mutualDegrees[source.storeId] += delta;
+                        mutualDegrees[target.storeId] += delta;
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isMutualPairInView(EdgeImpl edge) {
+        if (edge.isMutual() && edge.source.storeId < edge.target.storeId) {
+            EdgeImpl reverse = graphStore.edgeStore.get(edge.target, edge.source, edge.type, false);
+            return reverse != null && containsEdge(reverse);
+        }
+        return false;
+    }
+
+    private void updateCounts(int oldNodeCount, int oldEdgeCount) {
+        if (nodeView) {
+            nodeCount = nodeBitVector.cardinality();
+        }
+        edgeCount = edgeBitVector.cardinality();
+
+        boolean nodeChanged = nodeCount != oldNodeCount;
+        boolean edgeChanged = edgeCount != oldEdgeCount;
+        if (nodeChanged) {
+            incrementNodeVersion();
+        }
+        if (edgeChanged) {
+            incrementEdgeVersion();
+            countEdgeTypes();
+            resetDegrees();
+        }
+        if (nodeChanged || edgeChanged) {
+            reindex();
+        }
+    }
+
+    private void countEdgeTypes() {
+        final int typeLength = Math.max(typeCounts.length, graphStore.edgeStore.longDictionary.length);
+        final int size = edgeBitVector.size();
+        int minChunk = GraphStoreConfiguration.VIEW_CONCURRENT_MIN_CHUNK_SIZE;
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+
+        int[] counts;
+        if (parallelism < 2 || edgeCount < 2 * minChunk) {
+            counts = countEdgeTypes(0, size, typeLength);
+        } else {
+            // Each task counts a range of ids, the results are summed
+            int chunkSize = Math.max(minChunk, (size + parallelism - 1) / parallelism);
+            List<ForkJoinTask<int[]>> tasks = new ArrayList<>();
+            for (int start = 0; start < size; start += chunkSize) {
+                final int from = start;
+                final int to = Math.min(start + chunkSize, size);
+                tasks.add(ForkJoinTask.adapt(() -> countEdgeTypes(from, to, typeLength)));
+            }
+            counts = new int[2 * typeLength];
+            for (ForkJoinTask<int[]> task : ForkJoinTask.invokeAll(tasks)) {
+                int[] taskCounts = task.join();
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] += taskCounts[i];
+                }
+            }
+        }
+
+        typeCounts = Arrays.copyOfRange(counts, 0, typeLength);
+        mutualEdgeTypeCounts = Arrays.copyOfRange(counts, typeLength, 2 * typeLength);
+        int mutualCount = 0;
+        for (int count : mutualEdgeTypeCounts) {
+            mutualCount += count;
+        }
+        mutualEdgesCount = mutualCount;
+    }
+
+    private int[] countEdgeTypes(int from, int to, int typeLength) {
+        // Type counts followed by mutual type counts
+        int[] counts = new int[2 * typeLength];
+        for (int i = edgeBitVector.nextSetBit(from); i >= 0 && i < to; i = edgeBitVector.nextSetBit(i + 1)) {
+            EdgeImpl edge = getEdge(i);
+            counts[edge.type]++;
+            if (edge.isMutual() && edge.source.storeId < edge.target.storeId) {
+                counts[typeLength + edge.type]++;
+            }
+        }
+        return counts;
+    }
+
+    private void reindex() {
+        if (nodeView) {
+            IndexStore<Node> nodeIndexStore = graphStore.nodeTable.store.indexStore;
+            if (nodeIndexStore != null) {
+                nodeIndexStore.clear(directedDecorator.view);
+                nodeIndexStore.indexView(directedDecorator);
+            }
+            TimeIndexStore nodeTimeIndexStore = graphStore.timeStore.nodeIndexStore;
+            if (nodeTimeIndexStore != null) {
+                nodeTimeIndexStore.clear(directedDecorator.view);
+                nodeTimeIndexStore.indexView(directedDecorator);
+            }
+        }
+        IndexStore<Edge> edgeIndexStore = graphStore.edgeTable.store.indexStore;
+        if (edgeIndexStore != null) {
+            edgeIndexStore.clear(directedDecorator.view);
+            edgeIndexStore.indexView(directedDecorator);
+        }
+        TimeIndexStore edgeTimeIndexStore = graphStore.timeStore.edgeIndexStore;
+        if (edgeTimeIndexStore != null) {
+            edgeTimeIndexStore.clear(directedDecorator.view);
+            edgeTimeIndexStore.indexView(directedDecorator);
+        }
+    }
+
+    private boolean isNodeInStore(int id) {
+        NodeStore nodeStore = graphStore.nodeStore;
+        return nodeStore.isValidIndex(id) && nodeStore.get(id) != null;
+    }
+
+    private boolean isEdgeInStore(int id) {
+        EdgeStore edgeStore = graphStore.edgeStore;
+        return edgeStore.isValidIndex(id) && edgeStore.get(id) != null;
+    }
+
+    private boolean isEdgeInView(int id) {
+        if (!isEdgeInStore(id)) {
+            return false;
+        }
+        if (!nodeView) {
+            return true;
+        }
+        EdgeImpl edge = getEdge(id);
+        return contains(nodeBitVector, edge.source.storeId) && contains(nodeBitVector, edge.target.storeId);
+    }
+
+    private static boolean contains(ViewBitSet bitSet, int id) {
+        return id < bitSet.size() && bitSet.get(id);
     }
 
     private NodeImpl getNode(int id) {
@@ -743,6 +1110,7 @@ public class GraphViewImpl implements GraphView {
         hash = 11 * hash + Arrays.hashCode(this.mutualEdgeTypeCounts);
         hash = 11 * hash + this.mutualEdgesCount;
         hash = 11 * hash + (this.interval != null ? this.interval.hashCode() : 0);
+        hash = 11 * hash + (this.timeSlice != null ? 1 : 0);
         return hash;
     }
 
@@ -782,6 +1150,9 @@ public class GraphViewImpl implements GraphView {
         if (this.interval != obj.interval && (this.interval == null || !this.interval.equals(obj.interval))) {
             return false;
         }
+        if (this.isTimeSliced() != obj.isTimeSliced()) {
+            return false;
+        }
         return true;
     }
 
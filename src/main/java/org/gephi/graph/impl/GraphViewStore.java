@@ -17,6 +17,9 @@ package org.gephi.graph.impl;
 
 import it.unimi.dsi.fastutil.ints.IntRBTreeSet;
 import it.unimi.dsi.fastutil.ints.IntSortedSet;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import java.util.List;
 import org.gephi.graph.api.Interval;
 import org.gephi.graph.api.DirectedSubgraph;
 import org.gephi.graph.api.Edge;
@@ -25,6 +28,7 @@ import org.gephi.graph.api.GraphView;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.Subgraph;
 import org.gephi.graph.api.UndirectedSubgraph;
+import org.gephi.graph.api.ViewOperation;
 
 public class GraphViewStore {
 
@@ -39,6 +43,9 @@ public class GraphViewStore {
     protected int length;
     // Visible view
     protected GraphView visibleView;
+    // Time-sliced views
+    protected volatile boolean timeSliced;
+    protected final ObjectSet<ElementImpl> pendingTimeSlices;
 
     public GraphViewStore(GraphStore graphStore) {
         if (graphStore == null) {
@@ -48,6 +55,7 @@ public class GraphViewStore {
         this.views = new GraphViewImpl[DEFAULT_VIEWS];
         this.garbageQueue = new IntRBTreeSet();
         this.visibleView = graphStore.mainGraphView;
+        this.pendingTimeSlices = new ObjectOpenHashSet<>();
     }
 
     public GraphViewImpl createView() {
@@ -95,6 +103,62 @@ public class GraphViewStore {
         }
     }
 
+    public GraphViewImpl combineViews(ViewOperation operation, GraphView... views) {
+        if (operation == null) {
+            throw new NullPointerException();
+        }
+        if (views.length == 0) {
+            throw new IllegalArgumentException("At least one view should be given");
+        }
+        for (GraphView view : views) {
+            checkNonNullViewObject(view);
+            if (!view.isMainView()) {
+                checkViewExist((GraphViewImpl) view);
+            }
+        }
+
+        graphStore.autoWriteLock();
+        try {
+            GraphViewImpl graphView;
+            if (views[0].isMainView()) {
+                graphView = new GraphViewImpl(graphStore, true, true);
+                graphView.fill();
+            } else {
+                GraphViewImpl first = (GraphViewImpl) views[0];
+                graphView = new GraphViewImpl(first, first.nodeView, first.edgeView);
+            }
+            for (int i = 1; i < views.length; i++) {
+                GraphView view = views[i];
+                if (operation == ViewOperation.UNION) {
+                    if (view.isMainView()) {
+                        graphView.fill();
+                    } else {
+                        graphView.union((GraphViewImpl) view);
+                    }
+                } else if (!view.isMainView()) {
+                    graphView.intersection((GraphViewImpl) view);
+                }
+            }
+            addView(graphView);
+            return graphView;
+        } finally {
+            graphStore.autoWriteUnlock();
+        }
+    }
+
+    public GraphViewImpl createTimeSlicedView(Interval interval) {
+        graphStore.autoWriteLock();
+        try {
+            GraphViewImpl graphView = new GraphViewImpl(graphStore, true, true);
+            graphView.setTimeInterval(interval);
+            graphView.enableTimeSlice();
+            addView(graphView);
+            return graphView;
+        } finally {
+            graphStore.autoWriteUnlock();
+        }
+    }
+
     public void destroyView(GraphView view) {
         graphStore.autoWriteLock();
         try {
@@ -229,6 +293,24 @@ public class GraphViewStore {
             for (GraphViewImpl view : views) {
                 if (view != null) {
                     view.ensureNodeVectorSize(node);
+                    if (view.timeSlice != null) {
+                        view.timeSlice.update(node);
+                    }
+                }
+            }
+        }
+    }
+
+    protected void addNodes(List<NodeImpl> nodes, int maxStoreId) {
+        if (views.length > 0) {
+            for (GraphViewImpl view : views) {
+                if (view != null) {
+                    view.ensureNodeVectorSize(maxStoreId);
+                    if (view.timeSlice != null) {
+                        for (NodeImpl node : nodes) {
+                            view.timeSlice.update(node);
+                        }
+                    }
                 }
             }
         }
@@ -253,6 +335,119 @@ public class GraphViewStore {
                     if (view.nodeView && !view.edgeView) {
                         view.addEdgeInNodeView(edge);
                     }
+                    if (view.timeSlice != null) {
+                        view.timeSlice.update(edge);
+                    }
+                    view.resetMutualDegrees();
+                }
+            }
+        }
+    }
+
+    protected void addEdges(List<EdgeImpl> edges, int maxStoreId) {
+        if (views.length > 0) {
+            for (GraphViewImpl view : views) {
+                if (view != null) {
+                    view.ensureEdgeVectorSize(maxStoreId);
+
+                    if (view.nodeView && !view.edgeView) {
+                        for (EdgeImpl edge : edges) {
+                            view.addEdgeInNodeView(edge);
+                        }
+                    }
+                    if (view.timeSlice != null) {
+                        for (EdgeImpl edge : edges) {
+                            view.timeSlice.update(edge);
+                        }
+                    }
+                    view.resetMutualDegrees();
+                }
+            }
+        }
+    }
+
+    /**
+     * Updates the membership of the given element in the time-sliced views after
+     * its time set changed.
+     * <p>
+     * Time sets are changed without holding the graph lock, so the element is
+     * queued and the time-sliced views are updated under the write lock. If the
+     * current thread holds a read lock, the update is delayed until a thread next
+     * takes the write lock or a first read lock.
+     *
+     * @param element element whose time set changed
+     */
+    protected void updateTimeSlices(ElementImpl element) {
+        if (timeSliced) {
+            synchronized (pendingTimeSlices) {
+                pendingTimeSlices.add(element);
+            }
+            if (GraphStoreConfiguration.ENABLE_AUTO_LOCKING) {
+                graphStore.lock.requestDeferredWrite();
+            } else {
+                flushTimeSlices();
+            }
+        }
+    }
+
+    // Called under the write lock
+    protected void flushTimeSlices() {
+        ElementImpl[] elements;
+        synchronized (pendingTimeSlices) {
+            if (pendingTimeSlices.isEmpty()) {
+                return;
+            }
+            elements = pendingTimeSlices.toArray(new ElementImpl[0]);
+            pendingTimeSlices.clear();
+        }
+        for (GraphViewImpl view : views) {
+            if (view != null && view.timeSlice != null) {
+                for (ElementImpl element : elements) {
+                    // Removed since queued
+                    if (element.isValid()) {
+                        view.timeSlice.update(element);
+                    }
+                }
+            }
+        }
+    }
+
+    protected void refreshTimeSliced() {
+        boolean found = false;
+        for (GraphViewImpl view : views) {
+            if (view != null && view.timeSlice != null) {
+                found = true;
+                break;
+            }
+        }
+        timeSliced = found;
+    }
+
+    protected void moveNode(NodeImpl node, int oldId, List<EdgeImpl> edges) {
+        if (views.length > 0) {
+            for (GraphViewImpl view : views) {
+                if (view != null) {
+                    view.moveNode(node, oldId, edges);
+                }
+            }
+        }
+    }
+
+    protected void moveEdge(EdgeImpl edge, int oldId) {
+        if (views.length > 0) {
+            for (GraphViewImpl view : views) {
+                if (view != null) {
+                    view.moveEdge(edge, oldId);
+                }
+            }
+        }
+    }
+
+    protected void compact(int maxNodeStoreId, int maxEdgeStoreId) {
+        if (views.length > 0) {
+            for (GraphViewImpl view : views) {
+                if (view != null) {
+                    view.compact(maxNodeStoreId, maxEdgeStoreId);
                 }
             }
         }
@@ -263,6 +458,7 @@ public class GraphViewStore {
             for (GraphViewImpl view : views) {
                 if (view != null) {
                     view.removeEdge(edge);
+                    view.resetMutualDegrees();
                 }
             }
         }
@@ -281,6 +477,9 @@ public class GraphViewStore {
         }
         views[id] = view;
         view.storeId = id;
+        if (view.timeSlice != null) {
+            timeSliced = true;
+        }
         return id;
     }
 
@@ -291,6 +490,9 @@ public class GraphViewStore {
         views[id] = null;
         garbageQueue.add(id);
         view.storeId = NULL_VIEW;
+        if (view.timeSlice != null) {
+            refreshTimeSliced();
+        }
 
         view.destroyAllObservers();
 
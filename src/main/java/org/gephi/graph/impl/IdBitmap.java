@@ -0,0 +1,626 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * Compressed bitmap of element store ids.
+ * <p>
+ * Ids are partitioned by their 16 high bits into containers. A container holds
+ * the 16 low bits either as a sorted array when it has few values, or as a
+ * 65536-bit bitmap otherwise.
+ */
+public class IdBitmap {
+
+    // Containers with more values are stored as bitmaps
+    protected static final int ARRAY_MAX_SIZE = 4096;
+    // Data
+    protected char[] keys;
+    protected Container[] containers;
+    protected int size;
+    protected int cardinality;
+
+    public IdBitmap() {
+        keys = new char[0];
+        containers = new Container[0];
+    }
+
+    private IdBitmap(int capacity) {
+        keys = new char[capacity];
+        containers = new Container[capacity];
+    }
+
+    public boolean add(int id) {
+        checkId(id);
+        char key = (char) (id >>> 16);
+        int index = indexOf(key);
+        if (index < 0) {
+            index = -index - 1;
+            insertContainer(index, key, new ArrayContainer());
+        }
+        Container container = containers[index];
+        int before = container.cardinality;
+        container = container.add((char) id);
+        containers[index] = container;
+        if (container.cardinality > before) {
+            cardinality++;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean remove(int id) {
+        if (id < 0) {
+            return false;
+        }
+        int index = indexOf((char) (id >>> 16));
+        if (index < 0) {
+            return false;
+        }
+        Container container = containers[index];
+        int before = container.cardinality;
+        container = container.remove((char) id);
+        if (container.cardinality == before) {
+            return false;
+        }
+        cardinality--;
+        if (container.cardinality == 0) {
+            removeContainer(index);
+        } else {
+            containers[index] = container;
+        }
+        return true;
+    }
+
+    public boolean contains(int id) {
+        if (id < 0) {
+            return false;
+        }
+        int index = indexOf((char) (id >>> 16));
+        return index >= 0 && containers[index].contains((char) id);
+    }
+
+    /**
+     * Returns the smallest id greater or equal to <code>from</code>, or -1 if there
+     * is none.
+     *
+     * @param from id to start from
+     * @return next id, or -1
+     */
+    public int next(int from) {
+        if (from < 0) {
+            from = 0;
+        }
+        int index = indexOf((char) (from >>> 16));
+        int low = from & 0xFFFF;
+        if (index < 0) {
+            index = -index - 1;
+            low = 0;
+        }
+        for (; index < size; index++, low = 0) {
+            Container container = containers[index];
+            int position = container.nextValue(low);
+            if (position >= 0) {
+                return (keys[index] << 16) | container.get(position);
+            }
+        }
+        return -1;
+    }
+
+    public int getCardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public void clear() {
+        keys = new char[0];
+        containers = new Container[0];
+        size = 0;
+        cardinality = 0;
+    }
+
+    public IdBitmap copy() {
+        IdBitmap copy = new IdBitmap(size);
+        System.arraycopy(keys, 0, copy.keys, 0, size);
+        for (int i = 0; i < size; i++) {
+            copy.containers[i] = containers[i].copy();
+        }
+        copy.size = size;
+        copy.cardinality = cardinality;
+        return copy;
+    }
+
+    public IntIterator iterator() {
+        return new IdIterator();
+    }
+
+    public int[] toArray() {
+        int[] res = new int[cardinality];
+        int i = 0;
+        for (IntIterator itr = iterator(); itr.hasNext();) {
+            res[i++] = itr.nextInt();
+        }
+        return res;
+    }
+
+    /**
+     * Returns a new bitmap with the ids contained in both bitmaps.
+     *
+     * @param b1 first bitmap
+     * @param b2 second bitmap
+     * @return intersection
+     */
+    public static IdBitmap and(IdBitmap b1, IdBitmap b2) {
+        IdBitmap res = new IdBitmap(Math.min(b1.size, b2.size));
+        int i = 0, j = 0;
+        while (i < b1.size && j < b2.size) {
+            char k1 = b1.keys[i];
+            char k2 = b2.keys[j];
+            if (k1 < k2) {
+                i++;
+            } else if (k1 > k2) {
+                j++;
+            } else {
+                res.appendContainer(k1, b1.containers[i++].and(b2.containers[j++]));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Returns a new bitmap with the ids contained in either bitmap.
+     *
+     * @param b1 first bitmap
+     * @param b2 second bitmap
+     * @return union
+     */
+    public static IdBitmap or(IdBitmap b1, IdBitmap b2) {
+        IdBitmap res = new IdBitmap(b1.size + b2.size);
+        int i = 0, j = 0;
+        while (i < b1.size || j < b2.size) {
+            if (j == b2.size || (i < b1.size && b1.keys[i] < b2.keys[j])) {
+                res.appendContainer(b1.keys[i], b1.containers[i++].copy());
+            } else if (i == b1.size || b2.keys[j] < b1.keys[i]) {
+                res.appendContainer(b2.keys[j], b2.containers[j++].copy());
+            } else {
+                res.appendContainer(b1.keys[i], b1.containers[i++].or(b2.containers[j++]));
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Returns a new bitmap with the ids contained in the first bitmap but not in
+     * the second.
+     *
+     * @param b1 first bitmap
+     * @param b2 second bitmap
+     * @return difference
+     */
+    public static IdBitmap andNot(IdBitmap b1, IdBitmap b2) {
+        IdBitmap res = new IdBitmap(b1.size);
+        int j = 0;
+        for (int i = 0; i < b1.size; i++) {
+            char k1 = b1.keys[i];
+            while (j < b2.size && b2.keys[j] < k1) {
+                j++;
+            }
+            if (j < b2.size && b2.keys[j] == k1) {
+                res.appendContainer(k1, b1.containers[i].andNot(b2.containers[j]));
+            } else {
+                res.appendContainer(k1, b1.containers[i].copy());
+            }
+        }
+        return res;
+    }
+
+    private void appendContainer(char key, Container container) {
+        if (container.cardinality > 0) {
+            keys[size] = key;
+            containers[size] = container;
+            size++;
+            cardinality += container.cardinality;
+        }
+    }
+
+    private void insertContainer(int index, char key, Container container) {
+        if (size == keys.length) {
+            int newLength = Math.max(4, size * 2);
+            keys = Arrays.copyOf(keys, newLength);
+            containers = Arrays.copyOf(containers, newLength);
+        }
+        System.arraycopy(keys, index, keys, index + 1, size - index);
+        System.arraycopy(containers, index, containers, index + 1, size - index);
+        keys[index] = key;
+        containers[index] = container;
+        size++;
+    }
+
+    private void removeContainer(int index) {
+        System.arraycopy(keys, index + 1, keys, index, size - index - 1);
+        System.arraycopy(containers, index + 1, containers, index, size - index - 1);
+        containers[--size] = null;
+    }
+
+    private int indexOf(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void checkId(int id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("The id should be positive");
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        for (IntIterator itr = iterator(); itr.hasNext();) {
+            hash = 31 * hash + itr.nextInt();
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        IdBitmap other = (IdBitmap) obj;
+        if (cardinality != other.cardinality) {
+            return false;
+        }
+        IntIterator itr1 = iterator();
+        IntIterator itr2 = other.iterator();
+        while (itr1.hasNext()) {
+            if (itr1.nextInt() != itr2.nextInt()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private final class IdIterator implements IntIterator {
+
+        private int containerIndex;
+        private int position = -1;
+
+        public IdIterator() {
+            advance(0);
+        }
+
+        private void advance(int from) {
+            while (containerIndex < size) {
+                position = containers[containerIndex].next(from);
+                if (position >= 0) {
+                    return;
+                }
+                containerIndex++;
+                from = 0;
+            }
+            position = -1;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return position >= 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (position < 0) {
+                throw new NoSuchElementException();
+            }
+            int res = (keys[containerIndex] << 16) | containers[containerIndex].get(position);
+            advance(position + 1);
+            return res;
+        }
+    }
+
+    protected abstract static class Container {
+
+        protected int cardinality;
+
+        abstract boolean contains(char value);
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract Container and(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        abstract Container copy();
+
+        // Returns the first position greater or equal to from, or -1
+        abstract int next(int from);
+
+        abstract char get(int position);
+
+        // Returns the position of the first value greater or equal to value, or -1
+        abstract int nextValue(int value);
+
+        BitmapContainer toBitmap() {
+            BitmapContainer res = new BitmapContainer();
+            for (int pos = next(0); pos >= 0; pos = next(pos + 1)) {
+                char value = get(pos);
+                res.words[value >>> 6] |= 1L << value;
+            }
+            res.cardinality = cardinality;
+            return res;
+        }
+    }
+
+    protected static final class ArrayContainer extends Container {
+
+        protected char[] values;
+
+        public ArrayContainer() {
+            values = new char[4];
+        }
+
+        private ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        Container add(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                return this;
+            }
+            if (cardinality == ARRAY_MAX_SIZE) {
+                return toBitmap().add(value);
+            }
+            index = -index - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX_SIZE, Math.max(4, cardinality * 2)));
+            }
+            System.arraycopy(values, index, values, index + 1, cardinality - index);
+            values[index] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, value);
+            if (index >= 0) {
+                System.arraycopy(values, index + 1, values, index, cardinality - index - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] res = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i])) {
+                    res[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(res, count);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (other instanceof BitmapContainer) {
+                return other.or(this);
+            }
+            ArrayContainer o = (ArrayContainer) other;
+            char[] res = new char[cardinality + o.cardinality];
+            int i = 0, j = 0, count = 0;
+            while (i < cardinality || j < o.cardinality) {
+                if (j == o.cardinality || (i < cardinality && values[i] < o.values[j])) {
+                    res[count++] = values[i++];
+                } else if (i == cardinality || o.values[j] < values[i]) {
+                    res[count++] = o.values[j++];
+                } else {
+                    res[count++] = values[i++];
+                    j++;
+                }
+            }
+            ArrayContainer container = new ArrayContainer(res, count);
+            return count > ARRAY_MAX_SIZE ? container.toBitmap() : container;
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] res = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(values[i])) {
+                    res[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(res, count);
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        @Override
+        int next(int from) {
+            return from < cardinality ? from : -1;
+        }
+
+        @Override
+        char get(int position) {
+            return values[position];
+        }
+
+        @Override
+        int nextValue(int value) {
+            int index = Arrays.binarySearch(values, 0, cardinality, (char) value);
+            if (index < 0) {
+                index = -index - 1;
+            }
+            return index < cardinality ? index : -1;
+        }
+    }
+
+    protected static final class BitmapContainer extends Container {
+
+        protected final long[] words;
+
+        public BitmapContainer() {
+            words = new long[1024];
+        }
+
+        private BitmapContainer(long[] words) {
+            this.words = words;
+            for (long w : words) {
+                cardinality += Long.bitCount(w);
+            }
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        Container add(char value) {
+            long before = words[value >>> 6];
+            long after = before | (1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long before = words[value >>> 6];
+            long after = before & ~(1L << value);
+            if (before != after) {
+                words[value >>> 6] = after;
+                cardinality--;
+                if (cardinality <= ARRAY_MAX_SIZE / 2) {
+                    return toArray();
+                }
+            }
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) {
+                return other.and(this);
+            }
+            long[] o = ((BitmapContainer) other).words;
+            long[] res = new long[words.length];
+            for (int i = 0; i < res.length; i++) {
+                res[i] = words[i] & o[i];
+            }
+            return new BitmapContainer(res).optimize();
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] o = other instanceof BitmapContainer ? ((BitmapContainer) other).words : other.toBitmap().words;
+            long[] res = new long[words.length];
+            for (int i = 0; i < res.length; i++) {
+                res[i] = words[i] | o[i];
+            }
+            return new BitmapContainer(res);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] o = other instanceof BitmapContainer ? ((BitmapContainer) other).words : other.toBitmap().words;
+            long[] res = new long[words.length];
+            for (int i = 0; i < res.length; i++) {
+                res[i] = words[i] & ~o[i];
+            }
+            return new BitmapContainer(res).optimize();
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone());
+        }
+
+        @Override
+        int next(int from) {
+            int wordIndex = from >>> 6;
+            if (wordIndex >= words.length) {
+                return -1;
+            }
+            long word = words[wordIndex] & (-1L << from);
+            while (true) {
+                if (word != 0) {
+                    return (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+                }
+                if (++wordIndex == words.length) {
+                    return -1;
+                }
+                word = words[wordIndex];
+            }
+        }
+
+        @Override
+        char get(int position) {
+            return (char) position;
+        }
+
+        @Override
+        int nextValue(int value) {
+            return next(value);
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            return this;
+        }
+
+        private Container optimize() {
+            return cardinality <= ARRAY_MAX_SIZE ? toArray() : this;
+        }
+
+        private ArrayContainer toArray() {
+            char[] values = new char[Math.max(4, cardinality)];
+            int count = 0;
+            for (int pos = next(0); pos >= 0; pos = next(pos + 1)) {
+                values[count++] = (char) pos;
+            }
+            return new ArrayContainer(values, count);
+        }
+    }
+}
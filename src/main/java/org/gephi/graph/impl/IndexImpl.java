@@ -20,11 +20,14 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.gephi.graph.api.Column;
 import org.gephi.graph.api.ColumnIndex;
 import org.gephi.graph.api.Element;
+import org.gephi.graph.api.ElementIterable;
 import org.gephi.graph.api.Graph;
 import org.gephi.graph.api.Index;
+import org.gephi.graph.api.Node;
 
 public class IndexImpl<T extends Element> implements Index<T> {
 
@@ -32,6 +35,8 @@ public class IndexImpl<T extends Element> implements Index<T> {
     protected final Graph graph;
     protected ColumnIndexImpl[] columns;
     protected int columnsCount;
+    // Degree, created on first use
+    protected DegreeIndexStore degreeIndexStore;
 
     public IndexImpl(ColumnStore<T> columnStore) {
         this(columnStore, columnStore.graphStore);
@@ -55,14 +60,14 @@ public class IndexImpl<T extends Element> implements Index<T> {
 
     @Override
     public ColumnIndex getColumnIndex(Column column) {
-        return getIndex(column);
+        return getQueryIndex(column);
     }
 
     @Override
     public int count(Column column, Object value) {
         checkNonNullColumnObject(column);
 
-        ColumnIndexImpl index = getIndex(column);
+        ColumnIndexImpl index = getQueryIndex(column);
         if (index != null) {
             return index.count(value);
         }
@@ -79,7 +84,7 @@ public class IndexImpl<T extends Element> implements Index<T> {
     public Iterable<T> get(Column column, Object value) {
         checkNonNullColumnObject(column);
 
-        ColumnIndexImpl index = getIndex(column);
+        ColumnIndexImpl index = getQueryIndex(column);
         if (index != null) {
             return index.get(value);
         }
@@ -92,6 +97,105 @@ public class IndexImpl<T extends Element> implements Index<T> {
         return get(columnStore.getColumn(key), value);
     }
 
+    @Override
+    public int count(Column column, Object low, boolean lowInclusive, Object high, boolean highInclusive) {
+        checkNonNullColumnObject(column);
+
+        ColumnIndexImpl index = getQueryIndex(column);
+        if (index != null) {
+            return index.count(low, lowInclusive, high, highInclusive);
+        }
+        return 0;
+    }
+
+    @Override
+    public Iterable<T> get(Column column, Object low, boolean lowInclusive, Object high, boolean highInclusive) {
+        checkNonNullColumnObject(column);
+
+        ColumnIndexImpl index = getQueryIndex(column);
+        if (index != null) {
+            return index.get(low, lowInclusive, high, highInclusive);
+        }
+        return Collections.EMPTY_LIST;
+    }
+
+    @Override
+    public Iterable<T> getSorted(Column column, boolean ascending) {
+        checkNonNullColumnObject(column);
+
+        ColumnIndexImpl index = getQueryIndex(column);
+        if (index != null) {
+            return index.getSorted(ascending);
+        }
+        return Collections.EMPTY_LIST;
+    }
+
+    @Override
+    public Iterable<T> getByPrefix(Column column, String prefix) {
+        checkNonNullColumnObject(column);
+
+        ColumnIndexImpl index = getQueryIndex(column);
+        if (index != null) {
+            return index.getByPrefix(prefix);
+        }
+        return Collections.EMPTY_LIST;
+    }
+
+    @Override
+    public Iterable<T> getBySubstring(Column column, String text) {
+        checkNonNullColumnObject(column);
+
+        ColumnIndexImpl index = getQueryIndex(column);
+        if (index != null) {
+            return index.getBySubstring(text);
+        }
+        return Collections.EMPTY_LIST;
+    }
+
+    @Override
+    public Iterable<T> getContainingAny(Column column, Collection<?> values) {
+        checkNonNullColumnObject(column);
+
+        ColumnIndexImpl index = getQueryIndex(column);
+        if (index != null) {
+            return index.getContainingAny(values);
+        }
+        return Collections.EMPTY_LIST;
+    }
+
+    @Override
+    public Iterable<T> getContainingAll(Column column, Collection<?> values) {
+        checkNonNullColumnObject(column);
+
+        ColumnIndexImpl index = getQueryIndex(column);
+        if (index != null) {
+            return index.getContainingAll(values);
+        }
+        return Collections.EMPTY_LIST;
+    }
+
+    @Override
+    public int countContainingAny(Column column, Collection<?> values) {
+        checkNonNullColumnObject(column);
+
+        ColumnIndexImpl index = getQueryIndex(column);
+        if (index != null) {
+            return index.countContainingAny(values);
+        }
+        return 0;
+    }
+
+    @Override
+    public int countContainingAll(Column column, Collection<?> values) {
+        checkNonNullColumnObject(column);
+
+        ColumnIndexImpl index = getQueryIndex(column);
+        if (index != null) {
+            return index.countContainingAll(values);
+        }
+        return 0;
+    }
+
     @Override
     public boolean isSortable(Column column) {
         checkNonNullColumnObject(column);
@@ -107,7 +211,7 @@ public class IndexImpl<T extends Element> implements Index<T> {
     public Number getMinValue(Column column) {
         checkNonNullColumnObject(column);
 
-        ColumnIndexImpl index = getIndex(column);
+        ColumnIndexImpl index = getQueryIndex(column);
         if (index != null) {
             return index.getMinValue();
         }
@@ -118,24 +222,57 @@ public class IndexImpl<T extends Element> implements Index<T> {
     public Number getMaxValue(Column column) {
         checkNonNullColumnObject(column);
 
-        ColumnIndexImpl index = getIndex(column);
+        ColumnIndexImpl index = getQueryIndex(column);
         if (index != null) {
             return index.getMaxValue();
         }
         return null;
     }
 
+    @Override
+    public Map<Object, Integer> getTopValues(Column column, int k) {
+        checkNonNullColumnObject(column);
+
+        ColumnIndexImpl index = getQueryIndex(column);
+        if (index != null) {
+            return index.getTopValues(k);
+        }
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Number getQuantile(Column column, double q) {
+        checkNonNullColumnObject(column);
+
+        ColumnIndexImpl index = getQueryIndex(column);
+        if (index != null) {
+            return index.getQuantile(q);
+        }
+        return null;
+    }
+
+    @Override
+    public int[] getHistogram(Column column, int buckets) {
+        checkNonNullColumnObject(column);
+
+        ColumnIndexImpl index = getQueryIndex(column);
+        if (index != null) {
+            return index.getHistogram(buckets);
+        }
+        return new int[buckets];
+    }
+
     public Iterable<Map.Entry<Object, Set<T>>> get(Column column) {
         checkNonNullColumnObject(column);
 
-        return getIndex(column);
+        return getQueryIndex(column);
     }
 
     @Override
     public Collection values(Column column) {
         checkNonNullColumnObject(column);
 
-        ColumnIndexImpl index = getIndex(column);
+        ColumnIndexImpl index = getQueryIndex(column);
         if (index != null) {
             return index.values();
         }
@@ -145,7 +282,7 @@ public class IndexImpl<T extends Element> implements Index<T> {
     @Override
     public int countValues(Column column) {
         checkNonNullColumnObject(column);
-        ColumnIndexImpl index = getIndex(column);
+        ColumnIndexImpl index = getQueryIndex(column);
         if (index != null) {
             return index.countValues();
         }
@@ -155,7 +292,7 @@ public class IndexImpl<T extends Element> implements Index<T> {
     @Override
     public int countElements(Column column) {
         checkNonNullColumnObject(column);
-        ColumnIndexImpl index = getIndex(column);
+        ColumnIndexImpl index = getQueryIndex(column);
         if (index != null) {
             return index.countElements();
         }
@@ -198,6 +335,54 @@ public class IndexImpl<T extends Element> implements Index<T> {
         return getIndex(column).replaceValue(element, oldValue, value);
     }
 
+    public void move(Column column, Object value, T element, int oldStoreId) {
+        checkNonNullColumnObject(column);
+
+        ColumnIndexImpl index = getIndex(column);
+        if (index instanceof ColumnStandardIndexImpl) {
+            ((ColumnStandardIndexImpl) index).moveValue(element, value, oldStoreId);
+        }
+    }
+
+    /**
+     * Returns the store ids of the elements with <em>value</em> in the given
+     * <em>column</em>, or null if the column isn't indexed with bitmaps.
+     *
+     * @param column the column
+     * @param value the value
+     * @return bitmap copy or null
+     */
+    public IdBitmap getBitmap(Column column, Object value) {
+        checkNonNullColumnObject(column);
+
+        ColumnIndexImpl index = getQueryIndex(column);
+        if (index instanceof ColumnStandardIndexImpl && ((ColumnStandardIndexImpl) index).isBitmap()) {
+            return ((ColumnStandardIndexImpl) index).getBitmap(value);
+        }
+        return null;
+    }
+
+    /**
+     * Returns the store ids of the elements with a value in the given range, or
+     * null if the column isn't indexed with bitmaps.
+     *
+     * @param column the column
+     * @param low the lower bound, or null
+     * @param lowInclusive true if the lower bound is included
+     * @param high the upper bound, or null
+     * @param highInclusive true if the upper bound is included
+     * @return bitmap or null
+     */
+    public IdBitmap getBitmap(Column column, Object low, boolean lowInclusive, Object high, boolean highInclusive) {
+        checkNonNullColumnObject(column);
+
+        ColumnIndexImpl index = getQueryIndex(column);
+        if (index instanceof ColumnStandardIndexImpl && ((ColumnStandardIndexImpl) index).isBitmap()) {
+            return ((ColumnStandardIndexImpl) index).getBitmap(low, lowInclusive, high, highInclusive);
+        }
+        return null;
+    }
+
     public void clear() {
         for (ColumnIndexImpl ai : columns) {
             if (ai != null) {
@@ -247,11 +432,11 @@ public class IndexImpl<T extends Element> implements Index<T> {
         if (col.isProperty()) {
             DefaultColumnsImpl defaultColumns = columnStore.graphStore.defaultColumns;
             if (col == defaultColumns.degreeColumn) {
-                return new DegreeNoIndexImpl(graph, DegreeNoIndexImpl.DegreeType.DEGREE);
+                return new DegreeIndexImpl(graph, getDegreeIndexStore(), DegreeNoIndexImpl.DegreeType.DEGREE);
             } else if (col == defaultColumns.inDegreeColumn) {
-                return new DegreeNoIndexImpl(graph, DegreeNoIndexImpl.DegreeType.IN_DEGREE);
+                return new DegreeIndexImpl(graph, getDegreeIndexStore(), DegreeNoIndexImpl.DegreeType.IN_DEGREE);
             } else if (col == defaultColumns.outDegreeColumn) {
-                return new DegreeNoIndexImpl(graph, DegreeNoIndexImpl.DegreeType.OUT_DEGREE);
+                return new DegreeIndexImpl(graph, getDegreeIndexStore(), DegreeNoIndexImpl.DegreeType.OUT_DEGREE);
             } else if (col == defaultColumns.typeColumn) {
                 return new EdgeTypeNoIndexImpl(graph);
             }
@@ -259,6 +444,65 @@ public class IndexImpl<T extends Element> implements Index<T> {
         return null;
     }
 
+    /**
+     * Returns the index of the given column for reading. If the index is deferred,
+     * the query is counted and the index is built once the configured threshold is
+     * reached.
+     *
+     * @param col the column
+     * @return the column index, or null if the column isn't in this index
+     */
+    protected ColumnIndexImpl getQueryIndex(Column col) {
+        ColumnIndexImpl index = getIndex(col);
+        if (index instanceof DeferredIndex && ((DeferredIndex) index).queries
+                .incrementAndGet() >= getIndexQueryThreshold()) {
+            return buildIndex((DeferredIndex) index);
+        }
+        return index;
+    }
+
+    protected boolean isDeferred(Column col) {
+        return getIndex(col) instanceof DeferredIndex;
+    }
+
+    private ColumnIndexImpl buildIndex(DeferredIndex deferredIndex) {
+        ColumnImpl column = deferredIndex.column;
+        TableLockImpl lock = columnStore.lock;
+        // Graph lock first, like the write paths which index under the write lock
+        graph.readLock();
+        try {
+            if (lock != null) {
+                lock.lock();
+            }
+            try {
+                ColumnIndexImpl index = columns[column.storeId];
+                if (index != deferredIndex) {
+                    // Built concurrently
+                    return index;
+                }
+                ColumnStandardIndexImpl standardIndex = createStandardIndex(column);
+                ElementIterable<? extends Element> elements = columnStore.elementType.equals(Node.class)
+                        ? graph.getNodes() : graph.getEdges();
+                for (Element element : elements) {
+                    standardIndex.putValue(element, ((ElementImpl) element).getAttribute(column));
+                }
+                columns[column.storeId] = standardIndex;
+                return standardIndex;
+            } finally {
+                if (lock != null) {
+                    lock.unlock();
+                }
+            }
+        } finally {
+            graph.readUnlock();
+        }
+    }
+
+    private int getIndexQueryThreshold() {
+        GraphStore graphStore = columnStore.graphStore;
+        return graphStore != null ? graphStore.configuration.getIndexQueryThreshold() : 0;
+    }
+
     protected ColumnIndexImpl getIndex(String key) {
         return getIndex(columnStore.getColumn(key));
     }
@@ -271,6 +515,36 @@ public class IndexImpl<T extends Element> implements Index<T> {
         }
         columns = new ColumnIndexImpl[0];
         columnsCount = 0;
+        destroyDegreeIndexStore();
+    }
+
+    protected synchronized DegreeIndexStore getDegreeIndexStore() {
+        if (degreeIndexStore == null) {
+            degreeIndexStore = new DegreeIndexStore(graph);
+            if (graph instanceof GraphStore) {
+                // Main graph, updated by the edge and node stores
+                ((GraphStore) graph).edgeStore.degreeIndexStore = degreeIndexStore;
+            } else {
+                // View, updated by the view
+                ((GraphViewImpl) graph.getView()).degreeIndexStore = degreeIndexStore;
+            }
+        }
+        return degreeIndexStore;
+    }
+
+    protected synchronized void destroyDegreeIndexStore() {
+        if (degreeIndexStore != null && graph instanceof GraphStore) {
+            EdgeStore edgeStore = ((GraphStore) graph).edgeStore;
+            if (edgeStore.degreeIndexStore == degreeIndexStore) {
+                edgeStore.degreeIndexStore = null;
+            }
+        } else if (degreeIndexStore != null) {
+            GraphViewImpl view = (GraphViewImpl) graph.getView();
+            if (view.degreeIndexStore == degreeIndexStore) {
+                view.degreeIndexStore = null;
+            }
+        }
+        degreeIndexStore = null;
     }
 
     protected int size() {
@@ -278,8 +552,13 @@ public class IndexImpl<T extends Element> implements Index<T> {
     }
 
     ColumnIndexImpl createIndex(ColumnImpl col) {
-        return col.isIndexed() && ColumnStandardIndexImpl.isSupportedType(col) ? createStandardIndex(col)
-                : createNoIndex(col, graph);
+        if (col.isIndexed() && ColumnStandardIndexImpl.isSupportedType(col)) {
+            if (graph != null && getIndexQueryThreshold() > 0) {
+                return new DeferredIndex(col, graph, columnStore.elementType);
+            }
+            return createStandardIndex(col);
+        }
+        return createNoIndex(col, graph);
     }
 
     ColumnNoIndexImpl createNoIndex(ColumnImpl column, Graph graph) {
@@ -316,6 +595,9 @@ public class IndexImpl<T extends Element> implements Index<T> {
             return new ColumnStandardIndexImpl.CharStandardIndex<T>(column);
         } else if (column.getTypeClass().equals(String.class)) {
             // String
+            if (columnStore.graphStore != null && columnStore.graphStore.configuration.getIndexText()) {
+                return new ColumnStandardIndexImpl.TextStandardIndex<T>(column);
+            }
             return new ColumnStandardIndexImpl.DefaultStandardIndex<T>(column);
         } else if (column.getTypeClass().equals(byte[].class)) {
             // Byte Array
@@ -374,4 +656,17 @@ public class IndexImpl<T extends Element> implements Index<T> {
         }
     }
 
+    /**
+     * Placeholder for an indexed column whose index hasn't been built yet. Queries
+     * are answered by scanning the elements and updates are ignored until the index
+     * is built.
+     */
+    protected static class DeferredIndex<K, T extends Element> extends ColumnNoIndexImpl<K, T> {
+
+        protected final AtomicInteger queries = new AtomicInteger();
+
+        protected DeferredIndex(ColumnImpl column, Graph graph, Class<T> elementClass) {
+            super(column, graph, elementClass);
+        }
+    }
 }
@@ -17,7 +17,10 @@
 package org.gephi.graph.impl;
 
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import org.gephi.graph.api.Column;
@@ -34,11 +37,13 @@ public class IndexStore<T extends Element> {
     protected final TableLockImpl lock;
     protected final IndexImpl<T> mainIndex;
     protected final Map<GraphView, IndexImpl<T>> viewIndexes;
+    protected final Map<GraphView, ViewIndexImpl<T>> sharedViewIndexes;
 
     public IndexStore(ColumnStore<T> columnStore) {
         this.columnStore = columnStore;
         this.mainIndex = new IndexImpl<>(columnStore);
         this.viewIndexes = new Object2ObjectOpenHashMap<>();
+        this.sharedViewIndexes = new Object2ObjectOpenHashMap<>();
         this.lock = columnStore.lock;
     }
 
@@ -58,6 +63,25 @@ public class IndexStore<T extends Element> {
         }
     }
 
+    // Table locked, store empty
+    protected void resetConfiguration() {
+        for (ColumnImpl col : columnStore.toArray()) {
+            removeColumn(col);
+            addColumn(col);
+        }
+
+        // View indexes are recreated on demand with the new mode
+        for (IndexImpl<T> index : viewIndexes.values()) {
+            index.destroy();
+        }
+        viewIndexes.clear();
+        sharedViewIndexes.clear();
+    }
+
+    protected boolean isSharedViewIndexes() {
+        return columnStore.graphStore != null && columnStore.graphStore.configuration.getSharedViewIndexes();
+    }
+
     protected boolean hasColumn(ColumnImpl col) {
         return mainIndex.hasColumn(col);
     }
@@ -69,6 +93,9 @@ public class IndexStore<T extends Element> {
         }
         synchronized (viewIndexes) {
             IndexImpl<T> viewIndex = viewIndexes.get(graph.getView());
+            if (viewIndex == null) {
+                viewIndex = sharedViewIndexes.get(graph.getView());
+            }
             if (viewIndex == null) {
                 viewIndex = createViewIndex(graph);
             }
@@ -80,6 +107,13 @@ public class IndexStore<T extends Element> {
         if (graph.getView().isMainView()) {
             throw new IllegalArgumentException("Can't create a view index for the main view");
         }
+        if (isSharedViewIndexes()) {
+            synchronized (viewIndexes) {
+                ViewIndexImpl<T> viewIndex = new ViewIndexImpl<>(columnStore, graph, mainIndex);
+                sharedViewIndexes.put(graph.getView(), viewIndex);
+                return viewIndex;
+            }
+        }
         lock();
         try {
             IndexImpl viewIndex = new IndexImpl<>(columnStore, graph);
@@ -99,6 +133,12 @@ public class IndexStore<T extends Element> {
         if (graph.getView().isMainView()) {
             throw new IllegalArgumentException("Can't delete a view index for the main view");
         }
+        synchronized (viewIndexes) {
+            IndexImpl<T> index = sharedViewIndexes.remove(graph.getView());
+            if (index != null) {
+                index.destroy();
+            }
+        }
         lock();
         try {
             IndexImpl<T> index = viewIndexes.remove(graph.getView());
@@ -162,6 +202,31 @@ public class IndexStore<T extends Element> {
         }
     }
 
+    public void move(T element, int oldStoreId) {
+        ElementImpl elementImpl = (ElementImpl) element;
+        lock();
+        try {
+            final int length = columnStore.length;
+            final ColumnImpl[] cols = columnStore.columns;
+            for (int i = 0; i < length; i++) {
+                Column c = cols[i];
+                if (c != null && c.isIndexed()) {
+                    Object value = elementImpl.getAttribute(c);
+                    mainIndex.move(c, value, element, oldStoreId);
+                    if (!viewIndexes.isEmpty()) {
+                        synchronized (viewIndexes) {
+                            for (IndexImpl<T> index : viewIndexes.values()) {
+                                index.move(c, value, element, oldStoreId);
+                            }
+                        }
+                    }
+                }
+            }
+        } finally {
+            unlock();
+        }
+    }
+
     public void index(T element) {
         ElementImpl elementImpl = (ElementImpl) element;
         lock();
@@ -174,7 +239,32 @@ public class IndexStore<T extends Element> {
                 if (c != null && c.isIndexed()) {
                     Object value = elementImpl.getAttribute(c);
                     value = mainIndex.put(c, value, element);
-                    elementImpl.attributes.setAttribute(c, value);
+                    if (((ColumnImpl) c).values == null) {
+                        elementImpl.attributes.setAttribute(c, value);
+                    }
+                }
+            }
+        } finally {
+            unlock();
+        }
+    }
+
+    public void index(Collection<? extends T> elements) {
+        lock();
+        try {
+            final int length = columnStore.length;
+            final ColumnImpl[] cols = columnStore.columns;
+            for (int i = 0; i < length; i++) {
+                Column c = cols[i];
+                if (c != null && c.isIndexed()) {
+                    for (T element : elements) {
+                        ElementImpl elementImpl = (ElementImpl) element;
+                        Object value = elementImpl.getAttribute(c);
+                        value = mainIndex.put(c, value, element);
+                        if (((ColumnImpl) c).values == null) {
+                            elementImpl.attributes.setAttribute(c, value);
+                        }
+                    }
                 }
             }
         } finally {
@@ -185,6 +275,17 @@ public class IndexStore<T extends Element> {
     public void indexView(Graph graph) {
         final IndexImpl viewIndex = viewIndexes.get(graph.getView());
         if (viewIndex != null) {
+            // Deferred columns are indexed when first queried
+            final List<ColumnImpl> cols = new ArrayList<>();
+            for (ColumnImpl c : columnStore.toArray()) {
+                if (c.isIndexed() && !viewIndex.isDeferred(c)) {
+                    cols.add(c);
+                }
+            }
+            if (cols.isEmpty()) {
+                return;
+            }
+
             graph.readLock();
             try {
                 Iterator<T> iterator = null;
@@ -198,14 +299,9 @@ public class IndexStore<T extends Element> {
                     while (iterator.hasNext()) {
                         ElementImpl element = (ElementImpl) iterator.next();
 
-                        final ColumnImpl[] cols = columnStore.columns;
-                        int length = columnStore.length;
-                        for (int i = 0; i < length; i++) {
-                            Column c = cols[i];
-                            if (c != null && c.isIndexed()) {
-                                Object value = element.getAttribute(c);
-                                viewIndex.put(c, value, element);
-                            }
+                        for (ColumnImpl c : cols) {
+                            Object value = element.getAttribute(c);
+                            viewIndex.put(c, value, element);
                         }
                     }
                 }
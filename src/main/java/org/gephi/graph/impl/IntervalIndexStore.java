@@ -15,6 +15,8 @@
  */
 package org.gephi.graph.impl;
 
+import it.unimi.dsi.fastutil.ints.IntSet;
+import java.util.Map;
 import org.gephi.graph.api.Element;
 import org.gephi.graph.api.Interval;
 import org.gephi.graph.api.types.IntervalMap;
@@ -44,6 +46,24 @@ public class IntervalIndexStore<T extends Element> extends TimeIndexStore<T, Int
         return new IntervalIndexImpl(this, main);
     }
 
+    @Override
+    protected void collectIndexesInDifference(Interval first, Interval second, IntSet result) {
+        Interval2IntTreeMap map = getMap();
+        if (map.isEmpty()) {
+            return;
+        }
+        double[] regions = getDifferenceRegions(first, second);
+        for (int i = 0; i < regions.length; i += 2) {
+            for (Map.Entry<Interval, Integer> entry : map.entrySet(new Interval(regions[i], regions[i + 1]))) {
+                Interval interval = entry.getKey();
+                // Intervals spanning the region may still overlap both windows
+                if ((interval.compareTo(first) == 0) != (interval.compareTo(second) == 0)) {
+                    result.add(entry.getValue());
+                }
+            }
+        }
+    }
+
     protected Interval2IntTreeMap getMap() {
         return (Interval2IntTreeMap) timeSortedMap;
     }
@@ -107,56 +107,80 @@ public class NodeImpl extends ElementImpl implements Node {
 
     @Override
     public float x() {
+        NodeLayoutArraysImpl layoutArrays = layoutArrays();
+        if (layoutArrays != null) {
+            return layoutArrays.x[storeId];
+        }
         return properties.x;
     }
 
     @Override
     public float y() {
+        NodeLayoutArraysImpl layoutArrays = layoutArrays();
+        if (layoutArrays != null) {
+            return layoutArrays.y[storeId];
+        }
         return properties.y;
     }
 
     @Override
     public float z() {
+        NodeLayoutArraysImpl layoutArrays = layoutArrays();
+        if (layoutArrays != null) {
+            return layoutArrays.z[storeId];
+        }
         return properties.z;
     }
 
     @Override
     public float r() {
-        return properties.r();
+        return ((getRGBA() >> 16) & 0xFF) / 255f;
     }
 
     @Override
     public float g() {
-        return properties.g();
+        return ((getRGBA() >> 8) & 0xFF) / 255f;
     }
 
     @Override
     public float b() {
-        return properties.b();
+        return (getRGBA() & 0xFF) / 255f;
     }
 
     @Override
     public float alpha() {
-        return properties.alpha();
+        return ((getRGBA() >> 24) & 0xFF) / 255f;
     }
 
     @Override
     public int getRGBA() {
+        NodeLayoutArraysImpl layoutArrays = layoutArrays();
+        if (layoutArrays != null) {
+            return layoutArrays.rgba[storeId];
+        }
         return properties.rgba;
     }
 
     @Override
     public Color getColor() {
-        return properties.getColor();
+        return new Color(getRGBA(), true);
     }
 
     @Override
     public float size() {
+        NodeLayoutArraysImpl layoutArrays = layoutArrays();
+        if (layoutArrays != null) {
+            return layoutArrays.size[storeId];
+        }
         return properties.size;
     }
 
     @Override
     public boolean isFixed() {
+        NodeLayoutArraysImpl layoutArrays = layoutArrays();
+        if (layoutArrays != null) {
+            return layoutArrays.fixed[storeId];
+        }
         return properties.isFixed();
     }
 
@@ -178,6 +202,13 @@ public class NodeImpl extends ElementImpl implements Node {
         properties.setSpatialData(spatialData);
     }
 
+    private NodeLayoutArraysImpl layoutArrays() {
+        if (storeId != NodeStore.NULL_ID && graphStore != null) {
+            return graphStore.nodeStore.layoutArrays;
+        }
+        return null;
+    }
+
     private void updateNodeInSpatialIndex() {
         if (storeId != NodeStore.NULL_ID && graphStore != null && graphStore.spatialIndex != null) {
             graphStore.spatialIndex.moveNode(this);
@@ -195,73 +226,124 @@ public class NodeImpl extends ElementImpl implements Node {
             properties.setTextProperties(nodeProperties.textProperties);
         }
 
+        NodeLayoutArraysImpl layoutArrays = layoutArrays();
+        if (layoutArrays != null) {
+            layoutArrays.load(this);
+        }
         updateNodeInSpatialIndex();
     }
 
     @Override
     public void setX(float x) {
-        properties.setX(x);
+        NodeLayoutArraysImpl layoutArrays = layoutArrays();
+        if (layoutArrays != null) {
+            layoutArrays.x[storeId] = x;
+        } else {
+            properties.setX(x);
+        }
         updateNodeInSpatialIndex();
     }
 
     @Override
     public void setY(float y) {
-        properties.setY(y);
+        NodeLayoutArraysImpl layoutArrays = layoutArrays();
+        if (layoutArrays != null) {
+            layoutArrays.y[storeId] = y;
+        } else {
+            properties.setY(y);
+        }
         updateNodeInSpatialIndex();
     }
 
     @Override
     public void setZ(float z) {
-        properties.setZ(z);
+        NodeLayoutArraysImpl layoutArrays = layoutArrays();
+        if (layoutArrays != null) {
+            layoutArrays.z[storeId] = z;
+        } else {
+            properties.setZ(z);
+        }
         updateNodeInSpatialIndex();
     }
 
     @Override
     public void setPosition(float x, float y) {
-        properties.setPosition(x, y);
+        NodeLayoutArraysImpl layoutArrays = layoutArrays();
+        if (layoutArrays != null) {
+            layoutArrays.x[storeId] = x;
+            layoutArrays.y[storeId] = y;
+        } else {
+            properties.setPosition(x, y);
+        }
         updateNodeInSpatialIndex();
     }
 
     @Override
     public void setPosition(float x, float y, float z) {
-        properties.setPosition(x, y, z);
+        NodeLayoutArraysImpl layoutArrays = layoutArrays();
+        if (layoutArrays != null) {
+            layoutArrays.x[storeId] = x;
+            layoutArrays.y[storeId] = y;
+            layoutArrays.z[storeId] = z;
+        } else {
+            properties.setPosition(x, y, z);
+        }
         updateNodeInSpatialIndex();
     }
 
     @Override
     public void setR(float r) {
-        properties.setR(r);
+        setRGBA((getRGBA() & 0xFF00FFFF) | (((int) (r * 255f)) << 16));
     }
 
     @Override
     public void setG(float g) {
-        properties.setG(g);
+        setRGBA((getRGBA() & 0xFFFF00FF) | ((int) (g * 255f)) << 8);
     }
 
     @Override
     public void setB(float b) {
-        properties.setB(b);
+        setRGBA((getRGBA() & 0xFFFFFF00) | ((int) (b * 255f)));
     }
 
     @Override
     public void setAlpha(float a) {
-        properties.setAlpha(a);
+        setRGBA((getRGBA() & 0xFFFFFF) | ((int) (a * 255f)) << 24);
     }
 
     @Override
     public void setColor(Color color) {
-        properties.setColor(color);
+        setRGBA((color.getAlpha() << 24) | color.getRGB());
+    }
+
+    private void setRGBA(int rgba) {
+        NodeLayoutArraysImpl layoutArrays = layoutArrays();
+        if (layoutArrays != null) {
+            layoutArrays.rgba[storeId] = rgba;
+        } else {
+            properties.rgba = rgba;
+        }
     }
 
     @Override
     public void setSize(float size) {
-        properties.setSize(size);
+        NodeLayoutArraysImpl layoutArrays = layoutArrays();
+        if (layoutArrays != null) {
+            layoutArrays.size[storeId] = size;
+        } else {
+            properties.setSize(size);
+        }
         updateNodeInSpatialIndex();
     }
 
     @Override
     public void setFixed(boolean fixed) {
-        properties.setFixed(fixed);
+        NodeLayoutArraysImpl layoutArrays = layoutArrays();
+        if (layoutArrays != null) {
+            layoutArrays.fixed[storeId] = fixed;
+        } else {
+            properties.setFixed(fixed);
+        }
     }
 
     @Override
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import java.util.Arrays;
+import org.gephi.graph.api.NodeLayoutArrays;
+import org.gephi.graph.impl.NodeImpl.NodePropertiesImpl;
+
+public class NodeLayoutArraysImpl implements NodeLayoutArrays {
+
+    // Store
+    protected final NodeStore nodeStore;
+    // Data
+    protected float[] x;
+    protected float[] y;
+    protected float[] z;
+    protected float[] size;
+    protected int[] rgba;
+    protected boolean[] fixed;
+
+    public NodeLayoutArraysImpl(NodeStore nodeStore) {
+        this.nodeStore = nodeStore;
+        this.x = new float[0];
+        this.y = new float[0];
+        this.z = new float[0];
+        this.size = new float[0];
+        this.rgba = new int[0];
+        this.fixed = new boolean[0];
+    }
+
+    protected void ensureCapacity(int capacity) {
+        if (capacity > x.length) {
+            // Grow by whole blocks, like the node store
+            int length = (int) Math
+                    .ceil(capacity / (double) GraphStoreConfiguration.NODESTORE_BLOCK_SIZE) * GraphStoreConfiguration.NODESTORE_BLOCK_SIZE;
+            x = Arrays.copyOf(x, length);
+            y = Arrays.copyOf(y, length);
+            z = Arrays.copyOf(z, length);
+            size = Arrays.copyOf(size, length);
+            rgba = Arrays.copyOf(rgba, length);
+            fixed = Arrays.copyOf(fixed, length);
+        }
+    }
+
+    protected void load(NodeImpl node) {
+        int id = node.storeId;
+        ensureCapacity(id + 1);
+        NodePropertiesImpl properties = node.properties;
+        x[id] = properties.x;
+        y[id] = properties.y;
+        z[id] = properties.z;
+        size[id] = properties.size;
+        rgba[id] = properties.rgba;
+        fixed[id] = properties.fixed;
+    }
+
+    protected void store(NodeImpl node) {
+        int id = node.storeId;
+        NodePropertiesImpl properties = node.properties;
+        properties.x = x[id];
+        properties.y = y[id];
+        properties.z = z[id];
+        properties.size = size[id];
+        properties.rgba = rgba[id];
+        properties.fixed = fixed[id];
+    }
+
+    protected void move(int oldId, int newId) {
+        x[newId] = x[oldId];
+        y[newId] = y[oldId];
+        z[newId] = z[oldId];
+        size[newId] = size[oldId];
+        rgba[newId] = rgba[oldId];
+        fixed[newId] = fixed[oldId];
+    }
+
+    @Override
+    public int getMaxStoreId() {
+        return nodeStore.maxStoreId();
+    }
+
+    @Override
+    public float[] getX() {
+        return x;
+    }
+
+    @Override
+    public float[] getY() {
+        return y;
+    }
+
+    @Override
+    public float[] getZ() {
+        return z;
+    }
+
+    @Override
+    public float[] getSize() {
+        return size;
+    }
+
+    @Override
+    public int[] getRGBA() {
+        return rgba;
+    }
+
+    @Override
+    public boolean[] getFixed() {
+        return fixed;
+    }
+
+    @Override
+    public void updatePositions(float[] xs, float[] ys) {
+        nodeStore.readLock();
+        try {
+            int length = nodeStore.maxStoreId();
+            checkArrayLength(xs, length);
+            checkArrayLength(ys, length);
+
+            System.arraycopy(xs, 0, x, 0, length);
+            System.arraycopy(ys, 0, y, 0, length);
+        } finally {
+            nodeStore.readUnlock();
+        }
+        refreshSpatialIndex();
+    }
+
+    @Override
+    public void refreshSpatialIndex() {
+        if (nodeStore.spatialIndex != null) {
+            nodeStore.spatialIndex.moveNodes(nodeStore.iterator());
+        }
+    }
+
+    private void checkArrayLength(float[] array, int length) {
+        if (array == null) {
+            throw new NullPointerException();
+        }
+        if (array.length < length) {
+            throw new IllegalArgumentException("The array length should be at least " + length);
+        }
+    }
+}
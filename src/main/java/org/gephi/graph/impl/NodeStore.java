@@ -16,15 +16,22 @@
 
 package org.gephi.graph.impl;
 
+import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import it.unimi.dsi.fastutil.objects.ObjectSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.NodeIterable;
 
@@ -49,6 +56,8 @@ public class NodeStore implements Collection<Node>, NodeIterable {
     protected NodeBlock blocks[];
     protected NodeBlock currentBlock;
     protected Object2IntOpenHashMap dictionary;
+    // Layout arrays (optional)
+    protected NodeLayoutArraysImpl layoutArrays;
 
     public NodeStore() {
         initStore();
@@ -91,7 +100,7 @@ public class NodeStore implements Collection<Node>, NodeIterable {
                         .ceil((capacity - blockCapacity) / (double) GraphStoreConfiguration.NODESTORE_BLOCK_SIZE);
                 for (int i = 0; i < blocksNeeded; i++) {
                     if (blocksCount == blocks.length) {
-                        NodeBlock[] newBlocks = new NodeBlock[blocksCount + 1];
+                        NodeBlock[] newBlocks = new NodeBlock[blocksCount + blocksNeeded - i];
                         System.arraycopy(blocks, 0, newBlocks, 0, blocks.length);
                         blocks = newBlocks;
                     }
@@ -119,6 +128,18 @@ public class NodeStore implements Collection<Node>, NodeIterable {
         dictionary.trim(Math.max(GraphStoreConfiguration.NODESTORE_BLOCK_SIZE, size * 2));
     }
 
+    private void ensureDictionaryCapacity(final int count) {
+        // Rebuilding copies the existing entries so it's only worth it if the
+        // dictionary would otherwise be rehashed at least as many times
+        if (count > dictionary.size()) {
+            Object2IntOpenHashMap newDictionary = new Object2IntOpenHashMap(dictionary.size() + count,
+                    GraphStoreConfiguration.NODESTORE_DICTIONARY_LOAD_FACTOR);
+            newDictionary.defaultReturnValue(NULL_ID);
+            newDictionary.putAll(dictionary);
+            dictionary = newDictionary;
+        }
+    }
+
     public NodeImpl get(final int id) {
         checkValidId(id);
 
@@ -141,6 +162,10 @@ public class NodeStore implements Collection<Node>, NodeIterable {
 
         for (NodeStoreIterator itr = new NodeStoreIterator(); itr.hasNext();) {
             NodeImpl node = itr.next();
+            if (layoutArrays != null) {
+                layoutArrays.store(node);
+            }
+            node.detachAttributes();
             node.setStoreId(NodeStore.NULL_ID);
         }
 
@@ -149,6 +174,9 @@ public class NodeStore implements Collection<Node>, NodeIterable {
         }
 
         initStore();
+        if (layoutArrays != null) {
+            layoutArrays = new NodeLayoutArraysImpl(this);
+        }
     }
 
     @Override
@@ -166,6 +194,16 @@ public class NodeStore implements Collection<Node>, NodeIterable {
         return new NodeStoreIterator();
     }
 
+    @Override
+    public NodeStoreSpliterator spliterator() {
+        return new NodeStoreSpliterator();
+    }
+
+    @Override
+    public Stream<Node> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
     @Override
     public NodeImpl[] toArray() {
         readLock();
@@ -276,17 +314,25 @@ public class NodeStore implements Collection<Node>, NodeIterable {
                 currentBlock.add(node);
                 dictionary.put(node.getId(), node.storeId);
             }
+            node.attachAttributes();
             if (viewStore != null) {
                 viewStore.addNode(node);
             }
             node.indexAttributes();
 
+            if (layoutArrays != null) {
+                layoutArrays.load(node);
+            }
             if (spatialIndex != null) {
                 spatialIndex.addNode(node);
             }
 
             size++;
 
+            if (edgeStore != null && edgeStore.degreeIndexStore != null) {
+                edgeStore.degreeIndexStore.addNode(node);
+            }
+
             return true;
         } else if (isValidIndex(node.storeId) && get(node.storeId) == node) {
             return false;
@@ -295,6 +341,67 @@ public class NodeStore implements Collection<Node>, NodeIterable {
         }
     }
 
+    public boolean bulkAdd(final Collection<? extends Node> c) {
+        checkCollection(c);
+
+        if (c.isEmpty()) {
+            return false;
+        }
+
+        // The whole batch is checked first so a failure leaves the store unchanged
+        checkBulkAdd(c);
+
+        ensureDictionaryCapacity(c.size());
+        int capacityNeeded = c.size() - garbageSize;
+        if (capacityNeeded > 0) {
+            ensureCapacity(capacityNeeded);
+        }
+
+        List<NodeImpl> added = new ArrayList<>(c.size());
+        int garbageBlockIndex = 0;
+        for (Node n : c) {
+            NodeImpl node = (NodeImpl) n;
+            if (node.storeId == NodeStore.NULL_ID) {
+                if (garbageSize > 0) {
+                    while (!blocks[garbageBlockIndex].hasGarbage()) {
+                        garbageBlockIndex++;
+                    }
+                    blocks[garbageBlockIndex].set(node);
+                    garbageSize--;
+                } else {
+                    ensureCapacity(1);
+                    currentBlock.add(node);
+                }
+                dictionary.put(node.getId(), node.storeId);
+                node.attachAttributes();
+
+                if (layoutArrays != null) {
+                    layoutArrays.load(node);
+                }
+                if (spatialIndex != null) {
+                    spatialIndex.addNode(node);
+                }
+
+                size++;
+                added.add(node);
+            }
+        }
+
+        if (added.isEmpty()) {
+            return false;
+        }
+
+        incrementVersion();
+        if (edgeStore != null && edgeStore.degreeIndexStore != null) {
+            edgeStore.degreeIndexStore.addNodes(added);
+        }
+        if (viewStore != null) {
+            viewStore.addNodes(added, maxStoreId());
+        }
+        ElementImpl.indexAttributes(added);
+        return true;
+    }
+
     @Override
     public boolean remove(final Object o) {
         checkNonNullNodeObject(o);
@@ -314,6 +421,10 @@ public class NodeStore implements Collection<Node>, NodeIterable {
 
             node.destroyAttributes();
 
+            if (layoutArrays != null) {
+                layoutArrays.store(node);
+            }
+
             incrementVersion();
 
             int storeIndex = id / GraphStoreConfiguration.NODESTORE_BLOCK_SIZE;
@@ -339,11 +450,132 @@ public class NodeStore implements Collection<Node>, NodeIterable {
                 }
             }
 
+            if (edgeStore != null && edgeStore.degreeIndexStore != null) {
+                edgeStore.degreeIndexStore.removeNode(id);
+            }
+
             return true;
         }
         return false;
     }
 
+    /**
+     * Moves nodes from the end of the store into the free slots at its beginning so
+     * the blocks become dense, and releases the blocks left empty.
+     * <p>
+     * At most <code>maxMoves</code> nodes are moved. For each move, the old and the
+     * new store id are appended to <code>moves</code>.
+     *
+     * @param maxMoves maximum number of nodes to move
+     * @param moves list the moves are appended to
+     * @return true if the store is compact, false if nodes remain to be moved
+     */
+    protected boolean compact(final int maxMoves, final IntList moves) {
+        List<EdgeImpl> edges = new ArrayList<>();
+        int moved = 0;
+        int blockIndex = 0;
+        int last = lastStoreId(maxStoreId() - 1);
+        boolean compact = false;
+        while (true) {
+            while (blockIndex < blocksCount && blocks[blockIndex].getFreeSlot() == NULL_ID) {
+                blockIndex++;
+            }
+            if (blockIndex == blocksCount) {
+                compact = true;
+                break;
+            }
+            NodeBlock block = blocks[blockIndex];
+            if (block.getFreeSlot() > last) {
+                if (block.hasGarbage()) {
+                    // Trailing slot, released when the blocks are trimmed
+                    block.garbageLength--;
+                    continue;
+                }
+                compact = true;
+                break;
+            }
+            if (moved == maxMoves) {
+                break;
+            }
+            NodeBlock lastBlock = blocks[last / GraphStoreConfiguration.NODESTORE_BLOCK_SIZE];
+            NodeImpl node = lastBlock.get(last);
+            lastBlock.backingArray[last - lastBlock.offset] = null;
+
+            moveNode(node, block, edges);
+            moves.add(last);
+            moves.add(node.storeId);
+            moved++;
+
+            last = lastStoreId(last - 1);
+        }
+
+        trimBlocks(last);
+        if (moved > 0) {
+            incrementVersion();
+        }
+        return compact;
+    }
+
+    private void moveNode(final NodeImpl node, final NodeBlock block, final List<EdgeImpl> edges) {
+        int oldId = node.storeId;
+
+        // The edge dictionary is keyed by the node store ids
+        edges.clear();
+        if (edgeStore != null) {
+            edgeStore.collectEdges(node, edges);
+            edgeStore.removeLongIds(edges);
+        }
+
+        if (block.hasGarbage()) {
+            block.set(node);
+            garbageSize--;
+        } else {
+            block.add(node);
+        }
+        dictionary.put(node.getId(), node.storeId);
+
+        node.moveAttributes(oldId);
+        if (layoutArrays != null) {
+            layoutArrays.move(oldId, node.storeId);
+        }
+        if (edgeStore != null) {
+            edgeStore.addLongIds(edges);
+        }
+        if (viewStore != null) {
+            viewStore.moveNode(node, oldId, edges);
+        }
+    }
+
+    private int lastStoreId(final int from) {
+        for (int id = from; id >= 0; id--) {
+            NodeBlock block = blocks[id / GraphStoreConfiguration.NODESTORE_BLOCK_SIZE];
+            if (block.backingArray[id - block.offset] != null) {
+                return id;
+            }
+        }
+        return NULL_ID;
+    }
+
+    private void trimBlocks(final int last) {
+        int lastBlockIndex = last == NULL_ID ? 0 : last / GraphStoreConfiguration.NODESTORE_BLOCK_SIZE;
+        int length = Math.max(lastBlockIndex + 1, GraphStoreConfiguration.NODESTORE_DEFAULT_BLOCKS);
+        if (blocks.length > length) {
+            blocks = Arrays.copyOf(blocks, length);
+        }
+        Arrays.fill(blocks, lastBlockIndex + 1, blocks.length, null);
+
+        blocksCount = lastBlockIndex + 1;
+        currentBlockIndex = lastBlockIndex;
+        currentBlock = blocks[lastBlockIndex];
+        currentBlock.trim(last + 1 - currentBlock.offset);
+
+        garbageSize = 0;
+        for (int i = 0; i < blocksCount; i++) {
+            garbageSize += blocks[i].garbageLength;
+        }
+        trimDictionary();
+    }
+
     @Override
     public boolean contains(final Object o) {
         checkNonNullNodeObject(o);
@@ -502,6 +734,24 @@ public class NodeStore implements Collection<Node>, NodeIterable {
         }
     }
 
+    void checkBulkAdd(final Collection<? extends Node> c) {
+        Object2ObjectOpenHashMap<Object, NodeImpl> batchIds = new Object2ObjectOpenHashMap<>();
+        for (Node n : c) {
+            checkNonNullNodeObject(n);
+
+            NodeImpl node = (NodeImpl) n;
+            if (node.storeId == NodeStore.NULL_ID) {
+                checkIdDoesntExist(n.getId());
+                NodeImpl previous = batchIds.put(n.getId(), node);
+                if (previous != null && previous != node) {
+                    throw new IllegalArgumentException("The node id already exist");
+                }
+            } else if (!isValidIndex(node.storeId) || get(node.storeId) != node) {
+                throw new IllegalArgumentException("The node already belongs to another store");
+            }
+        }
+    }
+
     private void checkIdDoesntExist(Object id) {
         if (dictionary.containsKey(id)) {
             throw new IllegalArgumentException("The node id already exist");
@@ -555,6 +805,24 @@ public class NodeStore implements Collection<Node>, NodeIterable {
         }
     }
 
+    public void setLayoutArraysEnabled(final boolean enabled) {
+        if (enabled && !GraphStoreConfiguration.ENABLE_NODE_PROPERTIES) {
+            throw new UnsupportedOperationException("Node properties are disabled");
+        }
+        if (enabled && layoutArrays == null) {
+            layoutArrays = new NodeLayoutArraysImpl(this);
+            layoutArrays.ensureCapacity(maxStoreId());
+            for (NodeStoreIterator itr = new NodeStoreIterator(); itr.hasNext();) {
+                layoutArrays.load(itr.next());
+            }
+        } else if (!enabled && layoutArrays != null) {
+            for (NodeStoreIterator itr = new NodeStoreIterator(); itr.hasNext();) {
+                layoutArrays.store(itr.next());
+            }
+            layoutArrays = null;
+        }
+    }
+
     int maxStoreId() {
         return currentBlock.offset + currentBlock.nodeLength;
     }
@@ -607,6 +875,25 @@ public class NodeStore implements Collection<Node>, NodeIterable {
             k.setStoreId(NULL_ID);
         }
 
+        public int getFreeSlot() {
+            if (garbageLength > 0) {
+                return garbageArray[garbageLength - 1] - Short.MIN_VALUE + offset;
+            } else if (nodeLength < GraphStoreConfiguration.NODESTORE_BLOCK_SIZE) {
+                return nodeLength + offset;
+            }
+            return NULL_ID;
+        }
+
+        public void trim(int length) {
+            nodeLength = length;
+            garbageLength = 0;
+            for (int i = 0; i < length; i++) {
+                if (backingArray[i] == null) {
+                    garbageArray[garbageLength++] = (short) (i + Short.MIN_VALUE);
+                }
+            }
+        }
+
         public void clear() {
             nodeLength = 0;
             garbageLength = 0;
@@ -666,4 +953,132 @@ public class NodeStore implements Collection<Node>, NodeIterable {
             NodeStore.this.remove(pointer);
         }
     }
+
+    protected final class NodeStoreSpliterator implements Spliterator<Node> {
+
+        protected int blockIndex;
+        protected int blockFence;
+        protected int cursor;
+        // False when created under a lock of the current thread, which then
+        // protects the traversal from any thread
+        protected final boolean locked;
+
+        public NodeStoreSpliterator() {
+            this(0, -1, lock == null || !lock.isHeldByCurrentThread());
+        }
+
+        private NodeStoreSpliterator(int blockIndex, int blockFence, boolean locked) {
+            this.blockIndex = blockIndex;
+            this.blockFence = blockFence;
+            this.locked = locked;
+        }
+
+        private void lockTraversal() {
+            if (locked) {
+                readLock();
+            } else {
+                lock.checkHeld();
+            }
+        }
+
+        private void unlockTraversal() {
+            if (locked) {
+                readUnlock();
+            }
+        }
+
+        private int getFence() {
+            if (blockFence < 0) {
+                lockTraversal();
+                blockFence = blocksCount;
+                unlockTraversal();
+            }
+            return blockFence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Node> action) {
+            int fence = getFence();
+            lockTraversal();
+            try {
+                for (fence = Math.min(fence, blocksCount); blockIndex < fence; blockIndex++, cursor = 0) {
+                    NodeBlock block = blocks[blockIndex];
+                    while (cursor < block.nodeLength) {
+                        NodeImpl node = block.backingArray[cursor++];
+                        if (node != null) {
+                            action.accept(node);
+                            return true;
+                        }
+                    }
+                }
+                return false;
+            } finally {
+                unlockTraversal();
+            }
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super Node> action) {
+            int fence = getFence();
+            lockTraversal();
+            try {
+                for (fence = Math.min(fence, blocksCount); blockIndex < fence; blockIndex++, cursor = 0) {
+                    NodeBlock block = blocks[blockIndex];
+                    NodeImpl[] backingArray = block.backingArray;
+                    for (int length = block.nodeLength; cursor < length; cursor++) {
+                        NodeImpl node = backingArray[cursor];
+                        if (node != null) {
+                            action.accept(node);
+                        }
+                    }
+                }
+            } finally {
+                unlockTraversal();
+            }
+        }
+
+        @Override
+        public NodeStoreSpliterator trySplit() {
+            int fence = getFence();
+            int mid = (blockIndex + fence) >>> 1;
+            if (mid <= blockIndex) {
+                return null;
+            }
+            NodeStoreSpliterator prefix = new NodeStoreSpliterator(blockIndex, mid, locked);
+            prefix.cursor = cursor;
+            blockIndex = mid;
+            cursor = 0;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            int fence = getFence();
+            lockTraversal();
+            try {
+                long size = 0;
+                int limit = Math.min(fence, blocksCount);
+                for (int i = blockIndex; i < limit; i++) {
+                    size += blocks[i].nodeLength - blocks[i].garbageLength;
+                }
+                // Elements of the first block before the cursor have been consumed
+                if (blockIndex < limit) {
+                    NodeImpl[] backingArray = blocks[blockIndex].backingArray;
+                    for (int j = 0; j < cursor; j++) {
+                        if (backingArray[j] != null) {
+                            size--;
+                        }
+                    }
+                }
+                return size;
+            } finally {
+                unlockTraversal();
+            }
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.DISTINCT | Spliterator.NONNULL | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
 }
@@ -9,6 +9,7 @@ import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.NodeIterable;
 import org.gephi.graph.api.Rect2D;
@@ -530,6 +531,11 @@ public class NodesQuadTree {
             return set;
         }
 
+        @Override
+        public Stream<Node> parallelStream() {
+            return toCollection().parallelStream();
+        }
+
         @Override
         public void doBreak() {
             readUnlock();
@@ -0,0 +1,282 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.booleans.BooleanArrays;
+import it.unimi.dsi.fastutil.bytes.ByteArrays;
+import it.unimi.dsi.fastutil.chars.CharArrays;
+import it.unimi.dsi.fastutil.doubles.DoubleArrays;
+import it.unimi.dsi.fastutil.floats.FloatArrays;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.LongArrays;
+import it.unimi.dsi.fastutil.shorts.ShortArrays;
+import org.gephi.graph.api.Edge;
+
+/**
+ * Values of a primitive-typed column, stored in a primitive array indexed by
+ * element store id.
+ * <p>
+ * Null values are tracked in a separate bit set and read as zero by the typed
+ * getters. Writes are synchronized, reads aren't.
+ */
+public class PrimitiveColumnStore {
+
+    // Types
+    private final static int NULL_TYPE = -1;
+    private final static int DOUBLE = 0;
+    private final static int FLOAT = 1;
+    private final static int INTEGER = 2;
+    private final static int LONG = 3;
+    private final static int BOOLEAN = 4;
+    private final static int SHORT = 5;
+    private final static int BYTE = 6;
+    private final static int CHAR = 7;
+    // Type
+    protected final Class typeClass;
+    private final int type;
+    // Data
+    protected double[] doubles;
+    protected float[] floats;
+    protected int[] ints;
+    protected long[] longs;
+    protected boolean[] booleans;
+    protected short[] shorts;
+    protected byte[] bytes;
+    protected char[] chars;
+    protected long[] nulls;
+    protected int capacity;
+
+    public PrimitiveColumnStore(Class typeClass) {
+        this.typeClass = typeClass;
+        this.type = getType(typeClass);
+        if (type == NULL_TYPE) {
+            throw new IllegalArgumentException("Unsupported type " + typeClass.getName());
+        }
+        clear();
+    }
+
+    public static boolean isSupported(ColumnImpl column) {
+        if (column.isDynamic() || getType(column.getTypeClass()) == NULL_TYPE) {
+            return false;
+        }
+        return !column.isProperty() || isEdgeWeightColumn(column);
+    }
+
+    private static boolean isEdgeWeightColumn(ColumnImpl column) {
+        return column.table != null && Edge.class.equals(column.table.store.elementType) && column.getId()
+                .equals(GraphStoreConfiguration.EDGE_WEIGHT_COLUMN_ID);
+    }
+
+    private static int getType(Class typeClass) {
+        if (typeClass.equals(Double.class)) {
+            return DOUBLE;
+        } else if (typeClass.equals(Float.class)) {
+            return FLOAT;
+        } else if (typeClass.equals(Integer.class)) {
+            return INTEGER;
+        } else if (typeClass.equals(Long.class)) {
+            return LONG;
+        } else if (typeClass.equals(Boolean.class)) {
+            return BOOLEAN;
+        } else if (typeClass.equals(Short.class)) {
+            return SHORT;
+        } else if (typeClass.equals(Byte.class)) {
+            return BYTE;
+        } else if (typeClass.equals(Character.class)) {
+            return CHAR;
+        }
+        return NULL_TYPE;
+    }
+
+    protected final synchronized void clear() {
+        doubles = type == DOUBLE ? DoubleArrays.EMPTY_ARRAY : null;
+        floats = type == FLOAT ? FloatArrays.EMPTY_ARRAY : null;
+        ints = type == INTEGER ? IntArrays.EMPTY_ARRAY : null;
+        longs = type == LONG ? LongArrays.EMPTY_ARRAY : null;
+        booleans = type == BOOLEAN ? BooleanArrays.EMPTY_ARRAY : null;
+        shorts = type == SHORT ? ShortArrays.EMPTY_ARRAY : null;
+        bytes = type == BYTE ? ByteArrays.EMPTY_ARRAY : null;
+        chars = type == CHAR ? CharArrays.EMPTY_ARRAY : null;
+        nulls = LongArrays.EMPTY_ARRAY;
+        capacity = 0;
+    }
+
+    public Object get(final int id) {
+        if (isNull(id)) {
+            return null;
+        }
+        switch (type) {
+            case DOUBLE:
+                return getDouble(id);
+            case FLOAT:
+                return getFloat(id);
+            case INTEGER:
+                return getInt(id);
+            case LONG:
+                return getLong(id);
+            case BOOLEAN:
+                return getBoolean(id);
+            case SHORT:
+                return id < shorts.length ? shorts[id] : 0;
+            case BYTE:
+                return id < bytes.length ? bytes[id] : 0;
+            default:
+                return id < chars.length ? chars[id] : 0;
+        }
+    }
+
+    public synchronized Object set(final int id, final Object value) {
+        Object oldValue = get(id);
+        ensureCapacity(id + 1);
+        setNull(id, value == null);
+        switch (type) {
+            case DOUBLE:
+                doubles[id] = value != null ? (Double) value : 0.0;
+                break;
+            case FLOAT:
+                floats[id] = value != null ? (Float) value : 0f;
+                break;
+            case INTEGER:
+                ints[id] = value != null ? (Integer) value : 0;
+                break;
+            case LONG:
+                longs[id] = value != null ? (Long) value : 0l;
+                break;
+            case BOOLEAN:
+                booleans[id] = value != null ? (Boolean) value : false;
+                break;
+            case SHORT:
+                shorts[id] = value != null ? (Short) value : 0;
+                break;
+            case BYTE:
+                bytes[id] = value != null ? (Byte) value : 0;
+                break;
+            default:
+                chars[id] = value != null ? (Character) value : 0;
+        }
+        return oldValue;
+    }
+
+    public double getDouble(final int id) {
+        double[] array = doubles;
+        return id < array.length ? array[id] : 0.0;
+    }
+
+    public synchronized void setDouble(final int id, final double value) {
+        ensureCapacity(id + 1);
+        setNull(id, false);
+        doubles[id] = value;
+    }
+
+    public float getFloat(final int id) {
+        float[] array = floats;
+        return id < array.length ? array[id] : 0f;
+    }
+
+    public synchronized void setFloat(final int id, final float value) {
+        ensureCapacity(id + 1);
+        setNull(id, false);
+        floats[id] = value;
+    }
+
+    public int getInt(final int id) {
+        int[] array = ints;
+        return id < array.length ? array[id] : 0;
+    }
+
+    public synchronized void setInt(final int id, final int value) {
+        ensureCapacity(id + 1);
+        setNull(id, false);
+        ints[id] = value;
+    }
+
+    public long getLong(final int id) {
+        long[] array = longs;
+        return id < array.length ? array[id] : 0l;
+    }
+
+    public synchronized void setLong(final int id, final long value) {
+        ensureCapacity(id + 1);
+        setNull(id, false);
+        longs[id] = value;
+    }
+
+    public boolean getBoolean(final int id) {
+        boolean[] array = booleans;
+        return id < array.length ? array[id] : false;
+    }
+
+    public synchronized void setBoolean(final int id, final boolean value) {
+        ensureCapacity(id + 1);
+        setNull(id, false);
+        booleans[id] = value;
+    }
+
+    public synchronized void move(final int oldId, final int newId) {
+        set(newId, get(oldId));
+    }
+
+    public boolean isNull(final int id) {
+        long[] array = nulls;
+        int index = id >> 6;
+        return index >= array.length || (array[index] & (1l << id)) != 0;
+    }
+
+    private void setNull(final int id, final boolean isNull) {
+        if (isNull) {
+            nulls[id >> 6] |= 1l << id;
+        } else {
+            nulls[id >> 6] &= ~(1l << id);
+        }
+    }
+
+    private void ensureCapacity(final int length) {
+        if (length > capacity) {
+            int newCapacity = (int) Math.max(length, Math.min((long) capacity + (capacity >> 1), Integer.MAX_VALUE));
+            switch (type) {
+                case DOUBLE:
+                    doubles = DoubleArrays.forceCapacity(doubles, newCapacity, capacity);
+                    break;
+                case FLOAT:
+                    floats = FloatArrays.forceCapacity(floats, newCapacity, capacity);
+                    break;
+                case INTEGER:
+                    ints = IntArrays.forceCapacity(ints, newCapacity, capacity);
+                    break;
+                case LONG:
+                    longs = LongArrays.forceCapacity(longs, newCapacity, capacity);
+                    break;
+                case BOOLEAN:
+                    booleans = BooleanArrays.forceCapacity(booleans, newCapacity, capacity);
+                    break;
+                case SHORT:
+                    shorts = ShortArrays.forceCapacity(shorts, newCapacity, capacity);
+                    break;
+                case BYTE:
+                    bytes = ByteArrays.forceCapacity(bytes, newCapacity, capacity);
+                    break;
+                default:
+                    chars = CharArrays.forceCapacity(chars, newCapacity, capacity);
+            }
+            nulls = LongArrays.forceCapacity(nulls, (newCapacity + 63) >> 6, nulls.length);
+            // Slots never set are null, including the tail of the last word
+            for (int i = capacity; i < nulls.length << 6; i++) {
+                setNull(i, true);
+            }
+            capacity = newCapacity;
+        }
+    }
+}
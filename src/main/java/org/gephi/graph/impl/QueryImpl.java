@@ -0,0 +1,881 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.objects.Reference2IntMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.DirectedGraph;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Element;
+import org.gephi.graph.api.ElementIterable;
+import org.gephi.graph.api.GraphView;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.api.Query;
+import org.gephi.graph.api.QueryPredicate;
+import org.gephi.graph.api.Table;
+
+public class QueryImpl<T extends Element> implements Query<T> {
+
+    protected final GraphStore graphStore;
+    protected final TableImpl<T> table;
+    protected final GraphView view;
+    protected final DirectedGraph graph;
+    protected final boolean nodes;
+
+    public QueryImpl(TableImpl<T> table, GraphView view) {
+        this.table = table;
+        this.graphStore = table.store.graphStore;
+        this.view = view;
+        this.graph = view.isMainView() ? graphStore : ((GraphViewImpl) view).directedDecorator;
+        this.nodes = table.isNodeTable();
+    }
+
+    @Override
+    public GraphView getView() {
+        return view;
+    }
+
+    @Override
+    public Table getTable() {
+        return table;
+    }
+
+    @Override
+    public QueryPredicate equal(Column column, Object value) {
+        checkColumn(column);
+
+        return new EqualPredicate(table, column, value);
+    }
+
+    @Override
+    public QueryPredicate range(Column column, Object low, boolean lowInclusive, Object high, boolean highInclusive) {
+        checkColumn(column);
+
+        return new RangePredicate(table, column, low, lowInclusive, high, highInclusive);
+    }
+
+    @Override
+    public QueryPredicate in(Column column, Collection<?> values) {
+        checkColumn(column);
+        checkNonNullObject(values);
+
+        return new InPredicate(table, column, values.toArray());
+    }
+
+    @Override
+    public QueryPredicate isNull(Column column) {
+        return equal(column, null);
+    }
+
+    @Override
+    public QueryPredicate and(QueryPredicate... predicates) {
+        return new AndPredicate(table, checkPredicates(predicates));
+    }
+
+    @Override
+    public QueryPredicate or(QueryPredicate... predicates) {
+        return new OrPredicate(table, checkPredicates(predicates));
+    }
+
+    @Override
+    public QueryPredicate not(QueryPredicate predicate) {
+        return new NotPredicate(table, checkPredicate(predicate));
+    }
+
+    @Override
+    public int count(QueryPredicate predicate) {
+        return evaluate(predicate).getCardinality();
+    }
+
+    @Override
+    public Iterable<T> get(QueryPredicate predicate) {
+        // Captured first so changes made during the evaluation are detected too
+        int[] version = getVersion();
+        return new ResultIterable(evaluate(predicate), checkPredicate(predicate), version);
+    }
+
+    @Override
+    public GraphView createView(QueryPredicate predicate) {
+        IdBitmap ids = evaluate(predicate);
+
+        graphStore.autoWriteLock();
+        try {
+            GraphViewImpl result = graphStore.viewStore.createView(nodes, !nodes);
+            if (nodes) {
+                result.addAllNodes(ids);
+            } else {
+                result.addAllEdges(ids);
+            }
+            return result;
+        } finally {
+            graphStore.autoWriteUnlock();
+        }
+    }
+
+    /**
+     * Returns the store ids of the elements matching <em>predicate</em>.
+     *
+     * @param predicate the predicate
+     * @return store ids
+     */
+    public IdBitmap evaluate(QueryPredicate predicate) {
+        PredicateImpl predicateImpl = checkPredicate(predicate);
+        countQuery(predicateImpl);
+        return predicateImpl.evaluate(this);
+    }
+
+    // Deferred indexes count each query once, however many lookups it does
+    private void countQuery(PredicateImpl predicate) {
+        IndexImpl<T> index = getIndex();
+        if (index != null) {
+            Set<Column> columns = new HashSet<>();
+            predicate.collectColumns(columns);
+            for (Column column : columns) {
+                index.getQueryIndex(column);
+            }
+        }
+    }
+
+    protected IndexImpl<T> getIndex() {
+        IndexStore<T> indexStore = table.store.indexStore;
+        if (indexStore == null) {
+            return null;
+        }
+        if (view.isMainView()) {
+            return indexStore.getIndex(graphStore);
+        }
+        return indexStore.getIndex(((GraphViewImpl) view).directedDecorator);
+    }
+
+    // Node and edge versions of the graph and of the view, null if versions
+    // aren't tracked
+    protected int[] getVersion() {
+        GraphVersion version = graphStore.version;
+        if (version == null) {
+            return null;
+        }
+        GraphVersion viewVersion = view.isMainView() ? version : ((GraphViewImpl) view).version;
+        return new int[] { version.nodeVersion, version.edgeVersion, viewVersion.nodeVersion, viewVersion.edgeVersion };
+    }
+
+    protected boolean isVersion(int[] version) {
+        if (version == null) {
+            return false;
+        }
+        GraphVersion current = graphStore.version;
+        GraphVersion viewVersion = view.isMainView() ? current : ((GraphViewImpl) view).version;
+        return version[0] == current.nodeVersion && version[1] == current.edgeVersion && version[2] == viewVersion.nodeVersion && version[3] == viewVersion.edgeVersion;
+    }
+
+    protected int size() {
+        return nodes ? graph.getNodeCount() : graph.getEdgeCount();
+    }
+
+    protected T getElement(int id) {
+        return nodes ? (T) graphStore.nodeStore.get(id) : (T) graphStore.edgeStore.get(id);
+    }
+
+    // Looks up an element of an earlier result, null if the store has shrunk
+    // since
+    protected T getResultElement(int id) {
+        boolean valid = nodes ? graphStore.nodeStore.isValidIndex(id) : graphStore.edgeStore.isValidIndex(id);
+        return valid ? getElement(id) : null;
+    }
+
+    // Checks again an element of an earlier result, its slot may have been
+    // reused or the element changed
+    protected boolean isResult(T element, PredicateImpl predicate) {
+        graph.readLock();
+        try {
+            if (nodes ? !graph.contains((Node) element) : !graph.contains((Edge) element)) {
+                return false;
+            }
+            return predicate.test(this, element);
+        } finally {
+            graph.readUnlock();
+        }
+    }
+
+    protected Object getValue(Element element, Column column) {
+        DefaultColumnsImpl defaultColumns = graphStore.defaultColumns;
+        if (column == defaultColumns.degreeColumn) {
+            return graph.getDegree((Node) element);
+        } else if (column == defaultColumns.inDegreeColumn) {
+            return graph.getInDegree((Node) element);
+        } else if (column == defaultColumns.outDegreeColumn) {
+            return graph.getOutDegree((Node) element);
+        } else if (column == defaultColumns.typeColumn) {
+            return ((Edge) element).getTypeLabel();
+        }
+        return ((ElementImpl) element).getAttribute(column, view);
+    }
+
+    // Scans all the elements of the view in parallel, the predicate is null to
+    // collect all of them
+    protected IdBitmap scan(final PredicateImpl predicate) {
+        ElementIterable<T> elements = nodes ? (ElementIterable<T>) graph.getNodes()
+                : (ElementIterable<T>) graph.getEdges();
+        if (graphStore.lock.isHeldByCurrentThread()) {
+            // Sequentially on this thread, the predicate may read from the graph
+            // and worker threads can't wait for the lock held by the caller
+            List<T> matching = new ArrayList<>();
+            for (T element : elements) {
+                if (predicate == null || predicate.test(this, element)) {
+                    matching.add(element);
+                }
+            }
+            return toBitmap(matching);
+        }
+        int[] ids = elements.parallelStream().filter(e -> predicate == null || predicate.test(this, e))
+                .mapToInt(Element::getStoreId).toArray();
+        return toBitmap(ids);
+    }
+
+    // Keeps the ids of the elements in the view
+    protected IdBitmap retain(IdBitmap ids) {
+        IdBitmap result = new IdBitmap();
+        graph.readLock();
+        try {
+            IntIterator itr = ids.iterator();
+            while (itr.hasNext()) {
+                int id = itr.nextInt();
+                T element = getElement(id);
+                if (element != null && (nodes ? graph.contains((Node) element) : graph.contains((Edge) element))) {
+                    result.add(id);
+                }
+            }
+        } finally {
+            graph.readUnlock();
+        }
+        return result;
+    }
+
+    // Keeps the candidates that match all the predicates
+    protected IdBitmap filter(IdBitmap candidates, List<PredicateImpl> predicates) {
+        IdBitmap result = new IdBitmap();
+        graph.readLock();
+        try {
+            IntIterator itr = candidates.iterator();
+            while (itr.hasNext()) {
+                int id = itr.nextInt();
+                T element = getElement(id);
+                if (element != null && matchesAll(element, predicates)) {
+                    result.add(id);
+                }
+            }
+        } finally {
+            graph.readUnlock();
+        }
+        return result;
+    }
+
+    private boolean matchesAll(T element, List<PredicateImpl> predicates) {
+        for (PredicateImpl predicate : predicates) {
+            if (!predicate.test(this, element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    protected static IdBitmap toBitmap(Iterable<? extends Element> elements) {
+        int[] ids = new int[16];
+        int size = 0;
+        for (Element element : elements) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = element.getStoreId();
+        }
+        return toBitmap(Arrays.copyOf(ids, size));
+    }
+
+    protected static IdBitmap toBitmap(int[] ids) {
+        // Sorted ids are appended at the end of the containers
+        Arrays.sort(ids);
+        IdBitmap bitmap = new IdBitmap();
+        for (int id : ids) {
+            bitmap.add(id);
+        }
+        return bitmap;
+    }
+
+    private void checkColumn(Column column) {
+        checkNonNullObject(column);
+        if (column.getTable() != table) {
+            throw new IllegalArgumentException("The column '" + column.getId() + "' doesn't belong to this table");
+        }
+    }
+
+    private PredicateImpl[] checkPredicates(QueryPredicate[] predicates) {
+        checkNonNullObject(predicates);
+        if (predicates.length == 0) {
+            throw new IllegalArgumentException("At least one predicate is required");
+        }
+        PredicateImpl[] result = new PredicateImpl[predicates.length];
+        for (int i = 0; i < predicates.length; i++) {
+            result[i] = checkPredicate(predicates[i]);
+        }
+        return result;
+    }
+
+    private PredicateImpl checkPredicate(QueryPredicate predicate) {
+        checkNonNullObject(predicate);
+        if (!(predicate instanceof PredicateImpl)) {
+            throw new ClassCastException("Object must be a PredicateImpl object");
+        }
+        if (predicate.getTable() != table) {
+            throw new IllegalArgumentException("The predicate doesn't belong to this table");
+        }
+        return (PredicateImpl) predicate;
+    }
+
+    private void checkNonNullObject(final Object o) {
+        if (o == null) {
+            throw new NullPointerException();
+        }
+    }
+
+    // Elements are checked again once the graph or the view has changed since the
+    // evaluation
+    protected final class ResultIterable implements Iterable<T> {
+
+        private final IdBitmap ids;
+        private final PredicateImpl predicate;
+        private final int[] version;
+
+        public ResultIterable(IdBitmap ids, PredicateImpl predicate, int[] version) {
+            this.ids = ids;
+            this.predicate = predicate;
+            this.version = version;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            final IntIterator itr = ids.iterator();
+            return new Iterator<T>() {
+                private boolean changed;
+                private T next = advance();
+
+                @Override
+                public boolean hasNext() {
+                    return next != null;
+                }
+
+                @Override
+                public T next() {
+                    if (next == null) {
+                        throw new NoSuchElementException();
+                    }
+                    T element = next;
+                    next = advance();
+                    return element;
+                }
+
+                private T advance() {
+                    while (itr.hasNext()) {
+                        T element = getResultElement(itr.nextInt());
+                        if (element == null) {
+                            continue;
+                        }
+                        // Versions only move forward
+                        changed = changed || !isVersion(version);
+                        if (!changed || isResult(element, predicate)) {
+                            return element;
+                        }
+                    }
+                    return null;
+                }
+            };
+        }
+    }
+
+    protected abstract static class PredicateImpl implements QueryPredicate {
+
+        protected final Table table;
+
+        public PredicateImpl(Table table) {
+            this.table = table;
+        }
+
+        @Override
+        public Table getTable() {
+            return table;
+        }
+
+        /**
+         * Returns true if the predicate can be evaluated without testing each element.
+         */
+        abstract boolean isIndexed(QueryImpl query);
+
+        /**
+         * Returns an upper bound of the number of matching elements.
+         */
+        abstract int estimate(QueryImpl query);
+
+        abstract IdBitmap evaluate(QueryImpl query);
+
+        abstract boolean test(QueryImpl query, Element element);
+
+        /**
+         * Adds the columns this predicate reads to <em>columns</em>.
+         */
+        abstract void collectColumns(Set<Column> columns);
+    }
+
+    protected abstract static class ColumnPredicate extends PredicateImpl {
+
+        protected final Column column;
+
+        public ColumnPredicate(Table table, Column column) {
+            super(table);
+            this.column = column;
+        }
+
+        protected ColumnStandardIndexImpl getStandardIndex(QueryImpl query) {
+            ColumnIndexImpl index = getColumnIndex(query);
+            if (index instanceof ColumnViewIndexImpl) {
+                // Shared view index, results are restricted to the view afterwards
+                return ((ColumnViewIndexImpl) index).index;
+            }
+            return index instanceof ColumnStandardIndexImpl ? (ColumnStandardIndexImpl) index : null;
+        }
+
+        protected ColumnIndexImpl getColumnIndex(QueryImpl query) {
+            // The query has already been counted by QueryImpl#evaluate
+            IndexImpl index = query.getIndex();
+            return index != null ? index.getIndex(column) : null;
+        }
+
+        @Override
+        void collectColumns(Set<Column> columns) {
+            columns.add(column);
+        }
+
+        @Override
+        boolean isIndexed(QueryImpl query) {
+            return getStandardIndex(query) != null;
+        }
+
+        @Override
+        IdBitmap evaluate(QueryImpl query) {
+            ColumnStandardIndexImpl index = getStandardIndex(query);
+            if (index == null) {
+                return query.scan(this);
+            }
+            if (getColumnIndex(query) instanceof ColumnViewIndexImpl) {
+                return query.retain(evaluate(index));
+            }
+            return evaluate(index);
+        }
+
+        abstract IdBitmap evaluate(ColumnStandardIndexImpl index);
+    }
+
+    protected static class EqualPredicate extends ColumnPredicate {
+
+        protected final Object value;
+
+        public EqualPredicate(Table table, Column column, Object value) {
+            super(table, column);
+            this.value = value;
+        }
+
+        @Override
+        boolean isIndexed(QueryImpl query) {
+            // The edge type and degree indexes count and iterate by value without
+            // scanning
+            ColumnIndexImpl index = getColumnIndex(query);
+            return super.isIndexed(query) || index instanceof EdgeTypeNoIndexImpl || isDegreeIndex(index);
+        }
+
+        @Override
+        int estimate(QueryImpl query) {
+            ColumnIndexImpl index = getColumnIndex(query);
+            if (index instanceof ColumnStandardIndexImpl || index instanceof EdgeTypeNoIndexImpl || isDegreeIndex(index)) {
+                return index.count(value);
+            }
+            return query.size();
+        }
+
+        @Override
+        IdBitmap evaluate(QueryImpl query) {
+            ColumnIndexImpl index = getColumnIndex(query);
+            if (index instanceof EdgeTypeNoIndexImpl) {
+                return toBitmap(index.get(value));
+            } else if (isDegreeIndex(index)) {
+                return ((DegreeIndexImpl) index).getBitmap((Integer) value);
+            }
+            return super.evaluate(query);
+        }
+
+        private boolean isDegreeIndex(ColumnIndexImpl index) {
+            return index instanceof DegreeIndexImpl && value instanceof Integer;
+        }
+
+        @Override
+        IdBitmap evaluate(ColumnStandardIndexImpl index) {
+            if (index.isBitmap()) {
+                return index.getBitmap(value);
+            }
+            return toBitmap(index.get(value));
+        }
+
+        @Override
+        boolean test(QueryImpl query, Element element) {
+            return Objects.deepEquals(value, query.getValue(element, column));
+        }
+    }
+
+    protected static class RangePredicate extends ColumnPredicate {
+
+        protected final Object low;
+        protected final boolean lowInclusive;
+        protected final Object high;
+        protected final boolean highInclusive;
+
+        public RangePredicate(Table table, Column column, Object low, boolean lowInclusive, Object high, boolean highInclusive) {
+            super(table, column);
+            this.low = low;
+            this.lowInclusive = lowInclusive;
+            this.high = high;
+            this.highInclusive = highInclusive;
+        }
+
+        @Override
+        boolean isIndexed(QueryImpl query) {
+            return super.isIndexed(query) || isDegreeIndex(getColumnIndex(query));
+        }
+
+        @Override
+        int estimate(QueryImpl query) {
+            ColumnIndexImpl index = getColumnIndex(query);
+            if (isDegreeIndex(index)) {
+                return index.count(low, lowInclusive, high, highInclusive);
+            }
+            ColumnStandardIndexImpl standardIndex = getStandardIndex(query);
+            if (standardIndex != null) {
+                return standardIndex.count(low, lowInclusive, high, highInclusive);
+            }
+            return query.size();
+        }
+
+        @Override
+        IdBitmap evaluate(QueryImpl query) {
+            ColumnIndexImpl index = getColumnIndex(query);
+            if (isDegreeIndex(index)) {
+                return ((DegreeIndexImpl) index).getBitmap((Integer) low, lowInclusive, (Integer) high, highInclusive);
+            }
+            return super.evaluate(query);
+        }
+
+        private boolean isDegreeIndex(ColumnIndexImpl index) {
+            return index instanceof DegreeIndexImpl && (low == null || low instanceof Integer) && (high == null || high instanceof Integer);
+        }
+
+        @Override
+        IdBitmap evaluate(ColumnStandardIndexImpl index) {
+            if (index.isBitmap()) {
+                return index.getBitmap(low, lowInclusive, high, highInclusive);
+            }
+            return toBitmap(index.get(low, lowInclusive, high, highInclusive));
+        }
+
+        @Override
+        boolean test(QueryImpl query, Element element) {
+            Object value = query.getValue(element, column);
+            if (value instanceof Number) {
+                return ColumnNoIndexImpl
+                        .isInRange((Number) value, (Number) low, lowInclusive, (Number) high, highInclusive);
+            } else if (value instanceof Comparable) {
+                Comparable comparable = (Comparable) value;
+                if (low != null) {
+                    int c = comparable.compareTo(low);
+                    if (c < 0 || (c == 0 && !lowInclusive)) {
+                        return false;
+                    }
+                }
+                if (high != null) {
+                    int c = comparable.compareTo(high);
+                    if (c > 0 || (c == 0 && !highInclusive)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+
+    protected static class InPredicate extends ColumnPredicate {
+
+        protected final Object[] values;
+
+        public InPredicate(Table table, Column column, Object[] values) {
+            super(table, column);
+            this.values = values;
+        }
+
+        @Override
+        int estimate(QueryImpl query) {
+            ColumnStandardIndexImpl index = getStandardIndex(query);
+            if (index != null) {
+                long count = 0;
+                for (Object value : values) {
+                    count += index.count(value);
+                }
+                return (int) Math.min(count, query.size());
+            }
+            return query.size();
+        }
+
+        @Override
+        IdBitmap evaluate(ColumnStandardIndexImpl index) {
+            IdBitmap result = new IdBitmap();
+            for (Object value : values) {
+                IdBitmap ids = index.isBitmap() ? index.getBitmap(value) : toBitmap(index.get(value));
+                result = IdBitmap.or(result, ids);
+            }
+            return result;
+        }
+
+        @Override
+        boolean test(QueryImpl query, Element element) {
+            Object elementValue = query.getValue(element, column);
+            for (Object value : values) {
+                if (Objects.deepEquals(value, elementValue)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    protected static class AndPredicate extends PredicateImpl {
+
+        protected final PredicateImpl[] predicates;
+
+        public AndPredicate(Table table, PredicateImpl[] predicates) {
+            super(table);
+            this.predicates = predicates;
+        }
+
+        @Override
+        boolean isIndexed(QueryImpl query) {
+            for (PredicateImpl predicate : predicates) {
+                if (!(predicate instanceof NotPredicate) && predicate.isIndexed(query)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        int estimate(QueryImpl query) {
+            int estimate = query.size();
+            for (PredicateImpl predicate : predicates) {
+                estimate = Math.min(estimate, predicate.estimate(query));
+            }
+            return estimate;
+        }
+
+        @Override
+        IdBitmap evaluate(QueryImpl query) {
+            // Split between positive and negative indexed predicates and the ones
+            // that need to be tested on each element
+            List<PredicateImpl> indexed = new ArrayList<>();
+            List<PredicateImpl> tested = new ArrayList<>();
+            Reference2IntMap<PredicateImpl> estimates = new Reference2IntOpenHashMap<>();
+            for (PredicateImpl predicate : predicates) {
+                if (predicate.isIndexed(query)) {
+                    indexed.add(predicate);
+                    estimates.put(predicate, predicate instanceof NotPredicate ? query.size()
+                            : predicate.estimate(query));
+                } else {
+                    tested.add(predicate);
+                }
+            }
+
+            // Most selective first, negations last
+            indexed.sort((p1, p2) -> Integer.compare(estimates.getInt(p1), estimates.getInt(p2)));
+
+            IdBitmap result = null;
+            if (!indexed.isEmpty() && !(indexed.get(0) instanceof NotPredicate)) {
+                result = indexed.remove(0).evaluate(query);
+            } else if (!tested.isEmpty()) {
+                result = query.scan(new AndPredicate(table, tested.toArray(new PredicateImpl[0])));
+                tested.clear();
+            } else {
+                result = query.scan(null);
+            }
+
+            for (PredicateImpl predicate : indexed) {
+                if (result.isEmpty()) {
+                    return result;
+                }
+                int estimate = predicate instanceof NotPredicate ? ((NotPredicate) predicate).predicate.estimate(query)
+                        : estimates.getInt(predicate);
+                if ((long) result.getCardinality() * GraphStoreConfiguration.QUERY_CANDIDATE_FILTER_RATIO < estimate) {
+                    // Cheaper to test the few remaining candidates
+                    tested.add(predicate);
+                } else if (predicate instanceof NotPredicate) {
+                    result = IdBitmap.andNot(result, ((NotPredicate) predicate).predicate.evaluate(query));
+                } else {
+                    result = IdBitmap.and(result, predicate.evaluate(query));
+                }
+            }
+            if (!tested.isEmpty() && !result.isEmpty()) {
+                result = query.filter(result, tested);
+            }
+            return result;
+        }
+
+        @Override
+        boolean test(QueryImpl query, Element element) {
+            for (PredicateImpl predicate : predicates) {
+                if (!predicate.test(query, element)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        void collectColumns(Set<Column> columns) {
+            for (PredicateImpl predicate : predicates) {
+                predicate.collectColumns(columns);
+            }
+        }
+    }
+
+    protected static class OrPredicate extends PredicateImpl {
+
+        protected final PredicateImpl[] predicates;
+
+        public OrPredicate(Table table, PredicateImpl[] predicates) {
+            super(table);
+            this.predicates = predicates;
+        }
+
+        @Override
+        boolean isIndexed(QueryImpl query) {
+            for (PredicateImpl predicate : predicates) {
+                if (!predicate.isIndexed(query)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        int estimate(QueryImpl query) {
+            long estimate = 0;
+            for (PredicateImpl predicate : predicates) {
+                estimate += predicate.estimate(query);
+            }
+            return (int) Math.min(estimate, query.size());
+        }
+
+        @Override
+        IdBitmap evaluate(QueryImpl query) {
+            IdBitmap result = new IdBitmap();
+            List<PredicateImpl> scanned = new ArrayList<>();
+            for (PredicateImpl predicate : predicates) {
+                if (predicate.isIndexed(query)) {
+                    result = IdBitmap.or(result, predicate.evaluate(query));
+                } else {
+                    scanned.add(predicate);
+                }
+            }
+            if (!scanned.isEmpty()) {
+                // A single scan for all the predicates that aren't indexed
+                PredicateImpl predicate = scanned.size() == 1 ? scanned.get(0)
+                        : new OrPredicate(table, scanned.toArray(new PredicateImpl[0]));
+                result = IdBitmap.or(result, query.scan(predicate));
+            }
+            return result;
+        }
+
+        @Override
+        boolean test(QueryImpl query, Element element) {
+            for (PredicateImpl predicate : predicates) {
+                if (predicate.test(query, element)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        void collectColumns(Set<Column> columns) {
+            for (PredicateImpl predicate : predicates) {
+                predicate.collectColumns(columns);
+            }
+        }
+    }
+
+    protected static class NotPredicate extends PredicateImpl {
+
+        protected final PredicateImpl predicate;
+
+        public NotPredicate(Table table, PredicateImpl predicate) {
+            super(table);
+            this.predicate = predicate;
+        }
+
+        @Override
+        boolean isIndexed(QueryImpl query) {
+            return predicate.isIndexed(query);
+        }
+
+        @Override
+        int estimate(QueryImpl query) {
+            if (predicate.isIndexed(query)) {
+                return Math.max(0, query.size() - predicate.estimate(query));
+            }
+            return query.size();
+        }
+
+        @Override
+        IdBitmap evaluate(QueryImpl query) {
+            if (predicate.isIndexed(query)) {
+                return IdBitmap.andNot(query.scan(null), predicate.evaluate(query));
+            }
+            return query.scan(this);
+        }
+
+        @Override
+        boolean test(QueryImpl query, Element element) {
+            return !predicate.test(query, element);
+        }
+
+        @Override
+        void collectColumns(Set<Column> columns) {
+            predicate.collectColumns(columns);
+        }
+    }
+}
@@ -96,7 +96,8 @@ import org.joda.time.DateTimeZone;
 // Greatly inspired from JDBM https://github.com/jankotek/JDBM3
 public class Serialization {
 
-    final static float VERSION = 0.5f;
+    // Kept fractional so the version header has a fixed length
+    final static float VERSION = 1.2f;
     final static int NULL_ID = -1;
     final static int NULL = 0;
     final static int NORMAL = 1;
@@ -214,6 +215,7 @@ public class Serialization {
     final static int LIST = 229;
     final static int SET = 230;
     final static int MAP = 231;
+    final static int VIEW_BIT_SET = 232;
     // Store
     protected final Int2IntMap idMap;
     protected GraphModelImpl model;
@@ -350,7 +352,10 @@ public class Serialization {
     private void serializeNode(DataOutput out, NodeImpl node) throws IOException {
         serialize(out, node.getId());
         serialize(out, node.storeId);
-        serialize(out, node.attributes.attributes);
+        serialize(out, node.getAttributes());
+        if (node.graphStore != null && node.graphStore.nodeStore.layoutArrays != null) {
+            node.graphStore.nodeStore.layoutArrays.store(node);
+        }
         serialize(out, node.properties);
     }
 
@@ -365,7 +370,7 @@ public class Serialization {
             serialize(out, GraphStoreConfiguration.DEFAULT_EDGE_WEIGHT);
         }
         serialize(out, edge.isDirected());
-        serialize(out, edge.attributes.attributes);
+        serialize(out, edge.getAttributes());
         serialize(out, edge.properties);
     }
 
@@ -602,6 +607,7 @@ public class Serialization {
         for (int i = 0; i < garbages.length; i++) {
             viewStore.garbageQueue.add(garbages[i]);
         }
+        viewStore.refreshTimeSliced();
         return viewStore;
     }
 
@@ -623,6 +629,7 @@ public class Serialization {
 
         serialize(out, view.attributes);
         serialize(out, view.interval);
+        serialize(out, view.timeSlice != null);
     }
 
     private GraphViewImpl deserializeGraphView(final DataInput is) throws IOException, ClassNotFoundException {
@@ -633,8 +640,8 @@ public class Serialization {
         int storeId = (Integer) deserialize(is);
         int nodeCount = (Integer) deserialize(is);
         int edgeCount = (Integer) deserialize(is);
-        BitVector nodeCountVector = (BitVector) deserialize(is);
-        BitVector edgeCountVector = (BitVector) deserialize(is);
+        ViewBitSet nodeCountVector = toViewBitSet(deserialize(is));
+        ViewBitSet edgeCountVector = toViewBitSet(deserialize(is));
         int[] typeCounts = (int[]) deserialize(is);
         int[] mutualEdgeTypeCounts = (int[]) deserialize(is);
         int mutualEdgesCount = (Integer) deserialize(is);
@@ -658,9 +665,49 @@ public class Serialization {
         view.attributes.setGraphAttributes(atts);
         view.interval = interval;
 
+        if (readVersion >= 1.2f) {
+            Boolean timeSliced = (Boolean) deserialize(is);
+            if (timeSliced) {
+                view.timeSlice = new ViewTimeSlice(view);
+            }
+        }
+
         return view;
     }
 
+    // Views were stored as plain bit vectors before
+    private ViewBitSet toViewBitSet(Object obj) {
+        if (obj instanceof BitVector) {
+            return new ViewBitSet((BitVector) obj);
+        }
+        return (ViewBitSet) obj;
+    }
+
+    private void serializeViewBitSet(final DataOutput out, final ViewBitSet bitSet) throws IOException {
+        serialize(out, bitSet.size());
+        serialize(out, bitSet.isDense());
+        if (bitSet.isDense()) {
+            serialize(out, bitSet.elements());
+        } else {
+            serialize(out, bitSet.sparse.toArray());
+        }
+    }
+
+    private ViewBitSet deserializeViewBitSet(final DataInput is) throws IOException, ClassNotFoundException {
+        int size = (Integer) deserialize(is);
+        boolean dense = (Boolean) deserialize(is);
+        if (dense) {
+            long[] elements = (long[]) deserialize(is);
+            return new ViewBitSet(new BitVector(elements, size));
+        }
+        int[] ids = (int[]) deserialize(is);
+        ViewBitSet bitSet = new ViewBitSet(size);
+        for (int id : ids) {
+            bitSet.set(id);
+        }
+        return bitSet;
+    }
+
     private void serializeBitVector(final DataOutput out, final BitVector bitVector) throws IOException {
         serialize(out, bitVector.size());
         serialize(out, bitVector.elements());
@@ -1077,6 +1124,11 @@ public class Serialization {
         serialize(out, config.getEdgeWeightType());
         serialize(out, config.getTimeRepresentation());
         serialize(out, config.getEdgeWeightColumn());
+        serialize(out, config.getIndexBitmaps());
+        serialize(out, config.getIndexText());
+        serialize(out, config.getIndexQueryThreshold());
+        serialize(out, config.getSharedViewIndexes());
+        serialize(out, config.getIndexArrayElements());
     }
 
     private Configuration deserializeConfiguration(final DataInput is) throws IOException, ClassNotFoundException {
@@ -1097,6 +1149,26 @@ public class Serialization {
             Boolean edgeColumn = (Boolean) deserialize(is);
             config.setEdgeWeightColumn(edgeColumn);
         }
+        if (readVersion >= 0.6) {
+            Boolean indexBitmaps = (Boolean) deserialize(is);
+            config.setIndexBitmaps(indexBitmaps);
+        }
+        if (readVersion >= 0.7f) {
+            Boolean indexText = (Boolean) deserialize(is);
+            config.setIndexText(indexText);
+        }
+        if (readVersion >= 0.8f) {
+            Integer indexQueryThreshold = (Integer) deserialize(is);
+            config.setIndexQueryThreshold(indexQueryThreshold);
+        }
+        if (readVersion >= 0.9f) {
+            Boolean sharedViewIndexes = (Boolean) deserialize(is);
+            config.setSharedViewIndexes(sharedViewIndexes);
+        }
+        if (readVersion >= 1.1f) {
+            Boolean indexArrayElements = (Boolean) deserialize(is);
+            config.setIndexArrayElements(indexArrayElements);
+        }
 
         return config;
     }
@@ -1511,6 +1583,10 @@ public class Serialization {
             GraphViewImpl b = (GraphViewImpl) obj;
             out.write(GRAPH_VIEW);
             serializeGraphView(out, b);
+        } else if (obj instanceof ViewBitSet) {
+            ViewBitSet b = (ViewBitSet) obj;
+            out.write(VIEW_BIT_SET);
+            serializeViewBitSet(out, b);
         } else if (obj instanceof BitVector) {
             BitVector bv = (BitVector) obj;
             out.write(BIT_VECTOR);
@@ -2073,6 +2149,9 @@ public class Serialization {
             case BIT_VECTOR:
                 ret = deserializeBitVector(is);
                 break;
+            case VIEW_BIT_SET:
+                ret = deserializeViewBitSet(is);
+                break;
             case GRAPH_STORE_CONFIGURATION:
                 ret = deserializeGraphStoreConfiguration(is);
                 break;
@@ -60,6 +60,17 @@ public class SpatialIndexImpl implements SpatialIndex {
         nodesTree.updateNode(node, minX, minY, maxX, maxY);
     }
 
+    protected void moveNodes(final Iterator<Node> nodes) {
+        nodesTree.writeLock();
+        try {
+            while (nodes.hasNext()) {
+                moveNode((NodeImpl) nodes.next());
+            }
+        } finally {
+            nodesTree.writeUnlock();
+        }
+    }
+
     protected class EdgeIterator implements Iterator<Edge> {
 
         private final Iterator<Node> nodeItr;
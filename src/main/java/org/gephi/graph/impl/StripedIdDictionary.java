@@ -0,0 +1,110 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+
+/**
+ * Dictionary from element ids to store ids, split in stripes by id hash.
+ * <p>
+ * Each stripe is a separate map. Concurrent bulk commits update a stripe under
+ * its monitor, see {@link #getStripe(Object)}. Other accesses are guarded by
+ * the graph lock.
+ */
+public class StripedIdDictionary {
+
+    protected final Object2IntOpenHashMap[] stripes;
+    // Stripes are picked with the high bits, the maps use the low ones
+    protected final int shift;
+
+    public StripedIdDictionary(int expected) {
+        stripes = new Object2IntOpenHashMap[GraphStoreConfiguration.EDGESTORE_LOCK_STRIPES];
+        shift = Integer.numberOfLeadingZeros(stripes.length - 1);
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = newStripe(expected / stripes.length);
+        }
+    }
+
+    private static Object2IntOpenHashMap newStripe(int expected) {
+        Object2IntOpenHashMap map = new Object2IntOpenHashMap(expected);
+        map.defaultReturnValue(EdgeStore.NULL_ID);
+        return map;
+    }
+
+    public Object2IntOpenHashMap getStripe(Object id) {
+        return stripes[HashCommon.mix(id.hashCode()) >>> shift & (stripes.length - 1)];
+    }
+
+    public int getInt(Object id) {
+        return getStripe(id).getInt(id);
+    }
+
+    public boolean containsKey(Object id) {
+        return getStripe(id).containsKey(id);
+    }
+
+    public void put(Object id, int storeId) {
+        getStripe(id).put(id, storeId);
+    }
+
+    public void remove(Object id) {
+        getStripe(id).removeInt(id);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Object2IntOpenHashMap stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    /**
+     * Trims all stripes to a share of <code>n</code> entries.
+     *
+     * @param n expected total number of entries
+     */
+    public void trim(int n) {
+        for (Object2IntOpenHashMap stripe : stripes) {
+            stripe.trim(n / stripes.length);
+        }
+    }
+
+    /**
+     * Trims the stripe of the given id to a share of <code>n</code> entries.
+     *
+     * @param id id whose stripe is trimmed
+     * @param n expected total number of entries
+     */
+    public void trim(Object id, int n) {
+        getStripe(id).trim(n / stripes.length);
+    }
+
+    public void ensureCapacity(int count) {
+        // Rebuilding copies the existing entries so it's only worth it if the
+        // stripe would otherwise be rehashed at least as many times
+        int stripeCount = count / stripes.length + 1;
+        for (int i = 0; i < stripes.length; i++) {
+            Object2IntOpenHashMap stripe = stripes[i];
+            if (stripeCount > stripe.size()) {
+                Object2IntOpenHashMap newStripe = newStripe(stripe.size() + stripeCount);
+                newStripe.putAll(stripe);
+                stripes[i] = newStripe;
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenCustomHashMap;
+import it.unimi.dsi.fastutil.longs.LongHash;
+
+/**
+ * Dictionary from source and target long ids to edge store ids, split in
+ * stripes by node store id ranges.
+ * <p>
+ * The stripe is picked with the lowest of the two node store ids, so all the
+ * keys of a node pair share a stripe. Each stripe is a separate map. Concurrent
+ * bulk commits update a stripe under its monitor, see {@link #getStripe(long)}.
+ * Other accesses are guarded by the graph lock.
+ */
+public class StripedLongDictionary {
+
+    private static final long NODE_MASK = (1L << EdgeStore.NODE_BITS) - 1;
+    protected final Long2ObjectOpenCustomHashMap<int[]>[] stripes;
+
+    public StripedLongDictionary(int expected) {
+        stripes = new Long2ObjectOpenCustomHashMap[GraphStoreConfiguration.EDGESTORE_LOCK_STRIPES];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = newStripe(expected / stripes.length);
+        }
+    }
+
+    private static Long2ObjectOpenCustomHashMap<int[]> newStripe(int expected) {
+        return new Long2ObjectOpenCustomHashMap(expected, GraphStoreConfiguration.EDGESTORE_DICTIONARY_LOAD_FACTOR,
+                new DictionaryHashStrategy());
+    }
+
+    public Long2ObjectOpenCustomHashMap<int[]> getStripe(long longId) {
+        int storeId = (int) Math.min(longId >>> EdgeStore.NODE_BITS, longId & NODE_MASK);
+        return stripes[(storeId / GraphStoreConfiguration.EDGESTORE_LOCK_STRIPE_RANGE) & (stripes.length - 1)];
+    }
+
+    public int[] get(long longId) {
+        return getStripe(longId).get(longId);
+    }
+
+    public boolean containsKey(long longId) {
+        return getStripe(longId).containsKey(longId);
+    }
+
+    public void put(long longId, int[] storeIds) {
+        getStripe(longId).put(longId, storeIds);
+    }
+
+    public void remove(long longId) {
+        getStripe(longId).remove(longId);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Long2ObjectOpenCustomHashMap<int[]> stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public void ensureCapacity(int count) {
+        // Each stripe is sized for its share and still grows if pairs aren't
+        // evenly spread
+        int stripeCount = count / stripes.length + 1;
+        for (int i = 0; i < stripes.length; i++) {
+            Long2ObjectOpenCustomHashMap<int[]> stripe = stripes[i];
+            if (stripeCount > stripe.size()) {
+                Long2ObjectOpenCustomHashMap<int[]> newStripe = newStripe(stripe.size() + stripeCount);
+                newStripe.putAll(stripe);
+                stripes[i] = newStripe;
+            }
+        }
+    }
+
+    private static class DictionaryHashStrategy implements LongHash.Strategy {
+
+        @Override
+        public int hashCode(long l) {
+            return (int) (l ^ (l >>> 32));
+        }
+
+        @Override
+        public boolean equals(long l1, long l2) {
+            return l1 == l2;
+        }
+    }
+}
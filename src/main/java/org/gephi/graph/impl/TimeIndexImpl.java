@@ -24,6 +24,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 import org.gephi.graph.api.Element;
 import org.gephi.graph.api.ElementIterable;
 import org.gephi.graph.api.TimeIndex;
@@ -174,6 +175,11 @@ public abstract class TimeIndexImpl<T extends Element, K, S extends TimeSet<K>,
             return set;
         }
 
+        @Override
+        public Stream<Element> parallelStream() {
+            return set.parallelStream();
+        }
+
         @Override
         public void doBreak() {
         }
@@ -15,9 +15,16 @@
  */
 package org.gephi.graph.impl;
 
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntRBTreeSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.ints.IntSortedSet;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ObjectSet;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -26,6 +33,7 @@ import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.Element;
 import org.gephi.graph.api.Graph;
 import org.gephi.graph.api.GraphView;
+import org.gephi.graph.api.Interval;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.TimeIndex;
 import org.gephi.graph.api.types.TimeMap;
@@ -65,6 +73,8 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
 
     protected abstract TimeIndexImpl createIndex(boolean main);
 
+    protected abstract void collectIndexesInDifference(Interval first, Interval second, IntSet result);
+
     protected Integer add(K k) {
         checkK(k);
 
@@ -203,22 +213,37 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
     public void index(Element element) {
         lock();
         try {
-            S timeSet = getTimeSet(element);
+            indexElement(element);
+        } finally {
+            unlock();
+        }
+    }
 
-            if (timeSet != null) {
-                add(timeSet, element);
+    public void index(Collection<? extends Element> elements) {
+        lock();
+        try {
+            for (Element element : elements) {
+                indexElement(element);
             }
+        } finally {
+            unlock();
+        }
+    }
 
-            synchronized (element) {
-                for (Object val : element.getAttributes()) {
-                    if (val instanceof TimeMap) {
-                        TimeMap dynamicValue = (TimeMap) val;
-                        add(dynamicValue);
-                    }
+    private void indexElement(Element element) {
+        S timeSet = getTimeSet(element);
+
+        if (timeSet != null) {
+            add(timeSet, element);
+        }
+
+        synchronized (element) {
+            for (Object val : element.getAttributes()) {
+                if (val instanceof TimeMap) {
+                    TimeMap dynamicValue = (TimeMap) val;
+                    add(dynamicValue);
                 }
             }
-        } finally {
-            unlock();
         }
     }
 
@@ -399,6 +424,64 @@ public abstract class TimeIndexStore<T extends Element, K, S extends TimeSet<K>,
         }
     }
 
+    /**
+     * Returns the elements indexed at the timestamps or intervals overlapping only
+     * one of the given intervals.
+     * <p>
+     * These are the only elements whose membership may change when a time window
+     * moves from <code>first</code> to <code>second</code>. Only the time keys in
+     * the regions where the two windows differ are visited.
+     *
+     * @param first first interval
+     * @param second second interval
+     * @return elements with time keys entering or leaving the window
+     */
+    public ObjectSet<Element> getElementsInDifference(Interval first, Interval second) {
+        lock();
+        try {
+            IntSet indexes = new IntOpenHashSet();
+            collectIndexesInDifference(first, second, indexes);
+
+            ObjectSet<Element> elements = new ObjectOpenHashSet<>();
+            TimeIndexImpl.TimeIndexEntry[] entries = mainIndex.timestamps;
+            for (IntIterator itr = indexes.iterator(); itr.hasNext();) {
+                int index = itr.nextInt();
+                if (index < entries.length && entries[index] != null) {
+                    elements.addAll(entries[index].elementSet);
+                }
+            }
+            return elements;
+        } finally {
+            unlock();
+        }
+    }
+
+    /**
+     * Returns the regions, as pairs of inclusive bounds, outside of which time keys
+     * overlap either both or none of the given intervals. These are the two
+     * boundary ranges if the intervals overlap, or else both intervals.
+     *
+     * @param first first interval
+     * @param second second interval
+     * @return regions bounds
+     */
+    protected static double[] getDifferenceRegions(Interval first, Interval second) {
+        if (first.compareTo(second) != 0) {
+            return new double[] { first.getLow(), first.getHigh(), second.getLow(), second.getHigh() };
+        }
+        double[] regions = new double[4];
+        int length = 0;
+        if (first.getLow() != second.getLow()) {
+            regions[length++] = Math.min(first.getLow(), second.getLow());
+            regions[length++] = Math.max(first.getLow(), second.getLow());
+        }
+        if (first.getHigh() != second.getHigh()) {
+            regions[length++] = Math.min(first.getHigh(), second.getHigh());
+            regions[length++] = Math.max(first.getHigh(), second.getHigh());
+        }
+        return length == regions.length ? regions : Arrays.copyOf(regions, length);
+    }
+
     public boolean hasIndex() {
         return mainIndex != null;
     }
@@ -15,7 +15,10 @@
  */
 package org.gephi.graph.impl;
 
+import it.unimi.dsi.fastutil.doubles.Double2IntMap;
 import it.unimi.dsi.fastutil.doubles.Double2IntRBTreeMap;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.gephi.graph.api.Interval;
 import org.gephi.graph.api.types.TimestampSet;
 import org.gephi.graph.api.Element;
 import org.gephi.graph.api.types.TimestampMap;
@@ -44,6 +47,26 @@ public class TimestampIndexStore<T extends Element> extends TimeIndexStore<T, Do
         return new TimestampIndexImpl(this, main);
     }
 
+    @Override
+    protected void collectIndexesInDifference(Interval first, Interval second, IntSet result) {
+        double[] regions = getDifferenceRegions(first, second);
+        for (int i = 0; i < regions.length; i += 2) {
+            for (Double2IntMap.Entry entry : getMap().tailMap(regions[i]).double2IntEntrySet()) {
+                double timestamp = entry.getDoubleKey();
+                if (timestamp > regions[i + 1]) {
+                    break;
+                }
+                if (contains(first, timestamp) != contains(second, timestamp)) {
+                    result.add(entry.getIntValue());
+                }
+            }
+        }
+    }
+
+    private static boolean contains(Interval interval, double timestamp) {
+        return timestamp >= interval.getLow() && timestamp <= interval.getHigh();
+    }
+
     protected Double2IntRBTreeMap getMap() {
         return (Double2IntRBTreeMap) timeSortedMap;
     }
@@ -17,6 +17,7 @@ package org.gephi.graph.impl;
 
 import java.util.Collection;
 import java.util.Set;
+import java.util.function.IntConsumer;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.EdgeIterable;
 import org.gephi.graph.api.Graph;
@@ -177,6 +178,16 @@ public class UndirectedDecorator implements UndirectedGraph, UndirectedSubgraph
         return store.getNodeIterableWrapper(store.edgeStore.neighborIterator(node, type));
     }
 
+    @Override
+    public void forEachNeighbor(Node node, IntConsumer consumer) {
+        store.edgeStore.forEachNeighbor(node, consumer);
+    }
+
+    @Override
+    public void forEachNeighbor(Node node, int type, IntConsumer consumer) {
+        store.edgeStore.forEachNeighbor(node, type, consumer);
+    }
+
     @Override
     public EdgeIterable getEdges(Node node) {
         return store.getEdgeIterableWrapper(store.edgeStore.edgeUndirectedIterator(node));
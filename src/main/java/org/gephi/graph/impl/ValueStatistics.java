@@ -0,0 +1,154 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.objects.Object2IntMap;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Frozen value counts of a column index, used to answer top values, quantile
+ * and histogram queries.
+ * <p>
+ * Values are kept in ascending order for sortable columns together with the
+ * cumulative counts, so quantiles are found with a binary search. Statistics
+ * are tagged with the version they've been computed from and should be rebuilt
+ * once it changes.
+ *
+ * @param <K> value type
+ */
+public class ValueStatistics<K> {
+
+    protected final int version;
+    protected final Object[] values;
+    protected final int[] counts;
+    // Number of elements up to and including each value
+    protected final int[] cumulativeCounts;
+    // Value positions by decreasing count, computed on first use
+    private int[] countOrder;
+
+    public ValueStatistics(int version, Object[] values, int[] counts) {
+        this.version = version;
+        this.values = values;
+        this.counts = counts;
+        this.cumulativeCounts = new int[counts.length];
+        int total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            total += counts[i];
+            cumulativeCounts[i] = total;
+        }
+    }
+
+    public static <K> ValueStatistics<K> fromCounts(int version, Object2IntMap<K> valueCounts, boolean sortable) {
+        Object[] values = valueCounts.keySet().toArray();
+        if (sortable) {
+            Arrays.sort(values);
+        }
+        int[] counts = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            counts[i] = valueCounts.getInt(values[i]);
+        }
+        return new ValueStatistics<>(version, values, counts);
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int size() {
+        return cumulativeCounts.length == 0 ? 0 : cumulativeCounts[cumulativeCounts.length - 1];
+    }
+
+    public synchronized Map<K, Integer> getTopValues(int k) {
+        checkTopValues(k);
+        if (countOrder == null) {
+            countOrder = new int[values.length];
+            for (int i = 0; i < countOrder.length; i++) {
+                countOrder[i] = i;
+            }
+            // Stable, ties stay in value order
+            IntArrays.mergeSort(countOrder, (a, b) -> Integer.compare(counts[b], counts[a]));
+        }
+        Map<K, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(k, countOrder.length); i++) {
+            result.put((K) values[countOrder[i]], counts[countOrder[i]]);
+        }
+        return result;
+    }
+
+    public Number getQuantile(double q) {
+        checkQuantile(q);
+        int size = size();
+        if (size == 0) {
+            return null;
+        }
+        int rank = Math.max(1, (int) Math.ceil(q * size));
+        int low = 0;
+        int high = cumulativeCounts.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cumulativeCounts[mid] < rank) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return (Number) values[low];
+    }
+
+    public int[] getHistogram(int buckets) {
+        checkHistogram(buckets);
+        int[] histogram = new int[buckets];
+        if (values.length == 0) {
+            return histogram;
+        }
+        double min = ((Number) values[0]).doubleValue();
+        double max = ((Number) values[values.length - 1]).doubleValue();
+        double width = (max - min) / buckets;
+        for (int i = 0; i < values.length; i++) {
+            histogram[getBucket(((Number) values[i]).doubleValue(), min, width, buckets)] += counts[i];
+        }
+        return histogram;
+    }
+
+    private static int getBucket(double value, double min, double width, int buckets) {
+        if (width == 0) {
+            return 0;
+        }
+        return Math.min((int) ((value - min) / width), buckets - 1);
+    }
+
+    protected static void checkTopValues(int k) {
+        if (k < 0) {
+            throw new IllegalArgumentException("The number of values can't be negative");
+        }
+    }
+
+    protected static void checkQuantile(double q) {
+        if (!(q >= 0 && q <= 1)) {
+            throw new IllegalArgumentException("The quantile should be between 0 and 1");
+        }
+    }
+
+    protected static void checkHistogram(int buckets) {
+        if (buckets <= 0) {
+            throw new IllegalArgumentException("The number of buckets should be positive");
+        }
+    }
+}
@@ -0,0 +1,592 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.gephi.graph.impl;
+
+import cern.colt.bitvector.BitVector;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntPredicate;
+
+/**
+ * Node or edge membership of a view, indexed by store id.
+ * <p>
+ * Sparse sets are stored in a compressed {@link IdBitmap} and dense sets in
+ * pages of 64-bit words sized to the store. The set switches from one form to
+ * the other when its cardinality crosses a fraction of its size, so a view
+ * containing a handful of elements of a large graph doesn't cost a full bit per
+ * element.
+ * <p>
+ * Copies of a dense set share its pages until either side writes to them, so
+ * copying a view costs one reference per page and a derived view that only
+ * changes a few elements only duplicates the pages it touched.
+ * <p>
+ * Bulk operations on dense sets work on whole 64-bit words and are split across
+ * the common fork-join pool when the set is large enough.
+ */
+public class ViewBitSet {
+
+    // Sparse sets above size / 2^DENSE_SHIFT become dense
+    protected static final int DENSE_SHIFT = 4;
+    // Dense sets below size / 2^SPARSE_SHIFT become sparse
+    protected static final int SPARSE_SHIFT = 6;
+    // Dense sets are split in pages of 2^PAGE_SHIFT words
+    protected static final int PAGE_SHIFT = 10;
+    protected static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    protected static final int PAGE_MASK = PAGE_SIZE - 1;
+    // Data, only one of sparse and pages is set
+    protected IdBitmap sparse;
+    protected long[][] pages;
+    // Pages not owned may be shared with copies and are copied before writing
+    protected boolean[] owned;
+    protected int size;
+    protected int cardinality;
+
+    public ViewBitSet(int size) {
+        this.sparse = new IdBitmap();
+        this.size = size;
+    }
+
+    public ViewBitSet(BitVector bitVector) {
+        this.size = bitVector.size();
+        this.cardinality = bitVector.cardinality();
+        long[] elements = bitVector.elements();
+        resizePages(size);
+        for (int p = 0; p < pages.length; p++) {
+            System.arraycopy(elements, p << PAGE_SHIFT, pages[p], 0, pages[p].length);
+        }
+        optimize();
+    }
+
+    private ViewBitSet(ViewBitSet set) {
+        this.sparse = set.sparse != null ? set.sparse.copy() : null;
+        if (set.pages != null) {
+            // Both sets now share all pages
+            this.pages = set.pages.clone();
+            this.owned = new boolean[pages.length];
+            Arrays.fill(set.owned, false);
+        }
+        this.size = set.size;
+        this.cardinality = set.cardinality;
+    }
+
+    public boolean get(int index) {
+        checkIndex(index);
+        if (pages != null) {
+            return (word(index >>> 6) & (1L << index)) != 0;
+        }
+        return sparse.contains(index);
+    }
+
+    public void set(int index) {
+        checkIndex(index);
+        if (pages != null) {
+            int w = index >>> 6;
+            long word = word(w);
+            if ((word & (1L << index)) == 0) {
+                writablePage(w >>> PAGE_SHIFT)[w & PAGE_MASK] = word | (1L << index);
+                cardinality++;
+            }
+        } else {
+            if (sparse.add(index)) {
+                cardinality++;
+                if (cardinality > size >>> DENSE_SHIFT) {
+                    toDense();
+                }
+            }
+        }
+    }
+
+    public void clear(int index) {
+        checkIndex(index);
+        if (pages != null) {
+            int w = index >>> 6;
+            long word = word(w);
+            if ((word & (1L << index)) != 0) {
+                writablePage(w >>> PAGE_SHIFT)[w & PAGE_MASK] = word & ~(1L << index);
+                cardinality--;
+                if (cardinality < size >>> SPARSE_SHIFT) {
+                    toSparse();
+                }
+            }
+        } else {
+            if (sparse.remove(index)) {
+                cardinality--;
+            }
+        }
+    }
+
+    public void put(int index, boolean value) {
+        if (value) {
+            set(index);
+        } else {
+            clear(index);
+        }
+    }
+
+    public void clear() {
+        pages = null;
+        owned = null;
+        sparse = new IdBitmap();
+        cardinality = 0;
+    }
+
+    /**
+     * Flips all the bits, the set usually becomes dense.
+     */
+    public void not() {
+        if (pages == null) {
+            toDense();
+        }
+        cardinality = applyWords((w, word) -> ~word);
+        optimize();
+    }
+
+    /**
+     * Keeps only the bits also set in <code>other</code>. Bits beyond the size of
+     * <code>other</code> are cleared.
+     *
+     * @param other set to intersect with
+     */
+    public void and(final ViewBitSet other) {
+        if (pages == null) {
+            // Sparse sets only visit their own elements
+            for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+                if (!other.contains(i)) {
+                    sparse.remove(i);
+                    cardinality--;
+                }
+            }
+        } else if (other.pages == null) {
+            // The result is a subset of the sparse set
+            IdBitmap bitmap = new IdBitmap();
+            int count = 0;
+            for (int i = other.nextSetBit(0); i >= 0 && i < size; i = other.nextSetBit(i + 1)) {
+                if (get(i)) {
+                    bitmap.add(i);
+                    count++;
+                }
+            }
+            sparse = bitmap;
+            pages = null;
+            owned = null;
+            cardinality = count;
+        } else {
+            cardinality = applyWords((w, word) -> word & other.maskedWord(w));
+        }
+        optimize();
+    }
+
+    /**
+     * Sets the bits set in <code>other</code>. Bits beyond the size of this set are
+     * ignored.
+     *
+     * @param other set to unite with
+     */
+    public void or(final ViewBitSet other) {
+        if (other.pages == null) {
+            for (int i = other.nextSetBit(0); i >= 0 && i < size; i = other.nextSetBit(i + 1)) {
+                set(i);
+            }
+        } else {
+            if (pages == null) {
+                toDense();
+            }
+            cardinality = applyWords((w, word) -> word | other.maskedWord(w));
+        }
+        optimize();
+    }
+
+    /**
+     * Clears the set bits that don't match the given predicate.
+     * <p>
+     * On dense sets the predicate may be called concurrently from several threads.
+     *
+     * @param predicate predicate on the index of set bits
+     */
+    public void retain(final IntPredicate predicate) {
+        if (pages == null) {
+            for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+                if (!predicate.test(i)) {
+                    sparse.remove(i);
+                    cardinality--;
+                }
+            }
+        } else {
+            cardinality = applyWords((w, word) -> {
+                long result = word;
+                for (long bits = word; bits != 0; bits &= bits - 1) {
+                    int bit = Long.numberOfTrailingZeros(bits);
+                    int index = (w << 6) + bit;
+                    if (index < size && !predicate.test(index)) {
+                        result &= ~(1L << bit);
+                    }
+                }
+                return result;
+            });
+        }
+        optimize();
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isDense() {
+        return pages != null;
+    }
+
+    /**
+     * Grows the set to the given size, new bits are cleared.
+     *
+     * @param newSize new size
+     */
+    public void ensureSize(int newSize) {
+        if (newSize > size) {
+            if (pages != null) {
+                // Bits past the size left by not() would otherwise become visible
+                clearWordFrom(size);
+                resizePages(newSize);
+            }
+            size = newSize;
+        }
+    }
+
+    /**
+     * Shrinks the set to the given size, bits beyond are dropped.
+     *
+     * @param newSize new size
+     */
+    public void setSize(int newSize) {
+        if (pages != null) {
+            if (newSize != size) {
+                // Like BitVector#setSize, bits beyond the smaller size are cleared
+                clearWordFrom(Math.min(size, newSize));
+                resizePages(newSize);
+                size = newSize;
+            }
+            cardinality = applyWords((w, word) -> word);
+            optimize();
+        } else {
+            if (newSize < size) {
+                for (int id : sparse.toArray()) {
+                    if (id >= newSize && sparse.remove(id)) {
+                        cardinality--;
+                    }
+                }
+            }
+            size = newSize;
+        }
+    }
+
+    /**
+     * Returns the first set bit greater or equal to <code>from</code>, or -1.
+     *
+     * @param from index to start from
+     * @return next set bit, or -1 if none
+     */
+    public int nextSetBit(int from) {
+        if (from >= size) {
+            return -1;
+        }
+        if (pages != null) {
+            int wordCount = wordCount(size);
+            int w = from >>> 6;
+            long word = word(w) & (-1L << (from & 63));
+            while (true) {
+                if (word != 0) {
+                    int index = (w << 6) + Long.numberOfTrailingZeros(word);
+                    return index < size ? index : -1;
+                }
+                if (++w == wordCount) {
+                    return -1;
+                }
+                word = word(w);
+            }
+        }
+        int index = sparse.next(from);
+        return index < size ? index : -1;
+    }
+
+    /**
+     * Returns the number of set bits in the given range.
+     *
+     * @param from lower bound, inclusive
+     * @param to upper bound, exclusive
+     * @return cardinality of the range
+     */
+    public int cardinality(int from, int to) {
+        to = Math.min(to, size);
+        if (from >= to) {
+            return 0;
+        }
+        if (from == 0 && to == size) {
+            return cardinality;
+        }
+        int count = 0;
+        if (pages != null) {
+            int w = from >>> 6;
+            int last = (to - 1) >>> 6;
+            long word = word(w) & (-1L << (from & 63));
+            while (w < last) {
+                count += Long.bitCount(word);
+                word = word(++w);
+            }
+            count += Long.bitCount(word & (-1L >>> (63 - ((to - 1) & 63))));
+        } else {
+            for (int i = sparse.next(from); i >= 0 && i < to; i = sparse.next(i + 1)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public IntIterator iterator() {
+        return new SetBitIterator();
+    }
+
+    /**
+     * Returns a copy of this set. Dense pages are shared and only copied when
+     * either set first modifies them.
+     *
+     * @return copy
+     */
+    public ViewBitSet copy() {
+        return new ViewBitSet(this);
+    }
+
+    /**
+     * Returns the words of a dense set as a single array.
+     *
+     * @return words
+     */
+    protected long[] elements() {
+        long[] words = new long[wordCount(size)];
+        for (int p = 0; p < pages.length; p++) {
+            System.arraycopy(pages[p], 0, words, p << PAGE_SHIFT, pages[p].length);
+        }
+        return words;
+    }
+
+    private boolean contains(int index) {
+        return index < size && get(index);
+    }
+
+    private long word(int w) {
+        return pages[w >>> PAGE_SHIFT][w & PAGE_MASK];
+    }
+
+    // Word with the bits beyond the size cleared, or zero beyond the last word
+    private long maskedWord(int w) {
+        int wordCount = wordCount(size);
+        if (w >= wordCount) {
+            return 0L;
+        }
+        if (w == wordCount - 1 && (size & 63) != 0) {
+            return word(w) & (-1L >>> (64 - (size & 63)));
+        }
+        return word(w);
+    }
+
+    private long[] writablePage(int p) {
+        long[] page = pages[p];
+        if (!owned[p]) {
+            page = page.clone();
+            pages[p] = page;
+            owned[p] = true;
+        }
+        return page;
+    }
+
+    // Clears the bits from index to the end of its word
+    private void clearWordFrom(int index) {
+        if ((index & 63) != 0) {
+            int w = index >>> 6;
+            long word = word(w);
+            long masked = word & (-1L >>> (64 - (index & 63)));
+            if (masked != word) {
+                writablePage(w >>> PAGE_SHIFT)[w & PAGE_MASK] = masked;
+            }
+        }
+    }
+
+    // Only the last existing page and the new pages are allocated or copied
+    private void resizePages(int newSize) {
+        int wordCount = wordCount(newSize);
+        int pageCount = (wordCount + PAGE_MASK) >>> PAGE_SHIFT;
+        int oldPageCount = pages != null ? pages.length : 0;
+        pages = pages != null ? Arrays.copyOf(pages, pageCount) : new long[pageCount][];
+        owned = owned != null ? Arrays.copyOf(owned, pageCount) : new boolean[pageCount];
+        for (int p = Math.max(0, Math.min(oldPageCount, pageCount) - 1); p < pageCount; p++) {
+            int length = Math.min(PAGE_SIZE, wordCount - (p << PAGE_SHIFT));
+            if (pages[p] == null) {
+                pages[p] = new long[length];
+                owned[p] = true;
+            } else if (pages[p].length != length) {
+                pages[p] = Arrays.copyOf(pages[p], length);
+                owned[p] = true;
+            }
+        }
+    }
+
+    private static int wordCount(int size) {
+        return (size + 63) >>> 6;
+    }
+
+    /**
+     * Replaces every word of this set by the result of the function and returns the
+     * new cardinality. Like {@link BitVector#not()}, bits of the last word beyond
+     * the size are stored but not counted. Shared pages are only copied when one of
+     * their words changes.
+     */
+    private int applyWords(final WordFunction function) {
+        final int wordCount = wordCount(size);
+        int minChunk = GraphStoreConfiguration.VIEW_CONCURRENT_MIN_CHUNK_SIZE >>> 6;
+        int parallelism = ForkJoinPool.getCommonPoolParallelism();
+        if (parallelism < 2 || wordCount < 2 * minChunk) {
+            return applyWords(wordCount, 0, wordCount, function);
+        }
+        // Chunks are aligned on pages so tasks never copy the same page
+        int chunkSize = Math.max(minChunk, (wordCount + parallelism - 1) / parallelism);
+        chunkSize = (chunkSize + PAGE_MASK) & ~PAGE_MASK;
+        List<ForkJoinTask<Integer>> tasks = new ArrayList<>();
+        for (int start = 0; start < wordCount; start += chunkSize) {
+            final int from = start;
+            final int to = Math.min(start + chunkSize, wordCount);
+            tasks.add(ForkJoinTask.adapt(() -> applyWords(wordCount, from, to, function)));
+        }
+        int count = 0;
+        for (ForkJoinTask<Integer> task : ForkJoinTask.invokeAll(tasks)) {
+            count += task.join();
+        }
+        return count;
+    }
+
+    private int applyWords(int wordCount, int from, int to, WordFunction function) {
+        int count = 0;
+        for (int w = from; w < to; w++) {
+            long old = word(w);
+            long word = function.apply(w, old);
+            if (word != old) {
+                writablePage(w >>> PAGE_SHIFT)[w & PAGE_MASK] = word;
+            }
+            if (w == wordCount - 1 && (size & 63) != 0) {
+                word &= -1L >>> (64 - (size & 63));
+            }
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private void optimize() {
+        if (pages != null && cardinality < size >>> SPARSE_SHIFT) {
+            toSparse();
+        } else if (sparse != null && cardinality > size >>> DENSE_SHIFT) {
+            toDense();
+        }
+    }
+
+    private void toDense() {
+        resizePages(size);
+        for (IntIterator itr = sparse.iterator(); itr.hasNext();) {
+            int index = itr.nextInt();
+            int w = index >>> 6;
+            pages[w >>> PAGE_SHIFT][w & PAGE_MASK] |= 1L << index;
+        }
+        sparse = null;
+    }
+
+    private void toSparse() {
+        IdBitmap bitmap = new IdBitmap();
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            bitmap.add(i);
+        }
+        sparse = bitmap;
+        pages = null;
+        owned = null;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Attempted to access index " + index + " of a set of size " + size);
+        }
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 7;
+        hash = 31 * hash + size;
+        for (int i = nextSetBit(0); i >= 0; i = nextSetBit(i + 1)) {
+            hash = 31 * hash + i;
+        }
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || getClass() != obj.getClass()) {
+            return false;
+        }
+        ViewBitSet other = (ViewBitSet) obj;
+        if (size != other.size || cardinality != other.cardinality) {
+            return false;
+        }
+        int i = nextSetBit(0);
+        int j = other.nextSetBit(0);
+        while (i >= 0 && i == j) {
+            i = nextSetBit(i + 1);
+            j = other.nextSetBit(j + 1);
+        }
+        return i == j;
+    }
+
+    private interface WordFunction {
+
+        long apply(int index, long word);
+    }
+
+    private final class SetBitIterator implements IntIterator {
+
+        private int next = nextSetBit(0);
+
+        @Override
+        public boolean hasNext() {
+            return next >= 0;
+        }
+
+        @Override
+        public int nextInt() {
+            if (next < 0) {
+                throw new NoSuchElementException();
+            }
+            int res = next;
+            next = nextSetBit(next + 1);
+            return res;
+        }
+    }
+}
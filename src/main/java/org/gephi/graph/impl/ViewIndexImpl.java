@@ -0,0 +1,105 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.gephi.graph.impl;
+
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.Element;
+import org.gephi.graph.api.Graph;
+
+/**
+ * Index of a view answered from the main index.
+ * <p>
+ * Standard column indexes are wrapped in a {@link ColumnViewIndexImpl} which
+ * filters the main index elements with the view membership, so this index
+ * doesn't need to be maintained when elements or attributes change.
+ *
+ * @param <T> element type
+ */
+public class ViewIndexImpl<T extends Element> extends IndexImpl<T> {
+
+    protected final IndexImpl<T> mainIndex;
+    protected final GraphViewImpl view;
+    protected ColumnViewIndexImpl[] viewColumns;
+
+    public ViewIndexImpl(ColumnStore<T> columnStore, Graph graph, IndexImpl<T> mainIndex) {
+        super(columnStore, graph);
+        this.mainIndex = mainIndex;
+        this.view = (GraphViewImpl) graph.getView();
+        this.viewColumns = new ColumnViewIndexImpl[0];
+    }
+
+    @Override
+    protected ColumnIndexImpl getIndex(Column col) {
+        // Degree and edge type columns are computed on this view
+        ColumnIndexImpl computed = super.getIndex(col);
+        if (computed != null) {
+            return computed;
+        }
+        return getViewIndex(col, mainIndex.getIndex(col));
+    }
+
+    @Override
+    protected ColumnIndexImpl getQueryIndex(Column col) {
+        ColumnIndexImpl computed = super.getIndex(col);
+        if (computed != null) {
+            return computed;
+        }
+        return getViewIndex(col, mainIndex.getQueryIndex(col));
+    }
+
+    @Override
+    protected boolean isDeferred(Column col) {
+        return mainIndex.isDeferred(col);
+    }
+
+    @Override
+    protected boolean hasColumn(ColumnImpl col) {
+        return mainIndex.hasColumn(col);
+    }
+
+    @Override
+    protected int size() {
+        return mainIndex.size();
+    }
+
+    @Override
+    protected synchronized void destroy() {
+        viewColumns = new ColumnViewIndexImpl[0];
+        destroyDegreeIndexStore();
+    }
+
+    private synchronized ColumnIndexImpl getViewIndex(Column col, ColumnIndexImpl index) {
+        if (index instanceof ColumnStandardIndexImpl) {
+            int id = col.getIndex();
+            if (id >= viewColumns.length) {
+                ColumnViewIndexImpl[] newArray = new ColumnViewIndexImpl[id + 1];
+                System.arraycopy(viewColumns, 0, newArray, 0, viewColumns.length);
+                viewColumns = newArray;
+            }
+            ColumnViewIndexImpl viewIndex = viewColumns[id];
+            if (viewIndex == null || viewIndex.index != index) {
+                viewIndex = new ColumnViewIndexImpl((ColumnStandardIndexImpl) index, view, columnStore.elementType);
+                viewColumns[id] = viewIndex;
+            }
+            return viewIndex;
+        } else if (index instanceof ColumnNoIndexImpl) {
+            // Not indexed or deferred, scan the view
+            return createNoIndex((ColumnImpl) col, graph);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.gephi.graph.impl;
+
+import org.gephi.graph.api.Element;
+import org.gephi.graph.api.Interval;
+import org.gephi.graph.api.types.IntervalSet;
+import org.gephi.graph.api.types.TimeSet;
+import org.gephi.graph.api.types.TimestampSet;
+import org.gephi.graph.impl.EdgeStore.EdgeInOutIterator;
+
+/**
+ * Keeps the membership of a time-sliced view in sync with the view's time
+ * interval.
+ * <p>
+ * Nodes and edges are in the view when their time set overlaps the interval.
+ * Elements without a time set are considered static and are always in the view.
+ * Edges also need both their nodes to be in the view.
+ * <p>
+ * When the interval moves, only the elements indexed at the timestamps or
+ * intervals entering or leaving the window are visited, using the main time
+ * indexes. Membership changes go through the regular view methods so counts,
+ * indexes and observers follow, and are therefore made under the graph write
+ * lock.
+ */
+public class ViewTimeSlice {
+
+    protected final GraphViewImpl view;
+
+    public ViewTimeSlice(GraphViewImpl view) {
+        this.view = view;
+    }
+
+    /**
+     * Recomputes the membership of all nodes and edges.
+     */
+    public void refresh() {
+        GraphStore graphStore = view.graphStore;
+        for (NodeStore.NodeStoreIterator itr = graphStore.nodeStore.iterator(); itr.hasNext();) {
+            updateNode((NodeImpl) itr.next(), false);
+        }
+        for (EdgeStore.EdgeStoreIterator itr = graphStore.edgeStore.iterator(); itr.hasNext();) {
+            updateEdge((EdgeImpl) itr.next());
+        }
+    }
+
+    /**
+     * Updates the membership after the view's interval moved.
+     *
+     * @param oldInterval previous interval
+     */
+    public void move(Interval oldInterval) {
+        TimeStore timeStore = view.graphStore.timeStore;
+        TimeIndexStore nodeIndexStore = timeStore.nodeIndexStore;
+        TimeIndexStore edgeIndexStore = timeStore.edgeIndexStore;
+        if (!nodeIndexStore.hasIndex() || !edgeIndexStore.hasIndex()) {
+            refresh();
+            return;
+        }
+
+        // Nodes first so edges see the new node membership
+        Interval interval = view.interval;
+        for (Object node : nodeIndexStore.getElementsInDifference(oldInterval, interval)) {
+            updateNode((NodeImpl) node, true);
+        }
+        for (Object edge : edgeIndexStore.getElementsInDifference(oldInterval, interval)) {
+            updateEdge((EdgeImpl) edge);
+        }
+    }
+
+    /**
+     * Updates the membership of the given element, for instance after its time set
+     * changed or it has been added to the graph.
+     *
+     * @param element element to update
+     */
+    public void update(Element element) {
+        if (element instanceof NodeImpl) {
+            updateNode((NodeImpl) element, true);
+        } else {
+            updateEdge((EdgeImpl) element);
+        }
+    }
+
+    private void updateNode(NodeImpl node, boolean withEdges) {
+        boolean inView = isInInterval(node);
+        if (inView != view.containsNode(node)) {
+            if (inView) {
+                view.addNode(node);
+                if (withEdges) {
+                    EdgeInOutIterator itr = view.graphStore.edgeStore.edgeIterator(node);
+                    while (itr.hasNext()) {
+                        updateEdge(itr.next());
+                    }
+                }
+            } else {
+                view.removeNode(node);
+            }
+        }
+    }
+
+    private void updateEdge(EdgeImpl edge) {
+        boolean inView = view.containsNode(edge.source) && view.containsNode(edge.target) && isInInterval(edge);
+        if (inView != view.containsEdge(edge)) {
+            if (inView) {
+                view.addEdge(edge);
+            } else {
+                view.removeEdge(edge);
+            }
+        }
+    }
+
+    private boolean isInInterval(ElementImpl element) {
+        Interval interval = view.interval;
+        synchronized (element.attributes) {
+            TimeSet timeSet = element.attributes.getTimeSet();
+            if (timeSet == null || timeSet.isEmpty()) {
+                return true;
+            }
+            if (timeSet instanceof TimestampSet) {
+                for (double timestamp : ((TimestampSet) timeSet).toPrimitiveArray()) {
+                    if (timestamp >= interval.getLow() && timestamp <= interval.getHigh()) {
+                        return true;
+                    }
+                }
+            } else if (timeSet instanceof IntervalSet) {
+                double[] intervals = ((IntervalSet) timeSet).getIntervals();
+                for (int i = 0; i < intervals.length; i += 2) {
+                    if (intervals[i] <= interval.getHigh() && intervals[i + 1] >= interval.getLow()) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+    }
+}
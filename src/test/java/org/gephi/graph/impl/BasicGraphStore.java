@@ -35,7 +35,9 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.gephi.graph.api.Column;
 import org.gephi.graph.api.ColumnIterable;
 import org.gephi.graph.api.DirectedGraph;
@@ -92,6 +94,26 @@ public class BasicGraphStore implements DirectedGraph {
         return new NodeIterableWrapper(edgeStore.successors((BasicNode) node, type));
     }
 
+    @Override
+    public void forEachPredecessor(Node node, IntConsumer consumer) {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+
+    @Override
+    public void forEachPredecessor(Node node, int type, IntConsumer consumer) {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+
+    @Override
+    public void forEachSuccessor(Node node, IntConsumer consumer) {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+
+    @Override
+    public void forEachSuccessor(Node node, int type, IntConsumer consumer) {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+
     @Override
     public EdgeIterable getInEdges(Node node) {
         return new EdgeIterableWrapper(edgeStore.inIterator((BasicNode) node));
@@ -229,6 +251,16 @@ public class BasicGraphStore implements DirectedGraph {
                 new NeighborsUndirectedIterator((BasicNode) node, edgeStore.inOutIterator((BasicNode) node, type)));
     }
 
+    @Override
+    public void forEachNeighbor(Node node, IntConsumer consumer) {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+
+    @Override
+    public void forEachNeighbor(Node node, int type, IntConsumer consumer) {
+        throw new UnsupportedOperationException("Not supported yet.");
+    }
+
     @Override
     public EdgeIterable getEdges(Node node) {
         return new EdgeIterableWrapper(edgeStore.inOutIterator((BasicNode) node));
@@ -505,6 +537,56 @@ public class BasicGraphStore implements DirectedGraph {
             return properties.values().toArray();
         }
 
+        @Override
+        public double getDouble(Column column) {
+            throw new UnsupportedOperationException("Not supported yet.");
+        }
+
+        @Override
+        public void setDouble(Column column, double value) {
+            throw new UnsupportedOperationException("Not supported yet.");
+        }
+
+        @Override
+        public float getFloat(Column column) {
+            throw new UnsupportedOperationException("Not supported yet.");
+        }
+
+        @Override
+        public void setFloat(Column column, float value) {
+            throw new UnsupportedOperationException("Not supported yet.");
+        }
+
+        @Override
+        public int getInt(Column column) {
+            throw new UnsupportedOperationException("Not supported yet.");
+        }
+
+        @Override
+        public void setInt(Column column, int value) {
+            throw new UnsupportedOperationException("Not supported yet.");
+        }
+
+        @Override
+        public long getLong(Column column) {
+            throw new UnsupportedOperationException("Not supported yet.");
+        }
+
+        @Override
+        public void setLong(Column column, long value) {
+            throw new UnsupportedOperationException("Not supported yet.");
+        }
+
+        @Override
+        public boolean getBoolean(Column column) {
+            throw new UnsupportedOperationException("Not supported yet.");
+        }
+
+        @Override
+        public void setBoolean(Column column, boolean value) {
+            throw new UnsupportedOperationException("Not supported yet.");
+        }
+
         @Override
         public Set<String> getAttributeKeys() {
             return properties.keySet();
@@ -1202,6 +1284,11 @@ public class BasicGraphStore implements DirectedGraph {
             return idToNodeMap.equals(obj);
         }
 
+        @Override
+        public Stream<Node> parallelStream() {
+            return Collection.super.parallelStream();
+        }
+
         @Override
         public void doBreak() {
         }
@@ -1625,6 +1712,11 @@ public class BasicGraphStore implements DirectedGraph {
             return set;
         }
 
+        @Override
+        public Stream<Node> parallelStream() {
+            return toCollection().parallelStream();
+        }
+
         @Override
         public void doBreak() {
             // Not used because no locking
@@ -1671,6 +1763,11 @@ public class BasicGraphStore implements DirectedGraph {
             return set;
         }
 
+        @Override
+        public Stream<Edge> parallelStream() {
+            return toCollection().parallelStream();
+        }
+
         @Override
         public void doBreak() {
             // Not used because no locking
@@ -15,9 +15,11 @@
  */
 package org.gephi.graph.impl;
 
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Map;
 import org.gephi.graph.api.Column;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.Element;
@@ -185,6 +187,73 @@ public class ColumnNoIndexTest {
         fooIndex.getMinValue();
     }
 
+    @Test
+    public void testStatistics() {
+        addNodeWithAttribute(graphStore, ageIndex.getColumn(), "1", 12);
+        addNodeWithAttribute(graphStore, ageIndex.getColumn(), "2", null);
+        addNodeWithAttribute(graphStore, ageIndex.getColumn(), "3", 6);
+        addNodeWithAttribute(graphStore, ageIndex.getColumn(), "4", 12);
+
+        Map<Integer, Integer> top = ageIndex.getTopValues(1);
+        Assert.assertEquals(top.size(), 1);
+        Assert.assertEquals(top.get(12), Integer.valueOf(2));
+        Assert.assertEquals(ageIndex.getQuantile(0.3), 6);
+        Assert.assertEquals(ageIndex.getQuantile(0.5), 12);
+        Assert.assertEquals(ageIndex.getHistogram(2), new int[] { 1, 2 });
+    }
+
+    @Test
+    public void testStatisticsEmpty() {
+        Assert.assertTrue(ageIndex.getTopValues(5).isEmpty());
+        Assert.assertNull(ageIndex.getQuantile(0.5));
+        Assert.assertEquals(ageIndex.getHistogram(2), new int[] { 0, 0 });
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testQuantileNotSortable() {
+        fooIndex.getQuantile(0.5);
+    }
+
+    @Test
+    public void testRange() {
+        Node n1 = addNodeWithAttribute(graphStore, ageIndex.getColumn(), "1", 12);
+        addNodeWithAttribute(graphStore, ageIndex.getColumn(), "2", null);
+        Node n3 = addNodeWithAttribute(graphStore, ageIndex.getColumn(), "3", 6);
+        Node n4 = addNodeWithAttribute(graphStore, ageIndex.getColumn(), "4", 20);
+
+        Assert.assertEquals(ageIndex.count(6, true, 12, true), 2);
+        Assert.assertEquals(ageIndex.count(6, false, 12, true), 1);
+        Assert.assertEquals(ageIndex.count(null, true, null, true), 3);
+
+        ArrayList<Node> res = new ArrayList<>();
+        ageIndex.get(6, true, null, false).forEach(res::add);
+        Assert.assertEquals(res, Arrays.asList(n3, n1, n4));
+
+        res.clear();
+        ageIndex.get(null, false, 20, false).forEach(res::add);
+        Assert.assertEquals(res, Arrays.asList(n3, n1));
+    }
+
+    @Test
+    public void testGetSorted() {
+        Node n1 = addNodeWithAttribute(graphStore, ageIndex.getColumn(), "1", 12);
+        addNodeWithAttribute(graphStore, ageIndex.getColumn(), "2", null);
+        Node n3 = addNodeWithAttribute(graphStore, ageIndex.getColumn(), "3", 6);
+
+        ArrayList<Node> res = new ArrayList<>();
+        ageIndex.getSorted(true).forEach(res::add);
+        Assert.assertEquals(res, Arrays.asList(n3, n1));
+
+        res.clear();
+        ageIndex.getSorted(false).forEach(res::add);
+        Assert.assertEquals(res, Arrays.asList(n1, n3));
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testRangeNotSortable() {
+        fooIndex.get("a", true, "b", true);
+    }
+
     @Test
     public void testDynamicAttribute() {
         TimestampIntegerMap t = new TimestampIntegerMap();
@@ -215,6 +284,51 @@ public class ColumnNoIndexTest {
         Assert.assertEquals(priceIndex.getMaxValue(), 125.0);
     }
 
+    @Test
+    public void testGetByPrefix() {
+        Node n1 = addNodeWithAttribute(graphStore, fooIndex.column, "1", "Paris");
+        Node n2 = addNodeWithAttribute(graphStore, fooIndex.column, "2", "parma");
+        addNodeWithAttribute(graphStore, fooIndex.column, "3", "Lyon");
+        addNodeWithAttribute(graphStore, fooIndex.column, "4", null);
+
+        Assert.assertEquals(new ObjectOpenHashSet<>(fooIndex.getByPrefix("PAR").iterator()), new ObjectOpenHashSet<>(
+                new Node[] { n1, n2 }));
+        Assert.assertFalse(fooIndex.getByPrefix("x").iterator().hasNext());
+    }
+
+    @Test
+    public void testGetBySubstring() {
+        Node n1 = addNodeWithAttribute(graphStore, fooIndex.column, "1", "Paris");
+        addNodeWithAttribute(graphStore, fooIndex.column, "2", "Lyon");
+
+        Assert.assertSame(fooIndex.getBySubstring("RI").iterator().next(), n1);
+        Assert.assertFalse(fooIndex.getBySubstring("ris!").iterator().hasNext());
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testGetByPrefixNotString() {
+        ageIndex.getByPrefix("1");
+    }
+
+    @Test
+    public void testGetContaining() {
+        ColumnNoIndexImpl<String[], Node> tagsIndex = createIndex(graphStore, "tags");
+        Node n1 = addNodeWithAttribute(graphStore, tagsIndex.column, "1", new String[] { "a", "b" });
+        Node n2 = addNodeWithAttribute(graphStore, tagsIndex.column, "2", new String[] { "b", "c" });
+        addNodeWithAttribute(graphStore, tagsIndex.column, "3", null);
+
+        Assert.assertEquals(new ObjectOpenHashSet<>(tagsIndex.getContainingAny(Arrays.asList("a", "c"))
+                .iterator()), new ObjectOpenHashSet<>(new Node[] { n1, n2 }));
+        Assert.assertSame(tagsIndex.getContainingAll(Arrays.asList("a", "b")).iterator().next(), n1);
+        Assert.assertEquals(tagsIndex.countContainingAny(Arrays.asList("b")), 2);
+        Assert.assertEquals(tagsIndex.countContainingAll(Arrays.asList("a", "c")), 0);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testGetContainingNotArray() {
+        ageIndex.getContainingAny(Arrays.asList(1));
+    }
+
     @Test
     public void testVersion() {
         int version = fooIndex.getVersion();
@@ -246,6 +360,7 @@ public class ColumnNoIndexTest {
         columnStore.addColumn(new ColumnImpl("age", Integer.class, "Age", null, Origin.DATA, true, false));
         columnStore
                 .addColumn(new ColumnImpl("price", TimestampIntegerMap.class, "Price", null, Origin.DATA, true, false));
+        columnStore.addColumn(new ColumnImpl("tags", String[].class, "Tags", null, Origin.DATA, false, false));
 
         return graphStore;
     }
@@ -281,4 +281,21 @@ public class ColumnObserverTest {
         Assert.assertNotNull(diff);
         Assert.assertTrue(diff.getTouchedElements().toCollection().isEmpty());
     }
+
+    @Test
+    public void testCompact() {
+        GraphStore store = GraphGenerator.generateSmallGraphStore();
+        Column column = store.nodeTable.addColumn("0", Integer.class);
+        ColumnObserver observer = column.createColumnObserver(true);
+
+        Node[] nodes = store.getNodes().toArray();
+        Node last = nodes[nodes.length - 1];
+        last.setAttribute(column, 1);
+        store.removeNode(nodes[0]);
+        store.graphModel.compact();
+
+        Assert.assertEquals(last.getStoreId(), 0);
+        Assert.assertTrue(observer.hasColumnChanged());
+        Assert.assertEquals(observer.getDiff().getTouchedElements().toArray(), new Element[] { last });
+    }
 }
@@ -23,12 +23,14 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.Set;
 import org.gephi.graph.api.Column;
+import org.gephi.graph.api.Configuration;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.Origin;
 import org.testng.Assert;
@@ -588,7 +590,639 @@ public class ColumnStandardIndexTest {
         Assert.assertTrue(index.getColumnIndex(column).getVersion() > version);
     }
 
+    @Test
+    public void testRange() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        NodeImpl[] nodes = generateNodesWithUniqueAttributes(index, true);
+        putAll(nodes, index);
+
+        Column ageCol = index.columnStore.getColumn("age");
+        Object[][] ranges = new Object[][] { { 20, true, 40, true }, { 20, false, 40, false }, { null, true, 10, false }, { 90, false, null, true }, { null, true, null, true }, { 40, true, 20, true }, { 50, true, 50, true } };
+        for (Object[] r : ranges) {
+            Integer low = (Integer) r[0];
+            boolean lowInclusive = (Boolean) r[1];
+            Integer high = (Integer) r[2];
+            boolean highInclusive = (Boolean) r[3];
+
+            List<Node> expected = new ArrayList<>();
+            for (NodeImpl n : nodes) {
+                Integer v = (Integer) n.getAttribute(ageCol);
+                if (v != null && (low == null || v > low || (lowInclusive && v
+                        .equals(low))) && (high == null || v < high || (highInclusive && v.equals(high)))) {
+                    expected.add(n);
+                }
+            }
+            Node[] actual = getIterable(index.get(ageCol, low, lowInclusive, high, highInclusive));
+            Assert.assertEqualsNoOrder(actual, expected.toArray(new Node[0]));
+            Assert.assertEquals(index.count(ageCol, low, lowInclusive, high, highInclusive), expected.size());
+            assertSorted(actual, ageCol, true);
+        }
+    }
+
+    @Test
+    public void testRangeBigInteger() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        NodeImpl[] nodes = generateNodesWithUniqueAttributes(index, false);
+        putAll(nodes, index);
+
+        Column bigIntCol = index.columnStore.getColumn("big_int");
+        Node[] actual = getIterable(index.get(bigIntCol, BigInteger.valueOf(10), true, BigInteger.valueOf(20), false));
+        Assert.assertEquals(actual.length, 10);
+        Assert.assertEquals(actual[0].getAttribute(bigIntCol), BigInteger.valueOf(10));
+        Assert.assertEquals(index.count(bigIntCol, BigInteger.valueOf(10), true, BigInteger.valueOf(20), false), 10);
+    }
+
+    @Test
+    public void testRangeEmpty() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        Column ageCol = index.columnStore.getColumn("age");
+
+        Assert.assertEquals(index.count(ageCol, 0, true, 10, true), 0);
+        Assert.assertEquals(getIterable(index.get(ageCol, 0, true, 10, true)).length, 0);
+        Assert.assertEquals(getIterable(index.getSorted(ageCol, false)).length, 0);
+    }
+
+    @Test
+    public void testGetSorted() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        NodeImpl[] nodes = generateNodesWithUniqueAttributes(index, true);
+        putAll(nodes, index);
+        NodeImpl n = new NodeImpl(100);
+        n.setAttribute(index.columnStore.getColumn("age"), 50);
+        index.put(index.columnStore.getColumn("age"), 50, n);
+
+        Column ageCol = index.columnStore.getColumn("age");
+        int count = index.countElements(ageCol) - index.count(ageCol, null);
+
+        Node[] ascending = getIterable(index.getSorted(ageCol, true));
+        Assert.assertEquals(ascending.length, count);
+        assertSorted(ascending, ageCol, true);
+
+        Node[] descending = getIterable(index.getSorted(ageCol, false));
+        Assert.assertEquals(descending.length, count);
+        assertSorted(descending, ageCol, false);
+        Assert.assertEquals(descending[0].getAttribute(ageCol), index.getMaxValue(ageCol));
+    }
+
+    @Test
+    public void testRangeReleasesLock() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        putAll(generateNodesWithUniqueAttributes(index, false), index);
+
+        Column ageCol = index.columnStore.getColumn("age");
+        ColumnStandardIndexImpl columnIndex = (ColumnStandardIndexImpl) index.getColumnIndex(ageCol);
+        getIterable(index.get(ageCol, 10, true, 20, true));
+        getIterable(index.getSorted(ageCol, false));
+        index.count(ageCol, 10, true, 20, true);
+        if (columnIndex.lock != null) {
+            Assert.assertEquals(columnIndex.lock.getHoldCount(), 0);
+        }
+    }
+
+    @Test
+    public void testGetReleasesLock() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        putAll(generateNodesWithUniqueAttributes(index, false), index);
+
+        Column ageCol = index.columnStore.getColumn("age");
+        ColumnStandardIndexImpl columnIndex = (ColumnStandardIndexImpl) index.getColumnIndex(ageCol);
+        Iterator<Node> itr = index.get(ageCol, 10).iterator();
+        Iterator<Node> rangeItr = index.get(ageCol, 10, true, 20, true).iterator();
+        Assert.assertTrue(itr.hasNext());
+        Assert.assertTrue(rangeItr.hasNext());
+        if (columnIndex.lock != null) {
+            Assert.assertEquals(columnIndex.lock.getHoldCount(), 0);
+        }
+    }
+
+    @Test
+    public void testGetSnapshot() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        Column ageCol = index.columnStore.getColumn("age");
+        NodeImpl n1 = new NodeImpl(1);
+        n1.setAttribute(ageCol, 10);
+        index.put(ageCol, 10, n1);
+
+        Iterable<Node> before = index.get(ageCol, 10);
+        Iterable<Node> rangeBefore = index.get(ageCol, 0, true, 20, true);
+        NodeImpl n2 = new NodeImpl(2);
+        n2.setAttribute(ageCol, 10);
+        index.put(ageCol, 10, n2);
+
+        Assert.assertEquals(getIterable(before), new Node[] { n1 });
+        Assert.assertEquals(getIterable(rangeBefore), new Node[] { n1 });
+        Assert.assertEquals(getIterableSet(index.get(ageCol, 10)), new ObjectOpenHashSet<>(new Node[] { n1, n2 }));
+
+        index.remove(ageCol, 10, n1);
+        Assert.assertEquals(getIterable(index.get(ageCol, 10)), new Node[] { n2 });
+        Assert.assertEquals(getIterableSet(before), new ObjectOpenHashSet<>(new Node[] { n1 }));
+    }
+
+    @Test
+    public void testSnapshotReused() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        Column ageCol = index.columnStore.getColumn("age");
+        NodeImpl n1 = new NodeImpl(1);
+        n1.setAttribute(ageCol, 10);
+        index.put(ageCol, 10, n1);
+        ColumnStandardIndexImpl<Integer, Node> columnIndex = (ColumnStandardIndexImpl) index.getColumnIndex(ageCol);
+        index.get(ageCol, 10);
+        Object[] snapshot = columnIndex.getValueSet(10).getSnapshot();
+
+        NodeImpl n2 = new NodeImpl(2);
+        n2.setAttribute(ageCol, 20);
+        index.put(ageCol, 20, n2);
+        Assert.assertSame(columnIndex.getValueSet(10).getSnapshot(), snapshot);
+
+        NodeImpl n3 = new NodeImpl(3);
+        n3.setAttribute(ageCol, 10);
+        index.put(ageCol, 10, n3);
+        Assert.assertNotSame(columnIndex.getValueSet(10).getSnapshot(), snapshot);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testRangeNotSortable() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        index.get(index.columnStore.getColumn("foo"), "a", true, "b", true);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testGetSortedNotSortable() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        index.getSorted(index.columnStore.getColumn("foo"), true);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testRangeWrongBoundType() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        index.count(index.columnStore.getColumn("age"), 1.0, true, 2.0, true);
+    }
+
+    @Test
+    public void testBitmap() {
+        GraphStore graphStore = generateBitmapGraphStore(100);
+        Column column = graphStore.nodeTable.getColumn("cat");
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        ColumnStandardIndexImpl columnIndex = (ColumnStandardIndexImpl) index.getColumnIndex(column);
+
+        Assert.assertTrue(columnIndex.isBitmap());
+        Assert.assertEquals(index.countValues(column), 5);
+        Assert.assertEquals(index.countElements(column), 100);
+        Assert.assertEquals(index.count(column, 3), 20);
+        for (Node n : index.get(column, 3)) {
+            Assert.assertEquals(n.getAttribute(column), 3);
+        }
+        Assert.assertEquals(getIterable(index.get(column, 3)).length, 20);
+
+        Node node = graphStore.getNode("3");
+        graphStore.removeNode(node);
+        Assert.assertEquals(index.count(column, 3), 19);
+        Assert.assertFalse(getIterableSet(index.get(column, 3)).contains(node));
+
+        Node other = graphStore.getNode("8");
+        other.setAttribute(column, 4);
+        Assert.assertEquals(index.count(column, 3), 18);
+        Assert.assertEquals(index.count(column, 4), 21);
+        Assert.assertTrue(getIterableSet(index.get(column, 4)).contains(other));
+    }
+
+    @Test
+    public void testBitmapNull() {
+        GraphStore graphStore = generateBitmapGraphStore(10);
+        Column column = graphStore.nodeTable.getColumn("cat");
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+
+        graphStore.getNode("0").setAttribute(column, null);
+        Assert.assertEquals(index.count(column, null), 1);
+        Assert.assertSame(index.get(column, null).iterator().next(), graphStore.getNode("0"));
+    }
+
+    @Test
+    public void testGetBitmap() {
+        GraphStore graphStore = generateBitmapGraphStore(100);
+        Column column = graphStore.nodeTable.getColumn("cat");
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+
+        IdBitmap bitmap = index.getBitmap(column, 2);
+        Assert.assertEquals(bitmap.getCardinality(), 20);
+        for (int id : bitmap.toArray()) {
+            Assert.assertEquals(graphStore.nodeStore.get(id).getAttribute(column), 2);
+        }
+        Assert.assertTrue(index.getBitmap(column, 42).isEmpty());
+
+        IdBitmap range = index.getBitmap(column, 1, true, 3, false);
+        Assert.assertEquals(range, IdBitmap.or(index.getBitmap(column, 1), index.getBitmap(column, 2)));
+        Assert.assertTrue(IdBitmap.and(range, index.getBitmap(column, 3)).isEmpty());
+        Assert.assertEquals(IdBitmap.andNot(range, bitmap), index.getBitmap(column, 1));
+
+        bitmap.clear();
+        Assert.assertEquals(index.count(column, 2), 20);
+    }
+
+    @Test
+    public void testGetBitmapNotEnabled() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        Assert.assertNull(index.getBitmap(index.columnStore.getColumn("age"), 1));
+    }
+
+    @Test
+    public void testBitmapCompact() {
+        GraphStore graphStore = generateBitmapGraphStore(100);
+        Column column = graphStore.nodeTable.getColumn("cat");
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+
+        for (int i = 0; i < 50; i++) {
+            graphStore.removeNode(graphStore.getNode(String.valueOf(i)));
+        }
+        graphStore.graphModel.compact();
+
+        Assert.assertEquals(index.countElements(column), 50);
+        for (int value = 0; value < 5; value++) {
+            Assert.assertEquals(index.count(column, value), 10);
+            for (Node n : index.get(column, value)) {
+                Assert.assertNotNull(n);
+                Assert.assertEquals(n.getAttribute(column), value);
+                Assert.assertTrue(n.getStoreId() < 50);
+            }
+        }
+    }
+
+    @Test
+    public void testBitmapSetConfiguration() {
+        GraphModelImpl graphModel = new GraphModelImpl();
+        Configuration config = new Configuration();
+        config.setIndexBitmaps(true);
+        graphModel.setConfiguration(config);
+
+        Column column = graphModel.getNodeTable().getColumn("label");
+        ColumnIndexImpl columnIndex = graphModel.store.nodeTable.store.indexStore.mainIndex.getIndex(column);
+        Assert.assertTrue(!(columnIndex instanceof ColumnStandardIndexImpl) || ((ColumnStandardIndexImpl) columnIndex)
+                .isBitmap());
+
+        Column cat = graphModel.getNodeTable().addColumn("cat", "Cat", Integer.class, Origin.DATA, null, true);
+        Assert.assertTrue(((ColumnStandardIndexImpl) graphModel.store.nodeTable.store.indexStore.mainIndex
+                .getIndex(cat)).isBitmap());
+    }
+
+    @Test
+    public void testTextIndex() {
+        GraphStore graphStore = generateTextGraphStore("Paris", "parma", "Lyon", "PARIS", null);
+        Column column = graphStore.nodeTable.getColumn("city");
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+
+        Assert.assertTrue(index.getColumnIndex(column) instanceof ColumnStandardIndexImpl.TextStandardIndex);
+        Assert.assertEquals(getIterableSet(index.getByPrefix(column, "par")), getNodes(graphStore, 0, 1, 3));
+        Assert.assertEquals(getIterableSet(index.getByPrefix(column, "PARI")), getNodes(graphStore, 0, 3));
+        Assert.assertEquals(getIterableSet(index.getByPrefix(column, "")), getNodes(graphStore, 0, 1, 2, 3));
+        Assert.assertTrue(getIterableSet(index.getByPrefix(column, "x")).isEmpty());
+        Assert.assertEquals(getIterableSet(index.getBySubstring(column, "ARI")), getNodes(graphStore, 0, 3));
+        Assert.assertEquals(getIterableSet(index.getBySubstring(column, "yo")), getNodes(graphStore, 2));
+        Assert.assertEquals(getIterableSet(index.getBySubstring(column, "arma")), getNodes(graphStore, 1));
+        Assert.assertTrue(getIterableSet(index.getBySubstring(column, "arix")).isEmpty());
+    }
+
+    @Test
+    public void testTextIndexUpdate() {
+        GraphStore graphStore = generateTextGraphStore("Paris", "PARIS", "Lyon");
+        Column column = graphStore.nodeTable.getColumn("city");
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        ColumnStandardIndexImpl.TextStandardIndex textIndex = (ColumnStandardIndexImpl.TextStandardIndex) index
+                .getColumnIndex(column);
+
+        graphStore.getNode("0").setAttribute(column, "Lille");
+        Assert.assertEquals(getIterableSet(index.getBySubstring(column, "aris")), getNodes(graphStore, 1));
+        Assert.assertEquals(getIterableSet(index.getByPrefix(column, "li")), getNodes(graphStore, 0));
+
+        graphStore.removeNode(graphStore.getNode("1"));
+        Assert.assertTrue(getIterableSet(index.getBySubstring(column, "aris")).isEmpty());
+        Assert.assertFalse(textIndex.lowerCaseValues.containsKey("paris"));
+        Assert.assertEquals(textIndex.trigrams.size(), 5);
+
+        graphStore.clear();
+        Assert.assertTrue(textIndex.lowerCaseValues.isEmpty());
+        Assert.assertTrue(textIndex.trigrams.isEmpty());
+    }
+
+    @Test
+    public void testTextIndexLabel() {
+        Configuration config = new Configuration();
+        config.setIndexText(true);
+        GraphModelImpl graphModel = new GraphModelImpl(config);
+        Node node = graphModel.factory().newNode("0");
+        node.setLabel("Alice");
+        graphModel.getGraph().addNode(node);
+
+        Column label = graphModel.defaultColumns().nodeLabel();
+        Assert.assertTrue(label.isIndexed());
+        Assert.assertSame(graphModel.getNodeIndex().getByPrefix(label, "al").iterator().next(), node);
+        Assert.assertSame(graphModel.getNodeIndex().getBySubstring(label, "LIC").iterator().next(), node);
+    }
+
+    @Test
+    public void testTextSetConfiguration() {
+        GraphModelImpl graphModel = new GraphModelImpl();
+        Assert.assertFalse(graphModel.defaultColumns().nodeLabel().isIndexed());
+
+        Configuration config = new Configuration();
+        config.setIndexText(true);
+        graphModel.setConfiguration(config);
+
+        Column label = graphModel.defaultColumns().nodeLabel();
+        Assert.assertTrue(label.isIndexed());
+        Assert.assertEquals(label.getIndex(), GraphStoreConfiguration.ELEMENT_LABEL_INDEX);
+        Assert.assertTrue(graphModel.defaultColumns().edgeLabel().isIndexed());
+        Assert.assertTrue(graphModel.store.nodeTable.store.indexStore.mainIndex
+                .getIndex(label) instanceof ColumnStandardIndexImpl.TextStandardIndex);
+
+        graphModel.setConfiguration(new Configuration());
+        Assert.assertFalse(graphModel.defaultColumns().nodeLabel().isIndexed());
+    }
+
+    @Test
+    public void testPrefixWithoutTextIndex() {
+        GraphModelImpl graphModel = new GraphModelImpl();
+        Column column = graphModel.getNodeTable().addColumn("city", "City", String.class, Origin.DATA, null, true);
+        Node node = graphModel.factory().newNode("0");
+        node.setAttribute(column, "Paris");
+        graphModel.getGraph().addNode(node);
+        IndexImpl<Node> index = graphModel.store.nodeTable.store.indexStore.mainIndex;
+
+        Assert.assertFalse(index.getColumnIndex(column) instanceof ColumnStandardIndexImpl.TextStandardIndex);
+        Assert.assertSame(index.getByPrefix(column, "PA").iterator().next(), node);
+        Assert.assertSame(index.getBySubstring(column, "ri").iterator().next(), node);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testPrefixNotString() {
+        GraphStore graphStore = generateBitmapGraphStore(1);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        index.getByPrefix(graphStore.nodeTable.getColumn("cat"), "1");
+    }
+
+    @Test
+    public void testArrayElementIndex() {
+        GraphStore graphStore = generateArrayGraphStore(true);
+        Column column = graphStore.nodeTable.getColumn("tags");
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+
+        Assert.assertNotNull(((ColumnStandardIndexImpl) index.getColumnIndex(column)).arrayElements);
+        Assert.assertEquals(getIterableSet(index
+                .getContainingAny(column, Arrays.asList("a"))), getNodes(graphStore, 0, 1));
+        Assert.assertEquals(getIterableSet(index
+                .getContainingAny(column, Arrays.asList("a", "d"))), getNodes(graphStore, 0, 1, 3));
+        Assert.assertEquals(getIterableSet(index
+                .getContainingAll(column, Arrays.asList("a", "b"))), getNodes(graphStore, 0, 1));
+        Assert.assertEquals(getIterableSet(index
+                .getContainingAll(column, Arrays.asList("b", "c"))), getNodes(graphStore, 1));
+        Assert.assertTrue(getIterableSet(index.getContainingAll(column, Arrays.asList("a", "x"))).isEmpty());
+        Assert.assertTrue(getIterableSet(index.getContainingAny(column, Arrays.asList("x"))).isEmpty());
+        Assert.assertEquals(getIterableSet(index
+                .getContainingAll(column, Collections.emptyList())), getNodes(graphStore, 0, 1, 2, 3));
+        Assert.assertEquals(index.countContainingAny(column, Arrays.asList("b", "c")), 3);
+        Assert.assertEquals(index.countContainingAll(column, Arrays.asList("a", "b")), 2);
+    }
+
+    @Test
+    public void testArrayElementIndexUpdate() {
+        GraphStore graphStore = generateArrayGraphStore(true);
+        Column column = graphStore.nodeTable.getColumn("tags");
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        ColumnStandardIndexImpl columnIndex = (ColumnStandardIndexImpl) index.getColumnIndex(column);
+
+        graphStore.getNode("0").setAttribute(column, new String[] { "b", "e" });
+        Assert.assertEquals(getIterableSet(index
+                .getContainingAny(column, Arrays.asList("a"))), getNodes(graphStore, 1));
+        Assert.assertEquals(getIterableSet(index
+                .getContainingAny(column, Arrays.asList("e"))), getNodes(graphStore, 0));
+        Assert.assertEquals(index.countContainingAny(column, Arrays.asList("b")), 2);
+
+        graphStore.getNode("3").setAttribute(column, null);
+        Assert.assertFalse(columnIndex.arrayElements.containsKey("d"));
+
+        graphStore.removeNode(graphStore.getNode("1"));
+        Assert.assertFalse(columnIndex.arrayElements.containsKey("a"));
+        Assert.assertEquals(index.countContainingAny(column, Arrays.asList("b")), 1);
+
+        graphStore.clear();
+        Assert.assertTrue(columnIndex.arrayElements.isEmpty());
+    }
+
+    @Test
+    public void testArrayElementIndexBitmaps() {
+        Configuration config = new Configuration();
+        config.setIndexArrayElements(true);
+        config.setIndexBitmaps(true);
+        GraphModelImpl graphModel = new GraphModelImpl(config);
+        Column column = graphModel.getNodeTable().addColumn("values", "Values", int[].class, Origin.DATA, null, true);
+        GraphStore graphStore = graphModel.store;
+        for (int i = 0; i < 10; i++) {
+            Node n = graphStore.factory.newNode(String.valueOf(i));
+            n.setAttribute(column, new int[] { i % 2, i % 3, 10 });
+            graphStore.addNode(n);
+        }
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+
+        Assert.assertTrue(((ColumnStandardIndexImpl) index.getColumnIndex(column)).isBitmap());
+        Assert.assertEquals(index.countContainingAny(column, Arrays.asList(10)), 10);
+        Assert.assertEquals(getIterableSet(index
+                .getContainingAll(column, Arrays.asList(0, 1))), getNodes(graphStore, 3, 4, 9));
+        Assert.assertEquals(index.countContainingAny(column, Arrays.asList(1, 2)), 8);
+    }
+
+    @Test
+    public void testContainingWithoutArrayElementIndex() {
+        GraphStore graphStore = generateArrayGraphStore(false);
+        Column column = graphStore.nodeTable.getColumn("tags");
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+
+        Assert.assertNull(((ColumnStandardIndexImpl) index.getColumnIndex(column)).arrayElements);
+        Assert.assertEquals(getIterableSet(index
+                .getContainingAny(column, Arrays.asList("a", "d"))), getNodes(graphStore, 0, 1, 3));
+        Assert.assertEquals(index.countContainingAll(column, Arrays.asList("b", "c")), 1);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testContainingNotArray() {
+        GraphStore graphStore = generateBitmapGraphStore(1);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        index.getContainingAny(graphStore.nodeTable.getColumn("cat"), Arrays.asList(1));
+    }
+
+    @Test
+    public void testTopValues() {
+        GraphStore graphStore = generateNumberGraphStore(3, 1, 3, 2, 3, 1, null);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Column column = graphStore.nodeTable.getColumn("num");
+
+        Map<Object, Integer> top = index.getTopValues(column, 2);
+        Assert.assertEquals(top.size(), 2);
+        Assert.assertEquals(top.keySet().toArray(), new Object[] { 3, 1 });
+        Assert.assertEquals(top.get(3), Integer.valueOf(3));
+        Assert.assertEquals(top.get(1), Integer.valueOf(2));
+        Assert.assertEquals(index.getTopValues(column, 10).size(), 3);
+        Assert.assertTrue(index.getTopValues(column, 0).isEmpty());
+    }
+
+    @Test
+    public void testQuantile() {
+        GraphStore graphStore = generateNumberGraphStore(7, 1, 10, 3, 5, 2, 9, 4, 8, 6, null);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Column column = graphStore.nodeTable.getColumn("num");
+
+        Assert.assertEquals(index.getQuantile(column, 0), 1);
+        Assert.assertEquals(index.getQuantile(column, 0.5), 5);
+        Assert.assertEquals(index.getQuantile(column, 0.9), 9);
+        Assert.assertEquals(index.getQuantile(column, 0.95), 10);
+        Assert.assertEquals(index.getQuantile(column, 1), 10);
+    }
+
+    @Test
+    public void testQuantileDuplicates() {
+        GraphStore graphStore = generateNumberGraphStore(1, 1, 1, 2);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Column column = graphStore.nodeTable.getColumn("num");
+
+        Assert.assertEquals(index.getQuantile(column, 0.75), 1);
+        Assert.assertEquals(index.getQuantile(column, 0.76), 2);
+    }
+
+    @Test
+    public void testQuantileEmpty() {
+        GraphStore graphStore = generateNumberGraphStore();
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Assert.assertNull(index.getQuantile(graphStore.nodeTable.getColumn("num"), 0.5));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testQuantileInvalid() {
+        GraphStore graphStore = generateNumberGraphStore(1);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        index.getQuantile(graphStore.nodeTable.getColumn("num"), 1.5);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testQuantileNoNumber() {
+        IndexImpl<Node> index = generateEmptyIndex();
+        index.getQuantile(index.columnStore.getColumn("foo"), 0.5);
+    }
+
+    @Test
+    public void testHistogram() {
+        GraphStore graphStore = generateNumberGraphStore(0, 1, 2, 3, 4, 10, 10, null);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Column column = graphStore.nodeTable.getColumn("num");
+
+        Assert.assertEquals(index.getHistogram(column, 2), new int[] { 5, 2 });
+        Assert.assertEquals(index.getHistogram(column, 1), new int[] { 7 });
+        Assert.assertEquals(index.getHistogram(column, 5), new int[] { 2, 2, 1, 0, 2 });
+    }
+
+    @Test
+    public void testHistogramSingleValue() {
+        GraphStore graphStore = generateNumberGraphStore(4, 4);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Assert.assertEquals(index.getHistogram(graphStore.nodeTable.getColumn("num"), 3), new int[] { 2, 0, 0 });
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testHistogramInvalid() {
+        GraphStore graphStore = generateNumberGraphStore(1);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        index.getHistogram(graphStore.nodeTable.getColumn("num"), 0);
+    }
+
+    @Test
+    public void testStatisticsCached() {
+        GraphStore graphStore = generateNumberGraphStore(1, 2, 3);
+        Column column = graphStore.nodeTable.getColumn("num");
+        ColumnStandardIndexImpl<Integer, Node> index = (ColumnStandardIndexImpl<Integer, Node>) graphStore.nodeTable.store.indexStore.mainIndex
+                .getIndex(column);
+
+        ValueStatistics<Integer> statistics = index.getStatistics();
+        Assert.assertSame(index.getStatistics(), statistics);
+        Assert.assertEquals(index.getQuantile(1), 3);
+
+        graphStore.getNode("0").setAttribute(column, 4);
+        Assert.assertNotSame(index.getStatistics(), statistics);
+        Assert.assertEquals(index.getQuantile(1), 4);
+        Assert.assertEquals(index.getTopValues(1).size(), 1);
+    }
+
     // UTILITIES
+    private GraphStore generateNumberGraphStore(Integer... values) {
+        GraphModelImpl graphModel = new GraphModelImpl();
+        Column column = graphModel.getNodeTable().addColumn("num", "Num", Integer.class, Origin.DATA, null, true);
+        GraphStore graphStore = graphModel.store;
+        for (int i = 0; i < values.length; i++) {
+            Node n = graphStore.factory.newNode(String.valueOf(i));
+            n.setAttribute(column, values[i]);
+            graphStore.addNode(n);
+        }
+        return graphStore;
+    }
+
+    private GraphStore generateBitmapGraphStore(int nodeCount) {
+        Configuration config = new Configuration();
+        config.setIndexBitmaps(true);
+        GraphModelImpl graphModel = new GraphModelImpl(config);
+        Column column = graphModel.getNodeTable().addColumn("cat", "Cat", Integer.class, Origin.DATA, null, true);
+        GraphStore graphStore = graphModel.store;
+        for (int i = 0; i < nodeCount; i++) {
+            Node n = graphStore.factory.newNode(String.valueOf(i));
+            n.setAttribute(column, i % 5);
+            graphStore.addNode(n);
+        }
+        return graphStore;
+    }
+
+    private GraphStore generateTextGraphStore(String... values) {
+        Configuration config = new Configuration();
+        config.setIndexText(true);
+        GraphModelImpl graphModel = new GraphModelImpl(config);
+        Column column = graphModel.getNodeTable().addColumn("city", "City", String.class, Origin.DATA, null, true);
+        GraphStore graphStore = graphModel.store;
+        for (int i = 0; i < values.length; i++) {
+            Node n = graphStore.factory.newNode(String.valueOf(i));
+            n.setAttribute(column, values[i]);
+            graphStore.addNode(n);
+        }
+        return graphStore;
+    }
+
+    private GraphStore generateArrayGraphStore(boolean indexArrayElements) {
+        Configuration config = new Configuration();
+        config.setIndexArrayElements(indexArrayElements);
+        GraphModelImpl graphModel = new GraphModelImpl(config);
+        Column column = graphModel.getNodeTable().addColumn("tags", "Tags", String[].class, Origin.DATA, null, true);
+        GraphStore graphStore = graphModel.store;
+        String[][] values = { { "a", "b" }, { "a", "b", "c" }, { "c" }, { "d", "d" }, null };
+        for (int i = 0; i < values.length; i++) {
+            Node n = graphStore.factory.newNode(String.valueOf(i));
+            n.setAttribute(column, values[i]);
+            graphStore.addNode(n);
+        }
+        return graphStore;
+    }
+
+    private Set<Node> getNodes(GraphStore graphStore, int... ids) {
+        Set<Node> nodes = new ObjectOpenHashSet<>();
+        for (int id : ids) {
+            nodes.add(graphStore.getNode(String.valueOf(id)));
+        }
+        return nodes;
+    }
+
+    private Set<Node> getIterableSet(Iterable<Node> itr) {
+        return new ObjectOpenHashSet<>(getIterable(itr));
+    }
+
+    private void assertSorted(Node[] nodes, Column column, boolean ascending) {
+        for (int i = 1; i < nodes.length; i++) {
+            int c = ((Comparable) nodes[i - 1].getAttribute(column)).compareTo(nodes[i].getAttribute(column));
+            Assert.assertTrue(ascending ? c <= 0 : c >= 0);
+        }
+    }
+
     private NodeImpl[] generateNodesWithUniqueAttributes(IndexImpl<Node> index, boolean withNulls) {
         int count = 100;
         Random random = new Random(342);
@@ -31,6 +31,11 @@ public class ConfigurationTest {
         Assert.assertNotNull(c.getEdgeIdType());
         Assert.assertNotNull(c.getEdgeLabelType());
         Assert.assertNotNull(c.getEdgeWeightColumn());
+        Assert.assertFalse(c.getIndexBitmaps());
+        Assert.assertFalse(c.getIndexText());
+        Assert.assertEquals(c.getIndexQueryThreshold(), Integer.valueOf(0));
+        Assert.assertFalse(c.getSharedViewIndexes());
+        Assert.assertFalse(c.getIndexArrayElements());
     }
 
     @Test
@@ -79,6 +84,51 @@ public class ConfigurationTest {
         Assert.assertEquals(c.getEdgeWeightColumn(), Boolean.FALSE);
     }
 
+    @Test
+    public void testSetIndexBitmaps() {
+        Configuration c = new Configuration();
+        c.setIndexBitmaps(Boolean.TRUE);
+        Assert.assertEquals(c.getIndexBitmaps(), Boolean.TRUE);
+        Assert.assertFalse(c.equals(new Configuration()));
+        Assert.assertTrue(c.equals(c.copy()));
+    }
+
+    @Test
+    public void testSetIndexText() {
+        Configuration c = new Configuration();
+        c.setIndexText(Boolean.TRUE);
+        Assert.assertEquals(c.getIndexText(), Boolean.TRUE);
+        Assert.assertFalse(c.equals(new Configuration()));
+        Assert.assertTrue(c.equals(c.copy()));
+    }
+
+    @Test
+    public void testSetIndexQueryThreshold() {
+        Configuration c = new Configuration();
+        c.setIndexQueryThreshold(3);
+        Assert.assertEquals(c.getIndexQueryThreshold(), Integer.valueOf(3));
+        Assert.assertFalse(c.equals(new Configuration()));
+        Assert.assertTrue(c.equals(c.copy()));
+    }
+
+    @Test
+    public void testSetSharedViewIndexes() {
+        Configuration c = new Configuration();
+        c.setSharedViewIndexes(Boolean.TRUE);
+        Assert.assertEquals(c.getSharedViewIndexes(), Boolean.TRUE);
+        Assert.assertFalse(c.equals(new Configuration()));
+        Assert.assertTrue(c.equals(c.copy()));
+    }
+
+    @Test
+    public void testSetIndexArrayElements() {
+        Configuration c = new Configuration();
+        c.setIndexArrayElements(Boolean.TRUE);
+        Assert.assertEquals(c.getIndexArrayElements(), Boolean.TRUE);
+        Assert.assertFalse(c.equals(new Configuration()));
+        Assert.assertTrue(c.equals(c.copy()));
+    }
+
     @Test(expectedExceptions = IllegalArgumentException.class)
     public void testSetNodeIdTypeUnsupported() {
         Configuration c = new Configuration();
@@ -0,0 +1,398 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.ints.Int2IntMap;
+import it.unimi.dsi.fastutil.ints.Int2IntSortedMap;
+import java.util.Arrays;
+import java.util.Iterator;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphView;
+import org.gephi.graph.api.Node;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class DegreeIndexImplTest {
+
+    @Test
+    public void testEmpty() {
+        GraphStore store = GraphGenerator.generateEmptyGraphStore();
+        DegreeIndexImpl index = getIndex(store, store.getModel().defaultColumns().degree());
+        Assert.assertEquals(index.countElements(), 0);
+        Assert.assertEquals(index.countValues(), 0);
+        Assert.assertEquals(index.count(0), 0);
+        Assert.assertFalse(index.get(0).iterator().hasNext());
+        Assert.assertTrue(index.isSortable());
+        Assert.assertSame(index.getColumn(), store.getModel().defaultColumns().degree());
+        Assert.assertNull(index.getMinValue());
+        Assert.assertNull(index.getMaxValue());
+        Assert.assertTrue(index.values().isEmpty());
+        Assert.assertTrue(index.getHistogram().isEmpty());
+    }
+
+    @Test
+    public void testSmallGraph() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        Node node = graphStore.factory.newNode();
+        graphStore.addNode(node);
+
+        DegreeIndexImpl index = getIndex(graphStore, graphStore.getModel().defaultColumns().degree());
+        Assert.assertEquals(index.countElements(), 3);
+        Assert.assertEquals(index.countValues(), 2);
+        Assert.assertEquals(index.count(1), 2);
+        Assert.assertEquals(index.count(0), 1);
+        Assert.assertEquals(index.getMinValue().intValue(), 0);
+        Assert.assertEquals(index.getMaxValue().intValue(), 1);
+        Assert.assertEquals(index.values(), Arrays.asList(0, 1));
+    }
+
+    @Test
+    public void testGetIterator() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+
+        DegreeIndexImpl index = getIndex(graphStore, graphStore.getModel().defaultColumns().degree());
+        Iterator<Node> itr = index.get(1).iterator();
+        Assert.assertTrue(itr.hasNext());
+        Assert.assertEquals(itr.next(), graphStore.getNode("1"));
+        Assert.assertTrue(itr.hasNext());
+        Assert.assertEquals(itr.next(), graphStore.getNode("2"));
+        Assert.assertFalse(itr.hasNext());
+    }
+
+    @Test
+    public void testInOutDegree() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        Edge edge = graphStore.getEdge("0");
+
+        DegreeIndexImpl inIndex = getIndex(graphStore, graphStore.getModel().defaultColumns().inDegree());
+        Assert.assertEquals(inIndex.get(1).iterator().next(), edge.getTarget());
+        Assert.assertEquals(inIndex.get(0).iterator().next(), edge.getSource());
+
+        DegreeIndexImpl outIndex = getIndex(graphStore, graphStore.getModel().defaultColumns().outDegree());
+        Assert.assertEquals(outIndex.get(1).iterator().next(), edge.getSource());
+        Assert.assertEquals(outIndex.get(0).iterator().next(), edge.getTarget());
+    }
+
+    @Test
+    public void testRange() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        DegreeIndexImpl index = getIndex(graphStore, graphStore.getModel().defaultColumns().degree());
+
+        int count = 0;
+        for (Node n : graphStore.getNodes()) {
+            int degree = graphStore.getDegree(n);
+            if (degree >= 2 && degree < 4) {
+                count++;
+            }
+        }
+        Assert.assertEquals(index.count(2, true, 4, false), count);
+        int i = 0;
+        for (Node n : index.get(2, true, 4, false)) {
+            int degree = graphStore.getDegree(n);
+            Assert.assertTrue(degree >= 2 && degree < 4);
+            i++;
+        }
+        Assert.assertEquals(i, count);
+        Assert.assertEquals(index.count(null, true, null, true), graphStore.getNodeCount());
+        Assert.assertEquals(index.getBitmap(2, true, 4, false).getCardinality(), count);
+    }
+
+    @Test
+    public void testSorted() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        DegreeIndexImpl index = getIndex(graphStore, graphStore.getModel().defaultColumns().degree());
+
+        int previous = Integer.MIN_VALUE;
+        int count = 0;
+        for (Node n : index.getSorted(true)) {
+            Assert.assertTrue(graphStore.getDegree(n) >= previous);
+            previous = graphStore.getDegree(n);
+            count++;
+        }
+        Assert.assertEquals(count, graphStore.getNodeCount());
+
+        previous = Integer.MAX_VALUE;
+        count = 0;
+        for (Node n : index.getSorted(false)) {
+            Assert.assertTrue(graphStore.getDegree(n) <= previous);
+            previous = graphStore.getDegree(n);
+            count++;
+        }
+        Assert.assertEquals(count, graphStore.getNodeCount());
+    }
+
+    @Test
+    public void testHistogram() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        DegreeIndexImpl index = getIndex(graphStore, graphStore.getModel().defaultColumns().degree());
+
+        Int2IntSortedMap histogram = index.getHistogram();
+        int total = 0;
+        for (Int2IntMap.Entry entry : histogram.int2IntEntrySet()) {
+            Assert.assertEquals(entry.getIntValue(), index.count(entry.getIntKey()));
+            total += entry.getIntValue();
+        }
+        Assert.assertEquals(total, graphStore.getNodeCount());
+        Assert.assertEquals(histogram.firstIntKey(), index.getMinValue().intValue());
+        Assert.assertEquals(histogram.lastIntKey(), index.getMaxValue().intValue());
+    }
+
+    @Test
+    public void testStatistics() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        DegreeIndexImpl index = getIndex(graphStore, graphStore.getModel().defaultColumns().degree());
+        DegreeNoIndexImpl noIndex = new DegreeNoIndexImpl(graphStore, DegreeNoIndexImpl.DegreeType.DEGREE);
+
+        Assert.assertEquals(index.getTopValues(3), noIndex.getTopValues(3));
+        Assert.assertEquals(index.getQuantile(0), index.getMinValue());
+        Assert.assertEquals(index.getQuantile(0.5), noIndex.getQuantile(0.5));
+        Assert.assertEquals(index.getQuantile(1), index.getMaxValue());
+        Assert.assertEquals(index.getHistogram(4), noIndex.getHistogram(4));
+
+        Node node = graphStore.factory.newNode("isolated");
+        graphStore.addNode(node);
+        Assert.assertEquals(index.getQuantile(0), 0);
+        Assert.assertEquals(index.getHistogram(4), noIndex.getHistogram(4));
+    }
+
+    @Test
+    public void testAddEdge() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        DegreeIndexImpl index = getIndex(graphStore, graphStore.getModel().defaultColumns().degree());
+        Assert.assertEquals(index.count(1), 2);
+
+        Node n1 = graphStore.getNode("1");
+        Node n2 = graphStore.getNode("2");
+        graphStore.addEdge(graphStore.factory.newEdge("1", n2, n1, 0, 1.0, true));
+        Assert.assertTrue(index.store.valid);
+        Assert.assertEquals(index.count(1), 0);
+        Assert.assertEquals(index.count(2), 2);
+        Assert.assertEquals(index.getMaxValue().intValue(), 2);
+        assertIndex(index, graphStore);
+    }
+
+    @Test
+    public void testRemoveEdge() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        DegreeIndexImpl index = getIndex(graphStore, graphStore.getModel().defaultColumns().degree());
+        assertIndex(index, graphStore);
+
+        graphStore.removeEdge(graphStore.getEdges().toArray()[0]);
+        Assert.assertTrue(index.store.valid);
+        assertIndex(index, graphStore);
+    }
+
+    @Test
+    public void testAddRemoveNode() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        DegreeIndexImpl index = getIndex(graphStore, graphStore.getModel().defaultColumns().degree());
+        Assert.assertEquals(index.count(0), 0);
+
+        Node node = graphStore.factory.newNode("3");
+        graphStore.addNode(node);
+        Assert.assertTrue(index.store.valid);
+        Assert.assertEquals(index.count(0), 1);
+        Assert.assertEquals(index.get(0).iterator().next(), node);
+
+        graphStore.removeNode(node);
+        Assert.assertTrue(index.store.valid);
+        Assert.assertEquals(index.count(0), 0);
+
+        graphStore.removeNode(graphStore.getNode("1"));
+        Assert.assertEquals(index.count(0), 1);
+        Assert.assertEquals(index.count(1), 0);
+        Assert.assertEquals(index.countElements(), 1);
+        assertIndex(index, graphStore);
+    }
+
+    @Test
+    public void testSelfLoop() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStoreWithSelfLoop();
+        DegreeIndexImpl index = getIndex(graphStore, graphStore.getModel().defaultColumns().degree());
+        Assert.assertEquals(index.count(2), 1);
+
+        graphStore.removeEdge(graphStore.getEdge("0"));
+        Assert.assertEquals(index.count(2), 0);
+        Assert.assertEquals(index.count(0), 1);
+    }
+
+    @Test
+    public void testRemoveAllEdges() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        DegreeIndexImpl index = getIndex(graphStore, graphStore.getModel().defaultColumns().degree());
+        assertIndex(index, graphStore);
+
+        graphStore.removeAllEdges(graphStore.getEdges().toCollection());
+        Assert.assertEquals(index.countValues(), 1);
+        Assert.assertEquals(index.count(0), graphStore.getNodeCount());
+    }
+
+    @Test
+    public void testVersion() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        DegreeIndexImpl index = getIndex(graphStore, graphStore.getModel().defaultColumns().degree());
+        int version = index.getVersion();
+
+        graphStore.addNode(graphStore.factory.newNode("3"));
+        Assert.assertNotEquals(index.getVersion(), version);
+    }
+
+    @Test
+    public void testView() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphView view = graphStore.viewStore.createView();
+        GraphViewDecorator graph = ((GraphViewImpl) view).directedDecorator;
+        DegreeIndexImpl index = (DegreeIndexImpl) graphStore.getModel().getNodeIndex(view)
+                .getColumnIndex(graphStore.getModel().defaultColumns().degree());
+        Assert.assertEquals(index.countElements(), 0);
+        Assert.assertEquals(index.countValues(), 0);
+
+        int i = 0;
+        for (Node n : graphStore.getNodes().toArray()) {
+            if (i++ % 2 == 0) {
+                graph.addNode(n);
+            }
+        }
+        Assert.assertEquals(index.count(0), graph.getNodeCount());
+
+        for (Edge e : graphStore.getEdges().toArray()) {
+            if (graph.contains(e.getSource()) && graph.contains(e.getTarget())) {
+                graph.addEdge(e);
+            }
+        }
+        int count = 0;
+        for (Node n : graph.getNodes()) {
+            Assert.assertEquals(index.get(graph.getDegree(n)).iterator().hasNext(), true);
+            count += graph.getDegree(n) == 0 ? 1 : 0;
+        }
+        Assert.assertEquals(index.count(0), count);
+        Assert.assertEquals(index.count(null, true, null, true), graph.getNodeCount());
+    }
+
+    @Test
+    public void testViewIncremental() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewImpl view = graphStore.viewStore.createView();
+        GraphViewDecorator graph = view.directedDecorator;
+        DegreeIndexImpl index = (DegreeIndexImpl) graphStore.getModel().getNodeIndex(view)
+                .getColumnIndex(graphStore.getModel().defaultColumns().degree());
+        graph.fill();
+        assertIndex(index, graph);
+
+        Edge edge = graph.getEdges().toArray()[0];
+        graph.removeEdge(edge);
+        assertUpToDate(index, view);
+        assertIndex(index, graph);
+
+        graph.addEdge(edge);
+        assertUpToDate(index, view);
+        assertIndex(index, graph);
+
+        Node node = edge.getSource();
+        graph.removeNode(node);
+        assertUpToDate(index, view);
+        assertIndex(index, graph);
+
+        graph.addNode(node);
+        assertUpToDate(index, view);
+        Assert.assertEquals(index.get(0).iterator().next(), node);
+        assertIndex(index, graph);
+    }
+
+    @Test
+    public void testNodeViewIncremental() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewImpl view = graphStore.viewStore.createView(true, false);
+        GraphViewDecorator graph = view.directedDecorator;
+        DegreeIndexImpl index = (DegreeIndexImpl) graphStore.getModel().getNodeIndex(view)
+                .getColumnIndex(graphStore.getModel().defaultColumns().degree());
+        graph.fill();
+        assertIndex(index, graph);
+
+        Node node = graphStore.getEdges().toArray()[0].getSource();
+        graph.removeNode(node);
+        assertUpToDate(index, view);
+        assertIndex(index, graph);
+
+        // Adds the edges of the node as well
+        graph.addNode(node);
+        assertUpToDate(index, view);
+        assertIndex(index, graph);
+    }
+
+    @Test
+    public void testViewSetOperation() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewImpl view = graphStore.viewStore.createView();
+        GraphViewDecorator graph = view.directedDecorator;
+        DegreeIndexImpl index = (DegreeIndexImpl) graphStore.getModel().getNodeIndex(view)
+                .getColumnIndex(graphStore.getModel().defaultColumns().degree());
+        Assert.assertEquals(index.countElements(), 0);
+
+        graph.fill();
+        Assert.assertEquals(index.countElements(), graphStore.getNodeCount());
+        assertIndex(index, graph);
+
+        graph.clearEdges();
+        Assert.assertEquals(index.count(0), graphStore.getNodeCount());
+    }
+
+    @Test
+    public void testBulkAdd() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        DegreeIndexImpl index = getIndex(graphStore, graphStore.getModel().defaultColumns().degree());
+        assertIndex(index, graphStore);
+
+        Node n1 = graphStore.getNodes().toArray()[0];
+        Node n2 = graphStore.getNodes().toArray()[1];
+        Node n3 = graphStore.factory.newNode("a");
+        graphStore.bulkAdd(Arrays.asList(n3), Arrays.asList(graphStore.factory
+                .newEdge("a", n1, n2, 0, 1.0, true), graphStore.factory.newEdge("b", n2, n3, 0, 1.0, true)));
+        Assert.assertTrue(index.store.valid);
+        Assert.assertEquals(index.store.nodeVersion, graphStore.version.nodeVersion);
+        Assert.assertEquals(index.store.edgeVersion, graphStore.version.edgeVersion);
+        assertIndex(index, graphStore);
+    }
+
+    private void assertUpToDate(DegreeIndexImpl index, GraphViewImpl view) {
+        // Updated in place, without waiting for a rebuild on the next read
+        Assert.assertTrue(index.store.valid);
+        Assert.assertEquals(index.store.nodeVersion, view.version.nodeVersion);
+        Assert.assertEquals(index.store.edgeVersion, view.version.edgeVersion);
+    }
+
+    private void assertIndex(DegreeIndexImpl index, Graph graph) {
+        int total = 0;
+        for (Node n : graph.getNodes()) {
+            int degree = graph.getDegree(n);
+            boolean found = false;
+            for (Node m : index.get(degree)) {
+                found |= m == n;
+            }
+            Assert.assertTrue(found);
+        }
+        for (Integer value : index.values()) {
+            total += index.count(value);
+        }
+        Assert.assertEquals(total, graph.getNodeCount());
+    }
+
+    private DegreeIndexImpl getIndex(GraphStore graphStore, Column column) {
+        return (DegreeIndexImpl) graphStore.getModel().getNodeIndex().getColumnIndex(column);
+    }
+}
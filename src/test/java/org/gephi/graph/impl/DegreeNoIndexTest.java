@@ -93,6 +93,53 @@ public class DegreeNoIndexTest {
         index.get(1).iterator().forEachRemaining(n -> Assert.assertSame(n, edge.getSource()));
     }
 
+    @Test
+    public void testRange() {
+        Graph graph = GraphGenerator.generateTinyGraphStore();
+        Node node = graph.getModel().factory().newNode();
+        graph.addNode(node);
+
+        DegreeNoIndexImpl index = new DegreeNoIndexImpl(graph, DegreeNoIndexImpl.DegreeType.DEGREE);
+        Assert.assertEquals(index.count(0, true, 1, true), 3);
+        Assert.assertEquals(index.count(0, false, null, true), 2);
+        Assert.assertEquals(index.get(null, true, 0, true).iterator().next(), node);
+    }
+
+    @Test
+    public void testStatistics() {
+        Graph graph = GraphGenerator.generateTinyGraphStore();
+        Node node = graph.getModel().factory().newNode();
+        graph.addNode(node);
+
+        DegreeNoIndexImpl index = new DegreeNoIndexImpl(graph, DegreeNoIndexImpl.DegreeType.DEGREE);
+        Assert.assertEquals(index.getTopValues(1), Collections.singletonMap(1, 2));
+        Assert.assertEquals(index.getQuantile(0.2), 0);
+        Assert.assertEquals(index.getQuantile(0.5), 1);
+        Assert.assertEquals(index.getHistogram(2), new int[] { 1, 2 });
+    }
+
+    @Test
+    public void testGetSorted() {
+        Graph graph = GraphGenerator.generateTinyGraphStore();
+        Node node = graph.getModel().factory().newNode();
+        graph.addNode(node);
+
+        DegreeNoIndexImpl index = new DegreeNoIndexImpl(graph, DegreeNoIndexImpl.DegreeType.DEGREE);
+        Assert.assertEquals(index.getSorted(true).iterator().next(), node);
+        Iterator<Node> itr = index.getSorted(false).iterator();
+        itr.next();
+        itr.next();
+        Assert.assertEquals(itr.next(), node);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testGetByPrefix() {
+        Graph graph = GraphGenerator.generateTinyGraphStore();
+
+        DegreeNoIndexImpl index = new DegreeNoIndexImpl(graph, DegreeNoIndexImpl.DegreeType.DEGREE);
+        index.getByPrefix("1");
+    }
+
     @Test
     public void testVersion() {
         Graph graph = GraphGenerator.generateTinyGraphStore();
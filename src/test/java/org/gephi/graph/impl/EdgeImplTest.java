@@ -44,6 +44,65 @@ public class EdgeImplTest {
         Assert.assertEquals(e.getWeight(), 42.0);
     }
 
+    @Test
+    public void testWeightColumnStorage() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        EdgeImpl e = graphStore.getEdge("0");
+        ColumnImpl column = (ColumnImpl) graphStore.defaultColumns.edgeWeight();
+        Assert.assertNotNull(column.values);
+        Assert.assertNull(e.attributes.getAttribute(GraphStoreConfiguration.EDGE_WEIGHT_INDEX));
+
+        e.setWeight(3.0);
+        Assert.assertEquals(column.values.getDouble(e.getStoreId()), 3.0);
+        Assert.assertEquals(e.getAttribute(column), 3.0);
+        Assert.assertEquals(e.getWeight(graphStore.getView()), 3.0);
+    }
+
+    @Test
+    public void testSetWeightIndex() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        Edge e = graphStore.getEdge("0");
+        Column column = graphStore.defaultColumns.edgeWeight();
+        IndexImpl<Edge> index = graphStore.edgeTable.store.indexStore.mainIndex;
+        Assert.assertEquals(index.count(column, 1.0), 1);
+
+        e.setWeight(5.0);
+        Assert.assertEquals(index.count(column, 1.0), 0);
+        Assert.assertEquals(index.count(column, 5.0), 1);
+    }
+
+    @Test
+    public void testSetWeightObserver() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        Edge e = graphStore.getEdge("0");
+        Column column = graphStore.defaultColumns.edgeWeight();
+        ColumnObserverImpl observer = (ColumnObserverImpl) column.createColumnObserver(false);
+        Assert.assertFalse(observer.hasColumnChanged());
+
+        e.setWeight(5.0);
+        Assert.assertTrue(observer.hasColumnChanged());
+    }
+
+    @Test
+    public void testWeightRemovedEdge() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        EdgeImpl e = graphStore.getEdge("0");
+        e.setWeight(5.0);
+        graphStore.removeEdge(e);
+        Assert.assertEquals(e.getWeight(), 5.0);
+
+        graphStore.addEdge(e);
+        Assert.assertEquals(e.getWeight(), 5.0);
+    }
+
+    @Test
+    public void testDynamicWeightColumnStorage() {
+        Configuration config = new Configuration();
+        config.setEdgeWeightType(TimestampDoubleMap.class);
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore(config);
+        Assert.assertNull(((ColumnImpl) graphStore.defaultColumns.edgeWeight()).values);
+    }
+
     @Test
     public void testZeroWeight() {
         GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
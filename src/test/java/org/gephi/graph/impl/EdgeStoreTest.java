@@ -18,6 +18,8 @@ package org.gephi.graph.impl;
 
 import it.unimi.dsi.fastutil.ints.Int2IntMap;
 import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntIterator;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
@@ -35,7 +37,11 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Node;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -363,6 +369,60 @@ public class EdgeStoreTest {
         Assert.assertTrue(edgeStore.containsAll(Arrays.asList(edges)));
     }
 
+    @Test
+    public void testSpliterator() {
+        EdgeStore edgeStore = new EdgeStore();
+        EdgeImpl[] edges = GraphGenerator.generateLargeEdgeList();
+        edgeStore.addAll(Arrays.asList(edges));
+        edgeStore.remove(edges[0]);
+        edgeStore.remove(edges[GraphStoreConfiguration.EDGESTORE_BLOCK_SIZE + 1]);
+
+        Spliterator<Edge> spliterator = edgeStore.spliterator();
+        Assert.assertEquals(spliterator.estimateSize(), edgeStore.size());
+
+        Spliterator<Edge> prefix = spliterator.trySplit();
+        Assert.assertNotNull(prefix);
+        Assert.assertEquals(prefix.estimateSize() + spliterator.estimateSize(), edgeStore.size());
+
+        Set<Edge> set = new HashSet<>();
+        prefix.forEachRemaining(set::add);
+        while (spliterator.tryAdvance(set::add)) {
+        }
+        Assert.assertEquals(set, edgeStore.toSet());
+    }
+
+    @Test
+    public void testSpliteratorSizeAfterAdvance() {
+        EdgeStore edgeStore = new EdgeStore();
+        EdgeImpl[] edges = GraphGenerator.generateLargeEdgeList();
+        edgeStore.addAll(Arrays.asList(edges));
+        edgeStore.remove(edges[1]);
+
+        Spliterator<Edge> spliterator = edgeStore.spliterator();
+        Assert.assertTrue(spliterator.tryAdvance(e -> {
+        }));
+        Assert.assertTrue(spliterator.tryAdvance(e -> {
+        }));
+        Assert.assertEquals(spliterator.estimateSize(), edgeStore.size() - 2);
+
+        Object[] array = StreamSupport.stream(spliterator, true).toArray();
+        Assert.assertEquals(array.length, edgeStore.size() - 2);
+        for (Object edge : array) {
+            Assert.assertNotNull(edge);
+        }
+    }
+
+    @Test
+    public void testParallelStream() {
+        EdgeStore edgeStore = new EdgeStore();
+        EdgeImpl[] edges = GraphGenerator.generateLargeEdgeList();
+        edgeStore.addAll(Arrays.asList(edges));
+
+        Assert.assertEquals(edgeStore.parallelStream().count(), edges.length);
+        Assert.assertEquals(edgeStore.parallelStream().mapToDouble(Edge::getWeight).sum(), edges.length, 0.0);
+        Assert.assertEquals(edgeStore.parallelStream().collect(Collectors.toSet()), edgeStore.toSet());
+    }
+
     @Test
     public void testIterator() {
         EdgeStore edgeStore = new EdgeStore();
@@ -1871,6 +1931,99 @@ public class EdgeStoreTest {
     /*
      * UTILITY METHODS
      */
+    @Test
+    public void testForEachNeighbor() {
+        for (GraphStore graphStore : new GraphStore[] { GraphGenerator
+                .generateSmallMultiTypeGraphStore(), GraphGenerator.generateSmallMixedGraphStore(), GraphGenerator
+                        .generateSmallUndirectedGraphStore(), GraphGenerator.generateTinyGraphStoreWithSelfLoop() }) {
+            EdgeStore edgeStore = graphStore.edgeStore;
+            int typeCount = graphStore.edgeTypeStore.length;
+            for (Node node : graphStore.getNodes()) {
+                Assert.assertEquals(collectOut(edgeStore, node, EdgeStore.ANY_TYPE), toSortedArray(edgeStore
+                        .neighborOutIterator(node)));
+                Assert.assertEquals(collectIn(edgeStore, node, EdgeStore.ANY_TYPE), toSortedArray(edgeStore
+                        .neighborInIterator(node)));
+                Assert.assertEquals(collect(edgeStore, node, EdgeStore.ANY_TYPE), toSortedArray(edgeStore
+                        .neighborIterator(node)));
+                for (int type = 0; type <= typeCount; type++) {
+                    Assert.assertEquals(collectOut(edgeStore, node, type), toSortedArray(edgeStore
+                            .neighborOutIterator(node, type)));
+                    Assert.assertEquals(collectIn(edgeStore, node, type), toSortedArray(edgeStore
+                            .neighborInIterator(node, type)));
+                    Assert.assertEquals(collect(edgeStore, node, type), toSortedArray(edgeStore
+                            .neighborIterator(node, type)));
+                }
+            }
+            Assert.assertEquals(graphStore.lock.getReadHoldCount(), 0);
+        }
+    }
+
+    @Test
+    public void testNeighborCursor() {
+        for (GraphStore graphStore : new GraphStore[] { GraphGenerator
+                .generateSmallMultiTypeGraphStore(), GraphGenerator
+                        .generateSmallMixedGraphStore(), GraphGenerator.generateTinyGraphStoreWithSelfLoop() }) {
+            EdgeStore edgeStore = graphStore.edgeStore;
+            EdgeStore.NeighborCursor outCursor = edgeStore.neighborOutCursor();
+            EdgeStore.NeighborCursor inCursor = edgeStore.neighborInCursor();
+            EdgeStore.NeighborCursor cursor = edgeStore.neighborCursor();
+            for (Node node : graphStore.getNodes().toArray()) {
+                Assert.assertEquals(toSortedArray(outCursor
+                        .reset(node)), collectOut(edgeStore, node, EdgeStore.ANY_TYPE));
+                Assert.assertEquals(toSortedArray(inCursor
+                        .reset(node)), collectIn(edgeStore, node, EdgeStore.ANY_TYPE));
+                Assert.assertEquals(toSortedArray(cursor.reset(node)), collect(edgeStore, node, EdgeStore.ANY_TYPE));
+                Assert.assertEquals(graphStore.lock.getReadHoldCount(), 0);
+            }
+        }
+    }
+
+    @Test
+    public void testNeighborCursorBreak() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        EdgeStore.NeighborCursor cursor = graphStore.edgeStore.neighborCursor();
+        for (Node node : graphStore.getNodes().toArray()) {
+            cursor.reset(node);
+            Assert.assertEquals(graphStore.lock.getReadHoldCount(), 1);
+        }
+        cursor.doBreak();
+        Assert.assertEquals(graphStore.lock.getReadHoldCount(), 0);
+        Assert.assertFalse(cursor.hasNext());
+    }
+
+    @Test
+    public void testNeighborCursorView() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewImpl view = graphStore.viewStore.createView();
+        view.fill();
+        Edge edge = graphStore.getEdges().toArray()[0];
+        view.removeEdge(edge);
+
+        EdgeStore.NeighborCursor cursor = graphStore.edgeStore.neighborOutCursor(EdgeStore.ANY_TYPE, view);
+        IntSet neighbors = new IntOpenHashSet();
+        cursor.reset(edge.getSource()).forEachRemaining((int id) -> neighbors.add(id));
+        Assert.assertFalse(neighbors.contains(edge.getTarget().getStoreId()));
+        Assert.assertEquals(neighbors.size(), graphStore.getOutDegree(edge.getSource()) - 1);
+    }
+
+    @Test
+    public void testEdgeTypeIteratorReset() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Node[] nodes = graphStore.getNodes().toArray();
+        EdgeStore.EdgeTypeOutIterator itr = graphStore.edgeStore.edgeOutIterator(nodes[0], 0);
+        for (Node node : nodes) {
+            itr.reset((NodeImpl) node);
+            int count = 0;
+            while (itr.hasNext()) {
+                itr.next();
+                count++;
+            }
+            Assert.assertFalse(itr.hasNext());
+            Assert.assertEquals(count, graphStore.getOutDegree(node));
+            Assert.assertEquals(graphStore.lock.getReadHoldCount(), 0);
+        }
+    }
+
     private void testContainsOnly(EdgeStore store, List<EdgeImpl> list) {
         for (EdgeImpl n : list) {
             Assert.assertTrue(store.contains(n));
@@ -1947,6 +2100,46 @@ public class EdgeStoreTest {
         return neighbours;
     }
 
+    private int[] collectOut(EdgeStore edgeStore, Node node, int type) {
+        IntArrayList list = new IntArrayList();
+        edgeStore.forEachOutNeighbor(node, type, null, list::add);
+        return sort(list);
+    }
+
+    private int[] collectIn(EdgeStore edgeStore, Node node, int type) {
+        IntArrayList list = new IntArrayList();
+        edgeStore.forEachInNeighbor(node, type, null, list::add);
+        return sort(list);
+    }
+
+    private int[] collect(EdgeStore edgeStore, Node node, int type) {
+        IntArrayList list = new IntArrayList();
+        edgeStore.forEachNeighbor(node, type, null, list::add);
+        return sort(list);
+    }
+
+    private int[] toSortedArray(Iterator<Node> itr) {
+        IntArrayList list = new IntArrayList();
+        while (itr.hasNext()) {
+            list.add(itr.next().getStoreId());
+        }
+        return sort(list);
+    }
+
+    private int[] toSortedArray(IntIterator itr) {
+        IntArrayList list = new IntArrayList();
+        while (itr.hasNext()) {
+            list.add(itr.nextInt());
+        }
+        return sort(list);
+    }
+
+    private int[] sort(IntArrayList list) {
+        int[] array = list.toIntArray();
+        Arrays.sort(array);
+        return array;
+    }
+
     private int[] generateRandomUniqueInts(int count, int bound) {
         Random rand = new Random(123);
         IntSet set = new IntOpenHashSet();
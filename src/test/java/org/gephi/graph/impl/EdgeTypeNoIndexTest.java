@@ -2,6 +2,7 @@ package org.gephi.graph.impl;
 
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.Map;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.Graph;
 import org.testng.Assert;
@@ -29,6 +30,20 @@ public class EdgeTypeNoIndexTest {
         Assert.assertNull(index.getMinValue());
     }
 
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testRangeException() {
+        GraphStore store = new GraphStore();
+        EdgeTypeNoIndexImpl index = new EdgeTypeNoIndexImpl(store);
+        index.get(0, true, 1, true);
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testSubstringException() {
+        GraphStore store = new GraphStore();
+        EdgeTypeNoIndexImpl index = new EdgeTypeNoIndexImpl(store);
+        index.getBySubstring("a");
+    }
+
     @Test(expectedExceptions = UnsupportedOperationException.class)
     public void testMaxValueException() {
         GraphStore store = new GraphStore();
@@ -56,6 +71,29 @@ public class EdgeTypeNoIndexTest {
         Assert.assertEquals(index.count("1"), graph.getEdgeCount(1));
     }
 
+    @Test
+    public void testTopValues() {
+        Graph graph = GraphGenerator.generateSmallMultiTypeGraphStore();
+
+        EdgeTypeNoIndexImpl index = new EdgeTypeNoIndexImpl(graph);
+        Map<Object, Integer> top = index.getTopValues(3);
+        Assert.assertEquals(top.size(), 3);
+        Assert.assertEquals(top.get(null), Integer.valueOf(graph.getEdgeCount(0)));
+        Assert.assertEquals(top.get("1"), Integer.valueOf(graph.getEdgeCount(1)));
+        int previous = Integer.MAX_VALUE;
+        for (int count : top.values()) {
+            Assert.assertTrue(count <= previous);
+            previous = count;
+        }
+    }
+
+    @Test(expectedExceptions = UnsupportedOperationException.class)
+    public void testQuantileException() {
+        GraphStore store = new GraphStore();
+        EdgeTypeNoIndexImpl index = new EdgeTypeNoIndexImpl(store);
+        index.getQuantile(0.5);
+    }
+
     @Test
     public void testValues() {
         Graph graph = GraphGenerator.generateTinyGraphStore();
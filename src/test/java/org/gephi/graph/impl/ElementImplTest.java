@@ -1176,6 +1176,129 @@ public class ElementImplTest {
         }
     }
 
+    @Test
+    public void testPrimitiveColumn() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        Column column = graphStore.nodeTable.addColumn("score", "Score", Double.class, Origin.DATA, null, false);
+        NodeImpl n1 = graphStore.getNode("1");
+
+        Assert.assertNotNull(((ColumnImpl) column).values);
+        Assert.assertNull(n1.getAttribute(column));
+        Assert.assertEquals(n1.getDouble(column), 0.0);
+
+        n1.setDouble(column, 4.5);
+        Assert.assertEquals(n1.getDouble(column), 4.5);
+        Assert.assertEquals(n1.getAttribute(column), 4.5);
+        Assert.assertEquals(n1.getAttributes()[column.getIndex()], 4.5);
+        Assert.assertNull(n1.attributes.getAttribute(column));
+
+        n1.setAttribute(column, 2.0);
+        Assert.assertEquals(n1.getDouble(column), 2.0);
+        n1.removeAttribute(column);
+        Assert.assertNull(n1.getAttribute(column));
+    }
+
+    @Test
+    public void testPrimitiveColumnTypes() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        Column floatColumn = graphStore.nodeTable.addColumn("f", Float.class);
+        Column intColumn = graphStore.nodeTable.addColumn("i", Integer.class);
+        Column longColumn = graphStore.nodeTable.addColumn("l", Long.class);
+        Column booleanColumn = graphStore.nodeTable.addColumn("b", Boolean.class);
+        NodeImpl n1 = graphStore.getNode("1");
+
+        n1.setFloat(floatColumn, 1f);
+        n1.setInt(intColumn, 2);
+        n1.setLong(longColumn, 3l);
+        n1.setBoolean(booleanColumn, true);
+        Assert.assertEquals(n1.getFloat(floatColumn), 1f);
+        Assert.assertEquals(n1.getInt(intColumn), 2);
+        Assert.assertEquals(n1.getLong(longColumn), 3l);
+        Assert.assertTrue(n1.getBoolean(booleanColumn));
+        Assert.assertEquals(n1.getAttribute(intColumn), 2);
+        Assert.assertEquals(n1.getAttribute(longColumn), 3l);
+    }
+
+    @Test
+    public void testPrimitiveColumnIndex() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        Column column = graphStore.nodeTable.addColumn("age", Integer.class);
+        NodeImpl n1 = graphStore.getNode("1");
+
+        n1.setInt(column, 42);
+        Assert.assertEquals(graphStore.nodeTable.store.indexStore.mainIndex.count(column, 42), 1);
+        n1.setInt(column, 43);
+        Assert.assertEquals(graphStore.nodeTable.store.indexStore.mainIndex.count(column, 42), 0);
+        Assert.assertEquals(graphStore.nodeTable.store.indexStore.mainIndex.count(column, 43), 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testPrimitiveColumnWrongType() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        Column column = graphStore.nodeTable.addColumn("age", Integer.class);
+        graphStore.getNode("1").getDouble(column);
+    }
+
+    @Test
+    public void testPrimitiveColumnNotSupported() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        Column column = graphStore.nodeTable.addColumn("name", String.class);
+        Assert.assertNull(((ColumnImpl) column).values);
+        Assert.assertNull(((ColumnImpl) graphStore.nodeTable.getColumn("label")).values);
+    }
+
+    @Test
+    public void testPrimitiveColumnAddRemoveNode() {
+        GraphStore graphStore = new GraphStore();
+        Column column = graphStore.nodeTable.addColumn("score", Double.class);
+        NodeImpl node = new NodeImpl("0", graphStore);
+        node.setDouble(column, 1.5);
+        Assert.assertEquals(node.attributes.getAttribute(column), 1.5);
+
+        graphStore.addNode(node);
+        Assert.assertNull(node.attributes.getAttribute(column));
+        Assert.assertEquals(node.getDouble(column), 1.5);
+
+        graphStore.removeNode(node);
+        Assert.assertEquals(node.attributes.getAttribute(column), 1.5);
+        Assert.assertEquals(node.getDouble(column), 1.5);
+    }
+
+    @Test
+    public void testPrimitiveColumnClear() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        Column column = graphStore.nodeTable.addColumn("score", Double.class);
+        NodeImpl n1 = graphStore.getNode("1");
+        n1.setDouble(column, 1.5);
+
+        graphStore.clear();
+        Assert.assertEquals(n1.getDouble(column), 1.5);
+    }
+
+    @Test
+    public void testPrimitiveColumnCompact() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        Column column = graphStore.nodeTable.addColumn("score", Double.class);
+        NodeImpl n1 = graphStore.getNode("1");
+        NodeImpl n2 = graphStore.getNode("2");
+        n2.setDouble(column, 1.5);
+
+        graphStore.removeNode(n1);
+        graphStore.compact(Integer.MAX_VALUE);
+        Assert.assertEquals(n2.getStoreId(), 0);
+        Assert.assertEquals(n2.getDouble(column), 1.5);
+    }
+
+    @Test
+    public void testPrimitiveColumnEdge() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        Column column = graphStore.edgeTable.addColumn("cost", Float.class);
+        EdgeImpl edge = graphStore.getEdge("0");
+        edge.setFloat(column, 2f);
+        Assert.assertEquals(edge.getFloat(column), 2f);
+        Assert.assertEquals(edge.getAttribute(column), 2f);
+    }
+
     // Utility
     private GraphStore getIntervalGraphStore() {
         Configuration config = new Configuration();
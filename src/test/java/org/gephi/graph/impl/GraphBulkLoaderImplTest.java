@@ -0,0 +1,548 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.GraphBulkLoader;
+import org.gephi.graph.api.Node;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class GraphBulkLoaderImplTest {
+
+    @Test
+    public void testEmptyCommit() {
+        GraphStore graphStore = GraphGenerator.generateEmptyGraphStore();
+        GraphBulkLoader loader = graphStore.graphModel.createBulkLoader();
+        Assert.assertFalse(loader.commit());
+        Assert.assertEquals(graphStore.getNodeCount(), 0);
+    }
+
+    @Test
+    public void testCommit() {
+        GraphStore graphStore = GraphGenerator.generateEmptyGraphStore();
+        Node n1 = graphStore.factory.newNode("1");
+        Node n2 = graphStore.factory.newNode("2");
+        Edge e = graphStore.factory.newEdge("0", n1, n2, 0, 1.0, true);
+
+        GraphBulkLoader loader = graphStore.graphModel.createBulkLoader();
+        loader.addNodes(Arrays.asList(n1, n2)).addEdge(e);
+        Assert.assertEquals(loader.getNodeCount(), 2);
+        Assert.assertEquals(loader.getEdgeCount(), 1);
+        Assert.assertEquals(graphStore.getNodeCount(), 0);
+
+        Assert.assertTrue(loader.commit());
+        Assert.assertEquals(loader.getNodeCount(), 0);
+        Assert.assertEquals(loader.getEdgeCount(), 0);
+        Assert.assertSame(graphStore.getNode("1"), n1);
+        Assert.assertSame(graphStore.getEdge("0"), e);
+        Assert.assertSame(graphStore.getEdge(n1, n2), e);
+        Assert.assertEquals(graphStore.getOutDegree(n1), 1);
+        Assert.assertEquals(graphStore.getInDegree(n2), 1);
+    }
+
+    @Test
+    public void testSameAsSequential() {
+        for (GraphStore source : new GraphStore[] { GraphGenerator.generateSmallGraphStore(), GraphGenerator
+                .generateSmallMixedGraphStore(), GraphGenerator.generateSmallMultiTypeGraphStore(), GraphGenerator
+                        .generateSmallUndirectedGraphStore(), GraphGenerator.generateTinyGraphStoreWithSelfLoop() }) {
+            GraphStore sequential = GraphGenerator.generateEmptyGraphStore();
+            List<Node> nodes = new ArrayList<>();
+            List<Edge> edges = new ArrayList<>();
+            copy(source, sequential, nodes, edges);
+            sequential.addAllNodes(nodes);
+            sequential.addAllEdges(edges);
+
+            GraphStore bulk = GraphGenerator.generateEmptyGraphStore();
+            nodes.clear();
+            edges.clear();
+            copy(source, bulk, nodes, edges);
+            Assert.assertTrue(bulk.graphModel.createBulkLoader().addNodes(nodes).addEdges(edges).commit());
+
+            assertSameStructure(bulk, sequential);
+        }
+    }
+
+    @Test
+    public void testMutual() {
+        GraphStore graphStore = GraphGenerator.generateEmptyGraphStore();
+        Node n1 = graphStore.factory.newNode("1");
+        Node n2 = graphStore.factory.newNode("2");
+        Edge e1 = graphStore.factory.newEdge("1", n1, n2, 0, 1.0, true);
+        Edge e2 = graphStore.factory.newEdge("2", n2, n1, 0, 1.0, true);
+        graphStore.graphModel.createBulkLoader().addNodes(Arrays.asList(n1, n2)).addEdges(Arrays.asList(e1, e2))
+                .commit();
+
+        Assert.assertTrue(((EdgeImpl) e1).isMutual());
+        Assert.assertTrue(((EdgeImpl) e2).isMutual());
+        Assert.assertEquals(graphStore.edgeStore.mutualEdgesSize, 1);
+        Assert.assertEquals(graphStore.undirectedDecorator.getEdgeCount(), 1);
+        Assert.assertEquals(graphStore.undirectedDecorator.getDegree(n1), 1);
+    }
+
+    @Test
+    public void testMutualWithExisting() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        Node n1 = graphStore.getNode("1");
+        Node n2 = graphStore.getNode("2");
+        Edge e = graphStore.factory.newEdge("1", n2, n1, 0, 1.0, true);
+        graphStore.graphModel.createBulkLoader().addEdge(e).commit();
+
+        Assert.assertTrue(((EdgeImpl) e).isMutual());
+        Assert.assertTrue(((EdgeImpl) graphStore.getEdge("0")).isMutual());
+        Assert.assertEquals(graphStore.edgeStore.mutualEdgesSize, 1);
+    }
+
+    @Test
+    public void testVersionIncrementedOnce() {
+        GraphStore graphStore = GraphGenerator.generateEmptyGraphStore();
+        GraphObserverImpl observer = graphStore.createGraphObserver(graphStore, false);
+        int nodeVersion = graphStore.version.nodeVersion;
+        int edgeVersion = graphStore.version.edgeVersion;
+
+        GraphBulkLoader loader = graphStore.graphModel.createBulkLoader();
+        Node[] nodes = GraphGenerator.generateNodeList(100, graphStore);
+        loader.addNodes(Arrays.asList(nodes));
+        for (int i = 1; i < nodes.length; i++) {
+            loader.addEdge(graphStore.factory.newEdge(nodes[i - 1], nodes[i]));
+        }
+        loader.commit();
+
+        Assert.assertEquals(graphStore.version.nodeVersion, nodeVersion + 1);
+        Assert.assertEquals(graphStore.version.edgeVersion, edgeVersion + 1);
+        Assert.assertTrue(observer.hasGraphChanged());
+        Assert.assertFalse(observer.hasGraphChanged());
+    }
+
+    @Test
+    public void testIndex() {
+        GraphStore graphStore = GraphGenerator.generateEmptyGraphStore();
+        Column column = graphStore.nodeTable.addColumn("foo", String.class);
+        GraphBulkLoader loader = graphStore.graphModel.createBulkLoader();
+        for (int i = 0; i < 10; i++) {
+            Node n = graphStore.factory.newNode(String.valueOf(i));
+            n.setAttribute(column, i % 2 == 0 ? "even" : "odd");
+            loader.addNode(n);
+        }
+        loader.commit();
+
+        Assert.assertEquals(graphStore.graphModel.getNodeIndex().count(column, "even"), 5);
+        Assert.assertEquals(graphStore.graphModel.getNodeIndex().count(column, "odd"), 5);
+        Assert.assertEquals(graphStore.graphModel.getEdgeIndex()
+                .countElements(graphStore.edgeTable.getColumn("weight")), 0);
+    }
+
+    @Test
+    public void testGarbage() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Node[] nodes = graphStore.getNodes().toArray();
+        graphStore.removeNode(nodes[0]);
+        graphStore.removeNode(nodes[1]);
+        int maxStoreId = graphStore.nodeStore.maxStoreId();
+
+        Node n1 = graphStore.factory.newNode("foo");
+        Node n2 = graphStore.factory.newNode("bar");
+        graphStore.graphModel.createBulkLoader().addNodes(Arrays.asList(n1, n2)).commit();
+
+        Assert.assertEquals(graphStore.nodeStore.maxStoreId(), maxStoreId);
+        Assert.assertEquals(graphStore.nodeStore.garbageSize, 0);
+        Assert.assertSame(graphStore.getNode("foo"), n1);
+        Assert.assertSame(graphStore.getNode("bar"), n2);
+    }
+
+    @Test
+    public void testNodeView() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        GraphViewImpl view = graphStore.viewStore.createView(true, false);
+        Node n1 = graphStore.getNode("1");
+        Node n2 = graphStore.getNode("2");
+        view.addNode(n1);
+        view.addNode(n2);
+
+        Edge e = graphStore.factory.newEdge("1", n2, n1, 0, 1.0, true);
+        Node n3 = graphStore.factory.newNode("3");
+        graphStore.graphModel.createBulkLoader().addNode(n3).addEdge(e).commit();
+
+        Assert.assertTrue(view.containsEdge((EdgeImpl) e));
+        Assert.assertFalse(view.containsNode((NodeImpl) n3));
+        Assert.assertEquals(view.getEdgeCount(), 2);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testDuplicateNodeId() {
+        GraphStore graphStore = GraphGenerator.generateEmptyGraphStore();
+        graphStore.graphModel.createBulkLoader().addNode(graphStore.factory.newNode("1"))
+                .addNode(graphStore.factory.newNode("1")).commit();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testDuplicateEdgeId() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        Node n1 = graphStore.getNode("1");
+        Node n2 = graphStore.getNode("2");
+        graphStore.graphModel.createBulkLoader().addEdge(graphStore.factory.newEdge("0", n2, n1, 0, 1.0, true))
+                .commit();
+    }
+
+    @Test
+    public void testDuplicateEdgeIdInBatch() {
+        GraphStore graphStore = GraphGenerator.generateEmptyGraphStore();
+        int version = graphStore.getVersion();
+        Node n1 = graphStore.factory.newNode("1");
+        Node n2 = graphStore.factory.newNode("2");
+        GraphBulkLoader loader = graphStore.graphModel.createBulkLoader().addNode(n1).addNode(n2)
+                .addEdge(graphStore.factory.newEdge("e1", n1, n2, 0, 1.0, true))
+                .addEdge(graphStore.factory.newEdge("e1", n2, n1, 0, 1.0, true));
+        assertRejected(graphStore, loader, version);
+        Assert.assertEquals(loader.getNodeCount(), 0);
+        Assert.assertEquals(loader.getEdgeCount(), 0);
+    }
+
+    @Test
+    public void testDirectedConflictInBatch() {
+        GraphStore graphStore = GraphGenerator.generateEmptyGraphStore();
+        int version = graphStore.getVersion();
+        Node n1 = graphStore.factory.newNode("1");
+        Node n2 = graphStore.factory.newNode("2");
+        GraphBulkLoader loader = graphStore.graphModel.createBulkLoader().addNode(n1).addNode(n2)
+                .addEdge(graphStore.factory.newEdge("0", n1, n2, 0, 1.0, true))
+                .addEdge(graphStore.factory.newEdge("1", n2, n1, 0, 1.0, false));
+        assertRejected(graphStore, loader, version);
+    }
+
+    @Test
+    public void testMissingNodeInBatch() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        int version = graphStore.getVersion();
+        Node n3 = graphStore.factory.newNode("3");
+        Node n4 = graphStore.factory.newNode("4");
+        GraphBulkLoader loader = graphStore.graphModel.createBulkLoader().addNode(n3)
+                .addEdge(graphStore.factory.newEdge("1", graphStore.getNode("1"), n3, 0, 1.0, true))
+                .addEdge(graphStore.factory.newEdge("2", n3, n4, 0, 1.0, true));
+        try {
+            loader.commit();
+            Assert.fail();
+        } catch (RuntimeException e) {
+        }
+        Assert.assertEquals(graphStore.getNodeCount(), 2);
+        Assert.assertEquals(graphStore.getEdgeCount(), 1);
+        Assert.assertEquals(graphStore.getVersion(), version);
+        Assert.assertNull(graphStore.getEdge("1"));
+    }
+
+    @Test
+    public void testParallelFailureLeavesGraphUnchanged() {
+        GraphStore graphStore = GraphGenerator.generateEmptyGraphStore();
+        int version = graphStore.getVersion();
+        GraphBulkLoader loader = generateLargeBatch(graphStore, graphStore.graphModel.createBulkLoader()
+                .setParallelism(4));
+        Node n = graphStore.factory.newNode("0");
+        loader.addEdge(graphStore.factory.newEdge("0", n, n, 0, 1.0, true));
+        assertRejected(graphStore, loader, version);
+        Assert.assertTrue(generateLargeBatch(graphStore, loader).commit());
+    }
+
+    @Test
+    public void testAlreadyAdded() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        Node n1 = graphStore.getNode("1");
+        Assert.assertFalse(graphStore.graphModel.createBulkLoader().addNode(n1).commit());
+        Assert.assertEquals(graphStore.getNodeCount(), 2);
+    }
+
+    @Test
+    public void testParallelSameAsSerial() {
+        GraphStore serial = GraphGenerator.generateEmptyGraphStore();
+        generateLargeBatch(serial, serial.graphModel.createBulkLoader()).commit();
+
+        GraphStore parallel = GraphGenerator.generateEmptyGraphStore();
+        GraphBulkLoader loader = parallel.graphModel.createBulkLoader().setParallelism(4);
+        Assert.assertEquals(loader.getParallelism(), 4);
+        Assert.assertTrue(generateLargeBatch(parallel, loader).commit());
+
+        assertSameStructure(parallel, serial);
+        for (Node n : serial.getNodes()) {
+            Node m = parallel.getNode(n.getId());
+            Assert.assertEquals(getEdgeIds(parallel.getOutEdges(m).toCollection()), getEdgeIds(serial.getOutEdges(n)
+                    .toCollection()));
+            Assert.assertEquals(getEdgeIds(parallel.getInEdges(m).toCollection()), getEdgeIds(serial.getInEdges(n)
+                    .toCollection()));
+        }
+        for (Edge e : serial.getEdges()) {
+            Node source = parallel.getNode(e.getSource().getId());
+            Node target = parallel.getNode(e.getTarget().getId());
+            Assert.assertEquals(getEdgeIds(parallel.getEdges(source, target, e.getType())
+                    .toCollection()), getEdgeIds(serial.getEdges(e.getSource(), e.getTarget(), e.getType())
+                            .toCollection()));
+        }
+    }
+
+    @Test
+    public void testParallelReadLockAfterCommit() {
+        GraphStore graphStore = GraphGenerator.generateEmptyGraphStore();
+        generateLargeBatch(graphStore, graphStore.graphModel.createBulkLoader().setParallelism(2)).commit();
+        Assert.assertEquals(graphStore.lock.getReadHoldCount(), 0);
+        Assert.assertFalse(graphStore.lock.writeLock.isHeldByCurrentThread());
+    }
+
+    @Test
+    public void testDefaultParallelism() {
+        GraphStore graphStore = GraphGenerator.generateEmptyGraphStore();
+        Assert.assertEquals(graphStore.graphModel.createBulkLoader().getParallelism(), 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidParallelism() {
+        GraphStore graphStore = GraphGenerator.generateEmptyGraphStore();
+        graphStore.graphModel.createBulkLoader().setParallelism(0);
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testNullNode() {
+        GraphStore graphStore = GraphGenerator.generateEmptyGraphStore();
+        graphStore.graphModel.createBulkLoader().addNode(null);
+    }
+
+    @Test
+    public void testConcurrentCommits() throws Exception {
+        GraphStore graphStore = generateStoredNodes();
+        GraphStore serial = generateStoredNodes();
+        int nodeVersion = graphStore.version.nodeVersion;
+        int edgeVersion = graphStore.version.edgeVersion;
+
+        int batchCount = 4;
+        List<GraphBulkLoader> loaders = new ArrayList<>();
+        for (int i = 0; i < batchCount; i++) {
+            loaders.add(generateConcurrentBatch(graphStore, String.valueOf(i)));
+            generateConcurrentBatch(serial, String.valueOf(i)).commit();
+        }
+        Throwable[] errors = commitConcurrently(graphStore, loaders);
+        for (Throwable error : errors) {
+            Assert.assertNull(error);
+        }
+
+        Assert.assertEquals(graphStore.version.nodeVersion, nodeVersion + batchCount);
+        Assert.assertEquals(graphStore.version.edgeVersion, edgeVersion + batchCount);
+        Assert.assertEquals(graphStore.getNodeCount(), serial.getNodeCount());
+        Assert.assertEquals(graphStore.getEdgeCount(), serial.getEdgeCount());
+        Assert.assertEquals(graphStore.edgeStore.mutualEdgesSize, serial.edgeStore.mutualEdgesSize);
+        Assert.assertEquals(graphStore.undirectedDecorator.getEdgeCount(), serial.undirectedDecorator.getEdgeCount());
+        for (Node n : serial.getNodes()) {
+            NodeImpl m = graphStore.getNode(n.getId());
+            Assert.assertEquals(m.outDegree, ((NodeImpl) n).outDegree);
+            Assert.assertEquals(m.inDegree, ((NodeImpl) n).inDegree);
+            Assert.assertEquals(m.mutualDegree, ((NodeImpl) n).mutualDegree);
+            Assert.assertEquals(getEdgeIds(graphStore.getOutEdges(m).toCollection()), getEdgeIds(serial.getOutEdges(n)
+                    .toCollection()));
+            Assert.assertEquals(getEdgeIds(graphStore.getInEdges(m).toCollection()), getEdgeIds(serial.getInEdges(n)
+                    .toCollection()));
+        }
+        for (Edge e : serial.getEdges()) {
+            Edge f = graphStore.getEdge(e.getId());
+            Assert.assertEquals(f.getSource().getId(), e.getSource().getId());
+            Assert.assertEquals(f.getTarget().getId(), e.getTarget().getId());
+            Assert.assertTrue(getEdgeIds(graphStore.getEdges(f.getSource(), f.getTarget(), f.getType()).toCollection())
+                    .contains(f.getId()));
+        }
+    }
+
+    @Test
+    public void testConcurrentConflictingCommits() throws Exception {
+        GraphStore graphStore = generateStoredNodes();
+        int nodeCount = graphStore.getNodeCount();
+        List<GraphBulkLoader> loaders = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            Node n = graphStore.factory.newNode("new" + i);
+            loaders.add(graphStore.graphModel.createBulkLoader().addNode(n)
+                    .addEdge(graphStore.factory.newEdge("e" + i, graphStore.getNode("0"), n, 0, 1.0, true))
+                    .addEdge(graphStore.factory.newEdge("dup", n, graphStore.getNode("1"), 0, 1.0, true)));
+        }
+        Throwable[] errors = commitConcurrently(graphStore, loaders);
+
+        int failed = errors[0] != null ? 0 : 1;
+        Assert.assertTrue(errors[failed] instanceof IllegalArgumentException);
+        Assert.assertNull(errors[1 - failed]);
+        Assert.assertEquals(graphStore.getNodeCount(), nodeCount + 1);
+        Assert.assertEquals(graphStore.getEdgeCount(), 2);
+        Assert.assertNull(graphStore.getNode("new" + failed));
+        Assert.assertNull(graphStore.getEdge("e" + failed));
+        Assert.assertNotNull(graphStore.getEdge("e" + (1 - failed)));
+        Assert.assertSame(graphStore.getEdge("dup").getSource(), graphStore.getNode("new" + (1 - failed)));
+    }
+
+    private Throwable[] commitConcurrently(GraphStore graphStore, List<GraphBulkLoader> loaders) throws InterruptedException {
+        // The write lock is held until all commits wait, so they're added together.
+        // Daemon threads so a deadlock fails the test instead of hanging the build
+        Throwable[] errors = new Throwable[loaders.size()];
+        Thread[] threads = new Thread[loaders.size()];
+        graphStore.writeLock();
+        try {
+            for (int i = 0; i < threads.length; i++) {
+                final int index = i;
+                threads[i] = new Thread(() -> {
+                    try {
+                        loaders.get(index).commit();
+                    } catch (Throwable e) {
+                        errors[index] = e;
+                    }
+                });
+                threads[i].setDaemon(true);
+                threads[i].start();
+            }
+            long deadline = System.currentTimeMillis() + 10000;
+            while (true) {
+                synchronized (graphStore.bulkMonitor) {
+                    if (graphStore.bulkBatches.size() == loaders.size()) {
+                        break;
+                    }
+                }
+                Assert.assertTrue(System.currentTimeMillis() < deadline);
+                Thread.sleep(1);
+            }
+        } finally {
+            graphStore.writeUnlock();
+        }
+        for (Thread thread : threads) {
+            thread.join(10000);
+            Assert.assertFalse(thread.isAlive());
+        }
+        return errors;
+    }
+
+    private GraphStore generateStoredNodes() {
+        GraphStore graphStore = GraphGenerator.generateEmptyGraphStore();
+        for (int i = 0; i < 1000; i++) {
+            graphStore.addNode(graphStore.factory.newNode(String.valueOf(i)));
+        }
+        return graphStore;
+    }
+
+    private GraphBulkLoader generateConcurrentBatch(GraphStore graphStore, String prefix) {
+        // Edges between the stored nodes, shared by all batches, and the batch's
+        // own nodes
+        GraphBulkLoader loader = graphStore.graphModel.createBulkLoader();
+        List<Node> nodes = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            nodes.add(graphStore.getNode(String.valueOf(i)));
+        }
+        for (int i = 0; i < 100; i++) {
+            Node n = graphStore.factory.newNode(prefix + "-" + i);
+            loader.addNode(n);
+            nodes.add(n);
+        }
+
+        Random r = new Random(prefix.hashCode());
+        int edgeCount = GraphStoreConfiguration.EDGESTORE_CONCURRENT_MIN_CHUNK_SIZE * 3;
+        for (int i = 0; i < edgeCount; i++) {
+            Node source = nodes.get(r.nextInt(nodes.size()));
+            Node target = nodes.get(r.nextInt(nodes.size()));
+            loader.addEdge(graphStore.factory.newEdge(prefix + "-" + i, source, target, r.nextInt(2), 1.0, true));
+        }
+        return loader;
+    }
+
+    private void assertRejected(GraphStore graphStore, GraphBulkLoader loader, int version) {
+        try {
+            loader.commit();
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+        }
+        Assert.assertEquals(graphStore.getNodeCount(), 0);
+        Assert.assertEquals(graphStore.getEdgeCount(), 0);
+        Assert.assertEquals(graphStore.getVersion(), version);
+        Assert.assertEquals(graphStore.nodeStore.dictionary.size(), 0);
+        Assert.assertEquals(graphStore.edgeStore.dictionary.size(), 0);
+    }
+
+    private GraphBulkLoader generateLargeBatch(GraphStore graphStore, GraphBulkLoader loader) {
+        int nodeCount = 1000;
+        NodeImpl[] nodes = new NodeImpl[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            nodes[i] = (NodeImpl) graphStore.factory.newNode(String.valueOf(i));
+        }
+        loader.addNodes(Arrays.asList(nodes));
+
+        Random r = new Random(42);
+        int edgeCount = GraphStoreConfiguration.EDGESTORE_CONCURRENT_MIN_CHUNK_SIZE * 5;
+        for (int i = 0; i < edgeCount; i++) {
+            NodeImpl source = nodes[r.nextInt(nodeCount)];
+            NodeImpl target = nodes[r.nextInt(nodeCount)];
+            loader.addEdge(graphStore.factory.newEdge(String.valueOf(i), source, target, r.nextInt(2), 1.0, true));
+        }
+        return loader;
+    }
+
+    private Set<Object> getEdgeIds(Collection<Edge> edges) {
+        Set<Object> ids = new HashSet<>();
+        for (Edge e : edges) {
+            ids.add(e.getId());
+        }
+        return ids;
+    }
+
+    private void copy(GraphStore source, GraphStore target, List<Node> nodes, List<Edge> edges) {
+        for (Node n : source.getNodes()) {
+            nodes.add(target.factory.newNode(n.getId()));
+        }
+        for (Edge e : source.getEdges()) {
+            NodeImpl s = null;
+            NodeImpl t = null;
+            for (Node n : nodes) {
+                if (n.getId().equals(e.getSource().getId())) {
+                    s = (NodeImpl) n;
+                }
+                if (n.getId().equals(e.getTarget().getId())) {
+                    t = (NodeImpl) n;
+                }
+            }
+            edges.add(target.factory.newEdge(e.getId(), s, t, e.getType(), e.getWeight(), e.isDirected()));
+        }
+    }
+
+    private void assertSameStructure(GraphStore actual, GraphStore expected) {
+        Assert.assertEquals(actual.getNodeCount(), expected.getNodeCount());
+        Assert.assertEquals(actual.getEdgeCount(), expected.getEdgeCount());
+        Assert.assertEquals(actual.undirectedDecorator.getEdgeCount(), expected.undirectedDecorator.getEdgeCount());
+        Assert.assertEquals(actual.edgeStore.mutualEdgesSize, expected.edgeStore.mutualEdgesSize);
+        Assert.assertEquals(actual.edgeStore.undirectedSize, expected.edgeStore.undirectedSize);
+        Assert.assertTrue(actual.edgeStore.deepEquals(expected.edgeStore));
+        Assert.assertTrue(actual.nodeStore.deepEquals(expected.nodeStore));
+        for (Node n : expected.getNodes()) {
+            NodeImpl m = actual.getNode(n.getId());
+            Assert.assertEquals(m.getStoreId(), n.getStoreId());
+            Assert.assertEquals(m.inDegree, ((NodeImpl) n).inDegree);
+            Assert.assertEquals(m.outDegree, ((NodeImpl) n).outDegree);
+            Assert.assertEquals(m.mutualDegree, ((NodeImpl) n).mutualDegree);
+        }
+        for (Edge e : expected.getEdges()) {
+            EdgeImpl f = actual.getEdge(e.getId());
+            Assert.assertEquals(f.getStoreId(), e.getStoreId());
+            Assert.assertEquals(f.isMutual(), ((EdgeImpl) e).isMutual());
+        }
+        for (int i = 0; i < expected.edgeTypeStore.length; i++) {
+            Assert.assertEquals(actual.edgeStore.size(i), expected.edgeStore.size(i));
+            Assert.assertEquals(actual.edgeStore.undirectedSize(i), expected.edgeStore.undirectedSize(i));
+        }
+    }
+}
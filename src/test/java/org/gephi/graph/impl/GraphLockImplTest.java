@@ -71,4 +71,50 @@ public class GraphLockImplTest {
         Assert.assertEquals(lock.getWriteHoldCount(), 0);
 
     }
+
+    @Test
+    public void testOptimisticReadDisabled() {
+        GraphLockImpl lock = new GraphLockImpl();
+        Assert.assertFalse(lock.isOptimisticReads());
+        Assert.assertEquals(lock.tryOptimisticRead(), 0L);
+        Assert.assertFalse(lock.validate(0L));
+    }
+
+    @Test
+    public void testOptimisticRead() {
+        GraphLockImpl lock = new GraphLockImpl();
+        lock.setOptimisticReads(true);
+        long stamp = lock.tryOptimisticRead();
+        Assert.assertNotEquals(stamp, 0L);
+        Assert.assertTrue(lock.validate(stamp));
+
+        lock.readLock();
+        Assert.assertTrue(lock.validate(stamp));
+        lock.readUnlock();
+    }
+
+    @Test
+    public void testOptimisticReadInvalidatedByWrite() {
+        GraphLockImpl lock = new GraphLockImpl();
+        lock.setOptimisticReads(true);
+        long stamp = lock.tryOptimisticRead();
+        lock.writeLock();
+        Assert.assertFalse(lock.validate(stamp));
+        Assert.assertEquals(lock.tryOptimisticRead(), 0L);
+        lock.writeUnlock();
+        Assert.assertFalse(lock.validate(stamp));
+        Assert.assertNotEquals(lock.tryOptimisticRead(), 0L);
+    }
+
+    @Test
+    public void testOptimisticReadReentrantWrite() {
+        GraphLockImpl lock = new GraphLockImpl();
+        lock.setOptimisticReads(true);
+        lock.writeLock();
+        lock.writeLock();
+        lock.writeUnlock();
+        Assert.assertEquals(lock.tryOptimisticRead(), 0L);
+        lock.writeUnlock();
+        Assert.assertNotEquals(lock.tryOptimisticRead(), 0L);
+    }
 }
@@ -30,6 +30,7 @@ import org.gephi.graph.api.GraphObserver;
 import org.gephi.graph.api.GraphView;
 import org.gephi.graph.api.Node;
 import org.gephi.graph.api.Origin;
+import org.gephi.graph.api.ViewOperation;
 import org.gephi.graph.impl.utils.DataInputOutput;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -60,6 +61,59 @@ public class GraphModelTest {
         Assert.assertNotNull(graphModel.getEdgeTable());
     }
 
+    @Test
+    public void testGetEdgeWeights() {
+        GraphStore store = GraphGenerator.generateSmallGraphStore();
+        Edge[] edges = store.getEdges().toArray();
+        int removedId = edges[0].getStoreId();
+        store.removeEdge(edges[0]);
+        edges[1].setWeight(3.0);
+
+        double[] weights = store.graphModel.getEdgeWeights(store.getView());
+        Assert.assertEquals(weights.length, store.edgeStore.maxStoreId());
+        Assert.assertEquals(weights[removedId], 0.0);
+        for (Edge e : store.getEdges()) {
+            Assert.assertEquals(weights[e.getStoreId()], e.getWeight());
+        }
+        Assert.assertEquals(weights[edges[1].getStoreId()], 3.0);
+    }
+
+    @Test
+    public void testGetEdgeWeightsView() {
+        GraphStore store = GraphGenerator.generateSmallGraphStore();
+        GraphView view = store.graphModel.createView();
+        Graph graph = store.graphModel.getGraph(view);
+        Edge edge = store.getEdges().toArray()[0];
+        graph.addNode(edge.getSource());
+        graph.addNode(edge.getTarget());
+        graph.addEdge(edge);
+
+        double[] weights = store.graphModel.getEdgeWeights(view);
+        for (Edge e : store.getEdges()) {
+            Assert.assertEquals(weights[e.getStoreId()], e == edge ? e.getWeight() : 0.0);
+        }
+    }
+
+    @Test
+    public void testGetEdgeWeightsDynamic() {
+        Configuration config = new Configuration();
+        config.setEdgeWeightType(TimestampDoubleMap.class);
+        GraphStore store = GraphGenerator.generateTinyGraphStore(config);
+        Edge edge = store.getEdge("0");
+        edge.setWeight(4.0, 1.0);
+
+        double[] weights = store.graphModel.getEdgeWeights(store.getView());
+        Assert.assertEquals(weights[edge.getStoreId()], edge.getWeight(store.getView()));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testGetEdgeWeightsDestroyedView() {
+        GraphModelImpl graphModel = new GraphModelImpl();
+        GraphView view = graphModel.createView();
+        graphModel.destroyView(view);
+        graphModel.getEdgeWeights(view);
+    }
+
     @Test
     public void testGetGraphVisibleDefault() {
         GraphModelImpl graphModel = new GraphModelImpl();
@@ -220,6 +274,50 @@ public class GraphModelTest {
         Assert.assertFalse(viewCopy.isEdgeView());
     }
 
+    @Test
+    public void testCombineViews() {
+        GraphStore store = GraphGenerator.generateSmallGraphStore();
+        GraphModelImpl graphModel = store.graphModel;
+        GraphView view1 = graphModel.createView();
+        GraphView view2 = graphModel.createView();
+        Node[] nodes = store.getNodes().toArray();
+        graphModel.getGraph(view1).addNode(nodes[0]);
+        graphModel.getGraph(view1).addNode(nodes[1]);
+        graphModel.getGraph(view2).addNode(nodes[1]);
+        graphModel.getGraph(view2).addNode(nodes[2]);
+
+        GraphView union = graphModel.combineViews(ViewOperation.UNION, view1, view2);
+        Assert.assertEquals(graphModel.getGraph(union).getNodeCount(), 3);
+        Assert.assertEquals(graphModel.getGraph(view1).getNodeCount(), 2);
+
+        GraphView intersection = graphModel.combineViews(ViewOperation.INTERSECTION, view1, view2);
+        Assert.assertEquals(graphModel.getGraph(intersection).getNodeCount(), 1);
+        Assert.assertTrue(graphModel.getGraph(intersection).contains(nodes[1]));
+        Assert.assertNotSame(intersection, view1);
+        Assert.assertTrue(store.viewStore.contains(intersection));
+    }
+
+    @Test
+    public void testCombineViewsMainView() {
+        GraphStore store = GraphGenerator.generateSmallGraphStore();
+        GraphModelImpl graphModel = store.graphModel;
+        GraphView view = graphModel.createView();
+        graphModel.getGraph(view).addNode(store.getNodes().toArray()[0]);
+
+        GraphView union = graphModel.combineViews(ViewOperation.UNION, view, store.getView());
+        Assert.assertEquals(graphModel.getGraph(union).getNodeCount(), store.getNodeCount());
+        Assert.assertEquals(graphModel.getGraph(union).getEdgeCount(), store.getEdgeCount());
+
+        GraphView intersection = graphModel.combineViews(ViewOperation.INTERSECTION, store.getView(), view);
+        Assert.assertEquals(graphModel.getGraph(intersection).getNodeCount(), 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testCombineViewsEmpty() {
+        GraphModelImpl graphModel = new GraphModelImpl();
+        graphModel.combineViews(ViewOperation.UNION);
+    }
+
     @Test
     public void testDestroyView() {
         GraphModelImpl graphModel = new GraphModelImpl();
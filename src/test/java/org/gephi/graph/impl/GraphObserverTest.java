@@ -16,6 +16,9 @@
 package org.gephi.graph.impl;
 
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import org.gephi.graph.api.DirectedSubgraph;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.EdgeIterable;
 import org.gephi.graph.api.GraphDiff;
@@ -438,4 +441,43 @@ public class GraphObserverTest {
         Assert.assertEquals(edgeVersion, Integer.MIN_VALUE + 1);
         Assert.assertEquals(graphObserver.edgeVersion, Integer.MIN_VALUE);
     }
+
+    @Test
+    public void testCompact() {
+        GraphStore store = GraphGenerator.generateSmallGraphStore();
+        GraphObserverImpl graphObserver = store.createGraphObserver(store, true);
+
+        Node node = store.getNodes().toArray()[0];
+        Set<Edge> edges = new HashSet<>(store.getEdges(node).toCollection());
+        store.removeNode(node);
+        store.graphModel.compact();
+
+        Assert.assertTrue(graphObserver.hasGraphChanged());
+        GraphDiff diff = graphObserver.getDiff();
+        Assert.assertEquals(diff.getRemovedNodes().toArray(), new Node[] { node });
+        Assert.assertEquals(diff.getRemovedEdges().toSet(), edges);
+        Assert.assertSame(diff.getAddedNodes(), NodeIterable.EMPTY);
+        Assert.assertSame(diff.getAddedEdges(), EdgeIterable.EMPTY);
+    }
+
+    @Test
+    public void testCompactView() {
+        GraphStore store = GraphGenerator.generateSmallGraphStore();
+        GraphViewStore viewStore = store.viewStore;
+        GraphViewImpl view = viewStore.createView();
+        view.fill();
+        DirectedSubgraph graph = viewStore.getDirectedGraph(view);
+        GraphObserverImpl graphObserver = viewStore.createGraphObserver(graph, true);
+
+        Node[] nodes = store.getNodes().toArray();
+        graph.removeNode(nodes[1]);
+        store.removeNode(nodes[0]);
+        store.graphModel.compact();
+
+        Assert.assertTrue(graphObserver.hasGraphChanged());
+        GraphDiff diff = graphObserver.getDiff();
+        Assert.assertEquals(diff.getRemovedNodes().toSet(), new HashSet<>(Arrays.asList(nodes[0], nodes[1])));
+        Assert.assertSame(diff.getAddedNodes(), NodeIterable.EMPTY);
+        Assert.assertSame(diff.getAddedEdges(), EdgeIterable.EMPTY);
+    }
 }
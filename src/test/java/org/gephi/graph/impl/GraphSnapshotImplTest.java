@@ -0,0 +1,194 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.GraphSnapshot;
+import org.gephi.graph.api.GraphView;
+import org.gephi.graph.api.Node;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class GraphSnapshotImplTest {
+
+    @Test
+    public void testEmpty() {
+        GraphStore graphStore = GraphGenerator.generateEmptyGraphStore();
+        GraphSnapshot snapshot = graphStore.graphModel.createSnapshot();
+
+        Assert.assertEquals(snapshot.getNodeCount(), 0);
+        Assert.assertEquals(snapshot.getEdgeCount(), 0);
+        Assert.assertEquals(snapshot.getOutOffsets().length, 1);
+        Assert.assertFalse(snapshot.isStale());
+        Assert.assertSame(snapshot.getView(), graphStore.getView());
+    }
+
+    @Test
+    public void testMainView() {
+        GraphStore graphStore = GraphGenerator.generateSmallMultiTypeGraphStore();
+        GraphSnapshot snapshot = graphStore.graphModel.createSnapshot();
+
+        Assert.assertEquals(snapshot.getNodeCount(), graphStore.getNodeCount());
+        Assert.assertEquals(snapshot.getEdgeCount(), graphStore.getEdgeCount());
+        Assert.assertEquals(snapshot.getMaxNodeStoreId(), graphStore.nodeStore.maxStoreId());
+        Assert.assertEquals(snapshot.getVersion(), graphStore.getVersion());
+
+        for (Node n : graphStore.getNodes()) {
+            assertAdjacency(snapshot, graphStore, n);
+        }
+    }
+
+    @Test
+    public void testSelfLoop() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStoreWithSelfLoop();
+        GraphSnapshot snapshot = graphStore.graphModel.createSnapshot();
+
+        Node n = graphStore.getNode("1");
+        Assert.assertEquals(snapshot.getOutDegree(n.getStoreId()), 1);
+        Assert.assertEquals(snapshot.getInDegree(n.getStoreId()), 1);
+        Assert.assertEquals(snapshot.getOutNeighbors()[0], n.getStoreId());
+    }
+
+    @Test
+    public void testWeights() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        Edge e = graphStore.getEdge("0");
+        e.setWeight(4.5);
+
+        GraphSnapshot snapshot = graphStore.graphModel.createSnapshot();
+        Assert.assertEquals(snapshot.getOutWeights()[0], 4.5);
+        Assert.assertEquals(snapshot.getInWeights()[0], 4.5);
+        Assert.assertEquals(snapshot.getOutEdges()[0], e.getStoreId());
+    }
+
+    @Test
+    public void testGarbage() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        Node first = graphStore.getNodes().toArray()[0];
+        graphStore.removeNode(first);
+
+        GraphSnapshot snapshot = graphStore.graphModel.createSnapshot();
+        Assert.assertEquals(snapshot.getNodeCount(), graphStore.getNodeCount());
+        Assert.assertEquals(snapshot.getEdgeCount(), graphStore.getEdgeCount());
+        Assert.assertEquals(snapshot.getOutDegree(0), 0);
+        Assert.assertEquals(snapshot.getInDegree(0), 0);
+        for (int id : snapshot.getNodes()) {
+            Assert.assertNotEquals(id, 0);
+        }
+        for (Node n : graphStore.getNodes()) {
+            assertAdjacency(snapshot, graphStore, n);
+        }
+    }
+
+    @Test
+    public void testView() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphView view = graphStore.viewStore.createView();
+        GraphViewDecorator graph = ((GraphViewImpl) view).directedDecorator;
+
+        int i = 0;
+        for (Node n : graphStore.getNodes().toArray()) {
+            if (i++ % 2 == 0) {
+                graph.addNode(n);
+            }
+        }
+        for (Edge e : graphStore.getEdges().toArray()) {
+            if (graph.contains(e.getSource()) && graph.contains(e.getTarget())) {
+                graph.addEdge(e);
+            }
+        }
+
+        GraphSnapshot snapshot = graphStore.graphModel.createSnapshot(view);
+        Assert.assertSame(snapshot.getView(), view);
+        Assert.assertEquals(snapshot.getNodeCount(), graph.getNodeCount());
+        Assert.assertEquals(snapshot.getEdgeCount(), graph.getEdgeCount());
+        for (Node n : graph.getNodes()) {
+            assertAdjacency(snapshot, graph, n);
+        }
+    }
+
+    @Test
+    public void testStale() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphSnapshot snapshot = graphStore.graphModel.createSnapshot();
+        Assert.assertFalse(snapshot.isStale());
+
+        graphStore.removeEdge(graphStore.getEdges().toArray()[0]);
+        Assert.assertTrue(snapshot.isStale());
+        Assert.assertNotEquals(snapshot.getVersion(), graphStore.getVersion());
+    }
+
+    @Test
+    public void testStaleView() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphView view = graphStore.viewStore.createView();
+        GraphSnapshot snapshot = graphStore.graphModel.createSnapshot(view);
+        Assert.assertFalse(snapshot.isStale());
+
+        ((GraphViewImpl) view).directedDecorator.addNode(graphStore.getNodes().toArray()[0]);
+        Assert.assertTrue(snapshot.isStale());
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testDestroyedView() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphView view = graphStore.viewStore.createView();
+        graphStore.viewStore.destroyView(view);
+        graphStore.graphModel.createSnapshot(view);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidNodeId() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        GraphSnapshot snapshot = graphStore.graphModel.createSnapshot();
+        snapshot.getOutDegree(snapshot.getMaxNodeStoreId());
+    }
+
+    private void assertAdjacency(GraphSnapshot snapshot, GraphViewDecorator graph, Node n) {
+        assertAdjacency(snapshot, graph.getOutEdges(n).toArray(), graph.getInEdges(n).toArray(), n);
+    }
+
+    private void assertAdjacency(GraphSnapshot snapshot, GraphStore graphStore, Node n) {
+        assertAdjacency(snapshot, graphStore.getOutEdges(n).toArray(), graphStore.getInEdges(n).toArray(), n);
+    }
+
+    private void assertAdjacency(GraphSnapshot snapshot, Edge[] outEdges, Edge[] inEdges, Node n) {
+        int id = n.getStoreId();
+        Assert.assertEquals(snapshot.getOutDegree(id), outEdges.length);
+        Assert.assertEquals(snapshot.getInDegree(id), inEdges.length);
+
+        IntSet outSet = new IntOpenHashSet();
+        for (int i = snapshot.getOutOffsets()[id]; i < snapshot.getOutOffsets()[id + 1]; i++) {
+            outSet.add(snapshot.getOutEdges()[i]);
+            EdgeImpl edge = ((NodeImpl) n).graphStore.edgeStore.get(snapshot.getOutEdges()[i]);
+            Assert.assertEquals(snapshot.getOutNeighbors()[i], edge.target.storeId);
+            Assert.assertEquals(snapshot.getOutWeights()[i], edge.getWeight());
+        }
+        for (Edge e : outEdges) {
+            Assert.assertTrue(outSet.contains(e.getStoreId()));
+        }
+
+        IntSet inSet = new IntOpenHashSet();
+        for (int i = snapshot.getInOffsets()[id]; i < snapshot.getInOffsets()[id + 1]; i++) {
+            inSet.add(snapshot.getInEdges()[i]);
+        }
+        for (Edge e : inEdges) {
+            Assert.assertTrue(inSet.contains(e.getStoreId()));
+        }
+    }
+}
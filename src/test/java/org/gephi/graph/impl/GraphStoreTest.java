@@ -22,11 +22,15 @@ import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import java.awt.Color;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 import org.gephi.graph.api.Column;
 import org.gephi.graph.api.ColumnIterable;
 import org.gephi.graph.api.DirectedSubgraph;
@@ -150,6 +154,56 @@ public class GraphStoreTest {
                 throw new UnsupportedOperationException("Not supported yet.");
             }
 
+            @Override
+            public double getDouble(Column column) {
+                throw new UnsupportedOperationException("Not supported yet.");
+            }
+
+            @Override
+            public void setDouble(Column column, double value) {
+                throw new UnsupportedOperationException("Not supported yet.");
+            }
+
+            @Override
+            public float getFloat(Column column) {
+                throw new UnsupportedOperationException("Not supported yet.");
+            }
+
+            @Override
+            public void setFloat(Column column, float value) {
+                throw new UnsupportedOperationException("Not supported yet.");
+            }
+
+            @Override
+            public int getInt(Column column) {
+                throw new UnsupportedOperationException("Not supported yet.");
+            }
+
+            @Override
+            public void setInt(Column column, int value) {
+                throw new UnsupportedOperationException("Not supported yet.");
+            }
+
+            @Override
+            public long getLong(Column column) {
+                throw new UnsupportedOperationException("Not supported yet.");
+            }
+
+            @Override
+            public void setLong(Column column, long value) {
+                throw new UnsupportedOperationException("Not supported yet.");
+            }
+
+            @Override
+            public boolean getBoolean(Column column) {
+                throw new UnsupportedOperationException("Not supported yet.");
+            }
+
+            @Override
+            public void setBoolean(Column column, boolean value) {
+                throw new UnsupportedOperationException("Not supported yet.");
+            }
+
             @Override
             public Object getAttribute(Column column) {
                 throw new UnsupportedOperationException("Not supported yet.");
@@ -951,7 +1005,120 @@ public class GraphStoreTest {
         Assert.assertNotEquals(graphStore.getVersion(), version);
     }
 
+    @Test
+    public void testCompact() {
+        GraphStore graphStore = GraphGenerator.generateLargeGraphStore();
+        testCompact(graphStore);
+    }
+
+    @Test
+    public void testCompactMixed() {
+        GraphStore graphStore = GraphGenerator.generateSmallMixedGraphStore();
+        testCompact(graphStore);
+    }
+
+    @Test
+    public void testCompactMultiType() {
+        GraphStore graphStore = GraphGenerator.generateSmallMultiTypeGraphStore();
+        testCompact(graphStore);
+    }
+
+    @Test
+    public void testCompactSlices() {
+        GraphStore graphStore = GraphGenerator.generateLargeGraphStore();
+        removeSomeElements(graphStore);
+        int nodeCount = graphStore.getNodeCount();
+        int edgeCount = graphStore.getEdgeCount();
+
+        int calls = 1;
+        while (!graphStore.graphModel.compact(500)) {
+            calls++;
+        }
+        Assert.assertTrue(calls > 1);
+        Assert.assertEquals(graphStore.nodeStore.maxStoreId(), nodeCount);
+        Assert.assertEquals(graphStore.edgeStore.maxStoreId(), edgeCount);
+    }
+
+    @Test
+    public void testCompactVersion() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        int version = graphStore.getVersion();
+        graphStore.graphModel.compact();
+        Assert.assertEquals(graphStore.getVersion(), version);
+
+        graphStore.removeNode(graphStore.getNodes().toArray()[0]);
+        version = graphStore.getVersion();
+        graphStore.graphModel.compact();
+        Assert.assertNotEquals(graphStore.getVersion(), version);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testCompactNegative() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        graphStore.graphModel.compact(-1);
+    }
+
     // UTILITY
+    private void testCompact(GraphStore graphStore) {
+        removeSomeElements(graphStore);
+
+        Node[] nodes = graphStore.getNodes().toArray();
+        Edge[] edges = graphStore.getEdges().toArray();
+        Map<Node, Set<Edge>> outEdges = new HashMap<>();
+        Map<Node, Set<Edge>> inEdges = new HashMap<>();
+        for (Node n : nodes) {
+            outEdges.put(n, new HashSet<>(graphStore.getOutEdges(n).toCollection()));
+            inEdges.put(n, new HashSet<>(graphStore.getInEdges(n).toCollection()));
+        }
+        int undirectedCount = graphStore.undirectedDecorator.getEdgeCount();
+        int mutualCount = graphStore.edgeStore.mutualEdgesSize;
+
+        graphStore.graphModel.compact();
+
+        Assert.assertEquals(graphStore.nodeStore.garbageSize, 0);
+        Assert.assertEquals(graphStore.edgeStore.garbageSize, 0);
+        Assert.assertEquals(graphStore.nodeStore.maxStoreId(), nodes.length);
+        Assert.assertEquals(graphStore.edgeStore.maxStoreId(), edges.length);
+        Assert.assertEquals(graphStore.undirectedDecorator.getEdgeCount(), undirectedCount);
+        Assert.assertEquals(graphStore.edgeStore.mutualEdgesSize, mutualCount);
+        testNodeIterable(graphStore.getNodes(), Arrays.copyOf(nodes, nodes.length, NodeImpl[].class));
+        testEdgeIterable(graphStore.getEdges(), Arrays.copyOf(edges, edges.length, EdgeImpl[].class));
+
+        for (Node n : nodes) {
+            Assert.assertSame(graphStore.getNode(n.getId()), n);
+            Assert.assertEquals(new HashSet<>(graphStore.getOutEdges(n).toCollection()), outEdges.get(n));
+            Assert.assertEquals(new HashSet<>(graphStore.getInEdges(n).toCollection()), inEdges.get(n));
+        }
+        for (Edge e : edges) {
+            Assert.assertSame(graphStore.getEdge(e.getId()), e);
+            Assert.assertSame(graphStore.edgeStore.get(e.getStoreId()), e);
+            Assert.assertTrue(graphStore.isAdjacent(e.getSource(), e.getTarget(), e.getType()));
+            Assert.assertNotNull(graphStore.edgeStore.get(e.getSource(), e.getTarget(), e.getType(), false));
+        }
+
+        // Store still usable
+        for (Edge e : edges) {
+            graphStore.removeEdge(e);
+        }
+        Assert.assertEquals(graphStore.getEdgeCount(), 0);
+        Assert.assertEquals(graphStore.edgeStore.mutualEdgesSize, 0);
+        for (Node n : nodes) {
+            graphStore.removeNode(n);
+        }
+        Assert.assertEquals(graphStore.getNodeCount(), 0);
+    }
+
+    private void removeSomeElements(GraphStore graphStore) {
+        Node[] nodes = graphStore.getNodes().toArray();
+        for (int i = 0; i < nodes.length; i += 4) {
+            graphStore.removeNode(nodes[i]);
+        }
+        Edge[] edges = graphStore.getEdges().toArray();
+        for (int i = 0; i < edges.length; i += 5) {
+            graphStore.removeEdge(edges[i]);
+        }
+    }
+
     private void testNodeIterable(NodeIterable iterable, NodeImpl[] nodes) {
         Set<Node> nodeSet = new HashSet<>(iterable.toCollection());
         for (NodeImpl n : nodes) {
@@ -1070,6 +1237,161 @@ public class GraphStoreTest {
         Assert.assertEquals(s2.size(), 0);
     }
 
+    @Test
+    public void testOptimisticReads() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        graphStore.graphModel.setOptimisticReadsEnabled(true);
+        Assert.assertTrue(graphStore.graphModel.isOptimisticReadsEnabled());
+
+        NodeImpl n1 = graphStore.getNode("1");
+        NodeImpl n2 = graphStore.getNode("2");
+        Assert.assertNotNull(n1);
+        Assert.assertNull(graphStore.getNode("3"));
+        Assert.assertTrue(graphStore.contains(n1));
+        Assert.assertTrue(graphStore.isAdjacent(n1, n2));
+        Assert.assertFalse(graphStore.isAdjacent(n2, n1));
+        Assert.assertSame(graphStore.getEdge(n1, n2), graphStore.getEdge("0"));
+        Assert.assertEquals(graphStore.lock.getReadHoldCount(), 0);
+    }
+
+    @Test
+    public void testOptimisticReadsWithWriteLock() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        graphStore.graphModel.setOptimisticReadsEnabled(true);
+
+        graphStore.writeLock();
+        NodeImpl n1 = graphStore.getNode("1");
+        graphStore.removeNode(n1);
+        Assert.assertNull(graphStore.getNode("1"));
+        Assert.assertFalse(graphStore.contains(n1));
+        graphStore.writeUnlock();
+    }
+
+    @Test(expectedExceptions = NullPointerException.class)
+    public void testOptimisticReadsException() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        graphStore.graphModel.setOptimisticReadsEnabled(true);
+        graphStore.contains((Node) null);
+    }
+
+    @Test
+    public void testOptimisticReadsView() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        graphStore.graphModel.setOptimisticReadsEnabled(true);
+        GraphViewImpl view = graphStore.viewStore.createView();
+        DirectedSubgraph graph = graphStore.viewStore.getDirectedGraph(view);
+
+        Assert.assertNull(graph.getNode("1"));
+        graph.addNode(graphStore.getNode("1"));
+        graph.addNode(graphStore.getNode("2"));
+        Assert.assertSame(graph.getNode("1"), graphStore.getNode("1"));
+        Assert.assertFalse(graph.isAdjacent(graphStore.getNode("1"), graphStore.getNode("2")));
+        graph.addEdge(graphStore.getEdge("0"));
+        Assert.assertTrue(graph.isAdjacent(graphStore.getNode("1"), graphStore.getNode("2")));
+        Assert.assertSame(graph.getEdge("0"), graphStore.getEdge("0"));
+    }
+
+    @Test
+    public void testOptimisticReadsConcurrentWrites() throws Exception {
+        final GraphStore graphStore = new GraphModelImpl().store;
+        graphStore.graphModel.setOptimisticReadsEnabled(true);
+        final NodeImpl[] nodes = GraphGenerator.generateNodeList(1000, graphStore);
+        final AtomicReference<Throwable> error = new AtomicReference<>();
+
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 20; i++) {
+                for (NodeImpl node : nodes) {
+                    graphStore.addNode(node);
+                }
+                for (NodeImpl node : nodes) {
+                    graphStore.removeNode(node);
+                }
+            }
+        });
+        Thread reader = new Thread(() -> {
+            try {
+                while (writer.isAlive()) {
+                    for (NodeImpl node : nodes) {
+                        NodeImpl found = graphStore.getNode(node.getId());
+                        Assert.assertTrue(found == null || found == node);
+                    }
+                }
+            } catch (Throwable t) {
+                error.set(t);
+            }
+        });
+        writer.start();
+        reader.start();
+        writer.join();
+        reader.join();
+        Assert.assertNull(error.get());
+    }
+
+    @Test
+    public void testParallelStreamWithWriteLock() throws InterruptedException {
+        GraphStore graphStore = new GraphModelImpl().store;
+        graphStore.addAllNodes(Arrays.asList(GraphGenerator.generateNodeList(20000, graphStore)));
+
+        // Daemon thread so a deadlock fails the test instead of hanging the build
+        AtomicLong sum = new AtomicLong();
+        Thread thread = new Thread(() -> {
+            graphStore.writeLock();
+            try {
+                sum.set(graphStore.getNodes().parallelStream().mapToLong(n -> n.getStoreId() + 1).sum());
+            } finally {
+                graphStore.writeUnlock();
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        thread.join(10000);
+        Assert.assertFalse(thread.isAlive());
+        Assert.assertEquals(sum.get(), 20000L * 20001L / 2);
+    }
+
+    @Test
+    public void testParallelStreamWithReadLock() throws InterruptedException {
+        GraphStore graphStore = new GraphModelImpl().store;
+        graphStore.addAllNodes(Arrays.asList(GraphGenerator.generateNodeList(20000, graphStore)));
+
+        AtomicLong count = new AtomicLong();
+        Thread writer = new Thread(() -> {
+            graphStore.writeLock();
+            graphStore.writeUnlock();
+        });
+        writer.setDaemon(true);
+        Thread reader = new Thread(() -> {
+            graphStore.readLock();
+            try {
+                // A queued writer blocks any new read lock in the workers
+                writer.start();
+                while (!graphStore.lock.readWriteLock.hasQueuedThread(writer)) {
+                    Thread.yield();
+                }
+                count.set(graphStore.getNodes().parallelStream().mapToLong(n -> 1).sum());
+            } finally {
+                graphStore.readUnlock();
+            }
+        });
+        reader.setDaemon(true);
+        reader.start();
+        reader.join(10000);
+        writer.join(10000);
+        Assert.assertFalse(reader.isAlive());
+        Assert.assertFalse(writer.isAlive());
+        Assert.assertEquals(count.get(), 20000);
+    }
+
+    @Test(expectedExceptions = IllegalMonitorStateException.class)
+    public void testParallelStreamLockReleased() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+
+        graphStore.writeLock();
+        Stream<Node> stream = graphStore.getNodes().parallelStream();
+        graphStore.writeUnlock();
+        stream.mapToLong(Node::getStoreId).sum();
+    }
+
     private void testNodeSets(NodeIterable n1, NodeIterable n2) {
         Set s1 = new ObjectOpenHashSet();
         Set s2 = new ObjectOpenHashSet();
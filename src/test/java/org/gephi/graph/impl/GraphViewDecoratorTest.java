@@ -15,15 +15,23 @@
  */
 package org.gephi.graph.impl;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import it.unimi.dsi.fastutil.objects.ObjectSet;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Random;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import org.gephi.graph.api.DirectedSubgraph;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.Element;
 import org.gephi.graph.api.ElementIterable;
 import org.gephi.graph.api.Interval;
 import org.gephi.graph.api.Node;
+import org.gephi.graph.api.NodeIterable;
 import org.gephi.graph.api.UndirectedSubgraph;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -502,6 +510,40 @@ public class GraphViewDecoratorTest {
         }
     }
 
+    @Test
+    public void testForEachNeighbor() {
+        GraphStore graphStore = GraphGenerator.generateSmallMultiTypeGraphStore();
+        GraphViewStore store = graphStore.viewStore;
+        GraphViewImpl view = store.createView();
+        addSomeElements(graphStore, view);
+        int typeCount = graphStore.edgeTypeStore.length;
+
+        DirectedSubgraph graph = store.getDirectedGraph(view);
+        for (Node n : graph.getNodes()) {
+            IntArrayList neighbors = new IntArrayList();
+            IntArrayList successors = new IntArrayList();
+            IntArrayList predecessors = new IntArrayList();
+            graph.forEachNeighbor(n, neighbors::add);
+            graph.forEachSuccessor(n, successors::add);
+            graph.forEachPredecessor(n, predecessors::add);
+            Assert.assertTrue(isEqual(neighbors, graph.getNeighbors(n)));
+            Assert.assertTrue(isEqual(successors, graph.getSuccessors(n)));
+            Assert.assertTrue(isEqual(predecessors, graph.getPredecessors(n)));
+
+            for (int i = 0; i < typeCount; i++) {
+                neighbors.clear();
+                successors.clear();
+                predecessors.clear();
+                graph.forEachNeighbor(n, i, neighbors::add);
+                graph.forEachSuccessor(n, i, successors::add);
+                graph.forEachPredecessor(n, i, predecessors::add);
+                Assert.assertTrue(isEqual(neighbors, graph.getNeighbors(n, i)));
+                Assert.assertTrue(isEqual(successors, graph.getSuccessors(n, i)));
+                Assert.assertTrue(isEqual(predecessors, graph.getPredecessors(n, i)));
+            }
+        }
+    }
+
     @Test
     public void testDirectedDegree() {
         GraphStore graphStore = GraphGenerator.generateSmallMultiTypeGraphStore();
@@ -739,6 +781,7 @@ public class GraphViewDecoratorTest {
 
         Edge edge = graphStore.factory.newEdge("edge", n1, n1, EdgeTypeStore.NULL_LABEL, 1.0, true);
         graphStore.addEdge(edge);
+        graph.addEdge(edge);
         Assert.assertTrue(graph.isIncident(edge, graph.getEdge("0")));
     }
 
@@ -853,6 +896,18 @@ public class GraphViewDecoratorTest {
         return s1.equals(s2);
     }
 
+    private boolean isEqual(IntArrayList ids, ElementIterable<Node> nodes) {
+        IntArrayList nodeIds = new IntArrayList();
+        for (Node n : nodes) {
+            nodeIds.add(n.getStoreId());
+        }
+        int[] a = ids.toIntArray();
+        int[] b = nodeIds.toIntArray();
+        Arrays.sort(a);
+        Arrays.sort(b);
+        return Arrays.equals(a, b);
+    }
+
     private GraphStore convertToStore(GraphViewImpl view) {
         GraphStore store = new GraphStore();
         DirectedSubgraph graph = view.getDirectedGraph();
@@ -885,4 +940,126 @@ public class GraphViewDecoratorTest {
             }
         }
     }
+
+    @Test
+    public void testParallelStreamNodes() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewImpl view = graphStore.viewStore.createView();
+        DirectedSubgraph graph = graphStore.viewStore.getDirectedGraph(view);
+        Node[] nodes = graphStore.getNodes().toArray();
+        for (int i = 0; i < nodes.length; i += 2) {
+            graph.addNode(nodes[i]);
+        }
+
+        Assert.assertEquals(graph.getNodes().parallelStream().collect(Collectors.toSet()), graph.getNodes().toSet());
+        Assert.assertEquals(graph.getNodes().parallelStream().count(), graph.getNodeCount());
+        Assert.assertEquals(graphStore.lock.getReadHoldCount(), 0);
+    }
+
+    @Test
+    public void testParallelStreamEdges() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewImpl view = graphStore.viewStore.createView();
+        DirectedSubgraph graph = graphStore.viewStore.getDirectedGraph(view);
+        for (Node n : graphStore.getNodes().toArray()) {
+            graph.addNode(n);
+        }
+        Edge[] edges = graphStore.getEdges().toArray();
+        for (int i = 0; i < edges.length; i += 3) {
+            graph.addEdge(edges[i]);
+        }
+
+        Assert.assertEquals(graph.getEdges().parallelStream().collect(Collectors.toSet()), graph.getEdges().toSet());
+        Assert.assertEquals(graph.getEdges().parallelStream().count(), graph.getEdgeCount());
+        Assert.assertEquals(graphStore.lock.getReadHoldCount(), 0);
+    }
+
+    @Test
+    public void testParallelStreamUndirectedEdges() {
+        GraphStore graphStore = GraphGenerator.generateSmallMixedGraphStore();
+        GraphViewImpl view = graphStore.viewStore.createView();
+        view.fill();
+        UndirectedSubgraph graph = graphStore.viewStore.getUndirectedGraph(view);
+
+        Assert.assertEquals(graph.getEdges().parallelStream().collect(Collectors.toSet()), graph.getEdges().toSet());
+        Assert.assertEquals(graph.getEdges().parallelStream().count(), graph.getEdgeCount());
+    }
+
+    @Test
+    public void testParallelStreamEdgeView() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewImpl view = graphStore.viewStore.createView(false, true);
+        DirectedSubgraph graph = graphStore.viewStore.getDirectedGraph(view);
+
+        Assert.assertEquals(graph.getNodes().parallelStream().count(), graphStore.getNodeCount());
+        Assert.assertEquals(graph.getEdges().parallelStream().count(), 0);
+    }
+
+    @Test
+    public void testParallelStreamWithWriteLock() throws InterruptedException {
+        GraphStore graphStore = new GraphModelImpl().store;
+        graphStore.addAllNodes(Arrays.asList(GraphGenerator.generateNodeList(20000, graphStore)));
+        GraphViewImpl view = graphStore.viewStore.createView();
+        view.fill();
+        DirectedSubgraph graph = graphStore.viewStore.getDirectedGraph(view);
+
+        // Daemon thread so a deadlock fails the test instead of hanging the build
+        AtomicLong sum = new AtomicLong();
+        Thread thread = new Thread(() -> {
+            graph.writeLock();
+            try {
+                sum.set(graph.getNodes().parallelStream().mapToLong(n -> n.getStoreId() + 1).sum());
+            } finally {
+                graph.writeUnlock();
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        thread.join(10000);
+        Assert.assertFalse(thread.isAlive());
+        Assert.assertEquals(sum.get(), 20000L * 20001L / 2);
+    }
+
+    @Test
+    public void testSpliteratorReused() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewImpl view = graphStore.viewStore.createView();
+        view.fill();
+        DirectedSubgraph graph = graphStore.viewStore.getDirectedGraph(view);
+
+        NodeIterable nodes = graph.getNodes();
+        Assert.assertEquals(nodes.parallelStream().count(), graph.getNodeCount());
+        try {
+            nodes.parallelStream();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+        }
+        try {
+            nodes.iterator();
+            Assert.fail();
+        } catch (IllegalStateException e) {
+        }
+        Assert.assertEquals(graphStore.lock.getReadHoldCount(), 0);
+    }
+
+    @Test
+    public void testSpliteratorSplit() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewImpl view = graphStore.viewStore.createView();
+        view.fill();
+        DirectedSubgraph graph = graphStore.viewStore.getDirectedGraph(view);
+
+        Spliterator<Edge> spliterator = graph.getEdges().spliterator();
+        long estimate = spliterator.estimateSize();
+        Assert.assertTrue(estimate >= graph.getEdgeCount());
+        Spliterator<Edge> prefix = spliterator.trySplit();
+        Assert.assertNotNull(prefix);
+        Assert.assertEquals(prefix.estimateSize() + spliterator.estimateSize(), estimate);
+
+        Set<Edge> set = new HashSet<>();
+        prefix.forEachRemaining(set::add);
+        spliterator.forEachRemaining(set::add);
+        Assert.assertEquals(set, graphStore.getEdges().toSet());
+        Assert.assertEquals(graphStore.lock.getReadHoldCount(), 0);
+    }
 }
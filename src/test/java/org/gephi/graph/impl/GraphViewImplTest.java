@@ -105,6 +105,45 @@ public class GraphViewImplTest {
         Assert.assertTrue(view.containsEdge(edge));
     }
 
+    @Test
+    public void testAddAllNodesBitmap() {
+        GraphStore graphStore = GraphGenerator.generateSmallMultiTypeGraphStore();
+        GraphViewImpl view = graphStore.viewStore.createView(true, false);
+        GraphViewImpl expected = graphStore.viewStore.createView(true, false);
+
+        IdBitmap ids = new IdBitmap();
+        for (Node n : graphStore.getNodes().toArray()) {
+            if (n.getStoreId() % 2 == 0) {
+                ids.add(n.getStoreId());
+                expected.addNode(n);
+            }
+        }
+
+        Assert.assertTrue(view.addAllNodes(ids));
+        Assert.assertFalse(view.addAllNodes(ids));
+        Assert.assertEquals(view.getNodeCount(), ids.getCardinality());
+        Assert.assertEquals(view.getEdgeCount(), expected.getEdgeCount());
+        Assert.assertTrue(view.deepEquals(expected));
+    }
+
+    @Test
+    public void testAddAllEdgesBitmap() {
+        GraphStore graphStore = GraphGenerator.generateSmallMultiTypeGraphStore();
+        GraphViewImpl view = graphStore.viewStore.createView(false, true);
+
+        IdBitmap ids = new IdBitmap();
+        for (Edge e : graphStore.getEdges().toArray()) {
+            if (e.getType() == 1) {
+                ids.add(e.getStoreId());
+            }
+        }
+
+        Assert.assertTrue(view.addAllEdges(ids));
+        Assert.assertEquals(view.getEdgeCount(), ids.getCardinality());
+        Assert.assertEquals(view.getEdgeCount(1), ids.getCardinality());
+        Assert.assertEquals(view.getEdgeCount(0), 0);
+    }
+
     @Test
     public void testViewDeepEquals() {
         GraphStore graphStore = GraphGenerator.generateSmallMultiTypeGraphStore();
@@ -180,6 +219,53 @@ public class GraphViewImplTest {
         Assert.assertTrue(view2.deepEquals(view));
     }
 
+    @Test
+    public void testSparseMembership() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewImpl view = graphStore.viewStore.createView();
+        Assert.assertFalse(view.nodeBitVector.isDense());
+        Assert.assertFalse(view.edgeBitVector.isDense());
+
+        EdgeImpl edge = graphStore.getEdge("0");
+        view.addNode(edge.getSource());
+        view.addNode(edge.getTarget());
+        view.addEdge(edge);
+        Assert.assertFalse(view.edgeBitVector.isDense());
+        Assert.assertTrue(view.containsEdge(edge));
+        Assert.assertEquals(view.directedDecorator.getEdges().toArray(), new Edge[] { edge });
+
+        view.fill();
+        Assert.assertTrue(view.edgeBitVector.isDense());
+        Assert.assertEquals(view.directedDecorator.getEdges().toArray().length, graphStore.getEdgeCount());
+
+        view.clear();
+        Assert.assertFalse(view.edgeBitVector.isDense());
+        Assert.assertFalse(view.containsEdge(edge));
+    }
+
+    @Test
+    public void testViewIntersectionSparseDense() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewImpl view = graphStore.viewStore.createView();
+        GraphViewImpl view2 = graphStore.viewStore.createView();
+        view.fill();
+
+        EdgeImpl edge = graphStore.getEdge("0");
+        view2.addNode(edge.getSource());
+        view2.addNode(edge.getTarget());
+        view2.addEdge(edge);
+
+        view.intersection(view2);
+        Assert.assertEquals(view.getNodeCount(), 2);
+        Assert.assertEquals(view.getEdgeCount(), 1);
+        Assert.assertTrue(view2.deepEquals(view));
+
+        view2.fill();
+        view.union(view2);
+        Assert.assertEquals(view.getNodeCount(), graphStore.getNodeCount());
+        Assert.assertEquals(view.getEdgeCount(), graphStore.getEdgeCount());
+    }
+
     @Test
     public void testViewIntersectionEdgeView() {
         GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
@@ -458,4 +544,369 @@ public class GraphViewImplTest {
         Assert.assertNotNull(view);
         Assert.assertEquals(view, graphStore.mainGraphView);
     }
+
+    @Test
+    public void testCompact() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewStore store = graphStore.viewStore;
+        GraphViewImpl view = store.createView();
+        DirectedSubgraph graph = store.getDirectedGraph(view);
+
+        Node[] nodes = graphStore.getNodes().toArray();
+        for (int i = 0; i < nodes.length; i += 2) {
+            graph.addNode(nodes[i]);
+        }
+        for (Edge e : graphStore.getEdges().toArray()) {
+            if (graph.contains(e.getSource()) && graph.contains(e.getTarget())) {
+                graph.addEdge(e);
+            }
+        }
+        for (int i = 0; i < nodes.length; i += 3) {
+            graphStore.removeNode(nodes[i]);
+        }
+        Node[] viewNodes = graph.getNodes().toArray();
+        Edge[] viewEdges = graph.getEdges().toArray();
+        int undirectedCount = view.getUndirectedEdgeCount();
+
+        graphStore.graphModel.compact();
+
+        Assert.assertEquals(graph.getNodeCount(), viewNodes.length);
+        Assert.assertEquals(graph.getEdgeCount(), viewEdges.length);
+        Assert.assertEquals(view.getUndirectedEdgeCount(), undirectedCount);
+        Assert.assertEquals(view.nodeBitVector.size(), graphStore.nodeStore.maxStoreId());
+        Assert.assertEquals(view.edgeBitVector.size(), graphStore.edgeStore.maxStoreId());
+        Assert.assertEquals(view.nodeBitVector.cardinality(), viewNodes.length);
+        Assert.assertEquals(view.edgeBitVector.cardinality(), viewEdges.length);
+        for (Node n : viewNodes) {
+            Assert.assertTrue(graph.contains(n));
+        }
+        for (Edge e : viewEdges) {
+            Assert.assertTrue(graph.contains(e));
+        }
+    }
+
+    @Test
+    public void testCompactMutualEdges() {
+        GraphStore graphStore = new GraphModelImpl().store;
+        GraphFactory factory = graphStore.factory;
+        Node[] nodes = GraphGenerator.generateNodeList(3, graphStore);
+        graphStore.addAllNodes(Arrays.asList(nodes));
+        Edge edge = factory.newEdge(nodes[1], nodes[2], 0, true);
+        graphStore.addEdge(edge);
+        graphStore.addEdge(factory.newEdge(nodes[2], nodes[1], 0, true));
+
+        GraphViewStore store = graphStore.viewStore;
+        GraphViewImpl view = store.createView();
+        DirectedSubgraph graph = store.getDirectedGraph(view);
+        graph.addNode(nodes[1]);
+        graph.addNode(nodes[2]);
+        graph.addEdge(edge);
+        Assert.assertEquals(view.mutualEdgesCount, 1);
+
+        graphStore.removeNode(nodes[0]);
+        graphStore.graphModel.compact();
+        Assert.assertTrue(nodes[2].getStoreId() < nodes[1].getStoreId());
+        Assert.assertEquals(view.mutualEdgesCount, 0);
+
+        graph.removeEdge(edge);
+        Assert.assertEquals(view.mutualEdgesCount, 0);
+        Assert.assertEquals(view.getUndirectedEdgeCount(), 0);
+    }
+
+    @Test
+    public void testFillThenStoreGrowth() {
+        GraphStore graphStore = new GraphStore();
+        for (int i = 0; i < 70; i++) {
+            graphStore.addNode(graphStore.factory.newNode(String.valueOf(i)));
+        }
+        GraphViewImpl view = graphStore.viewStore.createView();
+        view.fill();
+
+        for (int i = 70; i < 200; i++) {
+            graphStore.addNode(graphStore.factory.newNode(String.valueOf(i)));
+        }
+        Assert.assertEquals(view.getNodeCount(), 70);
+        Assert.assertEquals(view.getDirectedGraph().getNodes().toArray().length, 70);
+        Assert.assertFalse(view.containsNode(graphStore.getNode("100")));
+        Assert.assertTrue(view.containsNode(graphStore.getNode("69")));
+    }
+
+    @Test
+    public void testFillWithGarbage() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        graphStore.removeNode(graphStore.getNodes().toArray()[0]);
+        GraphViewStore store = graphStore.viewStore;
+        GraphViewImpl view = store.createView();
+        view.fill();
+
+        Assert.assertEquals(view.nodeBitVector.cardinality(), graphStore.getNodeCount());
+        Assert.assertEquals(view.edgeBitVector.cardinality(), graphStore.getEdgeCount());
+        assertCounts(view);
+    }
+
+    @Test
+    public void testSetOperationCounts() {
+        GraphStore graphStore = GraphGenerator.generateSmallMultiTypeGraphStore();
+        GraphViewStore store = graphStore.viewStore;
+        GraphViewImpl view1 = store.createView();
+        GraphViewImpl view2 = store.createView();
+        DirectedSubgraph graph1 = store.getDirectedGraph(view1);
+        DirectedSubgraph graph2 = store.getDirectedGraph(view2);
+        graph1.fill();
+        graph2.fill();
+
+        int i = 0;
+        for (Edge e : graphStore.getEdges().toArray()) {
+            if (i++ % 2 == 0) {
+                graph1.removeEdge(e);
+            } else {
+                graph2.removeEdge(e);
+            }
+        }
+        graph1.removeNode(graphStore.getNodes().toArray()[0]);
+
+        GraphViewImpl union = store.createView(view1);
+        union.union(view2);
+        assertCounts(union);
+
+        GraphViewImpl intersection = store.createView(view1);
+        intersection.intersection(view2);
+        assertCounts(intersection);
+        Assert.assertEquals(intersection.getEdgeCount(), 0);
+
+        union.not();
+        assertCounts(union);
+    }
+
+    @Test
+    public void testUnionNodeView() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewStore store = graphStore.viewStore;
+        GraphViewImpl view1 = store.createView(true, false);
+        GraphViewImpl view2 = store.createView(true, false);
+
+        Node[] nodes = graphStore.getNodes().toArray();
+        for (int i = 0; i < nodes.length; i++) {
+            (i % 2 == 0 ? view1 : view2).addNode(nodes[i]);
+        }
+        view1.union(view2);
+        assertCounts(view1);
+        Assert.assertEquals(view1.getEdgeCount(), graphStore.getEdgeCount());
+    }
+
+    @Test
+    public void testDegrees() {
+        GraphStore graphStore = GraphGenerator.generateSmallMultiTypeGraphStore();
+        GraphViewStore store = graphStore.viewStore;
+        GraphViewImpl view = store.createView();
+        DirectedSubgraph graph = store.getDirectedGraph(view);
+        assertDegrees(view);
+
+        int i = 0;
+        for (Node n : graphStore.getNodes().toArray()) {
+            if (i++ % 3 != 0) {
+                graph.addNode(n);
+            }
+        }
+        i = 0;
+        for (Edge e : graphStore.getEdges().toArray()) {
+            if (i++ % 4 != 0 && graph.contains(e.getSource()) && graph.contains(e.getTarget())) {
+                graph.addEdge(e);
+            }
+        }
+        assertDegrees(view);
+
+        i = 0;
+        for (Edge e : graph.getEdges().toArray()) {
+            if (i++ % 2 == 0) {
+                graph.removeEdge(e);
+            }
+        }
+        assertDegrees(view);
+
+        graph.removeNode(graph.getNodes().toArray()[0]);
+        assertDegrees(view);
+
+        view.not();
+        assertDegrees(view);
+
+        view.fill();
+        assertDegrees(view);
+
+        view.clearEdges();
+        assertDegrees(view);
+
+        view.clear();
+        assertDegrees(view);
+    }
+
+    @Test
+    public void testDegreesSetOperations() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewStore store = graphStore.viewStore;
+        GraphViewImpl view1 = store.createView();
+        GraphViewImpl view2 = store.createView();
+        DirectedSubgraph graph1 = store.getDirectedGraph(view1);
+        DirectedSubgraph graph2 = store.getDirectedGraph(view2);
+        graph1.fill();
+        graph2.fill();
+        assertDegrees(view1);
+
+        int i = 0;
+        for (Edge e : graphStore.getEdges().toArray()) {
+            if (i++ % 2 == 0) {
+                graph2.removeEdge(e);
+            }
+        }
+
+        view1.intersection(view2);
+        assertDegrees(view1);
+
+        graph2.fill();
+        view1.union(view2);
+        assertDegrees(view1);
+    }
+
+    @Test
+    public void testDegreesMutualEdges() {
+        GraphStore graphStore = new GraphModelImpl().store;
+        GraphFactory factory = graphStore.factory;
+        Node[] nodes = GraphGenerator.generateNodeList(2, graphStore);
+        graphStore.addAllNodes(Arrays.asList(nodes));
+        Edge edge = factory.newEdge(nodes[0], nodes[1], 0, true);
+        Edge reverse = factory.newEdge(nodes[1], nodes[0], 0, true);
+        graphStore.addEdge(edge);
+        graphStore.addEdge(reverse);
+
+        GraphViewStore store = graphStore.viewStore;
+        GraphViewImpl view = store.createView();
+        DirectedSubgraph graph = store.getDirectedGraph(view);
+        UndirectedSubgraph undirectedGraph = store.getUndirectedGraph(view);
+        graph.addNode(nodes[0]);
+        graph.addNode(nodes[1]);
+        graph.addEdge(edge);
+        Assert.assertEquals(undirectedGraph.getDegree(nodes[0]), 1);
+        Assert.assertEquals(view.getMutualDegrees()[nodes[0].getStoreId()], 0);
+
+        graph.addEdge(reverse);
+        Assert.assertEquals(graph.getDegree(nodes[0]), 2);
+        Assert.assertEquals(undirectedGraph.getDegree(nodes[0]), 1);
+        Assert.assertEquals(undirectedGraph.getDegree(nodes[1]), 1);
+        Assert.assertEquals(view.getMutualDegrees()[nodes[1].getStoreId()], 1);
+
+        graph.removeEdge(edge);
+        Assert.assertEquals(undirectedGraph.getDegree(nodes[0]), 1);
+        Assert.assertEquals(graph.getInDegree(nodes[0]), 1);
+        Assert.assertEquals(graph.getOutDegree(nodes[0]), 0);
+        assertDegrees(view);
+    }
+
+    @Test
+    public void testDegreesStoreUpdate() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewStore store = graphStore.viewStore;
+        GraphViewImpl view = store.createView();
+        DirectedSubgraph graph = store.getDirectedGraph(view);
+        NodeImpl n1 = graphStore.getNode("0");
+        NodeImpl n2 = graphStore.getNode("1");
+        graph.addNode(n1);
+        graph.addNode(n2);
+        assertDegrees(view);
+
+        Edge edge = graphStore.factory.newEdge("edge", n1, n2, 0, 1.0, true);
+        graphStore.addEdge(edge);
+        graph.addEdge(edge);
+        assertDegrees(view);
+        Edge reverse = graphStore.factory.newEdge("reverse", n2, n1, 0, 1.0, true);
+        graphStore.addEdge(reverse);
+        assertDegrees(view);
+        graph.addEdge(reverse);
+        assertDegrees(view);
+        Assert.assertEquals(view.getUndirectedDegree(n1), 1);
+
+        NodeImpl n3 = (NodeImpl) graphStore.factory.newNode("new");
+        graphStore.addNode(n3);
+        graph.addNode(n3);
+        Edge other = graphStore.factory.newEdge("new", n3, n1, 0, 1.0, true);
+        graphStore.addEdge(other);
+        graph.addEdge(other);
+        assertDegrees(view);
+
+        graphStore.removeEdge(edge);
+        assertDegrees(view);
+        Assert.assertEquals(view.getUndirectedDegree(n1), 2);
+    }
+
+    @Test
+    public void testDegreesCompact() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphViewStore store = graphStore.viewStore;
+        GraphViewImpl view = store.createView();
+        store.getDirectedGraph(view).fill();
+        assertDegrees(view);
+
+        graphStore.removeNode(graphStore.getNodes().toArray()[0]);
+        assertDegrees(view);
+
+        graphStore.graphModel.compact();
+        assertDegrees(view);
+    }
+
+    private void assertCounts(GraphViewImpl view) {
+        GraphStore graphStore = view.graphStore;
+        int nodeCount = 0;
+        for (Node n : graphStore.getNodes()) {
+            if (view.containsNode((NodeImpl) n)) {
+                nodeCount++;
+            }
+        }
+        int edgeCount = 0;
+        int mutualCount = 0;
+        int[] typeCounts = new int[view.typeCounts.length];
+        for (Edge e : graphStore.getEdges()) {
+            EdgeImpl edge = (EdgeImpl) e;
+            if (view.containsEdge(edge)) {
+                Assert.assertTrue(view.containsNode(edge.source));
+                Assert.assertTrue(view.containsNode(edge.target));
+                edgeCount++;
+                typeCounts[edge.type]++;
+                if (edge.isMutual() && edge.source.storeId < edge.target.storeId) {
+                    mutualCount++;
+                }
+            }
+        }
+        Assert.assertEquals(view.getNodeCount(), nodeCount);
+        Assert.assertEquals(view.getEdgeCount(), edgeCount);
+        Assert.assertEquals(view.getUndirectedEdgeCount(), edgeCount - mutualCount);
+        Assert.assertEquals(view.typeCounts, typeCounts);
+        assertDegrees(view);
+    }
+
+    private void assertDegrees(GraphViewImpl view) {
+        for (Node n : view.graphStore.getNodes()) {
+            NodeImpl node = (NodeImpl) n;
+            int in = 0;
+            int out = 0;
+            int undirected = 0;
+            EdgeStore.EdgeInOutIterator itr = view.graphStore.edgeStore.edgeIterator(node);
+            while (itr.hasNext()) {
+                EdgeImpl edge = itr.next();
+                if (view.containsEdge(edge)) {
+                    if (edge.target == node) {
+                        in++;
+                    }
+                    if (edge.source == node) {
+                        out++;
+                    }
+                    if (!view.undirectedDecorator.isUndirectedToIgnore(edge)) {
+                        undirected += edge.isSelfLoop() ? 2 : 1;
+                    }
+                }
+            }
+            Assert.assertEquals(view.getInDegree(node), in);
+            Assert.assertEquals(view.getOutDegree(node), out);
+            Assert.assertEquals(view.getDegree(node), in + out);
+            Assert.assertEquals(view.getUndirectedDegree(node), undirected);
+        }
+    }
 }
@@ -336,6 +336,25 @@ public class GraphViewStoreTest {
         Assert.assertTrue(copyView.containsNode(n1));
     }
 
+    @Test
+    public void testViewCopyDense() {
+        GraphStore graphStore = GraphGenerator.generateSmallMultiTypeGraphStore();
+        GraphViewStore store = graphStore.viewStore;
+        GraphViewImpl view = store.createView(store.getVisibleView());
+        Assert.assertTrue(view.nodeBitVector.isDense());
+
+        GraphViewImpl copyView = store.createView(view);
+        NodeImpl n1 = graphStore.getNode("0");
+        copyView.removeNode(n1);
+        Assert.assertTrue(view.containsNode(n1));
+        Assert.assertEquals(view.getNodeCount(), graphStore.getNodeCount());
+        Assert.assertEquals(view.getEdgeCount(), graphStore.getEdgeCount());
+
+        view.clearEdges();
+        Assert.assertEquals(copyView.getNodeCount(), graphStore.getNodeCount() - 1);
+        Assert.assertEquals(copyView.getEdgeCount(), graphStore.getEdgeCount() - graphStore.getDegree(n1));
+    }
+
     @Test
     public void testViewCopyMain() {
         GraphStore graphStore = GraphGenerator.generateSmallMultiTypeGraphStore();
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
+import java.util.Arrays;
+import java.util.Random;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class IdBitmapTest {
+
+    @Test
+    public void testEmpty() {
+        IdBitmap bitmap = new IdBitmap();
+        Assert.assertTrue(bitmap.isEmpty());
+        Assert.assertEquals(bitmap.getCardinality(), 0);
+        Assert.assertFalse(bitmap.contains(0));
+        Assert.assertFalse(bitmap.iterator().hasNext());
+        Assert.assertFalse(bitmap.remove(0));
+    }
+
+    @Test
+    public void testAdd() {
+        IdBitmap bitmap = new IdBitmap();
+        Assert.assertTrue(bitmap.add(5));
+        Assert.assertFalse(bitmap.add(5));
+        Assert.assertTrue(bitmap.add(70000));
+        Assert.assertEquals(bitmap.getCardinality(), 2);
+        Assert.assertTrue(bitmap.contains(5));
+        Assert.assertTrue(bitmap.contains(70000));
+        Assert.assertFalse(bitmap.contains(6));
+        Assert.assertEquals(bitmap.toArray(), new int[] { 5, 70000 });
+    }
+
+    @Test
+    public void testNext() {
+        IdBitmap bitmap = new IdBitmap();
+        bitmap.add(5);
+        bitmap.add(70000);
+        Assert.assertEquals(bitmap.next(0), 5);
+        Assert.assertEquals(bitmap.next(5), 5);
+        Assert.assertEquals(bitmap.next(6), 70000);
+        Assert.assertEquals(bitmap.next(70001), -1);
+        for (int i = 0; i < IdBitmap.ARRAY_MAX_SIZE + 1; i++) {
+            bitmap.add(i * 2);
+        }
+        Assert.assertEquals(bitmap.next(101), 102);
+    }
+
+    @Test
+    public void testRemove() {
+        IdBitmap bitmap = new IdBitmap();
+        bitmap.add(5);
+        bitmap.add(70000);
+        Assert.assertTrue(bitmap.remove(70000));
+        Assert.assertFalse(bitmap.remove(70000));
+        Assert.assertEquals(bitmap.getCardinality(), 1);
+        Assert.assertEquals(bitmap.size, 1);
+        Assert.assertFalse(bitmap.contains(70000));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testAddNegative() {
+        new IdBitmap().add(-1);
+    }
+
+    @Test
+    public void testDenseContainer() {
+        IdBitmap bitmap = new IdBitmap();
+        for (int i = 0; i < 10000; i++) {
+            bitmap.add(i * 2);
+        }
+        Assert.assertEquals(bitmap.getCardinality(), 10000);
+        Assert.assertTrue(bitmap.containers[0] instanceof IdBitmap.BitmapContainer);
+        for (int i = 0; i < 20000; i++) {
+            Assert.assertEquals(bitmap.contains(i), i % 2 == 0);
+        }
+
+        for (int i = 0; i < 9000; i++) {
+            bitmap.remove(i * 2);
+        }
+        Assert.assertEquals(bitmap.getCardinality(), 1000);
+        Assert.assertTrue(bitmap.containers[0] instanceof IdBitmap.ArrayContainer);
+        Assert.assertEquals(bitmap.toArray()[0], 18000);
+    }
+
+    @Test
+    public void testIteratorOrder() {
+        IdBitmap bitmap = new IdBitmap();
+        int[] ids = new int[] { 200000, 3, 65536, 65535, 1 };
+        for (int id : ids) {
+            bitmap.add(id);
+        }
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        Assert.assertEquals(bitmap.toArray(), sorted);
+    }
+
+    @Test
+    public void testCopy() {
+        IdBitmap bitmap = generateRandomBitmap(new Random(1), new IntOpenHashSet(), 5000, 200000);
+        IdBitmap copy = bitmap.copy();
+        Assert.assertEquals(copy, bitmap);
+        Assert.assertEquals(copy.hashCode(), bitmap.hashCode());
+        copy.add(300000);
+        Assert.assertNotEquals(copy, bitmap);
+        Assert.assertFalse(bitmap.contains(300000));
+    }
+
+    @Test
+    public void testClear() {
+        IdBitmap bitmap = generateRandomBitmap(new Random(1), new IntOpenHashSet(), 100, 1000);
+        bitmap.clear();
+        Assert.assertTrue(bitmap.isEmpty());
+        Assert.assertFalse(bitmap.iterator().hasNext());
+    }
+
+    @Test
+    public void testAndOrAndNot() {
+        Random random = new Random(42);
+        for (int bound : new int[] { 1000, 70000, 300000 }) {
+            for (int count : new int[] { 10, 5000, 40000 }) {
+                IntSet s1 = new IntOpenHashSet();
+                IntSet s2 = new IntOpenHashSet();
+                IdBitmap b1 = generateRandomBitmap(random, s1, count, bound);
+                IdBitmap b2 = generateRandomBitmap(random, s2, count / 2, bound);
+
+                IntSet and = new IntOpenHashSet(s1);
+                and.retainAll(s2);
+                IntSet or = new IntOpenHashSet(s1);
+                or.addAll(s2);
+                IntSet andNot = new IntOpenHashSet(s1);
+                andNot.removeAll(s2);
+
+                assertSame(IdBitmap.and(b1, b2), and);
+                assertSame(IdBitmap.and(b2, b1), and);
+                assertSame(IdBitmap.or(b1, b2), or);
+                assertSame(IdBitmap.or(b2, b1), or);
+                assertSame(IdBitmap.andNot(b1, b2), andNot);
+            }
+        }
+    }
+
+    @Test
+    public void testOperationsDontModifyOperands() {
+        IdBitmap b1 = new IdBitmap();
+        IdBitmap b2 = new IdBitmap();
+        b1.add(1);
+        b2.add(2);
+        IdBitmap or = IdBitmap.or(b1, b2);
+        or.add(3);
+        Assert.assertEquals(b1.toArray(), new int[] { 1 });
+        Assert.assertEquals(b2.toArray(), new int[] { 2 });
+    }
+
+    // UTILITY
+    private IdBitmap generateRandomBitmap(Random random, IntSet set, int count, int bound) {
+        IdBitmap bitmap = new IdBitmap();
+        for (int i = 0; i < count; i++) {
+            int id = random.nextInt(bound);
+            Assert.assertEquals(bitmap.add(id), set.add(id));
+        }
+        Assert.assertEquals(bitmap.getCardinality(), set.size());
+        return bitmap;
+    }
+
+    private void assertSame(IdBitmap bitmap, IntSet set) {
+        Assert.assertEquals(bitmap.getCardinality(), set.size());
+        int last = -1;
+        for (IntIterator itr = bitmap.iterator(); itr.hasNext();) {
+            int id = itr.nextInt();
+            Assert.assertTrue(id > last);
+            Assert.assertTrue(set.contains(id));
+            last = id;
+        }
+    }
+}
@@ -19,6 +19,7 @@ package org.gephi.graph.impl;
 import java.util.ArrayList;
 import java.util.List;
 import org.gephi.graph.api.Column;
+import org.gephi.graph.api.Configuration;
 import org.gephi.graph.api.Edge;
 import org.gephi.graph.api.Graph;
 import org.gephi.graph.api.GraphView;
@@ -576,6 +577,114 @@ public class IndexStoreTest {
         return nodes;
     }
 
+    @Test
+    public void testDeferredIndex() {
+        GraphStore graphStore = generateDeferredGraphStore(2);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Column column = graphStore.nodeTable.getColumn("foo");
+        Assert.assertTrue(index.isDeferred(column));
+
+        Node n1 = graphStore.getNode("1");
+        n1.setAttribute(column, "bar");
+        Assert.assertEquals(index.count(column, "bar"), 1);
+        Assert.assertTrue(index.isDeferred(column));
+
+        Assert.assertEquals(index.count(column, null), 1);
+        Assert.assertFalse(index.isDeferred(column));
+        Assert.assertTrue(index.getColumnIndex(column) instanceof ColumnStandardIndexImpl);
+        Assert.assertEquals(index.countElements(column), 2);
+        Assert.assertEquals(index.countValues(column), 2);
+
+        n1.setAttribute(column, "foo");
+        Assert.assertEquals(index.count(column, "bar"), 0);
+        Assert.assertEquals(index.count(column, "foo"), 1);
+    }
+
+    @Test
+    public void testDeferredIndexAddColumn() {
+        GraphStore graphStore = generateDeferredGraphStore(1);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Column column = graphStore.nodeTable.addColumn("bar", Integer.class);
+        Assert.assertTrue(index.isDeferred(column));
+
+        graphStore.getNode("2").setAttribute(column, 42);
+        Assert.assertEquals(index.getMaxValue(column), 42);
+        Assert.assertFalse(index.isDeferred(column));
+    }
+
+    @Test
+    public void testDeferredViewIndex() {
+        GraphStore graphStore = generateDeferredGraphStore(1);
+        Column column = graphStore.nodeTable.getColumn("foo");
+        NodeImpl n1 = graphStore.getNode("1");
+        n1.setAttribute(column, "bar");
+
+        GraphView view = graphStore.viewStore.createView();
+        Graph graph = graphStore.viewStore.getGraph(view);
+        graph.addNode(n1);
+
+        IndexImpl index = graphStore.nodeTable.store.indexStore.createViewIndex(graph);
+        Assert.assertTrue(index.isDeferred(column));
+        Assert.assertEquals(index.count(column, "bar"), 1);
+        Assert.assertFalse(index.isDeferred(column));
+        Assert.assertEquals(index.countElements(column), 1);
+
+        graph.addNode(graphStore.getNode("2"));
+        Assert.assertEquals(index.countElements(column), 2);
+        Assert.assertEquals(index.count(column, null), 1);
+    }
+
+    @Test
+    public void testDeferredIndexBuildDuringWrite() throws InterruptedException {
+        GraphStore graphStore = generateDeferredGraphStore(1);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+        Column column = graphStore.nodeTable.getColumn("foo");
+
+        // Daemon threads so a deadlock fails the test instead of hanging the build
+        Thread reader = new Thread(() -> index.count(column, null));
+        reader.setDaemon(true);
+        Thread writer = new Thread(() -> {
+            graphStore.writeLock();
+            try {
+                reader.start();
+                while (!graphStore.lock.readWriteLock.hasQueuedThread(reader)) {
+                    Thread.yield();
+                }
+                // Indexes the new node under the write lock while the reader waits
+                graphStore.addNode(graphStore.factory.newNode("3"));
+            } finally {
+                graphStore.writeUnlock();
+            }
+        });
+        writer.setDaemon(true);
+        writer.start();
+        writer.join(5000);
+        reader.join(5000);
+        Assert.assertFalse(writer.isAlive());
+        Assert.assertFalse(reader.isAlive());
+
+        Assert.assertFalse(index.isDeferred(column));
+        Assert.assertEquals(index.count(column, null), 3);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testDeferredIndexInvalidThreshold() {
+        Configuration config = new Configuration();
+        config.setIndexQueryThreshold(-1);
+        new GraphModelImpl(config);
+    }
+
+    private GraphStore generateDeferredGraphStore(int threshold) {
+        Configuration config = new Configuration();
+        config.setIndexQueryThreshold(threshold);
+        GraphModelImpl graphModel = new GraphModelImpl(config);
+        graphModel.getNodeTable().addColumn("foo", String.class);
+        GraphStore graphStore = graphModel.store;
+        graphStore.addNode(graphStore.factory.newNode("1"));
+        graphStore.addNode(graphStore.factory.newNode("2"));
+        return graphStore;
+    }
+
     private GraphStore generateBasicGraphStoreWithColumns() {
         GraphStore graphStore = new GraphStore();
         ColumnStore<Node> columnStore = graphStore.nodeTable.store;
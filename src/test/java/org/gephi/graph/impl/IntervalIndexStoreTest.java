@@ -16,10 +16,13 @@
 
 package org.gephi.graph.impl;
 
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import it.unimi.dsi.fastutil.objects.ObjectSet;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import org.gephi.graph.api.Column;
 import org.gephi.graph.api.Configuration;
 import org.gephi.graph.api.Graph;
@@ -34,6 +37,10 @@ import org.testng.annotations.Test;
 
 public class IntervalIndexStoreTest {
 
+    private static final Interval[] DIFFERENCE_WINDOWS = new Interval[] { new Interval(0.0, 10.0), new Interval(2.0,
+            12.0), new Interval(2.0, 8.0), new Interval(0.0,
+                    4.0), new Interval(15.0, 20.0), new Interval(10.0, 10.0), Interval.INFINITY_INTERVAL };
+
     @Test
     public void testEmpty() {
         IntervalIndexStore<Node> store = new IntervalIndexStore<>(Node.class, null, false);
@@ -632,6 +639,31 @@ public class IntervalIndexStoreTest {
     }
 
     // UTILITY
+    @Test
+    public void testCollectIndexesInDifference() {
+        IntervalIndexStore<Node> store = new IntervalIndexStore<>(Node.class, null, false);
+        for (double low = -1.0; low <= 21.0; low += 1.5) {
+            store.add(new Interval(low, low));
+            store.add(new Interval(low, low + 0.5));
+            store.add(new Interval(low, low + 6.0));
+        }
+        store.add(new Interval(-100.0, 100.0));
+
+        for (Interval first : DIFFERENCE_WINDOWS) {
+            for (Interval second : DIFFERENCE_WINDOWS) {
+                IntSet expected = new IntOpenHashSet();
+                for (Map.Entry<Interval, Integer> entry : store.getMap().entrySet()) {
+                    if ((entry.getKey().compareTo(first) == 0) != (entry.getKey().compareTo(second) == 0)) {
+                        expected.add(entry.getValue());
+                    }
+                }
+                IntSet result = new IntOpenHashSet();
+                store.collectIndexesInDifference(first, second, result);
+                Assert.assertEquals(result, expected, first + " " + second);
+            }
+        }
+    }
+
     private <T> Object[] getArrayFromIterable(Iterable<T> iterable) {
         List<T> list = new ArrayList<>();
         for (T t : iterable) {
@@ -0,0 +1,263 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.util.Arrays;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.api.NodeLayoutArrays;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class NodeLayoutArraysImplTest {
+
+    @Test
+    public void testEnable() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphModelImpl graphModel = graphStore.graphModel;
+        Assert.assertFalse(graphModel.isNodeLayoutArraysEnabled());
+
+        NodeImpl node = (NodeImpl) graphStore.getNodes().toArray()[0];
+        node.setPosition(1f, 2f, 3f);
+        node.setSize(4f);
+        node.setColor(Color.RED);
+        node.setFixed(true);
+
+        graphModel.setNodeLayoutArraysEnabled(true);
+        Assert.assertTrue(graphModel.isNodeLayoutArraysEnabled());
+
+        NodeLayoutArrays arrays = graphModel.getNodeLayoutArrays();
+        Assert.assertEquals(arrays.getMaxStoreId(), graphStore.nodeStore.maxStoreId());
+        Assert.assertTrue(arrays.getX().length >= arrays.getMaxStoreId());
+        int id = node.getStoreId();
+        Assert.assertEquals(arrays.getX()[id], 1f);
+        Assert.assertEquals(arrays.getY()[id], 2f);
+        Assert.assertEquals(arrays.getZ()[id], 3f);
+        Assert.assertEquals(arrays.getSize()[id], 4f);
+        Assert.assertEquals(arrays.getRGBA()[id], Color.RED.getRGB());
+        Assert.assertTrue(arrays.getFixed()[id]);
+    }
+
+    @Test
+    public void testDisable() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphModelImpl graphModel = graphStore.graphModel;
+        graphModel.setNodeLayoutArraysEnabled(true);
+
+        NodeImpl node = (NodeImpl) graphStore.getNodes().toArray()[0];
+        int id = node.getStoreId();
+        NodeLayoutArrays arrays = graphModel.getNodeLayoutArrays();
+        arrays.getX()[id] = 5f;
+        arrays.getSize()[id] = 6f;
+        arrays.getFixed()[id] = true;
+
+        graphModel.setNodeLayoutArraysEnabled(false);
+        Assert.assertFalse(graphModel.isNodeLayoutArraysEnabled());
+        Assert.assertEquals(node.properties.x, 5f);
+        Assert.assertEquals(node.x(), 5f);
+        Assert.assertEquals(node.size(), 6f);
+        Assert.assertTrue(node.isFixed());
+    }
+
+    @Test
+    public void testEnableTwice() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphModelImpl graphModel = graphStore.graphModel;
+        graphModel.setNodeLayoutArraysEnabled(true);
+        NodeLayoutArrays arrays = graphModel.getNodeLayoutArrays();
+        graphModel.setNodeLayoutArraysEnabled(true);
+        Assert.assertSame(graphModel.getNodeLayoutArrays(), arrays);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void testGetDisabled() {
+        GraphModelImpl graphModel = new GraphModelImpl();
+        graphModel.getNodeLayoutArrays();
+    }
+
+    @Test
+    public void testSetters() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphModelImpl graphModel = graphStore.graphModel;
+        graphModel.setNodeLayoutArraysEnabled(true);
+        NodeLayoutArrays arrays = graphModel.getNodeLayoutArrays();
+
+        NodeImpl node = (NodeImpl) graphStore.getNodes().toArray()[0];
+        int id = node.getStoreId();
+        node.setX(1f);
+        node.setY(2f);
+        node.setZ(3f);
+        node.setSize(4f);
+        node.setFixed(true);
+        Assert.assertEquals(arrays.getX()[id], 1f);
+        Assert.assertEquals(arrays.getY()[id], 2f);
+        Assert.assertEquals(arrays.getZ()[id], 3f);
+        Assert.assertEquals(arrays.getSize()[id], 4f);
+        Assert.assertTrue(arrays.getFixed()[id]);
+
+        node.setPosition(5f, 6f);
+        Assert.assertEquals(arrays.getX()[id], 5f);
+        Assert.assertEquals(arrays.getY()[id], 6f);
+        node.setPosition(7f, 8f, 9f);
+        Assert.assertEquals(arrays.getZ()[id], 9f);
+
+        node.setColor(Color.BLUE);
+        Assert.assertEquals(arrays.getRGBA()[id], Color.BLUE.getRGB());
+        node.setR(1f);
+        node.setAlpha(0f);
+        Assert.assertEquals(node.r(), 1f);
+        Assert.assertEquals(node.b(), 1f);
+        Assert.assertEquals(node.alpha(), 0f);
+        Assert.assertEquals(arrays.getRGBA()[id], 0x00FF00FF);
+    }
+
+    @Test
+    public void testGetters() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphModelImpl graphModel = graphStore.graphModel;
+        graphModel.setNodeLayoutArraysEnabled(true);
+        NodeLayoutArrays arrays = graphModel.getNodeLayoutArrays();
+
+        NodeImpl node = (NodeImpl) graphStore.getNodes().toArray()[0];
+        int id = node.getStoreId();
+        arrays.getX()[id] = 1f;
+        arrays.getY()[id] = 2f;
+        arrays.getZ()[id] = 3f;
+        arrays.getSize()[id] = 4f;
+        arrays.getRGBA()[id] = Color.GREEN.getRGB();
+        arrays.getFixed()[id] = true;
+
+        Assert.assertEquals(node.x(), 1f);
+        Assert.assertEquals(node.y(), 2f);
+        Assert.assertEquals(node.z(), 3f);
+        Assert.assertEquals(node.size(), 4f);
+        Assert.assertEquals(node.getColor(), Color.GREEN);
+        Assert.assertEquals(node.g(), 1f);
+        Assert.assertTrue(node.isFixed());
+    }
+
+    @Test
+    public void testAddRemove() {
+        GraphStore graphStore = GraphGenerator.generateEmptyGraphStore();
+        GraphModelImpl graphModel = graphStore.graphModel;
+        graphModel.setNodeLayoutArraysEnabled(true);
+
+        NodeImpl[] nodes = GraphGenerator.generateNodeList(GraphStoreConfiguration.NODESTORE_BLOCK_SIZE, graphStore);
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i].setX(i);
+        }
+        graphStore.addAllNodes(Arrays.asList(nodes));
+
+        NodeLayoutArrays arrays = graphModel.getNodeLayoutArrays();
+        Assert.assertTrue(arrays.getX().length >= arrays.getMaxStoreId());
+        for (int i = 0; i < nodes.length; i++) {
+            Assert.assertEquals(arrays.getX()[nodes[i].getStoreId()], (float) i);
+        }
+
+        NodeImpl node = nodes[10];
+        node.setY(42f);
+        graphStore.removeNode(node);
+        Assert.assertEquals(node.x(), 10f);
+        Assert.assertEquals(node.y(), 42f);
+    }
+
+    @Test
+    public void testClear() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphModelImpl graphModel = graphStore.graphModel;
+        graphModel.setNodeLayoutArraysEnabled(true);
+
+        NodeImpl node = (NodeImpl) graphStore.getNodes().toArray()[0];
+        node.setX(3f);
+        graphStore.clear();
+        Assert.assertEquals(node.x(), 3f);
+        Assert.assertTrue(graphModel.isNodeLayoutArraysEnabled());
+
+        graphStore.addNode(node);
+        Assert.assertEquals(graphModel.getNodeLayoutArrays().getX()[node.getStoreId()], 3f);
+    }
+
+    @Test
+    public void testUpdatePositions() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphModelImpl graphModel = graphStore.graphModel;
+        graphModel.setNodeLayoutArraysEnabled(true);
+        NodeLayoutArrays arrays = graphModel.getNodeLayoutArrays();
+
+        int length = arrays.getMaxStoreId();
+        float[] xs = new float[length];
+        float[] ys = new float[length];
+        for (int i = 0; i < length; i++) {
+            xs[i] = i;
+            ys[i] = -i;
+        }
+        arrays.updatePositions(xs, ys);
+
+        for (Node n : graphStore.getNodes()) {
+            Assert.assertEquals(n.x(), (float) n.getStoreId());
+            Assert.assertEquals(n.y(), (float) -n.getStoreId());
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUpdatePositionsTooShort() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphModelImpl graphModel = graphStore.graphModel;
+        graphModel.setNodeLayoutArraysEnabled(true);
+        NodeLayoutArrays arrays = graphModel.getNodeLayoutArrays();
+        arrays.updatePositions(new float[arrays.getMaxStoreId() - 1], new float[arrays.getMaxStoreId()]);
+    }
+
+    @Test
+    public void testCompact() {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphModelImpl graphModel = graphStore.graphModel;
+        graphModel.setNodeLayoutArraysEnabled(true);
+
+        Node[] nodes = graphStore.getNodes().toArray();
+        for (Node n : nodes) {
+            n.setX(n.getStoreId());
+        }
+        graphStore.removeNode(nodes[0]);
+        Node last = nodes[nodes.length - 1];
+        graphModel.compact();
+
+        Assert.assertEquals(last.getStoreId(), 0);
+        Assert.assertEquals(last.x(), (float) nodes.length - 1);
+        Assert.assertEquals(graphModel.getNodeLayoutArrays().getX()[0], (float) nodes.length - 1);
+    }
+
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        GraphModelImpl graphModel = graphStore.graphModel;
+        graphModel.setNodeLayoutArraysEnabled(true);
+
+        NodeImpl node = (NodeImpl) graphStore.getNodes().toArray()[0];
+        Object id = node.getId();
+        node.setPosition(1f, 2f);
+
+        Serialization ser = new Serialization(graphModel);
+        byte[] buf = ser.serialize(graphStore);
+        graphStore.clear();
+
+        GraphStore l = (GraphStore) ser.deserialize(buf);
+        NodeImpl copy = l.getNode(id);
+        Assert.assertEquals(copy.x(), 1f);
+        Assert.assertEquals(copy.y(), 2f);
+    }
+}
@@ -15,6 +15,8 @@
  */
 package org.gephi.graph.impl;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntList;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import java.util.ArrayList;
@@ -24,6 +26,9 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Random;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
 import org.gephi.graph.api.Node;
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -502,6 +507,100 @@ public class NodeStoreTest {
         nodeStore.add(node2);
     }
 
+    @Test
+    public void testCompact() {
+        NodeStore store = GraphGenerator.generateLargeNodeStore();
+        removeSomeNodes(store, 0.5f);
+        List<NodeImpl> nodes = new ArrayList<>(Arrays.asList(store.toArray()));
+
+        IntList moves = new IntArrayList();
+        Assert.assertTrue(store.compact(Integer.MAX_VALUE, moves));
+        Assert.assertFalse(moves.isEmpty());
+        Assert.assertEquals(store.garbageSize, 0);
+        Assert.assertEquals(store.maxStoreId(), nodes.size());
+        Assert.assertEquals(store.blocksCount, (nodes.size() - 1) / GraphStoreConfiguration.NODESTORE_BLOCK_SIZE + 1);
+        for (int i = 0; i < moves.size(); i += 2) {
+            Assert.assertTrue(moves.getInt(i) > moves.getInt(i + 1));
+        }
+        for (NodeImpl n : nodes) {
+            Assert.assertSame(store.get(n.getStoreId()), n);
+            Assert.assertSame(store.get(n.getId()), n);
+        }
+        testContainsOnly(store, nodes);
+    }
+
+    @Test
+    public void testCompactSlices() {
+        NodeStore store = GraphGenerator.generateLargeNodeStore();
+        removeSomeNodes(store, 0.5f);
+        List<NodeImpl> nodes = new ArrayList<>(Arrays.asList(store.toArray()));
+
+        IntList moves = new IntArrayList();
+        int calls = 0;
+        while (!store.compact(100, moves)) {
+            Assert.assertEquals(moves.size(), 200);
+            moves.clear();
+            testContainsOnly(store, nodes);
+            calls++;
+        }
+        Assert.assertTrue(calls > 0);
+        Assert.assertEquals(store.garbageSize, 0);
+        Assert.assertEquals(store.maxStoreId(), nodes.size());
+        testContainsOnly(store, nodes);
+    }
+
+    @Test
+    public void testCompactTrailingGarbage() {
+        NodeStore store = GraphGenerator.generateNodeStore(10);
+        NodeImpl last = store.get(9);
+        store.remove(last);
+        store.remove(store.get(8));
+
+        IntList moves = new IntArrayList();
+        Assert.assertTrue(store.compact(0, moves));
+        Assert.assertTrue(moves.isEmpty());
+        Assert.assertEquals(store.garbageSize, 0);
+        Assert.assertEquals(store.maxStoreId(), 8);
+
+        store.add(last);
+        Assert.assertEquals(last.getStoreId(), 8);
+    }
+
+    @Test
+    public void testCompactEmpty() {
+        NodeStore store = new NodeStore();
+        IntList moves = new IntArrayList();
+        Assert.assertTrue(store.compact(Integer.MAX_VALUE, moves));
+        Assert.assertTrue(moves.isEmpty());
+
+        store = GraphGenerator.generateLargeNodeStore();
+        for (NodeImpl n : store.toArray()) {
+            store.remove(n);
+        }
+        Assert.assertTrue(store.compact(Integer.MAX_VALUE, moves));
+        Assert.assertEquals(store.maxStoreId(), 0);
+        Assert.assertEquals(store.blocksCount, 1);
+        Assert.assertTrue(store.isEmpty());
+    }
+
+    @Test
+    public void testCompactAndAdd() {
+        NodeStore store = GraphGenerator.generateLargeNodeStore();
+        List<NodeImpl> removed = removeSomeNodes(store);
+        store.compact(Integer.MAX_VALUE, new IntArrayList());
+
+        int size = store.size();
+        for (NodeImpl n : removed) {
+            store.add(n);
+            Assert.assertEquals(n.getStoreId(), size++);
+        }
+        Assert.assertEquals(store.garbageSize, 0);
+        Assert.assertEquals(store.maxStoreId(), store.size());
+        for (NodeImpl n : removed) {
+            Assert.assertTrue(store.remove(n));
+        }
+    }
+
     private void testContainsOnly(NodeStore store, List<NodeImpl> list) {
         for (NodeImpl n : list) {
             Assert.assertTrue(store.contains(n));
@@ -522,6 +621,66 @@ public class NodeStoreTest {
         }
     }
 
+    @Test
+    public void testSpliterator() {
+        NodeStore nodeStore = GraphGenerator.generateNodeStore(GraphStoreConfiguration.NODESTORE_BLOCK_SIZE * 3);
+        removeSomeNodes(nodeStore);
+
+        Spliterator<Node> spliterator = nodeStore.spliterator();
+        Assert.assertEquals(spliterator.estimateSize(), nodeStore.size());
+        Assert.assertTrue(spliterator.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED));
+
+        Spliterator<Node> prefix = spliterator.trySplit();
+        Assert.assertNotNull(prefix);
+        Assert.assertEquals(prefix.estimateSize() + spliterator.estimateSize(), nodeStore.size());
+
+        Set<Node> set = new HashSet<>();
+        prefix.forEachRemaining(set::add);
+        while (spliterator.tryAdvance(set::add)) {
+        }
+        Assert.assertEquals(set, new HashSet<>(nodeStore.toCollection()));
+    }
+
+    @Test
+    public void testSpliteratorSizeAfterAdvance() {
+        NodeStore nodeStore = GraphGenerator.generateNodeStore(20000);
+        removeSomeNodes(nodeStore);
+
+        Spliterator<Node> spliterator = nodeStore.spliterator();
+        Assert.assertTrue(spliterator.tryAdvance(n -> {
+        }));
+        Assert.assertEquals(spliterator.estimateSize(), nodeStore.size() - 1);
+
+        Object[] array = StreamSupport.stream(spliterator, true).toArray();
+        Assert.assertEquals(array.length, nodeStore.size() - 1);
+        for (Object node : array) {
+            Assert.assertNotNull(node);
+        }
+    }
+
+    @Test
+    public void testSpliteratorSingleBlock() {
+        NodeStore nodeStore = GraphGenerator.generateNodeStore(10);
+        Spliterator<Node> spliterator = nodeStore.spliterator();
+        Assert.assertNull(spliterator.trySplit());
+        Assert.assertEquals(spliterator.estimateSize(), 10);
+    }
+
+    @Test
+    public void testParallelStream() {
+        NodeStore nodeStore = GraphGenerator.generateNodeStore(GraphStoreConfiguration.NODESTORE_BLOCK_SIZE * 4);
+        removeSomeNodes(nodeStore);
+
+        Assert.assertEquals(nodeStore.parallelStream().count(), nodeStore.size());
+        Assert.assertEquals(nodeStore.parallelStream().collect(Collectors.toSet()), nodeStore.toSet());
+    }
+
+    @Test
+    public void testParallelStreamEmpty() {
+        NodeStore nodeStore = new NodeStore();
+        Assert.assertEquals(nodeStore.parallelStream().count(), 0);
+    }
+
     private void removeAndReAddSameNodes(NodeStore store) {
         List<NodeImpl> nodes = removeSomeNodes(store);
         Collections.reverse(nodes);
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import org.gephi.graph.api.Origin;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class PrimitiveColumnStoreTest {
+
+    @Test
+    public void testEmpty() {
+        PrimitiveColumnStore store = new PrimitiveColumnStore(Double.class);
+        Assert.assertNull(store.get(0));
+        Assert.assertTrue(store.isNull(0));
+        Assert.assertEquals(store.getDouble(100), 0.0);
+    }
+
+    @Test
+    public void testSetGet() {
+        Object[] values = new Object[] { 1.0, 2f, 3, 4l, true, (short) 5, (byte) 6, 'a' };
+        for (Object value : values) {
+            PrimitiveColumnStore store = new PrimitiveColumnStore(value.getClass());
+            Assert.assertNull(store.set(3, value));
+            Assert.assertEquals(store.get(3), value);
+            Assert.assertNull(store.get(2));
+            Assert.assertEquals(store.set(3, null), value);
+            Assert.assertNull(store.get(3));
+        }
+    }
+
+    @Test
+    public void testTypedSetGet() {
+        PrimitiveColumnStore doubleStore = new PrimitiveColumnStore(Double.class);
+        doubleStore.setDouble(1, 1.5);
+        Assert.assertEquals(doubleStore.getDouble(1), 1.5);
+        Assert.assertEquals(doubleStore.get(1), 1.5);
+
+        PrimitiveColumnStore floatStore = new PrimitiveColumnStore(Float.class);
+        floatStore.setFloat(1, 2f);
+        Assert.assertEquals(floatStore.getFloat(1), 2f);
+
+        PrimitiveColumnStore intStore = new PrimitiveColumnStore(Integer.class);
+        intStore.setInt(1, 3);
+        Assert.assertEquals(intStore.getInt(1), 3);
+
+        PrimitiveColumnStore longStore = new PrimitiveColumnStore(Long.class);
+        longStore.setLong(1, 4l);
+        Assert.assertEquals(longStore.getLong(1), 4l);
+
+        PrimitiveColumnStore booleanStore = new PrimitiveColumnStore(Boolean.class);
+        booleanStore.setBoolean(1, true);
+        Assert.assertTrue(booleanStore.getBoolean(1));
+    }
+
+    @Test
+    public void testNullReadsZero() {
+        PrimitiveColumnStore store = new PrimitiveColumnStore(Integer.class);
+        store.setInt(0, 5);
+        store.set(0, null);
+        Assert.assertTrue(store.isNull(0));
+        Assert.assertEquals(store.getInt(0), 0);
+    }
+
+    @Test
+    public void testGrow() {
+        PrimitiveColumnStore store = new PrimitiveColumnStore(Long.class);
+        for (int i = 0; i < 1000; i++) {
+            store.setLong(i, i);
+        }
+        for (int i = 0; i < 1000; i++) {
+            Assert.assertEquals(store.getLong(i), i);
+        }
+        for (int i = 1000; i < store.capacity; i++) {
+            Assert.assertNull(store.get(i));
+        }
+    }
+
+    @Test
+    public void testMove() {
+        PrimitiveColumnStore store = new PrimitiveColumnStore(Double.class);
+        store.setDouble(10, 2.0);
+        store.move(10, 0);
+        Assert.assertEquals(store.get(0), 2.0);
+
+        store.set(10, null);
+        store.move(10, 0);
+        Assert.assertNull(store.get(0));
+    }
+
+    @Test
+    public void testClear() {
+        PrimitiveColumnStore store = new PrimitiveColumnStore(Double.class);
+        store.setDouble(10, 2.0);
+        store.clear();
+        Assert.assertNull(store.get(10));
+        Assert.assertEquals(store.capacity, 0);
+    }
+
+    @Test
+    public void testIsSupported() {
+        TableImpl table = new TableImpl(Double.class, false);
+        Assert.assertTrue(PrimitiveColumnStore
+                .isSupported(new ColumnImpl(table, "a", Double.class, null, null, Origin.DATA, false, false)));
+        Assert.assertFalse(PrimitiveColumnStore
+                .isSupported(new ColumnImpl(table, "b", String.class, null, null, Origin.DATA, false, false)));
+        Assert.assertFalse(PrimitiveColumnStore
+                .isSupported(new ColumnImpl(table, "c", int[].class, null, null, Origin.DATA, false, false)));
+        Assert.assertFalse(PrimitiveColumnStore
+                .isSupported(new ColumnImpl(table, "d", Double.class, null, null, Origin.PROPERTY, false, false)));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testUnsupportedType() {
+        new PrimitiveColumnStore(String.class);
+    }
+}
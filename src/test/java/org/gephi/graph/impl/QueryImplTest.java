@@ -0,0 +1,480 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.Configuration;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Element;
+import org.gephi.graph.api.GraphView;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.api.Origin;
+import org.gephi.graph.api.Query;
+import org.gephi.graph.api.QueryPredicate;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+public class QueryImplTest {
+
+    @DataProvider(name = "bitmaps")
+    public Object[][] bitmaps() {
+        return new Object[][] { { false }, { true } };
+    }
+
+    @Test(dataProvider = "bitmaps")
+    public void testEqual(boolean bitmaps) {
+        GraphStore graphStore = generateGraphStore(100, bitmaps);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        Column cat = graphStore.nodeTable.getColumn("cat");
+
+        QueryPredicate predicate = query.equal(cat, 2);
+        Assert.assertEquals(query.count(predicate), 20);
+        assertResult(query.get(predicate), graphStore, n -> n.getAttribute(cat).equals(2));
+        Assert.assertEquals(query.count(query.equal(cat, 42)), 0);
+    }
+
+    @Test(dataProvider = "bitmaps")
+    public void testRange(boolean bitmaps) {
+        GraphStore graphStore = generateGraphStore(100, bitmaps);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        Column age = graphStore.nodeTable.getColumn("age");
+
+        QueryPredicate predicate = query.range(age, 10, true, 20, false);
+        Assert.assertEquals(query.count(predicate), 10);
+        assertResult(query.get(predicate), graphStore, n -> (Integer) n.getAttribute(age) >= 10 && (Integer) n
+                .getAttribute(age) < 20);
+        Assert.assertEquals(query.count(query.range(age, 90, false, null, true)), 9);
+    }
+
+    @Test(dataProvider = "bitmaps")
+    public void testIn(boolean bitmaps) {
+        GraphStore graphStore = generateGraphStore(100, bitmaps);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        Column cat = graphStore.nodeTable.getColumn("cat");
+
+        QueryPredicate predicate = query.in(cat, Arrays.asList(1, 3, 42));
+        Assert.assertEquals(query.count(predicate), 40);
+        assertResult(query
+                .get(predicate), graphStore, n -> n.getAttribute(cat).equals(1) || n.getAttribute(cat).equals(3));
+    }
+
+    @Test(dataProvider = "bitmaps")
+    public void testIsNull(boolean bitmaps) {
+        GraphStore graphStore = generateGraphStore(100, bitmaps);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        Column cat = graphStore.nodeTable.getColumn("cat");
+        Column name = graphStore.nodeTable.getColumn("name");
+
+        graphStore.getNode("7").setAttribute(cat, null);
+        Assert.assertEquals(query.count(query.isNull(cat)), 1);
+        Assert.assertSame(query.get(query.isNull(cat)).iterator().next(), graphStore.getNode("7"));
+        Assert.assertEquals(query.count(query.isNull(name)), 50);
+    }
+
+    @Test(dataProvider = "bitmaps")
+    public void testAnd(boolean bitmaps) {
+        GraphStore graphStore = generateGraphStore(100, bitmaps);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        Column cat = graphStore.nodeTable.getColumn("cat");
+        Column age = graphStore.nodeTable.getColumn("age");
+        Column score = graphStore.nodeTable.getColumn("score");
+
+        QueryPredicate predicate = query
+                .and(query.range(age, 50, true, null, true), query.equal(cat, 0), query.equal(score, 1.0));
+        assertResult(query.get(predicate), graphStore, n -> (Integer) n.getAttribute(age) >= 50 && n.getAttribute(cat)
+                .equals(0) && n.getAttribute(score).equals(1.0));
+        Assert.assertEquals(query.count(predicate), 3);
+    }
+
+    @Test(dataProvider = "bitmaps")
+    public void testAndEmpty(boolean bitmaps) {
+        GraphStore graphStore = generateGraphStore(100, bitmaps);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        Column cat = graphStore.nodeTable.getColumn("cat");
+        Column score = graphStore.nodeTable.getColumn("score");
+
+        QueryPredicate predicate = query.and(query.equal(cat, 0), query.equal(cat, 1), query.equal(score, 1.0));
+        Assert.assertEquals(query.count(predicate), 0);
+    }
+
+    @Test(dataProvider = "bitmaps")
+    public void testOr(boolean bitmaps) {
+        GraphStore graphStore = generateGraphStore(100, bitmaps);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        Column cat = graphStore.nodeTable.getColumn("cat");
+        Column age = graphStore.nodeTable.getColumn("age");
+        Column score = graphStore.nodeTable.getColumn("score");
+
+        QueryPredicate predicate = query
+                .or(query.equal(cat, 0), query.range(age, null, true, 10, false), query.equal(score, 2.0));
+        assertResult(query.get(predicate), graphStore, n -> n.getAttribute(cat)
+                .equals(0) || (Integer) n.getAttribute(age) < 10 || n.getAttribute(score).equals(2.0));
+    }
+
+    @Test(dataProvider = "bitmaps")
+    public void testNot(boolean bitmaps) {
+        GraphStore graphStore = generateGraphStore(100, bitmaps);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        Column cat = graphStore.nodeTable.getColumn("cat");
+        Column score = graphStore.nodeTable.getColumn("score");
+
+        Assert.assertEquals(query.count(query.not(query.equal(cat, 0))), 80);
+        assertResult(query
+                .get(query.not(query.equal(score, 0.0))), graphStore, n -> !n.getAttribute(score).equals(0.0));
+    }
+
+    @Test(dataProvider = "bitmaps")
+    public void testAndNot(boolean bitmaps) {
+        GraphStore graphStore = generateGraphStore(100, bitmaps);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        Column cat = graphStore.nodeTable.getColumn("cat");
+        Column age = graphStore.nodeTable.getColumn("age");
+
+        QueryPredicate predicate = query.and(query.not(query.equal(cat, 0)), query.range(age, 0, true, 30, false));
+        assertResult(query
+                .get(predicate), graphStore, n -> !n.getAttribute(cat).equals(0) && (Integer) n.getAttribute(age) < 30);
+
+        QueryPredicate onlyNot = query.and(query.not(query.equal(cat, 0)), query.not(query.equal(cat, 1)));
+        Assert.assertEquals(query.count(onlyNot), 60);
+    }
+
+    @Test(dataProvider = "bitmaps")
+    public void testNested(boolean bitmaps) {
+        GraphStore graphStore = generateGraphStore(100, bitmaps);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        Column cat = graphStore.nodeTable.getColumn("cat");
+        Column age = graphStore.nodeTable.getColumn("age");
+        Column score = graphStore.nodeTable.getColumn("score");
+
+        QueryPredicate predicate = query.and(query.or(query.equal(cat, 1), query.equal(score, 0.0)), query
+                .not(query.and(query.range(age, 20, true, 80, true), query.equal(score, 1.0))));
+        assertResult(query.get(predicate), graphStore, n -> (n.getAttribute(cat).equals(1) || n.getAttribute(score)
+                .equals(0.0)) && !((Integer) n.getAttribute(age) >= 20 && (Integer) n.getAttribute(age) <= 80 && n
+                        .getAttribute(score).equals(1.0)));
+    }
+
+    @Test
+    public void testNotIndexed() {
+        GraphStore graphStore = generateGraphStore(100, false);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        Column score = graphStore.nodeTable.getColumn("score");
+
+        Assert.assertEquals(query.count(query.equal(score, 1.0)), 33);
+        Assert.assertEquals(query.count(query.range(score, 1.0, true, null, true)), 66);
+        Assert.assertEquals(query.count(query.in(score, Arrays.asList(0.0, 2.0))), 67);
+    }
+
+    @Test
+    public void testDegree() {
+        GraphStore graphStore = generateGraphStore(100, false);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        Column degree = graphStore.graphModel.defaultColumns().degree();
+
+        assertResult(query
+                .get(query.range(degree, 2, true, null, true)), graphStore, n -> graphStore.getDegree(n) >= 2);
+        assertResult(query.get(query.equal(degree, 1)), graphStore, n -> graphStore.getDegree(n) == 1);
+    }
+
+    @Test
+    public void testEdgeType() {
+        GraphStore graphStore = generateGraphStore(100, false);
+        Query<Edge> query = graphStore.graphModel.createEdgeQuery();
+        Column type = graphStore.graphModel.defaultColumns().edgeType();
+
+        int typeCount = graphStore.getEdgeCount(graphStore.edgeTypeStore.getId("knows"));
+        Assert.assertEquals(query.count(query.equal(type, "knows")), typeCount);
+        Assert.assertEquals(query.count(query.not(query.equal(type, "knows"))), graphStore.getEdgeCount() - typeCount);
+    }
+
+    @Test(dataProvider = "bitmaps")
+    public void testView(boolean bitmaps) {
+        GraphStore graphStore = generateGraphStore(100, bitmaps);
+        Column cat = graphStore.nodeTable.getColumn("cat");
+        GraphViewImpl view = graphStore.viewStore.createView();
+        for (int i = 0; i < 50; i++) {
+            view.addNode(graphStore.getNode(String.valueOf(i)));
+        }
+
+        Query<Node> query = graphStore.graphModel.createNodeQuery(view);
+        Assert.assertSame(query.getView(), view);
+        Assert.assertEquals(query.count(query.equal(cat, 2)), 10);
+        Assert.assertEquals(query.count(query.not(query.equal(cat, 2))), 40);
+        for (Node n : query.get(query.equal(cat, 2))) {
+            Assert.assertTrue(view.containsNode((NodeImpl) n));
+        }
+    }
+
+    @Test(dataProvider = "bitmaps")
+    public void testSharedView(boolean bitmaps) {
+        GraphStore graphStore = generateGraphStore(100, bitmaps, true);
+        Column cat = graphStore.nodeTable.getColumn("cat");
+        Column age = graphStore.nodeTable.getColumn("age");
+        GraphViewImpl view = graphStore.viewStore.createView();
+        for (int i = 0; i < 50; i++) {
+            view.addNode(graphStore.getNode(String.valueOf(i)));
+        }
+
+        Query<Node> query = graphStore.graphModel.createNodeQuery(view);
+        Assert.assertTrue(((QueryImpl) query).getIndex() instanceof ViewIndexImpl);
+        Assert.assertEquals(query.count(query.equal(cat, 2)), 10);
+        Assert.assertEquals(query.count(query.and(query.equal(cat, 2), query.range(age, 40, true, null, true))), 2);
+        for (Node n : query.get(query.in(cat, Arrays.asList(1, 2)))) {
+            Assert.assertTrue(view.containsNode((NodeImpl) n));
+        }
+    }
+
+    @Test(dataProvider = "bitmaps")
+    public void testCreateNodeView(boolean bitmaps) {
+        GraphStore graphStore = generateGraphStore(100, bitmaps);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        Column cat = graphStore.nodeTable.getColumn("cat");
+
+        GraphView view = query.createView(query.equal(cat, 0));
+        GraphViewDecorator graph = ((GraphViewImpl) view).directedDecorator;
+        Assert.assertEquals(graph.getNodeCount(), 20);
+        for (Node n : graph.getNodes()) {
+            Assert.assertEquals(n.getAttribute(cat), 0);
+        }
+        int edgeCount = 0;
+        for (Edge e : graphStore.getEdges()) {
+            boolean expected = e.getSource().getAttribute(cat).equals(0) && e.getTarget().getAttribute(cat).equals(0);
+            Assert.assertEquals(graph.contains(e), expected);
+            edgeCount += expected ? 1 : 0;
+        }
+        Assert.assertEquals(graph.getEdgeCount(), edgeCount);
+        Assert.assertTrue(edgeCount > 0);
+    }
+
+    @Test
+    public void testCreateEdgeView() {
+        GraphStore graphStore = generateGraphStore(100, false);
+        Query<Edge> query = graphStore.graphModel.createEdgeQuery();
+        Column type = graphStore.graphModel.defaultColumns().edgeType();
+
+        GraphView view = query.createView(query.equal(type, "knows"));
+        GraphViewDecorator graph = ((GraphViewImpl) view).directedDecorator;
+        Assert.assertEquals(graph.getNodeCount(), graphStore.getNodeCount());
+        Assert.assertEquals(graph.getEdgeCount(), query.count(query.equal(type, "knows")));
+        for (Edge e : graph.getEdges()) {
+            Assert.assertEquals(e.getTypeLabel(), "knows");
+        }
+    }
+
+    @Test
+    public void testLockReleased() {
+        GraphStore graphStore = generateGraphStore(10, false);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        Column cat = graphStore.nodeTable.getColumn("cat");
+        ColumnStandardIndexImpl columnIndex = (ColumnStandardIndexImpl) graphStore.nodeTable.store.indexStore.mainIndex
+                .getColumnIndex(cat);
+
+        query.count(query.and(query.equal(cat, 1), query.in(cat, Arrays.asList(1, 42))));
+        Assert.assertEquals(columnIndex.lock.getHoldCount(), 0);
+    }
+
+    @Test
+    public void testScanUnderLock() {
+        GraphStore graphStore = generateGraphStore(10000, false);
+        Column score = graphStore.nodeTable.getColumn("score");
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        QueryImpl<Node> query = new QueryImpl<Node>(graphStore.nodeTable, graphStore.getView()) {
+            @Override
+            protected Object getValue(Element element, Column column) {
+                threads.add(Thread.currentThread());
+                return super.getValue(element, column);
+            }
+        };
+
+        graphStore.writeLock();
+        try {
+            Assert.assertEquals(query.count(query.equal(score, 1.0)), 3333);
+        } finally {
+            graphStore.writeUnlock();
+        }
+        Assert.assertEquals(threads, Collections.singleton(Thread.currentThread()));
+    }
+
+    @Test
+    public void testResultAfterRemove() {
+        GraphStore graphStore = generateGraphStore(100, false);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        Column cat = graphStore.nodeTable.getColumn("cat");
+
+        Iterable<Node> result = query.get(query.equal(cat, 0));
+        Node removed = graphStore.getNode("0");
+        graphStore.removeNode(removed);
+        int count = 0;
+        for (Node n : result) {
+            Assert.assertNotNull(n);
+            Assert.assertNotSame(n, removed);
+            count++;
+        }
+        Assert.assertEquals(count, 19);
+    }
+
+    @Test
+    public void testResultAfterReuse() {
+        GraphStore graphStore = generateGraphStore(100, false);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        Column cat = graphStore.nodeTable.getColumn("cat");
+
+        Iterable<Node> result = query.get(query.equal(cat, 0));
+        Node removed = graphStore.getNode("0");
+        int storeId = removed.getStoreId();
+        graphStore.removeNode(removed);
+        Node added = graphStore.factory.newNode("new");
+        added.setAttribute(cat, 1);
+        graphStore.addNode(added);
+        Assert.assertEquals(added.getStoreId(), storeId);
+
+        for (Node n : result) {
+            Assert.assertNotSame(n, added);
+            Assert.assertEquals(n.getAttribute(cat), 0);
+        }
+    }
+
+    @Test
+    public void testResultInView() {
+        GraphStore graphStore = generateGraphStore(100, false);
+        Column cat = graphStore.nodeTable.getColumn("cat");
+        GraphViewImpl view = graphStore.viewStore.createView();
+        for (int i = 0; i < 50; i++) {
+            view.addNode(graphStore.getNode(String.valueOf(i)));
+        }
+
+        Query<Node> query = graphStore.graphModel.createNodeQuery(view);
+        Iterable<Node> result = query.get(query.equal(cat, 2));
+        view.removeNode(graphStore.getNode("2"));
+        Set<Node> nodes = new ObjectOpenHashSet<>();
+        for (Node n : result) {
+            Assert.assertTrue(view.containsNode((NodeImpl) n));
+            nodes.add(n);
+        }
+        Assert.assertEquals(nodes.size(), 9);
+    }
+
+    @Test(expectedExceptions = NoSuchElementException.class)
+    public void testResultExhausted() {
+        GraphStore graphStore = generateGraphStore(10, false);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        Iterator<Node> itr = query.get(query.equal(graphStore.nodeTable.getColumn("cat"), 42)).iterator();
+        Assert.assertFalse(itr.hasNext());
+        itr.next();
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidColumn() {
+        GraphStore graphStore = generateGraphStore(10, false);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        query.equal(graphStore.edgeTable.getColumn("weight"), 1.0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidPredicate() {
+        GraphStore graphStore = generateGraphStore(10, false);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        Query<Edge> edgeQuery = graphStore.graphModel.createEdgeQuery();
+        query.count(edgeQuery.equal(graphStore.edgeTable.getColumn("weight"), 1.0));
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testEmptyAnd() {
+        GraphStore graphStore = generateGraphStore(10, false);
+        Query<Node> query = graphStore.graphModel.createNodeQuery();
+        query.and();
+    }
+
+    @Test
+    public void testDeferredIndexCountedOncePerQuery() {
+        Configuration config = new Configuration();
+        config.setIndexQueryThreshold(3);
+        GraphModelImpl graphModel = new GraphModelImpl(config);
+        Column foo = graphModel.getNodeTable().addColumn("foo", String.class);
+        GraphStore graphStore = graphModel.store;
+        Node n1 = graphStore.factory.newNode("1");
+        n1.setAttribute(foo, "a");
+        graphStore.addNode(n1);
+        graphStore.addNode(graphStore.factory.newNode("2"));
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.mainIndex;
+
+        Query<Node> query = graphModel.createNodeQuery();
+        QueryPredicate predicate = query.and(query.equal(foo, "a"), query.not(query.equal(foo, "b")));
+        Assert.assertEquals(query.count(predicate), 1);
+        Assert.assertTrue(index.isDeferred(foo));
+        Assert.assertEquals(query.count(predicate), 1);
+        Assert.assertTrue(index.isDeferred(foo));
+        Assert.assertEquals(query.count(predicate), 1);
+        Assert.assertFalse(index.isDeferred(foo));
+    }
+
+    private void assertResult(Iterable<Node> result, GraphStore graphStore, Predicate<Node> expected) {
+        Set<Node> resultSet = new ObjectOpenHashSet<>();
+        int previous = -1;
+        for (Node n : result) {
+            Assert.assertTrue(n.getStoreId() > previous);
+            previous = n.getStoreId();
+            resultSet.add(n);
+        }
+        for (Node n : graphStore.getNodes()) {
+            Assert.assertEquals(resultSet.contains(n), expected.test(n), "Node " + n.getId());
+        }
+    }
+
+    private GraphStore generateGraphStore(int nodeCount, boolean bitmaps) {
+        return generateGraphStore(nodeCount, bitmaps, false);
+    }
+
+    private GraphStore generateGraphStore(int nodeCount, boolean bitmaps, boolean sharedViewIndexes) {
+        Configuration config = new Configuration();
+        config.setIndexBitmaps(bitmaps);
+        config.setSharedViewIndexes(sharedViewIndexes);
+        GraphModelImpl graphModel = new GraphModelImpl(config);
+        Column cat = graphModel.getNodeTable().addColumn("cat", "Cat", Integer.class, Origin.DATA, null, true);
+        Column age = graphModel.getNodeTable().addColumn("age", "Age", Integer.class, Origin.DATA, null, true);
+        Column score = graphModel.getNodeTable().addColumn("score", "Score", Double.class, Origin.DATA, null, false);
+        Column name = graphModel.getNodeTable().addColumn("name", "Name", String.class, Origin.DATA, null, true);
+        GraphStore graphStore = graphModel.store;
+        for (int i = 0; i < nodeCount; i++) {
+            Node n = graphStore.factory.newNode(String.valueOf(i));
+            n.setAttribute(cat, i % 5);
+            n.setAttribute(age, i);
+            n.setAttribute(score, (double) (i % 3));
+            if (i % 2 == 0) {
+                n.setAttribute(name, "n" + i);
+            }
+            graphStore.addNode(n);
+        }
+        int knows = graphStore.edgeTypeStore.addType("knows");
+        for (int i = 0; i + 5 < nodeCount; i++) {
+            Node source = graphStore.getNode(String.valueOf(i));
+            graphStore.addEdge(graphStore.factory.newEdge(source, graphStore.getNode(String.valueOf(i + 5))));
+            if (i % 2 == 0) {
+                graphStore.addEdge(graphStore.factory
+                        .newEdge(source, graphStore.getNode(String.valueOf(i + 1)), knows, true));
+            }
+        }
+        return graphStore;
+    }
+}
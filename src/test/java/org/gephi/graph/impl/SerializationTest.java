@@ -54,9 +54,11 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import org.gephi.graph.api.Column;
 import org.gephi.graph.api.Configuration;
 import org.gephi.graph.api.Origin;
 import org.gephi.graph.api.Estimator;
+import org.gephi.graph.api.Node;
 import org.gephi.graph.api.TimeFormat;
 import org.gephi.graph.api.types.TimestampBooleanMap;
 import org.gephi.graph.api.types.TimestampByteMap;
@@ -113,6 +115,24 @@ public class SerializationTest {
         Assert.assertTrue(edgeStore.equals(l.edgeStore));
     }
 
+    @Test
+    public void testPrimitiveColumn() throws IOException, ClassNotFoundException {
+        GraphModelImpl graphModel = new GraphModelImpl();
+        GraphStore graphStore = graphModel.store;
+        Column column = graphStore.nodeTable.addColumn("score", Double.class);
+        NodeImpl node = new NodeImpl("0", graphStore);
+        graphStore.addNode(node);
+        node.setDouble(column, 2.5);
+
+        Serialization ser = new Serialization(graphModel);
+        byte[] buf = ser.serialize(graphStore);
+        graphStore.clear();
+
+        GraphStore l = (GraphStore) ser.deserialize(buf);
+        Column columnCopy = l.nodeTable.getColumn("score");
+        Assert.assertEquals(l.getNode("0").getDouble(columnCopy), 2.5);
+    }
+
     @Test
     public void testEdgeStoreMultipleTypes() throws IOException, ClassNotFoundException {
         GraphModelImpl graphModel = new GraphModelImpl();
@@ -312,6 +332,23 @@ public class SerializationTest {
         Assert.assertTrue(view.deepEquals(l));
     }
 
+    @Test
+    public void testTimeSlicedGraphView() throws IOException, ClassNotFoundException {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        graphStore.getNode("1").addTimestamp(1.0);
+        graphStore.getNode("2").addTimestamp(2.0);
+        GraphViewImpl view = graphStore.viewStore.createTimeSlicedView(new Interval(0.0, 1.5));
+
+        Serialization ser = new Serialization(graphStore.graphModel);
+        byte[] buf = ser.serialize(view);
+
+        GraphModelImpl graphModel = new GraphModelImpl();
+        ser = new Serialization(graphModel);
+        GraphViewImpl l = (GraphViewImpl) ser.deserialize(buf);
+        Assert.assertTrue(l.isTimeSliced());
+        Assert.assertTrue(view.deepEquals(l));
+    }
+
     @Test
     public void testBitVector() throws IOException, ClassNotFoundException {
         BitVector bitVector = new BitVector(10);
@@ -324,6 +361,19 @@ public class SerializationTest {
         Assert.assertEquals(bitVector, l);
     }
 
+    @Test
+    public void testViewBitSet() throws IOException, ClassNotFoundException {
+        ViewBitSet sparse = new ViewBitSet(1000);
+        sparse.set(1);
+        sparse.set(400);
+        ViewBitSet dense = new ViewBitSet(10);
+        dense.set(4);
+
+        Serialization ser = new Serialization(null);
+        Assert.assertEquals(ser.deserialize(ser.serialize(sparse)), sparse);
+        Assert.assertEquals(ser.deserialize(ser.serialize(dense)), dense);
+    }
+
     @Test
     public void testGraphVersion() throws IOException, ClassNotFoundException {
         GraphModelImpl graphModel = new GraphModelImpl();
@@ -742,6 +792,11 @@ public class SerializationTest {
         configuration.setNodeIdType(Float.class);
         configuration.setEdgeIdType(Long.class);
         configuration.setTimeRepresentation(TimeRepresentation.INTERVAL);
+        configuration.setIndexBitmaps(true);
+        configuration.setIndexText(true);
+        configuration.setIndexQueryThreshold(2);
+        configuration.setSharedViewIndexes(true);
+        configuration.setIndexArrayElements(true);
 
         Serialization ser = new Serialization(graphModel);
         byte[] buf = ser.serialize(configuration);
@@ -1196,6 +1251,29 @@ public class SerializationTest {
         Assert.assertTrue(read.deepEquals(gm));
     }
 
+    @Test
+    public void testTextIndexGraphModel() throws Exception {
+        Configuration config = new Configuration();
+        config.setIndexText(true);
+        GraphModelImpl gm = new GraphModelImpl(config);
+        Node node = gm.factory().newNode("0");
+        node.setLabel("Paris");
+        gm.getGraph().addNode(node);
+        Serialization ser = new Serialization(gm);
+
+        DataInputOutput dio = new DataInputOutput();
+        ser.serializeGraphModel(dio, gm);
+        byte[] bytes = dio.toByteArray();
+
+        GraphModelImpl read = ser.deserializeGraphModel(dio.reset(bytes));
+        Assert.assertTrue(read.deepEquals(gm));
+        Assert.assertTrue(read.getConfiguration().getIndexText());
+        Column label = read.getNodeTable().getColumn("label");
+        Assert.assertTrue(label.isIndexed());
+        Assert.assertTrue(read.getNodeIndex()
+                .getColumnIndex(label) instanceof ColumnStandardIndexImpl.TextStandardIndex);
+    }
+
     @Test
     public void testSmallUndirectedGraphModel() throws Exception {
         GraphModelImpl gm = GraphGenerator.generateSmallUndirectedGraphStore().graphModel;
@@ -15,6 +15,9 @@
  */
 package org.gephi.graph.impl;
 
+import it.unimi.dsi.fastutil.doubles.Double2IntMap;
+import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
+import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import it.unimi.dsi.fastutil.objects.ObjectSet;
 import java.util.ArrayList;
@@ -31,6 +34,10 @@ import org.testng.annotations.Test;
 
 public class TimestampIndexStoreTest {
 
+    private static final Interval[] DIFFERENCE_WINDOWS = new Interval[] { new Interval(0.0, 10.0), new Interval(2.0,
+            12.0), new Interval(2.0, 8.0), new Interval(0.0,
+                    4.0), new Interval(15.0, 20.0), new Interval(10.0, 10.0), Interval.INFINITY_INTERVAL };
+
     @Test
     public void testEmpty() {
         TimestampIndexStore<Node> store = new TimestampIndexStore<>(Node.class, null, false);
@@ -644,6 +651,41 @@ public class TimestampIndexStoreTest {
     }
 
     // UTILITY
+    @Test
+    public void testCollectIndexesInDifference() {
+        TimestampIndexStore<Node> store = new TimestampIndexStore<>(Node.class, null, false);
+        for (double t = -1.0; t <= 21.0; t += 0.5) {
+            store.add(t);
+        }
+
+        for (Interval first : DIFFERENCE_WINDOWS) {
+            for (Interval second : DIFFERENCE_WINDOWS) {
+                IntSet expected = new IntOpenHashSet();
+                for (Double2IntMap.Entry entry : store.getMap().double2IntEntrySet()) {
+                    if ((first.compareTo(entry.getDoubleKey()) == 0) != (second.compareTo(entry.getDoubleKey()) == 0)) {
+                        expected.add(entry.getIntValue());
+                    }
+                }
+                IntSet result = new IntOpenHashSet();
+                store.collectIndexesInDifference(first, second, result);
+                Assert.assertEquals(result, expected, first + " " + second);
+            }
+        }
+    }
+
+    @Test
+    public void testDifferenceRegions() {
+        // Only the boundary ranges of overlapping windows
+        Assert.assertEquals(TimeIndexStore.getDifferenceRegions(new Interval(0.0, 10.0), new Interval(2.0,
+                12.0)), new double[] { 0.0, 2.0, 10.0, 12.0 });
+        Assert.assertEquals(TimeIndexStore
+                .getDifferenceRegions(new Interval(0.0, 10.0), new Interval(0.0, 12.0)), new double[] { 10.0, 12.0 });
+        Assert.assertEquals(TimeIndexStore
+                .getDifferenceRegions(new Interval(0.0, 10.0), new Interval(0.0, 10.0)), new double[0]);
+        Assert.assertEquals(TimeIndexStore.getDifferenceRegions(new Interval(0.0, 1.0), new Interval(5.0,
+                6.0)), new double[] { 0.0, 1.0, 5.0, 6.0 });
+    }
+
     private <T> Object[] getArrayFromIterable(Iterable<T> iterable) {
         List<T> list = new ArrayList<>();
         for (T t : iterable) {
@@ -0,0 +1,441 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.gephi.graph.impl;
+
+import cern.colt.bitvector.BitVector;
+import it.unimi.dsi.fastutil.ints.IntIterator;
+import java.util.Random;
+import java.util.function.IntPredicate;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ViewBitSetTest {
+
+    @Test
+    public void testEmpty() {
+        ViewBitSet set = new ViewBitSet(1000);
+        Assert.assertEquals(set.size(), 1000);
+        Assert.assertEquals(set.cardinality(), 0);
+        Assert.assertFalse(set.isDense());
+        Assert.assertFalse(set.get(0));
+        Assert.assertEquals(set.nextSetBit(0), -1);
+        Assert.assertFalse(set.iterator().hasNext());
+    }
+
+    @Test
+    public void testSetClear() {
+        ViewBitSet set = new ViewBitSet(1000);
+        set.set(5);
+        set.set(5);
+        set.set(700);
+        Assert.assertEquals(set.cardinality(), 2);
+        Assert.assertTrue(set.get(5));
+        Assert.assertTrue(set.get(700));
+        Assert.assertFalse(set.get(6));
+        Assert.assertFalse(set.isDense());
+
+        set.clear(5);
+        set.clear(5);
+        Assert.assertEquals(set.cardinality(), 1);
+        Assert.assertFalse(set.get(5));
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void testOutOfBounds() {
+        ViewBitSet set = new ViewBitSet(10);
+        set.get(10);
+    }
+
+    @Test
+    public void testBecomesDense() {
+        ViewBitSet set = new ViewBitSet(1000);
+        for (int i = 0; i < 1000 >>> ViewBitSet.DENSE_SHIFT; i++) {
+            set.set(i * 3);
+        }
+        Assert.assertFalse(set.isDense());
+        set.set(999);
+        Assert.assertTrue(set.isDense());
+        Assert.assertTrue(set.get(999));
+        Assert.assertTrue(set.get(3));
+        Assert.assertEquals(set.cardinality(), (1000 >>> ViewBitSet.DENSE_SHIFT) + 1);
+    }
+
+    @Test
+    public void testBecomesSparse() {
+        ViewBitSet set = new ViewBitSet(1000);
+        set.not();
+        Assert.assertTrue(set.isDense());
+        Assert.assertEquals(set.cardinality(), 1000);
+        for (int i = 10; i < 1000; i++) {
+            set.clear(i);
+        }
+        Assert.assertFalse(set.isDense());
+        Assert.assertEquals(set.cardinality(), 10);
+        Assert.assertTrue(set.get(9));
+        Assert.assertFalse(set.get(10));
+    }
+
+    @Test
+    public void testNot() {
+        ViewBitSet set = new ViewBitSet(1000);
+        set.set(3);
+        set.not();
+        Assert.assertEquals(set.cardinality(), 999);
+        Assert.assertFalse(set.get(3));
+        Assert.assertTrue(set.get(999));
+
+        set.not();
+        Assert.assertEquals(set.cardinality(), 1);
+        Assert.assertTrue(set.get(3));
+        Assert.assertFalse(set.isDense());
+    }
+
+    @Test
+    public void testEnsureSize() {
+        ViewBitSet set = new ViewBitSet(10);
+        set.set(9);
+        set.ensureSize(100);
+        Assert.assertEquals(set.size(), 100);
+        set.set(99);
+        Assert.assertTrue(set.get(9));
+        Assert.assertTrue(set.get(99));
+
+        set.not();
+        set.ensureSize(200);
+        Assert.assertFalse(set.get(150));
+        Assert.assertEquals(set.cardinality(), 98);
+    }
+
+    @Test
+    public void testNotThenEnsureSize() {
+        ViewBitSet set = new ViewBitSet(70);
+        set.not();
+        set.ensureSize(200);
+        Assert.assertEquals(set.cardinality(), 70);
+        assertSet(set, 200, i -> i < 70);
+        Assert.assertEquals(set.nextSetBit(70), -1);
+    }
+
+    @Test
+    public void testSetSize() {
+        ViewBitSet sparse = new ViewBitSet(1000);
+        sparse.set(5);
+        sparse.set(500);
+        sparse.setSize(100);
+        Assert.assertEquals(sparse.size(), 100);
+        Assert.assertEquals(sparse.cardinality(), 1);
+
+        ViewBitSet dense = new ViewBitSet(100);
+        dense.not();
+        dense.setSize(50);
+        Assert.assertEquals(dense.size(), 50);
+        Assert.assertEquals(dense.cardinality(), 50);
+    }
+
+    @Test
+    public void testNextSetBit() {
+        ViewBitSet sparse = new ViewBitSet(200000);
+        sparse.set(3);
+        sparse.set(70000);
+        assertNextSetBit(sparse, 3, 70000);
+
+        ViewBitSet dense = new ViewBitSet(130);
+        dense.not();
+        for (int i = 0; i < 130; i++) {
+            if (i != 3 && i != 64 && i != 129) {
+                dense.clear(i);
+            }
+        }
+        Assert.assertTrue(dense.isDense());
+        assertNextSetBit(dense, 3, 64, 129);
+    }
+
+    @Test
+    public void testCardinalityRange() {
+        ViewBitSet set = new ViewBitSet(200);
+        set.not();
+        Assert.assertEquals(set.cardinality(0, 200), 200);
+        Assert.assertEquals(set.cardinality(10, 70), 60);
+        Assert.assertEquals(set.cardinality(64, 128), 64);
+        Assert.assertEquals(set.cardinality(150, 500), 50);
+        Assert.assertEquals(set.cardinality(70, 10), 0);
+
+        ViewBitSet sparse = new ViewBitSet(100000);
+        sparse.set(10);
+        sparse.set(50);
+        Assert.assertEquals(sparse.cardinality(0, 50), 1);
+        Assert.assertEquals(sparse.cardinality(10, 51), 2);
+    }
+
+    @Test
+    public void testCopy() {
+        ViewBitSet set = new ViewBitSet(1000);
+        set.set(5);
+        ViewBitSet copy = set.copy();
+        Assert.assertEquals(copy, set);
+        copy.set(6);
+        Assert.assertFalse(set.get(6));
+    }
+
+    @Test
+    public void testEquals() {
+        ViewBitSet sparse = new ViewBitSet(1000);
+        sparse.set(5);
+        BitVector bitVector = new BitVector(1000);
+        bitVector.set(5);
+        ViewBitSet dense = new ViewBitSet(1000);
+        dense.not();
+        for (int i = 0; i < 1000; i++) {
+            if (i != 5) {
+                dense.clear(i);
+            }
+        }
+        Assert.assertEquals(new ViewBitSet(bitVector), sparse);
+        Assert.assertEquals(dense, sparse);
+        Assert.assertEquals(dense.hashCode(), sparse.hashCode());
+        Assert.assertNotEquals(new ViewBitSet(999), new ViewBitSet(1000));
+    }
+
+    @Test
+    public void testRandom() {
+        Random random = new Random(42);
+        int size = 5000;
+        ViewBitSet set = new ViewBitSet(size);
+        boolean[] expected = new boolean[size];
+        for (int i = 0; i < 20000; i++) {
+            int id = random.nextInt(size);
+            // Bias towards adds then removes to cross both thresholds
+            if (random.nextDouble() < (i < 10000 ? 0.8 : 0.2)) {
+                set.set(id);
+                expected[id] = true;
+            } else {
+                set.clear(id);
+                expected[id] = false;
+            }
+        }
+        int count = 0;
+        IntIterator itr = set.iterator();
+        for (int i = 0; i < size; i++) {
+            Assert.assertEquals(set.get(i), expected[i]);
+            if (expected[i]) {
+                Assert.assertEquals(itr.nextInt(), i);
+                count++;
+            }
+        }
+        Assert.assertFalse(itr.hasNext());
+        Assert.assertEquals(set.cardinality(), count);
+    }
+
+    @Test
+    public void testAnd() {
+        ViewBitSet dense = denseSet(1000, 3);
+        ViewBitSet other = denseSet(1000, 2);
+        ViewBitSet sparse = new ViewBitSet(1000);
+        sparse.set(6);
+        sparse.set(7);
+
+        ViewBitSet set = dense.copy();
+        set.and(other);
+        assertSet(set, 1000, i -> i % 6 == 0);
+
+        set = dense.copy();
+        set.and(sparse);
+        assertNextSetBit(set, 6);
+        Assert.assertFalse(set.isDense());
+
+        set = sparse.copy();
+        set.and(dense);
+        assertNextSetBit(set, 6);
+    }
+
+    @Test
+    public void testAndSmallerSet() {
+        ViewBitSet set = denseSet(1000, 1);
+        set.and(denseSet(100, 1));
+        assertSet(set, 1000, i -> i < 100);
+    }
+
+    @Test
+    public void testOr() {
+        ViewBitSet dense = denseSet(1000, 3);
+        ViewBitSet other = denseSet(1000, 2);
+        ViewBitSet sparse = new ViewBitSet(1000);
+        sparse.set(7);
+
+        ViewBitSet set = dense.copy();
+        set.or(other);
+        assertSet(set, 1000, i -> i % 3 == 0 || i % 2 == 0);
+
+        set = dense.copy();
+        set.or(sparse);
+        assertSet(set, 1000, i -> i % 3 == 0 || i == 7);
+
+        set = sparse.copy();
+        set.or(dense);
+        assertSet(set, 1000, i -> i % 3 == 0 || i == 7);
+    }
+
+    @Test
+    public void testOrLargerSet() {
+        ViewBitSet set = new ViewBitSet(100);
+        set.or(denseSet(1000, 1));
+        Assert.assertEquals(set.size(), 100);
+        assertSet(set, 100, i -> true);
+    }
+
+    @Test
+    public void testRetain() {
+        ViewBitSet set = denseSet(1000, 1);
+        set.retain(i -> i % 5 == 0);
+        assertSet(set, 1000, i -> i % 5 == 0);
+
+        set.retain(i -> i < 50);
+        Assert.assertFalse(set.isDense());
+        assertSet(set, 1000, i -> i < 50 && i % 5 == 0);
+    }
+
+    @Test
+    public void testLargeSets() {
+        // Large enough to be split into several tasks
+        int size = 3 * GraphStoreConfiguration.VIEW_CONCURRENT_MIN_CHUNK_SIZE + 17;
+        ViewBitSet set = denseSet(size, 3);
+        set.or(denseSet(size, 5));
+        assertSet(set, size, i -> i % 3 == 0 || i % 5 == 0);
+
+        set.and(denseSet(size, 2));
+        assertSet(set, size, i -> i % 2 == 0 && (i % 3 == 0 || i % 5 == 0));
+
+        set.not();
+        assertSet(set, size, i -> !(i % 2 == 0 && (i % 3 == 0 || i % 5 == 0)));
+
+        set.retain(i -> i % 7 == 0);
+        assertSet(set, size, i -> i % 7 == 0 && !(i % 2 == 0 && (i % 3 == 0 || i % 5 == 0)));
+    }
+
+    @Test
+    public void testCopySharesPages() {
+        int size = ViewBitSet.PAGE_SIZE * 64 * 3;
+        ViewBitSet set = denseSet(size, 2);
+        ViewBitSet copy = set.copy();
+        for (int p = 0; p < set.pages.length; p++) {
+            Assert.assertSame(copy.pages[p], set.pages[p]);
+        }
+
+        copy.clear(0);
+        Assert.assertTrue(set.get(0));
+        Assert.assertFalse(copy.get(0));
+        Assert.assertNotSame(copy.pages[0], set.pages[0]);
+        Assert.assertSame(copy.pages[1], set.pages[1]);
+        Assert.assertSame(copy.pages[2], set.pages[2]);
+
+        set.set(size - 1);
+        Assert.assertFalse(copy.get(size - 1));
+        Assert.assertNotSame(copy.pages[2], set.pages[2]);
+        Assert.assertSame(copy.pages[1], set.pages[1]);
+
+        assertSet(set, size, i -> i % 2 == 0 || i == size - 1);
+        assertSet(copy, size, i -> i % 2 == 0 && i != 0);
+    }
+
+    @Test
+    public void testCopyBulkOperations() {
+        int size = ViewBitSet.PAGE_SIZE * 64 * 2 + 10;
+        ViewBitSet set = denseSet(size, 3);
+        ViewBitSet copy = set.copy();
+
+        copy.retain(i -> true);
+        Assert.assertSame(copy.pages[0], set.pages[0]);
+
+        copy.not();
+        assertSet(set, size, i -> i % 3 == 0);
+        assertSet(copy, size, i -> i % 3 != 0);
+
+        ViewBitSet other = set.copy();
+        other.and(denseSet(size, 2));
+        assertSet(set, size, i -> i % 3 == 0);
+        assertSet(other, size, i -> i % 6 == 0);
+    }
+
+    @Test
+    public void testCopyOfCopy() {
+        int size = ViewBitSet.PAGE_SIZE * 64 * 2;
+        ViewBitSet set = denseSet(size, 2);
+        ViewBitSet copy = set.copy();
+        ViewBitSet copy2 = copy.copy();
+
+        copy.set(1);
+        copy2.set(3);
+        set.set(5);
+        assertSet(set, size, i -> i % 2 == 0 || i == 5);
+        assertSet(copy, size, i -> i % 2 == 0 || i == 1);
+        assertSet(copy2, size, i -> i % 2 == 0 || i == 3);
+    }
+
+    @Test
+    public void testCopyResize() {
+        int size = ViewBitSet.PAGE_SIZE * 64 + 128;
+        ViewBitSet set = denseSet(size, 2);
+        ViewBitSet copy = set.copy();
+
+        copy.ensureSize(size * 2);
+        copy.set(size * 2 - 1);
+        Assert.assertEquals(set.size(), size);
+        Assert.assertSame(copy.pages[0], set.pages[0]);
+        assertSet(set, size, i -> i % 2 == 0);
+
+        set.setSize(size - 100);
+        Assert.assertEquals(copy.size(), size * 2);
+        assertSet(set, size - 100, i -> i % 2 == 0);
+        assertSet(copy, size * 2, i -> (i % 2 == 0 && i < size) || i == size * 2 - 1);
+    }
+
+    @Test
+    public void testElements() {
+        int size = ViewBitSet.PAGE_SIZE * 64 + 100;
+        ViewBitSet set = denseSet(size, 2);
+        BitVector bitVector = new BitVector(set.elements(), size);
+        Assert.assertEquals(bitVector.cardinality(), set.cardinality());
+        Assert.assertEquals(new ViewBitSet(bitVector), set);
+    }
+
+    private ViewBitSet denseSet(int size, int step) {
+        ViewBitSet set = new ViewBitSet(size);
+        set.not();
+        set.retain(i -> i % step == 0);
+        return set;
+    }
+
+    private void assertSet(ViewBitSet set, int size, IntPredicate expected) {
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            boolean contains = expected.test(i);
+            Assert.assertEquals(set.get(i), contains);
+            if (contains) {
+                count++;
+            }
+        }
+        Assert.assertEquals(set.cardinality(), count);
+    }
+
+    private void assertNextSetBit(ViewBitSet set, int... ids) {
+        int i = 0;
+        for (int id = set.nextSetBit(0); id >= 0; id = set.nextSetBit(id + 1)) {
+            Assert.assertEquals(id, ids[i++]);
+        }
+        Assert.assertEquals(i, ids.length);
+    }
+}
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.gephi.graph.impl;
+
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import org.gephi.graph.api.Column;
+import org.gephi.graph.api.Configuration;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.api.Origin;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ViewIndexImplTest {
+
+    @Test
+    public void testCreate() {
+        GraphStore graphStore = generateGraphStore(true);
+        IndexStore<Node> indexStore = graphStore.nodeTable.store.indexStore;
+        GraphViewImpl view = graphStore.viewStore.createView();
+        Graph graph = graphStore.viewStore.getGraph(view);
+
+        IndexImpl<Node> index = indexStore.getIndex(graph);
+        Assert.assertTrue(index instanceof ViewIndexImpl);
+        Assert.assertSame(indexStore.getIndex(graph), index);
+        Assert.assertTrue(indexStore.viewIndexes.isEmpty());
+
+        Column age = graphStore.nodeTable.getColumn("age");
+        Assert.assertTrue(index.hasColumn((ColumnImpl) age));
+        Assert.assertTrue(index.getColumnIndex(age) instanceof ColumnViewIndexImpl);
+        Assert.assertSame(index.getColumnIndex(age), index.getColumnIndex(age));
+    }
+
+    @Test
+    public void testDefault() {
+        GraphStore graphStore = generateGraphStore(false);
+        GraphViewImpl view = graphStore.viewStore.createView();
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.getIndex(graphStore.viewStore.getGraph(view));
+        Assert.assertFalse(index instanceof ViewIndexImpl);
+    }
+
+    @Test
+    public void testCount() {
+        GraphStore graphStore = generateGraphStore(true);
+        Column age = graphStore.nodeTable.getColumn("age");
+        GraphViewImpl view = graphStore.viewStore.createView();
+        view.addNode(graphStore.getNode("0"));
+        view.addNode(graphStore.getNode("1"));
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.getIndex(graphStore.viewStore.getGraph(view));
+
+        Assert.assertEquals(index.count(age, 10), 1);
+        Assert.assertEquals(index.count(age, 20), 1);
+        Assert.assertEquals(index.count(age, 30), 0);
+        Assert.assertEquals(index.countElements(age), 2);
+        Assert.assertEquals(index.countValues(age), 2);
+        Assert.assertEquals(index.count(age, 0, true, 15, true), 1);
+        Assert.assertEquals(index.getMinValue(age), 10);
+        Assert.assertEquals(index.getMaxValue(age), 20);
+    }
+
+    @Test
+    public void testUpdate() {
+        GraphStore graphStore = generateGraphStore(true);
+        Column age = graphStore.nodeTable.getColumn("age");
+        GraphViewImpl view = graphStore.viewStore.createView();
+        view.addNode(graphStore.getNode("0"));
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.getIndex(graphStore.viewStore.getGraph(view));
+        Assert.assertEquals(index.count(age, 10), 1);
+
+        // Cached count is invalidated by the view and the main index
+        view.addNode(graphStore.getNode("2"));
+        Assert.assertEquals(index.count(age, 10), 2);
+        graphStore.getNode("0").setAttribute(age, 40);
+        Assert.assertEquals(index.count(age, 10), 1);
+        Assert.assertEquals(index.count(age, 40), 1);
+        Assert.assertEquals(index.getMaxValue(age), 40);
+
+        view.removeNode(graphStore.getNode("0"));
+        Assert.assertEquals(index.count(age, 40), 0);
+        Assert.assertEquals(index.getMaxValue(age), 10);
+    }
+
+    @Test
+    public void testStatistics() {
+        GraphStore graphStore = generateGraphStore(true);
+        Column age = graphStore.nodeTable.getColumn("age");
+        GraphViewImpl view = graphStore.viewStore.createView();
+        view.addNode(graphStore.getNode("0"));
+        view.addNode(graphStore.getNode("1"));
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.getIndex(graphStore.viewStore.getGraph(view));
+
+        Assert.assertEquals(index.getTopValues(age, 5).size(), 2);
+        Assert.assertEquals(index.getQuantile(age, 0.5), 10);
+        Assert.assertEquals(index.getHistogram(age, 2), new int[] { 1, 1 });
+
+        // Cached statistics are invalidated by the view and the main index
+        view.addNode(graphStore.getNode("2"));
+        Assert.assertEquals(index.getTopValues(age, 1), Collections.singletonMap(10, 2));
+        graphStore.getNode("1").setAttribute(age, 10);
+        Assert.assertEquals(index.getHistogram(age, 2), new int[] { 3, 0 });
+    }
+
+    @Test
+    public void testGet() {
+        GraphStore graphStore = generateGraphStore(true);
+        Column age = graphStore.nodeTable.getColumn("age");
+        GraphViewImpl view = graphStore.viewStore.createView();
+        Node n0 = graphStore.getNode("0");
+        view.addNode(n0);
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.getIndex(graphStore.viewStore.getGraph(view));
+
+        Set<Node> nodes = new ObjectOpenHashSet<>();
+        for (Node n : index.get(age, 10)) {
+            nodes.add(n);
+        }
+        Assert.assertEquals(nodes.size(), 1);
+        Assert.assertTrue(nodes.contains(n0));
+        Assert.assertTrue(index.values(age).contains(10));
+        Assert.assertFalse(index.values(age).contains(20));
+
+        int entries = 0;
+        for (Map.Entry<Object, Set<Node>> entry : index.get(age)) {
+            Assert.assertEquals(entry.getKey(), 10);
+            Assert.assertEquals(entry.getValue().size(), 1);
+            entries++;
+        }
+        Assert.assertEquals(entries, 1);
+
+        // Lock is released
+        Assert.assertFalse(graphStore.nodeTable.store.lock.lock.isHeldByCurrentThread());
+    }
+
+    @Test
+    public void testNotIndexed() {
+        GraphStore graphStore = generateGraphStore(true);
+        Column name = graphStore.nodeTable.getColumn("name");
+        GraphViewImpl view = graphStore.viewStore.createView();
+        view.addNode(graphStore.getNode("1"));
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.getIndex(graphStore.viewStore.getGraph(view));
+
+        Assert.assertTrue(index.getColumnIndex(name) instanceof ColumnNoIndexImpl);
+        Assert.assertEquals(index.count(name, "foo"), 0);
+        Assert.assertEquals(index.count(name, "bar"), 1);
+    }
+
+    @Test
+    public void testDelete() {
+        GraphStore graphStore = generateGraphStore(true);
+        IndexStore<Node> indexStore = graphStore.nodeTable.store.indexStore;
+        GraphViewImpl view = graphStore.viewStore.createView();
+        indexStore.getIndex(graphStore.viewStore.getGraph(view));
+        Assert.assertEquals(indexStore.sharedViewIndexes.size(), 1);
+
+        graphStore.viewStore.destroyView(view);
+        Assert.assertTrue(indexStore.sharedViewIndexes.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentCountAndStatistics() throws InterruptedException {
+        GraphStore graphStore = generateGraphStore(true);
+        Column age = graphStore.nodeTable.getColumn("age");
+        GraphViewImpl view = graphStore.viewStore.createView();
+        view.fill();
+        IndexImpl<Node> index = graphStore.nodeTable.store.indexStore.getIndex(graphStore.viewStore.getGraph(view));
+        Node node = graphStore.getNode("0");
+
+        // Daemon threads so a deadlock fails the test instead of hanging the build
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread[] threads = new Thread[] { new Thread(() -> {
+            for (int i = 0; i < 20000; i++) {
+                index.count(age, i % 2 == 0 ? 10 : 20);
+            }
+        }), new Thread(() -> {
+            for (int i = 0; i < 20000; i++) {
+                index.getTopValues(age, 3);
+            }
+        }), new Thread(() -> {
+            for (int i = 0; i < 20000; i++) {
+                node.setAttribute(age, 10 + i % 3);
+            }
+        }) };
+        for (Thread thread : threads) {
+            thread.setDaemon(true);
+            thread.setUncaughtExceptionHandler((t, e) -> error.set(e));
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join(10000);
+            Assert.assertFalse(thread.isAlive());
+        }
+        Assert.assertNull(error.get());
+    }
+
+    private GraphStore generateGraphStore(boolean sharedViewIndexes) {
+        Configuration config = new Configuration();
+        config.setSharedViewIndexes(sharedViewIndexes);
+        GraphModelImpl graphModel = new GraphModelImpl(config);
+        Column age = graphModel.getNodeTable().addColumn("age", Integer.class);
+        Column name = graphModel.getNodeTable().addColumn("name", "Name", String.class, Origin.DATA, null, false);
+        GraphStore graphStore = graphModel.store;
+        for (int i = 0; i < 3; i++) {
+            Node n = graphStore.factory.newNode(String.valueOf(i));
+            n.setAttribute(age, i == 1 ? 20 : 10);
+            n.setAttribute(name, i == 1 ? "bar" : "foo");
+            graphStore.addNode(n);
+        }
+        return graphStore;
+    }
+}
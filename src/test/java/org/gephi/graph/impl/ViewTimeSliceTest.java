@@ -0,0 +1,311 @@
+/*
+ * Copyright 2012-2013 Gephi Consortium
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gephi.graph.impl;
+
+import java.util.concurrent.atomic.AtomicReference;
+import org.gephi.graph.api.Edge;
+import org.gephi.graph.api.Graph;
+import org.gephi.graph.api.GraphDiff;
+import org.gephi.graph.api.Interval;
+import org.gephi.graph.api.Node;
+import org.gephi.graph.api.TimeRepresentation;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ViewTimeSliceTest {
+
+    @Test
+    public void testCreate() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        NodeImpl n1 = graphStore.getNode("1");
+        NodeImpl n2 = graphStore.getNode("2");
+        EdgeImpl e = graphStore.getEdge("0");
+        n1.addTimestamp(1.0);
+        n2.addTimestamp(2.0);
+        e.addTimestamp(2.0);
+
+        GraphViewImpl view = graphStore.viewStore.createTimeSlicedView(new Interval(0.0, 1.5));
+        Assert.assertTrue(view.isTimeSliced());
+        Assert.assertTrue(view.containsNode(n1));
+        Assert.assertFalse(view.containsNode(n2));
+        Assert.assertFalse(view.containsEdge(e));
+
+        view = graphStore.viewStore.createTimeSlicedView(new Interval(1.0, 2.0));
+        Assert.assertTrue(view.containsNode(n1));
+        Assert.assertTrue(view.containsNode(n2));
+        Assert.assertTrue(view.containsEdge(e));
+    }
+
+    @Test
+    public void testNotTimeSliced() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        Assert.assertFalse(graphStore.viewStore.createView().isTimeSliced());
+    }
+
+    @Test
+    public void testMove() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        NodeImpl n1 = graphStore.getNode("1");
+        NodeImpl n2 = graphStore.getNode("2");
+        EdgeImpl e = graphStore.getEdge("0");
+        n1.addTimestamp(1.0);
+        n1.addTimestamp(3.0);
+        n2.addTimestamp(2.0);
+        n2.addTimestamp(3.0);
+        e.addTimestamp(3.0);
+
+        GraphViewImpl view = graphStore.viewStore.createTimeSlicedView(new Interval(0.0, 1.5));
+        assertView(view, 1, 0);
+
+        graphStore.viewStore.setTimeInterval(view, new Interval(1.5, 2.5));
+        Assert.assertFalse(view.containsNode(n1));
+        Assert.assertTrue(view.containsNode(n2));
+        assertView(view, 1, 0);
+
+        graphStore.viewStore.setTimeInterval(view, new Interval(2.5, 3.5));
+        assertView(view, 2, 1);
+        Assert.assertTrue(view.containsEdge(e));
+
+        graphStore.viewStore.setTimeInterval(view, new Interval(0.0, 1.0));
+        Assert.assertTrue(view.containsNode(n1));
+        assertView(view, 1, 0);
+
+        graphStore.viewStore.setTimeInterval(view, new Interval(0.0, 10.0));
+        assertView(view, 2, 1);
+    }
+
+    @Test
+    public void testMoveIntervals() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore(TimeRepresentation.INTERVAL);
+        NodeImpl n1 = graphStore.getNode("1");
+        NodeImpl n2 = graphStore.getNode("2");
+        EdgeImpl e = graphStore.getEdge("0");
+        n1.addInterval(new Interval(1.0, 5.0));
+        n2.addInterval(new Interval(3.0, 4.0));
+        e.addInterval(new Interval(3.5, 6.0));
+
+        GraphViewImpl view = graphStore.viewStore.createTimeSlicedView(new Interval(0.0, 2.0));
+        Assert.assertTrue(view.containsNode(n1));
+        assertView(view, 1, 0);
+
+        graphStore.viewStore.setTimeInterval(view, new Interval(3.0, 3.2));
+        assertView(view, 2, 0);
+
+        graphStore.viewStore.setTimeInterval(view, new Interval(3.6, 3.8));
+        assertView(view, 2, 1);
+
+        graphStore.viewStore.setTimeInterval(view, new Interval(4.5, 10.0));
+        Assert.assertTrue(view.containsNode(n1));
+        Assert.assertFalse(view.containsNode(n2));
+        assertView(view, 1, 0);
+    }
+
+    @Test
+    public void testStaticElements() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        NodeImpl n1 = graphStore.getNode("1");
+        n1.addTimestamp(1.0);
+
+        GraphViewImpl view = graphStore.viewStore.createTimeSlicedView(new Interval(5.0, 6.0));
+        Assert.assertFalse(view.containsNode(n1));
+        Assert.assertTrue(view.containsNode(graphStore.getNode("2")));
+        assertView(view, 1, 0);
+
+        graphStore.viewStore.setTimeInterval(view, new Interval(0.0, 2.0));
+        assertView(view, 2, 1);
+    }
+
+    @Test
+    public void testUpdateTimeSet() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        NodeImpl n1 = graphStore.getNode("1");
+        NodeImpl n2 = graphStore.getNode("2");
+        EdgeImpl e = graphStore.getEdge("0");
+        n1.addTimestamp(1.0);
+        n2.addTimestamp(1.0);
+        e.addTimestamp(5.0);
+
+        GraphViewImpl view = graphStore.viewStore.createTimeSlicedView(new Interval(0.0, 2.0));
+        assertView(view, 2, 0);
+
+        e.addTimestamp(1.5);
+        Assert.assertTrue(view.containsEdge(e));
+
+        e.removeTimestamp(1.5);
+        Assert.assertFalse(view.containsEdge(e));
+
+        n2.removeTimestamp(1.0);
+        n2.addTimestamp(8.0);
+        Assert.assertFalse(view.containsNode(n2));
+        assertView(view, 1, 0);
+    }
+
+    @Test
+    public void testUpdateTimeSetUnderReadLock() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        NodeImpl n1 = graphStore.getNode("1");
+        EdgeImpl e = graphStore.getEdge("0");
+        n1.addTimestamp(5.0);
+
+        GraphViewImpl view = graphStore.viewStore.createTimeSlicedView(new Interval(0.0, 2.0));
+        Graph graph = graphStore.viewStore.getGraph(view);
+        Assert.assertFalse(graph.contains(n1));
+
+        graph.readLock();
+        try {
+            // Applied once the read lock is released
+            n1.addTimestamp(1.0);
+            Assert.assertFalse(graph.contains(n1));
+        } finally {
+            graph.readUnlock();
+        }
+        Assert.assertTrue(graph.contains(n1));
+        Assert.assertTrue(graph.contains(e));
+        assertView(view, 2, 1);
+    }
+
+    @Test
+    public void testUpdateTimeSetWhileReading() throws InterruptedException {
+        GraphStore graphStore = GraphGenerator.generateSmallGraphStore();
+        NodeImpl[] nodes = graphStore.nodeStore.toArray();
+        for (NodeImpl node : nodes) {
+            node.addTimestamp(1.0);
+        }
+        GraphViewImpl view = graphStore.viewStore.createTimeSlicedView(new Interval(0.0, 2.0));
+        Graph graph = graphStore.viewStore.getGraph(view);
+
+        // Daemon threads so a deadlock fails the test instead of hanging the build
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            for (int i = 0; i < 2000; i++) {
+                graph.readLock();
+                try {
+                    int nodeCount = 0;
+                    for (Node node : graph.getNodes()) {
+                        nodeCount++;
+                    }
+                    Assert.assertEquals(nodeCount, graph.getNodeCount());
+                    int edgeCount = 0;
+                    for (Edge edge : graph.getEdges()) {
+                        Assert.assertTrue(graph.contains(edge.getSource()));
+                        Assert.assertTrue(graph.contains(edge.getTarget()));
+                        edgeCount++;
+                    }
+                    Assert.assertEquals(edgeCount, graph.getEdgeCount());
+                } finally {
+                    graph.readUnlock();
+                }
+            }
+        });
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < 2000; i++) {
+                NodeImpl node = nodes[i % nodes.length];
+                if (node.hasTimestamp(1.0)) {
+                    node.removeTimestamp(1.0);
+                    node.addTimestamp(5.0);
+                } else {
+                    node.removeTimestamp(5.0);
+                    node.addTimestamp(1.0);
+                }
+            }
+        });
+        for (Thread thread : new Thread[] { reader, writer }) {
+            thread.setDaemon(true);
+            thread.setUncaughtExceptionHandler((t, ex) -> error.set(ex));
+            thread.start();
+        }
+        reader.join(30000);
+        writer.join(30000);
+        Assert.assertFalse(reader.isAlive());
+        Assert.assertFalse(writer.isAlive());
+        Assert.assertNull(error.get());
+
+        int nodeCount = 0;
+        for (NodeImpl node : nodes) {
+            Assert.assertEquals(view.containsNode(node), node.hasTimestamp(1.0));
+            nodeCount += node.hasTimestamp(1.0) ? 1 : 0;
+        }
+        int edgeCount = 0;
+        for (Edge edge : graphStore.getEdges()) {
+            boolean inView = edge.getSource().hasTimestamp(1.0) && edge.getTarget().hasTimestamp(1.0);
+            Assert.assertEquals(view.containsEdge((EdgeImpl) edge), inView);
+            edgeCount += inView ? 1 : 0;
+        }
+        assertView(view, nodeCount, edgeCount);
+    }
+
+    @Test
+    public void testAddElements() {
+        GraphStore graphStore = GraphGenerator.generateEmptyGraphStore();
+        GraphViewImpl view = graphStore.viewStore.createTimeSlicedView(new Interval(0.0, 2.0));
+
+        NodeImpl n1 = new NodeImpl("1", graphStore);
+        NodeImpl n2 = new NodeImpl("2", graphStore);
+        graphStore.addNode(n1);
+        graphStore.addNode(n2);
+        assertView(view, 2, 0);
+
+        n2.addTimestamp(5.0);
+        Assert.assertFalse(view.containsNode(n2));
+
+        EdgeImpl e = new EdgeImpl("0", graphStore, n1, n2, EdgeTypeStore.NULL_LABEL, 1.0, true);
+        graphStore.addEdge(e);
+        Assert.assertFalse(view.containsEdge(e));
+
+        graphStore.viewStore.setTimeInterval(view, new Interval(0.0, 10.0));
+        assertView(view, 2, 1);
+    }
+
+    @Test
+    public void testObserver() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        NodeImpl n1 = graphStore.getNode("1");
+        NodeImpl n2 = graphStore.getNode("2");
+        n1.addTimestamp(1.0);
+        n2.addTimestamp(2.0);
+
+        GraphViewImpl view = graphStore.viewStore.createTimeSlicedView(new Interval(0.0, 1.5));
+        GraphObserverImpl observer = graphStore.viewStore.createGraphObserver(view.directedDecorator, true);
+        Assert.assertFalse(observer.hasGraphChanged());
+
+        graphStore.viewStore.setTimeInterval(view, new Interval(1.5, 2.5));
+        Assert.assertTrue(observer.hasGraphChanged());
+        GraphDiff diff = observer.getDiff();
+        Assert.assertEquals(diff.getAddedNodes().toArray(), new Node[] { n2 });
+        Assert.assertEquals(diff.getRemovedNodes().toArray(), new Node[] { n1 });
+    }
+
+    @Test
+    public void testCopy() {
+        GraphStore graphStore = GraphGenerator.generateTinyGraphStore();
+        NodeImpl n1 = graphStore.getNode("1");
+        n1.addTimestamp(1.0);
+
+        GraphViewImpl view = graphStore.viewStore.createTimeSlicedView(new Interval(5.0, 6.0));
+        GraphViewImpl copy = graphStore.viewStore.createView(view);
+        Assert.assertTrue(copy.isTimeSliced());
+        Assert.assertTrue(copy.deepEquals(view));
+
+        graphStore.viewStore.setTimeInterval(copy, new Interval(0.0, 2.0));
+        Assert.assertTrue(copy.containsNode(n1));
+        Assert.assertFalse(view.containsNode(n1));
+    }
+
+    private void assertView(GraphViewImpl view, int nodeCount, int edgeCount) {
+        Assert.assertEquals(view.getNodeCount(), nodeCount);
+        Assert.assertEquals(view.getEdgeCount(), edgeCount);
+    }
+}